@@ -0,0 +1,107 @@
+package com.dungeon.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.model.SpatialGrid;
+import com.dungeon.model.entity.Enemy;
+
+/**
+ * Projectile-versus-enemy hit testing for one tick, both as a brute-force
+ * loop over every enemy and through the SpatialGrid broadphase the game loop
+ * uses. Both count the shots that hit with the same test and change nothing,
+ * so the difference between them is the broadphase alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class CollisionBenchmark {
+    private static final double PROJECTILE_SIZE = 8;
+
+    @Param({"8", "32", "128"})
+    public int enemyCount;
+
+    @Param({"16", "64", "256"})
+    public int projectileCount;
+
+    private List<Enemy> enemies;
+    private final SpatialGrid<Enemy> grid = new SpatialGrid<>();
+    private final List<Enemy> nearby = new ArrayList<>();
+    private double[] projectileX;
+    private double[] projectileY;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        enemies = Fixtures.enemies(enemyCount, random);
+
+        projectileX = new double[projectileCount];
+        projectileY = new double[projectileCount];
+        for (int i = 0; i < projectileCount; i++) {
+            projectileX[i] = random.nextDouble() * Fixtures.ROOM_WIDTH;
+            projectileY[i] = random.nextDouble() * Fixtures.ROOM_HEIGHT;
+        }
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        int hits = 0;
+        for (int i = 0; i < projectileCount; i++) {
+            double x = projectileX[i];
+            double y = projectileY[i];
+            for (int e = 0; e < enemies.size(); e++) {
+                if (hits(x, y, enemies.get(e))) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int spatialGrid() {
+        grid.rebuild(enemies, Fixtures.ROOM_WIDTH, Fixtures.ROOM_HEIGHT);
+        double radius = (PROJECTILE_SIZE + grid.getMaxItemSize()) / 2;
+        int hits = 0;
+        for (int i = 0; i < projectileCount; i++) {
+            double x = projectileX[i];
+            double y = projectileY[i];
+            grid.query(x, y, radius, nearby);
+            for (int e = 0; e < nearby.size(); e++) {
+                if (hits(x, y, nearby.get(e))) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Same circle test as GameSimulation.checkCollision
+     */
+    private static boolean hits(double x, double y, Enemy enemy) {
+        double reach = (PROJECTILE_SIZE + enemy.getSize()) / 2;
+        double dx = x - enemy.getX();
+        double dy = y - enemy.getY();
+        return dx * dx + dy * dy < reach * reach;
+    }
+}
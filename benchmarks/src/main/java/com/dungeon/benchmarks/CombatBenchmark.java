@@ -0,0 +1,52 @@
+package com.dungeon.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.model.CombatSystem;
+import com.dungeon.model.entity.Enemy;
+import com.dungeon.model.entity.Player;
+
+/**
+ * CombatSystem.areaAttack against every enemy in the room.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class CombatBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int enemyCount;
+
+    private List<Enemy> enemies;
+    private Player player;
+
+    @Setup
+    public void setUp() {
+        enemies = Fixtures.enemies(enemyCount, new Random(Fixtures.SEED));
+        player = new Player(Fixtures.ROOM_WIDTH / 2, Fixtures.ROOM_HEIGHT / 2);
+    }
+
+    @Benchmark
+    public int[] areaAttack() {
+        // Keep the enemies alive so every call does the full amount of work
+        Fixtures.revive(enemies);
+        return CombatSystem.areaAttack(player, enemies, CombatSystem.AttackType.SPECIAL);
+    }
+}
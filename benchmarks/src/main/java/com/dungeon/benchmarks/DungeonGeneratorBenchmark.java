@@ -0,0 +1,47 @@
+package com.dungeon.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.model.DungeonGenerator;
+import com.dungeon.model.DungeonRoom;
+
+/**
+ * Cost of generating a whole level. Difficulty drives the room count
+ * (10, 13 and 15 rooms), so it doubles as the dungeon size parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class DungeonGeneratorBenchmark {
+
+    @Param({"1", "2", "3"})
+    public int difficulty;
+
+    private DungeonGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new DungeonGenerator(difficulty, Fixtures.SEED);
+    }
+
+    @Benchmark
+    public List<DungeonRoom> generateDungeon() {
+        return generator.generateDungeon();
+    }
+}
@@ -0,0 +1,79 @@
+package com.dungeon.benchmarks;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.model.entity.Enemy;
+import com.dungeon.model.entity.Player;
+
+/**
+ * Checks that the per-tick enemy update allocates nothing once warmed up.
+ * Run it with the GC profiler:
+ *
+ *   java -jar target/benchmarks.jar EnemyAllocationBenchmark -prof gc
+ *
+ * and read gc.alloc.rate.norm, the bytes allocated per operation. One
+ * operation is one tick of AI, movement and a nudge for every enemy in the
+ * room, which should report 0 B/op (JMH may show a few bytes of noise).
+ *
+ * The player stands outside aggro range, so the enemies patrol and wander
+ * rather than attack. Attacks allocate by design: each shot is a new
+ * ProjectileAttack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class EnemyAllocationBenchmark {
+    private static final double TICK = 1.0 / 120.0;
+    private static final int ENEMIES = 64;
+
+    private List<Enemy> enemies;
+    private Player player;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void silenceLogging() {
+        originalOut = Fixtures.silenceStdout();
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreLogging() {
+        System.setOut(originalOut);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        enemies = Fixtures.enemies(ENEMIES, new Random(Fixtures.SEED));
+        // Far outside every enemy's aggro range
+        player = new Player(Fixtures.ROOM_WIDTH * 100, Fixtures.ROOM_HEIGHT * 100);
+    }
+
+    @Benchmark
+    public List<Enemy> update() {
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            enemy.capturePreviousPosition();
+            enemy.update(TICK, player);
+            enemy.move(0.01, 0.01);
+        }
+        return enemies;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dungeon.benchmarks;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.model.entity.Enemy;
+import com.dungeon.model.entity.Player;
+
+/**
+ * One fixed-step tick of enemy AI and movement for a room full of enemies.
+ * The room is rebuilt for every iteration because enemies drift toward the
+ * player as the benchmark runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class EnemyUpdateBenchmark {
+    private static final double TICK = 1.0 / 120.0;
+
+    @Param({"16", "64", "256"})
+    public int enemyCount;
+
+    private List<Enemy> enemies;
+    private Player player;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void silenceLogging() {
+        // Enemies in range hit the player, and Player logs every hit
+        originalOut = Fixtures.silenceStdout();
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreLogging() {
+        System.setOut(originalOut);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        enemies = Fixtures.enemies(enemyCount, new Random(Fixtures.SEED));
+        player = new Player(Fixtures.ROOM_WIDTH / 2, Fixtures.ROOM_HEIGHT / 2);
+    }
+
+    @Benchmark
+    public List<Enemy> update() {
+        for (int i = 0; i < enemies.size(); i++) {
+            enemies.get(i).update(TICK, player);
+        }
+        return enemies;
+    }
+}
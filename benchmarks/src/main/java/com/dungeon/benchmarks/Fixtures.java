@@ -0,0 +1,65 @@
+package com.dungeon.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.dungeon.model.entity.Enemy;
+
+/**
+ * Shared, seeded set-up for the benchmarks so every run measures the same room.
+ */
+final class Fixtures {
+    static final double ROOM_WIDTH = 800;
+    static final double ROOM_HEIGHT = 600;
+    static final long SEED = 42L;
+
+    private static final Enemy.EnemyType[] MIX = {
+        Enemy.EnemyType.GOBLIN, Enemy.EnemyType.SKELETON, Enemy.EnemyType.ORC, Enemy.EnemyType.MAGE
+    };
+    private static final Enemy.BehaviorType[] BEHAVIORS = Enemy.BehaviorType.values();
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param count Number of enemies
+     * @param random Source of positions and types
+     * @return Enemies of mixed type and behaviour scattered across the room
+     */
+    static List<Enemy> enemies(int count, Random random) {
+        List<Enemy> enemies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double x = 40 + random.nextDouble() * (ROOM_WIDTH - 80);
+            double y = 40 + random.nextDouble() * (ROOM_HEIGHT - 80);
+            enemies.add(new Enemy(x, y, MIX[random.nextInt(MIX.length)],
+                BEHAVIORS[random.nextInt(BEHAVIORS.length)], 1));
+        }
+        return enemies;
+    }
+
+    /**
+     * Brings enemies back to full health so destructive benchmarks keep
+     * measuring the same amount of work on every invocation.
+     */
+    static void revive(List<Enemy> enemies) {
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            enemy.setAlive(true);
+            enemy.heal(enemy.getMaxHealth());
+        }
+    }
+
+    /**
+     * Sends System.out to a sink. The game logs from several hot paths; this
+     * keeps the cost of building those messages but not of printing them.
+     * @return The previous stream, to restore in a tear-down
+     */
+    static PrintStream silenceStdout() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+}
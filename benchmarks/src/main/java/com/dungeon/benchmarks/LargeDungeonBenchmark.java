@@ -0,0 +1,75 @@
+package com.dungeon.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.model.DungeonAnalyzer;
+import com.dungeon.model.DungeonGenerator;
+import com.dungeon.model.DungeonGraph;
+
+/**
+ * Scaling of DungeonGenerator.generateLayout from 10k to 1M rooms. Besides
+ * layouts per second, JMH reports the "rooms" counter as rooms placed per
+ * second, which should stay roughly flat as the size grows if generation is
+ * linear. analyzeLayout measures DungeonAnalyzer alone on a layout made once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true", "-Xmx2g"})
+public class LargeDungeonBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rooms;
+
+    private DungeonGenerator generator;
+    private DungeonGraph sample; // Layout analyzed by analyzeLayout
+
+    /**
+     * Rooms placed, reported by JMH as a rate next to the benchmark score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoomCounter {
+        public long rooms;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rooms = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        generator = new DungeonGenerator(1, Fixtures.SEED);
+        sample = new DungeonGenerator(1, Fixtures.SEED).generateLayout(rooms);
+    }
+
+    @Benchmark
+    public DungeonGraph generateLayout(RoomCounter counter) {
+        DungeonGraph layout = generator.generateLayout(rooms);
+        counter.rooms += layout.getRoomCount();
+        return layout;
+    }
+
+    @Benchmark
+    public DungeonAnalyzer.Metrics analyzeLayout(RoomCounter counter) {
+        counter.rooms += sample.getRoomCount();
+        return DungeonAnalyzer.analyze(sample);
+    }
+}
@@ -0,0 +1,61 @@
+package com.dungeon.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.model.Puzzle;
+import com.dungeon.server.PuzzleServer;
+
+/**
+ * Puzzle loading on entering a puzzle room, and the PuzzleServer request path
+ * without the socket. Both re-read puzzles.json on every call, as the game does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class PuzzleBenchmark {
+
+    // An exact answer, an explanation request and a line that matches nothing
+    @Param({"keyboard", "why is the answer keyboard", "no such puzzle"})
+    public String request;
+
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        // The server logs every request
+        originalOut = Fixtures.silenceStdout();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Puzzle createRandomPuzzle() {
+        return Puzzle.createRandomPuzzle();
+    }
+
+    @Benchmark
+    public String serverRequest() throws IOException {
+        return PuzzleServer.handleRequest(request);
+    }
+}
@@ -0,0 +1,65 @@
+package com.dungeon.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dungeon.data.ScoreManager;
+
+/**
+ * High score persistence. Runs against a scratch file holding a full table,
+ * so the real highscores.dat is never touched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Djava.awt.headless=true"})
+public class ScoreManagerBenchmark {
+    private static final int TABLE_SIZE = 10;
+
+    private Path scoresFile;
+    private int nextScore;
+
+    @Setup
+    public void setUp() throws IOException {
+        scoresFile = Files.createTempFile("highscores", ".dat");
+        Files.delete(scoresFile);
+        // Must be set before ScoreManager is first loaded
+        System.setProperty("dungeon.scores.file", scoresFile.toString());
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            ScoreManager.saveScore("Player" + i, 1000 + i * 100);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(scoresFile);
+    }
+
+    @Benchmark
+    public void saveScore() {
+        // Alternate between a score that makes the table and one that does not
+        ScoreManager.saveScore("Bench", (nextScore++ & 1) == 0 ? 5000 : 10);
+    }
+
+    @Benchmark
+    public List<String> loadScores() {
+        return ScoreManager.loadScores();
+    }
+}
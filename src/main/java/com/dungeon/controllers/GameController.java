@@ -3,32 +3,35 @@ package com.dungeon.controllers;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.io.IOException; 
-import java.util.Collections;
 
 import com.dungeon.audio.SoundManager;
 import com.dungeon.effects.EffectsManager;
 import com.dungeon.model.Door;
-import com.dungeon.model.DungeonGenerator;
 import com.dungeon.model.DungeonRoom;
+import com.dungeon.model.GameSimulation;
 import com.dungeon.model.Item;
+import com.dungeon.model.ProjectileStore;
 import com.dungeon.model.Puzzle;
 import com.dungeon.model.Weapon;
-import com.dungeon.model.Armor;
 import com.dungeon.model.WeatherSystem;
 import com.dungeon.model.entity.Player;
 import com.dungeon.model.entity.Enemy;
-import com.dungeon.model.entity.Entity;
-import com.dungeon.model.entity.Projectile;
 import com.dungeon.model.entity.ProjectileAttack;
 import com.dungeon.model.entity.EnemyAbility;
+import com.dungeon.view.DirtyRegionTracker;
 import com.dungeon.view.DungeonRenderer;
+import com.dungeon.view.SpriteAtlas;
+import com.dungeon.view.TorchLightMask;
 import com.dungeon.view.LightingEffect;
+import com.dungeon.view.MinimapRenderer;
+import com.dungeon.utils.AssetCache;
+import com.dungeon.utils.FixedStepClock;
+import com.dungeon.utils.FrameProfiler;
+import com.dungeon.utils.VectorMath;
 import com.dungeon.utils.UIUtils; // Import the utility class
 
 import javafx.animation.AnimationTimer;
@@ -74,90 +77,94 @@ public class GameController {
     @FXML
     private Canvas gameCanvas;
     @FXML
+    private Canvas roomLayerCanvas; // Sits behind gameCanvas and holds the static room layer
+    @FXML
     private javafx.scene.layout.BorderPane rootPane;
     @FXML
     private javafx.scene.layout.StackPane canvasContainer;
     
-    private DungeonGenerator dungeonGenerator;
     private DungeonRenderer dungeonRenderer;
-    private List<DungeonRoom> currentDungeon;
-    private Player player;
-    private List<Enemy> enemies;
-    private Set<KeyCode> activeKeys;
     private boolean gameLoopRunning;
     private boolean roomTransitionInProgress;
-    private double mouseX, mouseY;
-    private Random random;
-    private Map<DungeonRoom, Puzzle> puzzles = new HashMap<>();
-private List<Puzzle> allPuzzles;
     private EffectsManager effectsManager;
     private LightingEffect lightingEffect;
+    private final boolean lightingEnabled = Boolean.getBoolean("dungeon.lighting"); // Light map over every room, -Ddungeon.lighting=true
+    private DungeonRoom lightingRoom; // Room the current lights were set up for
+    private LightingEffect.LightSource playerLight;
     private List<String> floatingTexts; // For displaying damage, pickups, etc.
-    private List<ProjectileAttack> playerProjectiles;
     private List<EnemyAbility.Projectile> enemyProjectiles;
-    private List<Item> roomItems; // Items in the current room
-    // private java.util.Map<DungeonRoom, Puzzle> puzzles; // Puzzles for puzzle rooms
-    private List<Door> doors; // Doors in the current room
-    private double timeSinceLastSpawn;
-    private boolean bossDefeated;
-    private boolean roomCleared;
-    private DungeonRoom currentRoom;
-    private long lastUpdateTime;
-    private List<Projectile> projectiles = new ArrayList<>();
-    private boolean puzzleCompleted;
-    private int currentLevel = 1;
-    private int enemiesDefeated = 0;
-    private int clearedCombatRooms = 0;
-    private int roomsClearedInLevel = 0; // Track rooms cleared in current level
-    private List<DungeonRoom.RoomType> availableRoomTypes = new ArrayList<>(); // Track available room types
+    private AnimationTimer gameLoopTimer; // Single timer reused across pause/resume
+    private final FixedStepClock simulationClock = new FixedStepClock();
+    private final FrameProfiler frameProfiler = new FrameProfiler(); // F3 overlay; also on from start with -Ddungeon.profile=true
+    
+    // Game rules, rooms and entities; this controller only presents them
+    private final GameSimulation simulation = new GameSimulation(new GameSimulation.Listener() {
+        @Override
+        public void onFloatingText(String text, double x, double y, Color color) {
+            effectsManager.showFloatingText(text, new Point2D(x, y), color);
+        }
+        
+        @Override
+        public void onSound(String name) {
+            soundManager.playSound(name);
+        }
+        
+        @Override
+        public void onSoundStopped(String name) {
+            soundManager.stopSound(name);
+        }
+        
+        @Override
+        public void onExplosion(double x, double y, double intensity) {
+            effectsManager.addExplosionEffect(new Point2D(x, y), intensity);
+        }
+        
+        @Override
+        public void onRoomTransition(DungeonRoom targetRoom) {
+            transitionToRoom(targetRoom);
+        }
+        
+        @Override
+        public void onGameOver() {
+            soundManager.stopBackgroundMusic();
+            showGameOverScreen();
+        }
+        
+        @Override
+        public void onVictory() {
+            showVictoryScreen();
+        }
+    });
+    private final Set<KeyCode> activeKeys = simulation.getActiveKeys(); // Held keys, read by the simulation each step
     private long startTime;
-    private boolean gameOver = false;
-    private boolean victory = false;
     private boolean isDebugMode = true; // Enable debug mode by default to diagnose issues
-    private boolean puzzleSolved = false; // Add missing puzzleSolved variable
-    private boolean awaitingLevelUp = false; // Track if player needs to return to spawn for level up
-    // Add tracking for puzzle and treasure room clear states
-    private boolean puzzleClearedInLevel = false;
-    private boolean treasureClearedInLevel = false;
     private boolean isInventoryOpen = false; // Track if inventory is open
-    private boolean justLeveledUp = false; // Track if player just leveled up
-    private double bossMinionSummonTimer = 0;
-     private boolean bossEnraged = false;
-     private Set<Enemy> enemiesToBounceBack = new HashSet<>();
-     private int currentWave = 1;
-     private final int totalWaves = 2;
-     private Map<Enemy, Double> enemyAttackCooldowns = new HashMap<>();
-    private static final double ATTACK_COOLDOWN = 2.0; // 2 seconds cooldown
-    private static final double BOUNCE_DISTANCE = 100.0; // Distance to bounce back
-    
-    // Statue-related fields
-    private boolean statueVisible = false;
-    private Point2D statuePosition;
-    private static final double STATUE_SIZE = 200.0;
-    private static final double STATUE_INTERACTION_RANGE = 250.0;
     
     // Torch and treasure room fields
-    private boolean torchActive = false;
     private Image torchImage;
     private static final double TORCH_LIGHT_RADIUS = 150.0;
+    private static final double TORCH_LIGHT_RADIUS_SQUARED = TORCH_LIGHT_RADIUS * TORCH_LIGHT_RADIUS;
+    private final List<Item> litItems = new ArrayList<>(); // Items inside the torch light this frame, reused
     private static final double TORCH_SIZE = 40.0;
-    private List<Point2D> spikePositions = new ArrayList<>();
-    private List<Point2D> safePositions = new ArrayList<>();
-    private int equipmentCollected = 0;
-    private int totalEquipmentInRoom = 0;
-    private boolean treasureRoomLighted = false;
-    private static final double SPIKE_DAMAGE = 5.0;
-    private static final double SPIKE_SIZE = 20.0;
+    private static final double STATUE_SIZE = GameSimulation.STATUE_SIZE;
+    private static final double SPIKE_SIZE = GameSimulation.SPIKE_SIZE;
     
     private Map<Enemy.EnemyType, javafx.scene.image.Image> enemyImages = new HashMap<>();
-    private Map<Weapon.WeaponType, javafx.scene.image.Image> weaponImages = new HashMap<>();
+    private SpriteAtlas spriteAtlas; // Item and weapon icons packed into one texture
+    private final MinimapRenderer minimapRenderer = new MinimapRenderer(120); // Cached minimap image
+    // Parts of the game canvas that changed since the last frame
+    private final DirtyRegionTracker dirtyRegions = new DirtyRegionTracker();
+    // Keys for screen regions that are not entities
+    private static final Object HUD_REGION = new Object();
+    private static final Object TORCH_HINT_REGION = new Object();
+    private static final Object MINIMAP_REGION = new Object();
+    private static final Object STATUE_REGION = new Object();
+    private static final Object ENEMY_PROJECTILES_REGION = new Object();
     private GraphicsContext gc;
     private Map<Door, Double> doorAnimations = new HashMap<>();
     private long lastDoorCheckTime = 0;
 
     // Room transition constants
-    private static final double DOOR_WIDTH = 40;
-    private static final double DOOR_HEIGHT = 40;
     private static final double ROOM_PADDING = 50; // Distance from room edge to door
     private static final double TRANSITION_DURATION = 0.5; // seconds
 
@@ -176,6 +183,10 @@ private List<Puzzle> allPuzzles;
    private Image bossBgImage;
    private Image statueImage;
 private boolean backgroundsLoaded = false;
+    // What the room layer canvas currently shows; it is only redrawn when one of these changes
+    private boolean roomLayerDirty = true;
+    private DungeonRoom roomLayerRoom;
+    private boolean roomLayerLighted;
     private WeatherSystem weatherSystem;
     // Add resize handling
    private void handleResize() {
@@ -189,6 +200,10 @@ private boolean backgroundsLoaded = false;
         // Bind canvas size to parent container size
         gameCanvas.widthProperty().bind(canvasContainer.widthProperty());
         gameCanvas.heightProperty().bind(canvasContainer.heightProperty());
+        if (roomLayerCanvas != null) {
+            roomLayerCanvas.widthProperty().bind(canvasContainer.widthProperty());
+            roomLayerCanvas.heightProperty().bind(canvasContainer.heightProperty());
+        }
         
         // Add listener for canvas width changes
         gameCanvas.widthProperty().addListener((obs, oldVal, newVal) -> {
@@ -198,8 +213,11 @@ private boolean backgroundsLoaded = false;
             if (effectsManager != null) {
                 effectsManager.resize(newVal.doubleValue(), gameCanvas.getHeight());
             }
+            simulation.setBounds(newVal.doubleValue(), gameCanvas.getHeight());
+            invalidateRoomLayer();
             
             // Force rendering if player exists and game is not paused
+            Player player = simulation.getPlayer();
             if (player != null && !isPaused) {
                 // Keep player in the bounds of the new canvas
                 double playerX = player.getX();
@@ -220,8 +238,11 @@ private boolean backgroundsLoaded = false;
             if (effectsManager != null) {
                 effectsManager.resize(gameCanvas.getWidth(), newVal.doubleValue());
             }
+            simulation.setBounds(gameCanvas.getWidth(), newVal.doubleValue());
+            invalidateRoomLayer();
             
             // Force rendering if player exists and game is not paused
+            Player player = simulation.getPlayer();
             if (player != null && !isPaused) {
                 // Keep player in the bounds of the new canvas
                 double playerY = player.getY();
@@ -400,9 +421,6 @@ private boolean backgroundsLoaded = false;
     private void exitToMainMenu() {
         System.out.println("Exiting to main menu...");
         soundManager.stopBackgroundMusic();
-        if (weatherSystem != null) {
-            weatherSystem.shutdown();
-        }
         loadMainMenu();
     }
 
@@ -410,9 +428,7 @@ private boolean backgroundsLoaded = false;
         try {
             isPaused = false;
             gameLoopRunning = false;
-            if (weatherSystem != null) {
-                weatherSystem.shutdown();
-            }
+            stopGameLoop();
 
             // Get the current scene and its root pane
             Scene currentScene = gameCanvas.getScene();
@@ -455,28 +471,27 @@ private boolean backgroundsLoaded = false;
         // DEFERRED: soundManager.playSound("start");
         
         loadEnemyImages();
-        loadWeaponImages();
+        spriteAtlas = SpriteAtlas.createItemAtlas();
         
-        dungeonGenerator = new DungeonGenerator();
         // DEFERRED: dungeonRenderer = new DungeonRenderer(gameCanvas);
-        activeKeys = new HashSet<>();
-        enemies = new ArrayList<>();
-        roomItems = new ArrayList<>();
-        puzzles = new java.util.HashMap<>();
-        doors = new ArrayList<>();
-        playerProjectiles = new ArrayList<>();
         // DEFERRED: effectsManager = new EffectsManager(rootPane, gameCanvas);
         floatingTexts = new ArrayList<>();
-        random = new Random();
-        timeSinceLastSpawn = 0;
-        bossDefeated = false;
         // gameLoopRunning will be managed by startGameLoop
         roomTransitionInProgress = false;
-        roomCleared = false;
-        puzzleCompleted = false;
         
-        // Initialize weather system
+        // Initialize weather system; the simulation seeds it from the run seed
         weatherSystem = new WeatherSystem();
+        simulation.setWeatherSystem(weatherSystem);
+        simulation.setDebugLogging(true); // Keep the console progress log in the game
+        simulation.setFrameProfiler(frameProfiler);
+        if (Boolean.getBoolean("dungeon.profile")) {
+            frameProfiler.setEnabled(true);
+        }
+        // Replay a run shown on the game over screen with -Ddungeon.seed=<seed>
+        Long seed = Long.getLong("dungeon.seed");
+        if (seed != null) {
+            simulation.setSeed(seed);
+        }
         
         // DEFERRED: startTime = System.currentTimeMillis();
         
@@ -490,11 +505,12 @@ private boolean backgroundsLoaded = false;
 
     private void loadEnemyImages() {
         try {
-            enemyImages.put(Enemy.EnemyType.GOBLIN, new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/goblin.gif")));
-            enemyImages.put(Enemy.EnemyType.SKELETON, new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/skeleton.gif")));
-            enemyImages.put(Enemy.EnemyType.ORC, new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/orc.gif")));
-            enemyImages.put(Enemy.EnemyType.MAGE, new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/mage.gif")));
-            enemyImages.put(Enemy.EnemyType.BOSS, new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/boss.gif")));
+            AssetCache assets = AssetCache.getInstance();
+            enemyImages.put(Enemy.EnemyType.GOBLIN, assets.get("/com/dungeon/assets/images/goblin.gif"));
+            enemyImages.put(Enemy.EnemyType.SKELETON, assets.get("/com/dungeon/assets/images/skeleton.gif"));
+            enemyImages.put(Enemy.EnemyType.ORC, assets.get("/com/dungeon/assets/images/orc.gif"));
+            enemyImages.put(Enemy.EnemyType.MAGE, assets.get("/com/dungeon/assets/images/mage.gif"));
+            enemyImages.put(Enemy.EnemyType.BOSS, assets.get("/com/dungeon/assets/images/boss.gif"));
         } catch (Exception e) {
             System.err.println("Error loading enemy images: " + e.getMessage());
             e.printStackTrace();
@@ -539,24 +555,6 @@ private boolean backgroundsLoaded = false;
         // Play start sound first, before any initialization
         soundManager.playSound("start");
         
-        // Initialize game components
-        random = new Random();
-        activeKeys = new HashSet<>();
-        enemies = new ArrayList<>();
-        roomItems = new ArrayList<>();
-        doors = new ArrayList<>();
-        playerProjectiles = new ArrayList<>();
-        projectiles = new ArrayList<>();
-        roomsClearedInLevel = 0;
-        puzzleClearedInLevel = false;
-        treasureClearedInLevel = false;
-        
-        // Initialize available room types for the first level
-        availableRoomTypes.clear();
-        availableRoomTypes.add(DungeonRoom.RoomType.COMBAT);
-        availableRoomTypes.add(DungeonRoom.RoomType.PUZZLE);
-        availableRoomTypes.add(DungeonRoom.RoomType.TREASURE);
-        
         // Initialize effects manager if not already initialized
         if (effectsManager == null) {
             effectsManager = new EffectsManager(rootPane, gameCanvas);
@@ -565,62 +563,19 @@ private boolean backgroundsLoaded = false;
         // Set gameLoopRunning flag
         gameLoopRunning = true;
         
-        // Generate dungeon
-        System.out.println("Generating dungeon...");
-        dungeonGenerator = new DungeonGenerator();
-        currentDungeon = dungeonGenerator.generateDungeon();
+        // The simulation lays rooms out against the canvas size
+        simulation.setBounds(gameCanvas.getWidth(), gameCanvas.getHeight());
+        simulation.startNewGame();
         
-        System.out.println("Dungeon created with " + currentDungeon.size() + " rooms");
-        
-        // Set current room to spawn room
-        java.util.Optional<DungeonRoom> spawnRoom = currentDungeon.stream()
-            .filter(room -> room.getType() == DungeonRoom.RoomType.SPAWN)
-            .findFirst();
-            
-        if (spawnRoom.isPresent()) {
-            currentRoom = spawnRoom.get();
-            currentRoom.setVisited(true);
-            
-            System.out.println("Found spawn room: " + currentRoom);
-            
-            // Generate puzzles for puzzle rooms
-            generatePuzzles();
-            
-            // Find spawn room and place player
-            Point2D spawnPoint = new Point2D(gameCanvas.getWidth() / 2, gameCanvas.getHeight() / 2);
-            player = new Player(spawnPoint.getX(), spawnPoint.getY());
-            
-            System.out.println("Player created at " + spawnPoint);
-            
-            populateRoom(currentRoom);
-            createDoors();
-            
+        if (simulation.getCurrentRoom() != null) {
             // Play background music after everything is set up
             soundManager.playBackgroundMusic();
-        } else {
-            System.err.println("ERROR: No spawn room found in dungeon!");
         }
     }
 
    
-private void generatePuzzles() {
-    allPuzzles = Puzzle.loadPuzzlesFromResources();
-    Iterator<Puzzle> puzzleIterator = allPuzzles.iterator();
-
-    for (DungeonRoom room : currentDungeon) {
-        if (room.getType() == DungeonRoom.RoomType.PUZZLE) {
-            if (!puzzleIterator.hasNext()) {
-                // Restart iterator if run out of puzzles
-                puzzleIterator = allPuzzles.iterator();
-            }
-            puzzles.put(room, puzzleIterator.next());
-        }
-    }
-}
-
    private void setupInputHandling() {
         Scene scene = gameCanvas.getScene();
-        activeKeys = new HashSet<>();
         
         // Make sure canvas can receive focus
         gameCanvas.setFocusTraversable(true);
@@ -645,7 +600,12 @@ private void generatePuzzles() {
             
             // Handle torch toggle
             if (code == KeyCode.V) {
-                toggleTorch();
+                simulation.toggleTorch();
+            }
+            
+            // Toggle the performance overlay
+            if (code == KeyCode.F3) {
+                frameProfiler.toggle();
             }
             
             // Handle inventory key
@@ -653,11 +613,12 @@ private void generatePuzzles() {
                 openInventory();
             } else if (code == KeyCode.F) {  
                 // Interact with puzzle or door
+                DungeonRoom currentRoom = simulation.getCurrentRoom();
                 if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE) {
                     interactWithPuzzle();
                 } else {
                     // Try to interact with doors
-                    checkDoorInteraction();
+                    simulation.checkDoorInteraction();
                 }
             } else if (code == KeyCode.ESCAPE) {
                 // Toggle pause menu
@@ -684,12 +645,12 @@ private void generatePuzzles() {
             
             // Handle projectile attack with E key
             if (code == KeyCode.E) {
-                firePlayerProjectile();
+                simulation.firePlayerProjectile();
             }
             
             // Handle melee attack with Space key
             if (code == KeyCode.SPACE) {
-                attackEnemiesInRange();
+                simulation.attackEnemiesInRange();
             }
             
             // Handle weapon selection with number keys
@@ -697,7 +658,7 @@ private void generatePuzzles() {
                 try {
                     int weaponIndex = Integer.parseInt(code.getName()) - 1;
                     if (weaponIndex >= 0 && weaponIndex < 4) {
-                        selectWeapon(weaponIndex);
+                        simulation.selectWeapon(weaponIndex);
                     }
                 } catch (NumberFormatException ex) {
                     // Ignore parsing errors
@@ -713,25 +674,17 @@ private void generatePuzzles() {
         
         // Add mouse movement handler for aiming
         gameCanvas.setOnMouseMoved(e -> {
-            if (player != null) {
-                mouseX = e.getX();
-                mouseY = e.getY();
-                player.updateMousePosition(e.getX(), e.getY());
-            }
+            simulation.setAim(e.getX(), e.getY());
         });
         
         // Add mouse drag handler for aiming while moving
         gameCanvas.setOnMouseDragged(e -> {
-            if (player != null) {
-                mouseX = e.getX();
-                mouseY = e.getY();
-                player.updateMousePosition(e.getX(), e.getY());
-            }
+            simulation.setAim(e.getX(), e.getY());
         });
         
         // Add mouse click handler for shooting and UI interaction
         gameCanvas.setOnMouseClicked(e -> {
-            if (player != null) {
+            if (simulation.getPlayer() != null) {
                 if (isInventoryOpen) return; // Ignore input when inventory is open
                 if (roomTransitionInProgress) return; // Ignore input during transition
                 // Check if pause button was clicked
@@ -749,7 +702,7 @@ private void generatePuzzles() {
                 
                 // Otherwise handle left-click for shooting
                 if (e.getButton() == javafx.scene.input.MouseButton.PRIMARY && !isPaused) {
-                    firePlayerProjectile();
+                    simulation.firePlayerProjectile();
                 }
             }
         });
@@ -758,42 +711,63 @@ private void generatePuzzles() {
         gameCanvas.requestFocus();
     }
 
-    private void attackEnemiesInRange() {
+    private void startGameLoop() {
         
-        for (Enemy enemy : enemies) {
-            if (isInMeleeRange(player, enemy)) {
-                // Apply melee damage from player's equipped weapon
-                double meleeDamage = player.getMeleeDamage(); 
-                enemy.takeDamage(meleeDamage);
-                soundManager.playSound("character");
-                
-                // Show damage text
-                effectsManager.showFloatingText("-" + (int)meleeDamage, 
-                    enemy.getPosition(), Color.ORANGE);
+        if (gameLoopRunning) {
+            // Drop any time banked before the pause so we do not fast-forward on resume
+            simulationClock.reset();
+            
+            // Reuse the same timer; starting a fresh one on every resume stacked timers
+            if (gameLoopTimer == null) {
+                gameLoopTimer = new AnimationTimer() {
+                    @Override
+                    public void handle(long now) {
+                        runFrame(now);
+                    }
+                };
             }
+            
+            gameLoopTimer.start();
         }
     }
-
-    private void startGameLoop() {
+    
+    /**
+     * Stops the animation timer for good when leaving the game scene.
+     */
+    private void stopGameLoop() {
+        if (gameLoopTimer != null) {
+            gameLoopTimer.stop();
+        }
         
-        if (gameLoopRunning) {
-        lastUpdateTime = System.nanoTime();
-        
-            AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                    if (gameLoopRunning && !roomTransitionInProgress && !isPaused) {
-                    double deltaTime = (now - lastUpdateTime) / 1_000_000_000.0;
-                    lastUpdateTime = now;
-                    
-                    update(deltaTime);
-                    render();
-                }
-            }
-            };
+        // Leave the frame timings behind if the profiler was used this session
+        frameProfiler.dumpCsv();
+    }
+    
+    /**
+     * Runs one animation pulse: as many fixed simulation steps as the elapsed
+     * time calls for (capped by the clock), then a single interpolated render.
+     */
+    private void runFrame(long now) {
+        if (!gameLoopRunning || roomTransitionInProgress || isPaused) {
+            simulationClock.reset();
+            return;
+        }
+        
+        frameProfiler.beginFrame();
+        int steps = simulationClock.advance(now);
+        double stepSeconds = simulationClock.getStepSeconds();
+        for (int i = 0; i < steps; i++) {
+            update(stepSeconds);
             
-            timer.start();
+            // A step may pause the game, open a transition or end the run
+            if (!gameLoopRunning || roomTransitionInProgress || isPaused) {
+                simulationClock.reset();
+                break;
+            }
         }
+        
+        render(simulationClock.getAlpha());
+        frameProfiler.endFrame();
     }
 
    
@@ -804,14 +778,14 @@ private void generatePuzzles() {
         //                   " | isInventoryOpen=" + isInventoryOpen);
                           
         // Check if player is initialized
-        if (player == null) {
+        if (simulation.getPlayer() == null) {
             System.out.println("ERROR: Player is null in update method");
             setupGame(); // Try to re-initialize the game
             return;
         }
         
         // Check if current room is initialized
-        if (currentRoom == null) {
+        if (simulation.getCurrentRoom() == null) {
             System.out.println("ERROR: Current room is null in update method");
             setupGame(); // Try to re-initialize the game
             return;
@@ -822,287 +796,28 @@ private void generatePuzzles() {
             return;
         }
         
-        // Update weather system
-       
-        // Debug message for room type
-        // String roomType = currentRoom.getType().toString();
-        // System.out.println("Current room type: " + roomType + " | Enemies: " + enemies.size() + " | Items: " + roomItems.size() + " | Projectiles: " + playerProjectiles.size());
-        
-        // Handle player input
-        player.handleInput(activeKeys, deltaTime);
-        
-        // Move player
-        movePlayer(deltaTime);
-        
-        // Check for item pickups
-        checkItemPickups();
-        
-        // Check for door interactions
-        checkDoorInteraction();
-        
-        // Check for room transitions
-        checkRoomTransition();
-        
-        // Update enemies
-        updateEnemies(deltaTime);
-        
-        // Update projectiles
-        updateProjectiles(deltaTime);
-        
-        // Update player projectiles
-        updatePlayerProjectiles(deltaTime);
-        
-        // Check for enemy defeat conditions
-        checkRoomClearConditions();
-        
-        // Check player status
-        checkPlayerStatus();
-        
-        // Check victory condition
-        checkVictoryCondition();
-
-        // Check if we need to show the level up message
-        if (justLeveledUp) {
-            showLevelCompletionMessage();
-            justLeveledUp = false;
-        }
-        
-        // Check statue interaction in puzzle room
-        checkStatueInteraction();
-        
-        // Check spike collision in treasure room
-        checkSpikeCollision();
+        // Advance the game rules; events come back through the simulation listener
+        simulation.update(deltaTime);
         
         // Update effects
+        long phaseStart = frameProfiler.start();
         effectsManager.update(deltaTime);
-    }
-    
-    private void checkItemPickups() {
-        Iterator<Item> itemIterator = roomItems.iterator();
-        boolean itemsPickedUp = false;
-        while (itemIterator.hasNext()) {
-            Item item = itemIterator.next();
-            
-            // Debug print
-            // System.out.println("Checking item: " + item.getName() + " at " + item.getX() + "," + item.getY());
-            // System.out.println("Player position: " + player.getX() + "," + player.getY());
-
-            // Improved collision detection for items
-            Point2D playerCenter = player.getPosition().add(player.getSize() / 2, player.getSize() / 2);
-            Point2D itemCenter = new Point2D(item.getX(), item.getY());
-            double distance = playerCenter.distance(itemCenter);
-
-            // If player is close enough to item
-            if (distance < (player.getSize() / 2 + item.getSize() / 2)) {
-                // System.out.println("Player picked up: " + item.getName());
-                soundManager.playSound("start"); // Changed from "character" to "start"
-                
-                // Handle item pickup based on type
-                switch (item.getType()) {
-                    case POTION:
-                        // Calculate healing amount based on potion value
-                        double healAmount = item.getValue();
-                        double oldHealth = player.getHealth();
-                        player.heal(healAmount);
-                        double actualHeal = player.getHealth() - oldHealth;
-                        
-                        // Show healing effect with actual amount healed
-                        effectsManager.showFloatingText("+" + (int)actualHeal + " HP", 
-                            player.getPosition(), Color.GREEN);
-                        player.addScore(25); // Add score for potion
-                        break;
-                    case WEAPON:
-                        // Add weapon to inventory
-                        player.addItem(item);
-                        effectsManager.showFloatingText("Picked up " + item.getName(), 
-                            player.getPosition(), Color.YELLOW);
-                        player.addScore(50); // Add score for weapon
-                        break;
-                    case ARMOR:
-                        // Add armor to inventory
-                        player.addItem(item);
-                        effectsManager.showFloatingText("Picked up " + item.getName(), 
-                            player.getPosition(), Color.BLUE);
-                        player.addScore(50); // Add score for armor
-                        break;
-                    case KEY:
-                        // Unlock all doors in the current room
-                        unlockDoorsWithKey();
-                        effectsManager.showFloatingText("Doors unlocked!", 
-                            player.getPosition(), Color.GOLD);
-                        player.addScore(100); // Add score for key
-                        break;
-                    default:
-                        // Generic pickup
-                        player.addItem(item);
-                        effectsManager.showFloatingText("Picked up " + item.getName(), 
-                            player.getPosition(), Color.WHITE);
-                        player.addScore(25); // Default score addition
-                        break;
-                }
-                
-                // Remove item from room
-                itemIterator.remove();
-                itemsPickedUp = true;
-                
-                // Track equipment collection in treasure room
-                if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
-                    equipmentCollected++;
-                    System.out.println("Equipment collected: " + equipmentCollected + "/" + totalEquipmentInRoom);
-                    
-                    // Turn on lights when 2 out of 3 equipment items are collected
-                    if (equipmentCollected >= 2 && !treasureRoomLighted) {
-                        treasureRoomLighted = true;
-                        
-                        // Re-enable weather changes after collecting 2 equipment items
-                        if (weatherSystem != null) {
-                            weatherSystem.setWeatherChangesAllowed(true);
-                        }
-                        
-                        effectsManager.showFloatingText("Lights restored!", 
-                            new Point2D(gameCanvas.getWidth() / 2, gameCanvas.getHeight() / 2), Color.YELLOW);
-                        soundManager.playSound("start");
-                    }
-                }
-            }
+        if (lightingEnabled && lightingEffect != null) {
+            lightingEffect.update(deltaTime);
         }
-        // If in treasure room, and all items are picked up, mark treasureClearedInLevel and update doors
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && roomItems.isEmpty() && !treasureClearedInLevel) {
-            treasureClearedInLevel = true;
-            createDoors(); // This will unlock the combat room in the spawn room
-        }
-    }
-    
-    private void unlockDoorsWithKey() {
-        for (Door door : doors) {
-            if (door.requiresKey()) {
-                door.unlockWithKey();
-            }
-        }
-    }
-    
-    private void checkDoorInteraction() {
-        // Check if player is near a door and pressing F
-        if (activeKeys.contains(KeyCode.F)) {
-            for (Door door : doors) {
-                if (isPlayerTouchingDoor(door)) {
-                    if (door.isLocked()) {
-                        // Show simple "locked" message for all locked doors
-                        Point2D textPosition = calculateSafeTextPosition(door);
-                        effectsManager.showFloatingText("locked", textPosition, Color.RED);
-                    }
-                    // If door is unlocked, the transition will be handled in checkRoomTransition
-                }
-            }
-            // Remove the key press to prevent multiple interactions
-            activeKeys.remove(KeyCode.F);
-        }
-    }
-    
-    private Point2D calculateSafeTextPosition(Door door) {
-        double textX = door.getX() + door.getWidth() / 2;
-        double textY = door.getY() - 20; // Default position above door
-        
-        // Ensure text stays within canvas bounds
-        double minY = 30; // Minimum Y to keep text visible
-        double maxY = gameCanvas.getHeight() - 30; // Maximum Y to keep text visible
-        
-        if (textY < minY) {
-            textY = door.getY() + door.getHeight() + 20; // Show below door instead
-        } else if (textY > maxY) {
-            textY = door.getY() - 20; // Keep above door
-        }
-        
-        return new Point2D(textX, textY);
-    }
-    
-    private boolean isPlayerTouchingDoor(Door door) {
-        // Calculate player center
-        Point2D playerCenter = player.getPosition().add(player.getSize() / 2, player.getSize() / 2);
-        
-        // Calculate door center and dimensions
-        double doorCenterX = door.getX() + door.getWidth() / 2;
-        double doorCenterY = door.getY() + door.getHeight() / 2;
-        
-        // Calculate distance between centers
-        double distanceX = Math.abs(playerCenter.getX() - doorCenterX);
-        double distanceY = Math.abs(playerCenter.getY() - doorCenterY);
-        
-        // Check if player is close enough to interact with door (smaller range for actual transition)
-        return distanceX < (player.getSize() / 2 + door.getWidth() / 2 + 5) &&
-               distanceY < (player.getSize() / 2 + door.getHeight() / 2 + 5);
+        frameProfiler.stop(FrameProfiler.Phase.EFFECTS, phaseStart);
     }
     
-    private void checkRoomClearConditions() {
-        if (currentRoom == null || roomCleared) return;
-        // System.out.println("Checking room clear conditions - Room type: " + currentRoom.getType() + 
-        //                   ", Rooms cleared: " + roomsClearedInLevel + 
-        //                   ", Current level: " + currentLevel + 
-        //                   ", awaiting level up: " + awaitingLevelUp);
-        switch (currentRoom.getType()) {
-            case COMBAT:
-                if (enemies.isEmpty() || enemies.stream().allMatch(enemy -> enemy.getHealth() <= 0)) {
-                    if (currentWave < totalWaves) {
-                        currentWave++;
-                        effectsManager.showFloatingText("Second Wave!", new Point2D(gameCanvas.getWidth() / 2, 80), Color.GOLD);
-                        spawnCombatWave(currentWave);
-                    } else {
-                    roomCleared = true;
-                    roomsClearedInLevel++;
-                    System.out.println("Combat room cleared! Total rooms cleared: " + roomsClearedInLevel + 
-                                      ", Current level: " + currentLevel + 
-                                      ", Total needed for boss: " + (currentLevel >= 3 && roomsClearedInLevel >= 3));
-                    
-                    // After combat room is cleared, show spawn room door
-                    if (!awaitingLevelUp) {
-                        awaitingLevelUp = true;
-                        System.out.println("Setting awaitingLevelUp to true");
-                        
-                        // Create only the spawn room door in the combat room
-                        doors.clear();
-                        DungeonRoom spawnRoom = currentDungeon.stream()
-                            .filter(room -> room.getType() == DungeonRoom.RoomType.SPAWN)
-                            .findFirst()
-                            .orElse(null);
-                        if (spawnRoom != null) {
-                            double roomWidth = gameCanvas.getWidth() - 100;
-                            double roomHeight = gameCanvas.getHeight() - 100;
-                            double doorWidth = DOOR_WIDTH;
-                            double doorHeight = DOOR_HEIGHT;
-                            double doorX = 50;
-                            double doorY = roomHeight / 2 - doorHeight / 2;
-                            Door spawnDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, spawnRoom, Door.DoorDirection.WEST);
-                            spawnDoor.setLocked(false);
-                            doors.add(spawnDoor);
-                            System.out.println("Created spawn door at: " + doorX + "," + doorY);
-                            }
-                        }
-                    }
-                }
-                break;
-            case PUZZLE:
-                if (puzzleSolved) {
-                    roomCleared = true;
-                    roomsClearedInLevel++;
-                    puzzleClearedInLevel = true;
-                    System.out.println("Puzzle room cleared! Total rooms cleared: " + roomsClearedInLevel);
-                    // After puzzle is cleared, update spawn room doors
-                    createDoors();
-                }
-                break;
-            case TREASURE:
-                
-                break;
-            case BOSS:
-                if (enemies.isEmpty() || enemies.stream().allMatch(enemy -> enemy.getHealth() <= 0)) {
-                    roomCleared = true;
-                    showVictoryScreen();
-                }
-                break;
-        }
+    private void render() {
+        // Called outside the game loop (resize, transitions), so repaint everything
+        dirtyRegions.markFull();
+        render(1.0);
     }
     
-    private void render() {
+    /**
+     * @param alpha Interpolation factor between the last two simulation steps
+     */
+    private void render(double alpha) {
         if (gameCanvas == null) {
             System.err.println("ERROR: Cannot render - gameCanvas is null");
             return;
@@ -1110,14 +825,32 @@ private void generatePuzzles() {
         
         GraphicsContext gc = gameCanvas.getGraphicsContext2D();
         
-        // Clear the canvas
-        gc.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
+        // Read the state to draw from the simulation
+        Player player = simulation.getPlayer();
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
+        List<Enemy> enemies = simulation.getEnemies();
+        Point2D statuePosition = simulation.getStatuePosition();
+        boolean torchActive = simulation.isTorchActive();
+        boolean treasureRoomLighted = simulation.isTreasureRoomLighted();
+        
+        // Work out what changed, then clear only that; the canvas is transparent
+        // so the room layer behind it shows through
+        long phaseStart = frameProfiler.start();
+        dirtyRegions.beginFrame(gameCanvas.getWidth(), gameCanvas.getHeight());
+        if (refreshRoomLayer()) {
+            dirtyRegions.markFull();
+        }
+        collectDirtyRegions(alpha);
+        dirtyRegions.endCollect();
+        dirtyRegions.clearAndClip(gc);
         
-        // Draw the room background with appropriate lighting
-        drawRoomBackground(gc);
+        // Without the room layer the background goes on the game canvas
+        if (!usesRoomLayer()) {
+            drawRoomBackground(gc);
+        }
         
         // Draw statue in puzzle room
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE && statueVisible && statueImage != null) {
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE && simulation.isStatueVisible() && statueImage != null) {
             gc.drawImage(statueImage, 
                 statuePosition.getX() - STATUE_SIZE/2, 
                 statuePosition.getY() - STATUE_SIZE/2, 
@@ -1133,43 +866,22 @@ private void generatePuzzles() {
             
             // If torch is active, draw the light area on top of the darkness
             if (torchActive && player != null) {
-                Point2D lightCenter = new Point2D(player.getPosition().getX() + player.getSize()/2, 
-                                                 player.getPosition().getY() + player.getSize()/2);
-                
-                // Draw the torch light area with a radial gradient effect
-                // Use multiple circles with decreasing opacity to create a realistic light effect
-                
-                // Outer circle (dim light)
-                gc.setFill(Color.rgb(255, 255, 200, 0.1));
-                gc.fillOval(
-                    lightCenter.getX() - TORCH_LIGHT_RADIUS,
-                    lightCenter.getY() - TORCH_LIGHT_RADIUS,
-                    TORCH_LIGHT_RADIUS * 2,
-                    TORCH_LIGHT_RADIUS * 2
-                );
-                
-                // Draw middle circle (medium light)
-                gc.setFill(Color.rgb(255, 255, 200, 0.3));
-                gc.fillOval(
-                    lightCenter.getX() - TORCH_LIGHT_RADIUS * 0.7,
-                    lightCenter.getY() - TORCH_LIGHT_RADIUS * 0.7,
-                    TORCH_LIGHT_RADIUS * 1.4,
-                    TORCH_LIGHT_RADIUS * 1.4
-                );
-                
-                // Draw inner circle (bright light)
-                gc.setFill(Color.rgb(255, 255, 200, 0.5));
-                gc.fillOval(
-                    lightCenter.getX() - TORCH_LIGHT_RADIUS * 0.3,
-                    lightCenter.getY() - TORCH_LIGHT_RADIUS * 0.3,
-                    TORCH_LIGHT_RADIUS * 0.6,
-                    TORCH_LIGHT_RADIUS * 0.6
-                );
+                // Pre-composited light sprite, built once for this radius
+                double lightX = player.getX() + player.getSize()/2;
+                double lightY = player.getY() + player.getSize()/2;
+                gc.drawImage(TorchLightMask.forRadius(TORCH_LIGHT_RADIUS),
+                    lightX - TORCH_LIGHT_RADIUS, lightY - TORCH_LIGHT_RADIUS);
             }
         }
         
+        frameProfiler.stop(FrameProfiler.Phase.BACKGROUND, phaseStart);
+        
         // Draw the room doors with animations AFTER darkness overlay (so they're visible in torch light)
+        phaseStart = frameProfiler.start();
         renderDoorsWithAnimations(gc);
+        frameProfiler.stop(FrameProfiler.Phase.DOORS, phaseStart);
+        
+        phaseStart = frameProfiler.start();
         
         // Draw torch in treasure room AFTER darkness overlay (so it's visible in dark room)
         if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && torchActive && torchImage != null && player != null) {
@@ -1182,46 +894,42 @@ private void generatePuzzles() {
         }
         
         // Draw room items AFTER darkness overlay (so they're visible in torch light)
-        for (Item item : roomItems) {
+        List<Item> visibleItems = simulation.getRoomItems();
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && !treasureRoomLighted) {
             // In treasure room, only show items if torch is active and item is within light radius
-            if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && !treasureRoomLighted) {
-                if (!torchActive || player == null) {
-                    continue; // Skip rendering if torch is not active
-                }
-                
-                Point2D lightCenter = new Point2D(player.getPosition().getX() + player.getSize()/2, 
-                                                 player.getPosition().getY() + player.getSize()/2);
-                double distance = lightCenter.distance(new Point2D(item.getX(), item.getY()));
-                
-                if (distance > TORCH_LIGHT_RADIUS) {
-                    continue; // Skip rendering if item is outside light radius
+            litItems.clear();
+            if (torchActive && player != null) {
+                for (Item item : visibleItems) {
+                    if (isInTorchLight(player, item.getX(), item.getY())) {
+                        litItems.add(item);
+                    }
                 }
             }
-            
-            javafx.scene.image.Image itemImage = null;
+            visibleItems = litItems;
+        }
+        for (Item item : visibleItems) {
+            // Atlas key is the icon's resource path
+            String spriteKey = null;
             switch (item.getType()) {
                 case POTION:
-                    itemImage = new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/potion.png"));
+                    spriteKey = "/com/dungeon/assets/images/potion.png";
                     break;
                 case ARMOR:
-                    itemImage = new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/armor.png"));
+                    spriteKey = "/com/dungeon/assets/images/armor.png";
                     break;
                 case KEY:
-                    itemImage = new javafx.scene.image.Image(getClass().getResourceAsStream("/com/dungeon/assets/images/key.png"));
+                    spriteKey = "/com/dungeon/assets/images/key.png";
                     break;
                 case WEAPON:
                     if (item instanceof Weapon) {
-                        Weapon.WeaponType type = ((Weapon) item).getWeaponType();
-                        itemImage = weaponImages.get(type);
+                        spriteKey = ((Weapon) item).getWeaponType().getImagePath();
                     }
                     break;
                 default:
                     break;
             }
             double renderItemSize = item.getSize() * 3.0;
-            if (itemImage != null) {
-                gc.drawImage(itemImage, item.getX() - renderItemSize/2, item.getY() - renderItemSize/2, renderItemSize, renderItemSize);
-            } else {
+            if (!spriteAtlas.draw(gc, spriteKey, item.getX() - renderItemSize/2, item.getY() - renderItemSize/2, renderItemSize, renderItemSize)) {
                 // Fallback: draw as a circle
             gc.setFill(getItemColor(item.getType()));
                 gc.fillOval(item.getX() - renderItemSize/2, item.getY() - renderItemSize/2, renderItemSize, renderItemSize);
@@ -1230,7 +938,7 @@ private void generatePuzzles() {
                 gc.strokeOval(item.getX() - renderItemSize/2, item.getY() - renderItemSize/2, renderItemSize, renderItemSize);
             }
             // Draw item name when player is close
-            if (player != null && player.getPosition().distance(new Point2D(item.getX(), item.getY())) < 100) {
+            if (player != null && VectorMath.isWithin(player.getX(), player.getY(), item.getX(), item.getY(), 100)) {
                 gc.setFill(Color.WHITE);
                 gc.setFont(Font.font("Verdana", FontWeight.NORMAL, 10));
                 gc.setTextAlign(TextAlignment.CENTER);
@@ -1240,16 +948,10 @@ private void generatePuzzles() {
         
         // Draw spikes in treasure room
         if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && !treasureRoomLighted) {
-            Point2D playerPos = player != null ? player.getPosition() : null;
-            
-            for (Point2D spikePos : spikePositions) {
+            for (Point2D spikePos : simulation.getSpikePositions()) {
                 // Only show spikes if torch is active and spike is within light radius
-                if (torchActive && playerPos != null) {
-                    Point2D lightCenter = new Point2D(playerPos.getX() + player.getSize()/2, 
-                                                     playerPos.getY() + player.getSize()/2);
-                    double distance = lightCenter.distance(spikePos);
-                    
-                    if (distance <= TORCH_LIGHT_RADIUS) {
+                if (torchActive && player != null) {
+                    if (isInTorchLight(player, spikePos.getX(), spikePos.getY())) {
                         // Draw spike as a red triangle
                         gc.setFill(Color.RED);
                         gc.setStroke(Color.DARKRED);
@@ -1272,6 +974,8 @@ private void generatePuzzles() {
             // System.out.println("Rendering " + enemies.size() + " enemies");
             for (Enemy enemy : enemies) {
                 // System.out.println("Rendering enemy at: " + enemy.getX() + "," + enemy.getY() + " of type: " + enemy.getType());
+                double enemyX = enemy.getRenderX(alpha);
+                double enemyY = enemy.getRenderY(alpha);
                 
                 // Get the enemy image
                 javafx.scene.image.Image enemyImage = enemyImages.get(enemy.getType());
@@ -1286,8 +990,7 @@ private void generatePuzzles() {
                     }
                     // Calculate horizontal flip based on movement direction (like player)
                     double scaleX = 1;
-                    Point2D velocity = enemy.getVelocity();
-                    if (velocity != null && velocity.getX() < -0.1) {
+                    if (enemy.getVelocityX() < -0.1) {
                         scaleX = -1; // Flip horizontally if moving left
                     }
                     
@@ -1295,7 +998,7 @@ private void generatePuzzles() {
                     gc.save();
                     
                     // Translate to enemy center
-                    gc.translate(enemy.getX() + enemy.getSize()/2, enemy.getY() + enemy.getSize()/2);
+                    gc.translate(enemyX + enemy.getSize()/2, enemyY + enemy.getSize()/2);
                     gc.scale(scaleX, 1);
                     
                     // Draw enemy image centered
@@ -1307,8 +1010,8 @@ private void generatePuzzles() {
                     // Draw health bar above enemy's head
                     double healthBarWidth = size * 0.8; // Slightly smaller than enemy width
                     double healthBarHeight = 5;
-                    double healthBarY = enemy.getY() - size/2 - 15; // Position above enemy
-                    double healthBarX = enemy.getX() - healthBarWidth/2;
+                    double healthBarY = enemyY - size/2 - 15; // Position above enemy
+                    double healthBarX = enemyX - healthBarWidth/2;
                     
                     // Health bar background
                 gc.setFill(Color.BLACK);
@@ -1324,57 +1027,269 @@ private void generatePuzzles() {
                 gc.setFont(Font.font("Verdana", FontWeight.NORMAL, 10));
                 gc.setTextAlign(TextAlignment.CENTER); // Center align text
                 gc.fillText(enemy.getType().toString(), 
-                    enemy.getX() + enemy.getSize()/2, // Center X position
+                    enemyX + enemy.getSize()/2, // Center X position
                     healthBarY - 5); // Position above health bar
                 } else {
                     // Fallback to colored rectangle if image not found
                     if (enemy.getType() == Enemy.EnemyType.BOSS) {
                         gc.setFill(Color.DARKRED);
-                        gc.fillRect(enemy.getX() - 5, enemy.getY() - 5, enemy.getSize() * 3.0 + 10, enemy.getSize() * 3.0 + 10);
+                        gc.fillRect(enemyX - 5, enemyY - 5, enemy.getSize() * 3.0 + 10, enemy.getSize() * 3.0 + 10);
                     } else {
                         gc.setFill(Color.RED);
-                        gc.fillRect(enemy.getX(), enemy.getY(), enemy.getSize() * 2.0, enemy.getSize() * 2.0);
+                        gc.fillRect(enemyX, enemyY, enemy.getSize() * 2.0, enemy.getSize() * 2.0);
                     }
                 }
             }
         }
         
         // Draw player projectiles
-        for (ProjectileAttack attack : playerProjectiles) {
+        for (ProjectileAttack attack : simulation.getPlayerProjectiles()) {
             attack.render(gc);
         }
         
         // Draw projectiles
-        for (Projectile projectile : projectiles) {
-            projectile.render(gc);
-        }
+        simulation.getProjectileManager().render(gc);
         
         // Draw the player
         if (player != null) {
-            player.render(gc);
+            player.render(gc, alpha);
         }
+        frameProfiler.stop(FrameProfiler.Phase.ENTITIES, phaseStart);
         
         // Render weather effects (on top of everything)
+        phaseStart = frameProfiler.start();
+        renderLighting(gc);
         if (weatherSystem != null) {
             weatherSystem.render(gc, gameCanvas.getWidth(), gameCanvas.getHeight());
         }
         
+        // Particles and other canvas effects
+        if (effectsManager != null) {
+            effectsManager.render(gc);
+        }
+        frameProfiler.stop(FrameProfiler.Phase.EFFECTS, phaseStart);
+        
+        // Draw the minimap every frame; the canvas is cleared at the top of render()
+        phaseStart = frameProfiler.start();
+        updateMinimap();
+        frameProfiler.stop(FrameProfiler.Phase.MINIMAP, phaseStart);
+        
         // Draw UI elements
         renderUI(gc);
+        
+        // Drop the dirty region clip
+        gc.restore();
+        dirtyRegions.endFrame();
+    }
+    
+    /**
+     * @return Whether a point is within the torch light around the player; no square root, no allocation
+     */
+    private boolean isInTorchLight(Player player, double x, double y) {
+        double lightX = player.getX() + player.getSize()/2;
+        double lightY = player.getY() + player.getSize()/2;
+        return VectorMath.distanceSquared(lightX, lightY, x, y) <= TORCH_LIGHT_RADIUS_SQUARED;
+    }
+    
+    /**
+     * Multiplies the light map onto the scene when lighting is enabled. Door
+     * lights are static and baked once per room; the player's light moves.
+     */
+    private void renderLighting(GraphicsContext gc) {
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
+        Player player = simulation.getPlayer();
+        if (!lightingEnabled || lightingEffect == null || currentRoom == null || player == null) {
+            return;
+        }
+        // The dark treasure room has its own torch light
+        if (currentRoom.getType() == DungeonRoom.RoomType.TREASURE && !simulation.isTreasureRoomLighted()) {
+            return;
+        }
+        if (currentRoom != lightingRoom) {
+            lightingRoom = currentRoom;
+            lightingEffect.clearLights();
+            for (Door door : simulation.getDoors()) {
+                lightingEffect.addLightSource(
+                    new Point2D(door.getX() + door.getWidth() / 2, door.getY() + door.getHeight() / 2),
+                    120, Color.rgb(255, 200, 120, 0.8), LightingEffect.LightSource.LightType.STATIC);
+            }
+            lightingEffect.addLightSource(player.getPosition(), 220, Color.rgb(255, 230, 180),
+                LightingEffect.LightSource.LightType.FLICKERING);
+            List<LightingEffect.LightSource> lights = lightingEffect.getLightSources();
+            playerLight = lights.get(lights.size() - 1);
+        }
+        playerLight.setPosition(player.getX() + player.getSize() / 2, player.getY() + player.getSize() / 2);
+        lightingEffect.render(gc);
+    }
+    
+    /**
+     * Reports the screen bounds of everything drawn this frame to the dirty
+     * region tracker. Anything that covers the whole screen (weather, the dark
+     * treasure room, the profiler overlay) or flies freely across it (particles)
+     * forces a full redraw instead.
+     */
+    private void collectDirtyRegions(double alpha) {
+        Player player = simulation.getPlayer();
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
+        double width = gameCanvas.getWidth();
+        double height = gameCanvas.getHeight();
+        
+        if (!usesRoomLayer() || frameProfiler.isEnabled()
+                || (weatherSystem != null && !weatherSystem.isClear())
+                || (effectsManager != null && effectsManager.hasActiveEffects())
+                || (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE
+                    && !simulation.isTreasureRoomLighted())) {
+            dirtyRegions.markFull();
+        }
+        
+        // HUD box; only changes when one of its values does
+        if (player != null) {
+            // Hashed by hand: Objects.hash would box every value each frame
+            long hudState = player.getHealth();
+            hudState = 31 * hudState + player.getMaxHealth();
+            hudState = 31 * hudState + player.getScore();
+            hudState = 31 * hudState + simulation.getCurrentLevel();
+            hudState = 31 * hudState + simulation.getEnemiesDefeated();
+            hudState = 31 * hudState + (weatherSystem != null ? weatherSystem.getCurrentWeather().ordinal() + 1 : 0);
+            dirtyRegions.track(HUD_REGION, 5, 5, 210, 150, hudState, false);
+        }
+        
+        // Torch hint at the bottom of the treasure room
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
+            dirtyRegions.track(TORCH_HINT_REGION, 0, height - 40, 400, 30, simulation.isTorchActive() ? 1 : 0, false);
+        }
+        
+        // Minimap in the top right corner
+        dirtyRegions.track(MINIMAP_REGION, width - 145, 15, 130, 130, System.identityHashCode(currentRoom), false);
+        
+        // Statue is an animated GIF
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE && simulation.isStatueVisible()) {
+            Point2D statuePosition = simulation.getStatuePosition();
+            dirtyRegions.track(STATUE_REGION, statuePosition.getX() - STATUE_SIZE/2, statuePosition.getY() - STATUE_SIZE/2,
+                STATUE_SIZE, STATUE_SIZE, 0, true);
+        }
+        
+        // Doors: frame, swing radius and the room type label above
+        for (Door door : simulation.getDoors()) {
+            double swing = Math.hypot(door.getWidth(), door.getHeight() / 2);
+            double hingeY = door.getY() + door.getHeight() / 2;
+            double left = Math.min(door.getX() - 5, door.getX() - swing);
+            double top = Math.min(door.getY() - 20, hingeY - swing);
+            double right = Math.max(door.getX() + door.getWidth() + 5, door.getX() + swing);
+            double bottom = Math.max(door.getY() + door.getHeight() + 5, hingeY + swing);
+            Double angle = doorAnimations.get(door);
+            long doorState = angle != null ? Double.hashCode(angle) : 0;
+            doorState = 31 * doorState + Boolean.hashCode(door.isLocked());
+            doorState = 31 * doorState + Boolean.hashCode(door.requiresKey());
+            dirtyRegions.track(door, left - 30, top, right - left + 60, bottom - top, doorState, false);
+        }
+        
+        // Items, including the name shown when the player is close
+        for (Item item : simulation.getRoomItems()) {
+            double renderItemSize = item.getSize() * 3.0;
+            boolean labelShown = player != null && VectorMath.isWithin(player.getX(), player.getY(), item.getX(), item.getY(), 100);
+            dirtyRegions.track(item, item.getX() - Math.max(renderItemSize/2, 60), item.getY() - renderItemSize/2 - 25,
+                Math.max(renderItemSize, 120), renderItemSize + 27, labelShown ? 1 : 0, false);
+        }
+        
+        // Enemies are animated GIFs with a health bar and name above them
+        for (Enemy enemy : simulation.getEnemies()) {
+            double enemyX = enemy.getRenderX(alpha);
+            double enemyY = enemy.getRenderY(alpha);
+            double size = enemy.getSize() * (enemy.getType() == Enemy.EnemyType.BOSS ? 3.0 : 2.0);
+            dirtyRegions.track(enemy, enemyX - size, enemyY - size/2 - 40,
+                enemy.getSize() + size * 2, enemy.getSize() + size * 1.5 + 40, 0, true);
+        }
+        
+        // Player projectiles are small, pooled objects
+        for (ProjectileAttack attack : simulation.getPlayerProjectiles()) {
+            dirtyRegions.track(attack, attack.getX() - 20, attack.getY() - 20, 40, 40, 0, false);
+        }
+        
+        // Enemy projectiles live in a packed store, so track them as one box
+        ProjectileStore store = simulation.getProjectileManager().getStore();
+        if (store.size() > 0) {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < store.size(); i++) {
+                // Glow is twice the size and the trail a tenth of the speed
+                double reach = store.getSize(i) * 2
+                    + Math.hypot(store.getVelocityX(i), store.getVelocityY(i)) * 0.1;
+                minX = Math.min(minX, store.getX(i) - reach);
+                minY = Math.min(minY, store.getY(i) - reach);
+                maxX = Math.max(maxX, store.getX(i) + reach);
+                maxY = Math.max(maxY, store.getY(i) + reach);
+            }
+            dirtyRegions.track(ENEMY_PROJECTILES_REGION, minX, minY, maxX - minX, maxY - minY, 0, true);
+        }
+        
+        // Player sprite is animated; the melee swing reaches 1.5 sizes from its centre
+        if (player != null) {
+            double reach = player.getSize() * 1.5 + 4;
+            double centerX = player.getRenderX(alpha) + player.getSize() / 2;
+            double centerY = player.getRenderY(alpha) + player.getSize() / 2;
+            dirtyRegions.track(player, centerX - reach, centerY - reach, reach * 2, reach * 2, 0, true);
+        }
+    }
+    
+    /**
+     * Makes the static room layer match the current room. The background image
+     * and border only change on room transition, resize or when the treasure room
+     * is lit, so they are rasterised once onto roomLayerCanvas instead of
+     * rescaling the full-screen JPEG every frame.
+     * @return Whether the layer was redrawn
+     */
+    private boolean refreshRoomLayer() {
+        if (!usesRoomLayer()) {
+            return false;
+        }
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
+        boolean treasureRoomLighted = simulation.isTreasureRoomLighted();
+        if (roomLayerDirty || currentRoom != roomLayerRoom || treasureRoomLighted != roomLayerLighted) {
+            GraphicsContext layerGc = roomLayerCanvas.getGraphicsContext2D();
+            layerGc.clearRect(0, 0, roomLayerCanvas.getWidth(), roomLayerCanvas.getHeight());
+            drawRoomBackground(layerGc);
+            roomLayerRoom = currentRoom;
+            roomLayerLighted = treasureRoomLighted;
+            roomLayerDirty = false;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * The light map is multiplied onto the game canvas, which only darkens
+     * what is drawn there; over the transparent canvas it would paint the
+     * light colours over the room instead. With lighting on, the background
+     * is drawn on the game canvas every frame rather than cached behind it.
+     * @return Whether the room background is on roomLayerCanvas
+     */
+    private boolean usesRoomLayer() {
+        return roomLayerCanvas != null && !lightingEnabled;
+    }
+    
+    /**
+     * Forces the room layer to be redrawn on the next frame
+     */
+    private void invalidateRoomLayer() {
+        roomLayerDirty = true;
     }
     
     private void drawRoomBackground(GraphicsContext gc) {
         if (!backgroundsLoaded) {
-            // Load background images once
-            combatBgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/combat.jpg"));
-            treasureBgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/treasure.jpg"));
-            puzzleBgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/puzzle.jpg"));
-            spawnBgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/spawn.jpg"));
-            bossBgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/boss.jpg"));
-            statueImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/statue.gif"));
-            torchImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/torch.gif"));
+            // Look up background images once; the splash screen has usually decoded them already
+            AssetCache assets = AssetCache.getInstance();
+            combatBgImage = assets.get("/com/dungeon/assets/images/combat.jpg");
+            treasureBgImage = assets.get("/com/dungeon/assets/images/treasure.jpg");
+            puzzleBgImage = assets.get("/com/dungeon/assets/images/puzzle.jpg");
+            spawnBgImage = assets.get("/com/dungeon/assets/images/spawn.jpg");
+            bossBgImage = assets.get("/com/dungeon/assets/images/boss.jpg");
+            statueImage = assets.get("/com/dungeon/assets/images/statue.gif");
+            torchImage = assets.get("/com/dungeon/assets/images/torch.gif");
             backgroundsLoaded = true;
         }
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
+        boolean treasureRoomLighted = simulation.isTreasureRoomLighted();
         if (currentRoom == null) {
             System.err.println("ERROR: Cannot draw room background - currentRoom is null");
             gc.setFill(Color.BLACK);
@@ -1435,6 +1350,10 @@ private void generatePuzzles() {
     }
     
       private void renderUI(GraphicsContext gc) {
+        long phaseStart = frameProfiler.start();
+        Player player = simulation.getPlayer();
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
+        
         // Set font for UI elements
         gc.setFont(Font.font("Verdana", FontWeight.BOLD, 14));
         
@@ -1487,11 +1406,11 @@ private void generatePuzzles() {
             healthBarX, healthBarY + healthBarHeight + 35);
         
         // Level
-        gc.fillText("Level: " + currentLevel, 
+        gc.fillText("Level: " + simulation.getCurrentLevel(), 
             healthBarX, healthBarY + healthBarHeight + 55);
         
         // Enemies defeated
-        gc.fillText("Enemies Defeated: " + enemiesDefeated, 
+        gc.fillText("Enemies Defeated: " + simulation.getEnemiesDefeated(), 
             healthBarX, healthBarY + healthBarHeight + 75);
         
         // Weather display
@@ -1505,13 +1424,30 @@ private void generatePuzzles() {
         // Add torch controls for treasure room only
         if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
             gc.setFill(Color.YELLOW);
-            gc.fillText("V: Toggle Torch | Torch: " + (torchActive ? "ON" : "OFF"), 
+            gc.fillText("V: Toggle Torch | Torch: " + (simulation.isTorchActive() ? "ON" : "OFF"), 
                 padding, gameCanvas.getHeight() - 20);
         }
+        frameProfiler.stop(FrameProfiler.Phase.UI, phaseStart);
+        
+        // Performance overlay (F3) goes on top of the HUD and is not timed itself
+        if (frameProfiler.isEnabled() && effectsManager != null) {
+            EffectsManager.Stats stats = effectsManager.getStats();
+            frameProfiler.setStatusLine(String.format("Effects %d: p%d t%d s%d, culled %d\n%s",
+                stats.total(), stats.particles(), stats.floatingTexts(), stats.shapes(), stats.culled(),
+                simulation.getPlayerProjectilePool()));
+        }
+        frameProfiler.renderOverlay(gc, gameCanvas.getWidth(), gameCanvas.getHeight());
     }
 
     public Player getPlayer() {
-        return player;
+        return simulation.getPlayer();
+    }
+    
+    /**
+     * @return The headless game core this controller presents
+     */
+    public GameSimulation getSimulation() {
+        return simulation;
     }
 
     private Color getItemColor(Item.ItemType type) {
@@ -1523,1195 +1459,22 @@ private void generatePuzzles() {
         }
     }
 
-    private void createDoors() {
-        doors.clear();
-        if (currentRoom == null) {
-            System.err.println("ERROR: Cannot create doors for null room");
-            return;
-        }
-        System.out.println("Creating doors for room type: " + currentRoom.getType() + ", Rooms cleared in level: " + roomsClearedInLevel + ", Current level: " + currentLevel + ", Awaiting level up: " + awaitingLevelUp);
-        double roomWidth = gameCanvas.getWidth() - 100;
-        double roomHeight = gameCanvas.getHeight() - 100;
-        double doorWidth = DOOR_WIDTH;
-        double doorHeight = DOOR_HEIGHT;
-        List<Point2D> existingDoorPositions = new ArrayList<>();
-        
-        if (currentRoom.getType() == DungeonRoom.RoomType.SPAWN) {
-            // Ensure boss room creation works at level 3
-            if ((currentLevel == 3 && roomsClearedInLevel >= 3) || (currentLevel >= 3 && awaitingLevelUp)) {
-                System.out.println("Boss door condition met! Creating boss door in spawn room.");
-                doors.clear();
-                DungeonRoom bossRoom = new DungeonRoom(
-                    currentRoom.getX() + 1,
-                    currentRoom.getY(),
-                    800, 600, DungeonRoom.RoomType.BOSS
-                );
-                double doorX = roomWidth - doorWidth + 50;
-                double doorY = roomHeight / 2 - doorHeight / 2;
-                Door bossDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, bossRoom, Door.DoorDirection.EAST);
-                bossDoor.setLocked(false);
-                doors.add(bossDoor);
-                
-                System.out.println("Created boss door in spawn room");
-                return;
-            }
-            
-            // If player is returning after clearing 3 rooms, level up and reset
-            if (awaitingLevelUp) {
-                awaitingLevelUp = false;
-                justLeveledUp = true; // Set flag to show message after transition
-                
-                // Special condition for level 3 - create boss door instead of regular doors
-                if (currentLevel >= 3) {
-                    // Always create only the boss door in the spawn room after level 3 combat room is cleared
-                    doors.clear();
-                    DungeonRoom bossRoom = new DungeonRoom(
-                        currentRoom.getX() + 1,
-                        currentRoom.getY(),
-                        800, 600, DungeonRoom.RoomType.BOSS
-                    );
-                    double doorX = roomWidth - doorWidth + 50;
-                    double doorY = roomHeight / 2 - doorHeight / 2;
-                    Door bossDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, bossRoom, Door.DoorDirection.EAST);
-                    bossDoor.setLocked(false);
-                    doors.add(bossDoor);
-                    System.out.println("Created boss door in spawn room after level 3");
-                    return;
-                } else {
-                    // Reset all level-specific flags
-                    currentLevel++;
-                    roomsClearedInLevel = 0;
-                    puzzleClearedInLevel = false;
-                    treasureClearedInLevel = false;
-                    puzzleSolved = false;
-                    puzzleCompleted = false;
-                    
-                    // Clear and reset available room types
-                    availableRoomTypes.clear();
-                    availableRoomTypes.add(DungeonRoom.RoomType.COMBAT);
-                    availableRoomTypes.add(DungeonRoom.RoomType.PUZZLE);
-                    availableRoomTypes.add(DungeonRoom.RoomType.TREASURE);
-                    
-                    // Clear any existing puzzles
-                    puzzles.clear();
-                }
-            }
-            
-            // Create all three doors with specific locking logic
-            double spacing = roomHeight / 4;
-            double startY = spacing;
-            for (DungeonRoom.RoomType type : availableRoomTypes) {
-                DungeonRoom newRoom = new DungeonRoom(
-                    currentRoom.getX() + 1,
-                    currentRoom.getY(),
-                    800,
-                    600,
-                    type
-                );
-                double doorX = roomWidth - doorWidth + 50;
-                double doorY = startY;
-                startY += spacing;
-                Door door = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, newRoom, Door.DoorDirection.EAST);
-                
-                // Original door locking logic - same for all levels
-                if (type == DungeonRoom.RoomType.COMBAT) {
-                    // Combat room is always locked initially
-                    door.setLocked(true);
-                } else if (type == DungeonRoom.RoomType.PUZZLE) {
-                    // Puzzle room is always unlocked
-                    door.setLocked(false);
-                } else if (type == DungeonRoom.RoomType.TREASURE) {
-                    // Treasure room is always locked and requires key at start of level
-                    door.setLocked(true);
-                    door.setRequiresKey(true);
-                }
-                
-                doors.add(door);
-                existingDoorPositions.add(new Point2D(doorX, doorY));
-            }
-        } else if (currentRoom.getType() == DungeonRoom.RoomType.BOSS) {
-            System.out.println("Boss room - no doors to create");
-            return;
-        } else {
-            // Remove the current room type from available types
-            availableRoomTypes.remove(currentRoom.getType());
-            createDoorsForRoomTypes(availableRoomTypes, roomWidth, roomHeight, doorWidth, doorHeight, existingDoorPositions);
-            
-            // Only add spawn door if 3 rooms cleared and awaitingLevelUp is true
-            if (roomsClearedInLevel >= 3 && awaitingLevelUp) {
-                DungeonRoom spawnRoom = currentDungeon.stream()
-                    .filter(room -> room.getType() == DungeonRoom.RoomType.SPAWN)
-                    .findFirst()
-                    .orElse(null);
-                if (spawnRoom != null) {
-                    double doorX = 50;
-                    double doorY = roomHeight / 2 - doorHeight / 2;
-                    Door spawnDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, spawnRoom, Door.DoorDirection.WEST);
-                    spawnDoor.setLocked(false);
-                    doors.add(spawnDoor);
-                    existingDoorPositions.add(new Point2D(doorX, doorY));
-                    
-                    System.out.println("Created spawn door at: " + doorX + "," + doorY);
-                }
-            }
-        }
-        System.out.println("Created " + doors.size() + " doors");
+private void updateMinimap() {
+        // Minimap is kept in an off-screen image and drawn in the corner with one blit
+        
+        if (!gameCanvas.isVisible()) return;
+        
+        double minimapX = gameCanvas.getWidth() - minimapRenderer.getSize() - 20;
+        double minimapY = 20;
+        minimapRenderer.render(gameCanvas.getGraphicsContext2D(), minimapX, minimapY,
+            simulation.getDungeon(), simulation.getCurrentRoom());
     }
 
-
-    private void createDoorsForRoomTypes(List<DungeonRoom.RoomType> roomTypes, double roomWidth, double roomHeight, 
-                                       double doorWidth, double doorHeight, List<Point2D> existingDoorPositions) {
-        // Calculate door positions to prevent overlap
-        double doorSpacing = roomHeight / (roomTypes.size() + 1);
-        double startY = doorSpacing;
-        
-        for (DungeonRoom.RoomType roomType : roomTypes) {
-            // Create a new room of the specified type
-            DungeonRoom newRoom = new DungeonRoom(
-                currentRoom.getX() + 1,
-                currentRoom.getY(),
-                800,
-                600,
-                roomType
-            );
-            
-            // Calculate door position
-            double doorX = roomWidth - doorWidth + 50;
-            double doorY = startY;
-            startY += doorSpacing;
-            
-            // Create the door
-            Door door = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, newRoom, Door.DoorDirection.EAST);
-            
-            // Lock doors based on room type and current room
-            if (currentRoom.getType() == DungeonRoom.RoomType.COMBAT) {
-                // In combat room, all doors are locked until enemies are cleared
-                door.setLocked(!enemies.isEmpty());
-            } else if (currentRoom.getType() == DungeonRoom.RoomType.PUZZLE) {
-                if (roomType == DungeonRoom.RoomType.TREASURE) {
-                    // Treasure room door requires key and is locked until puzzle is solved
-                    door.setLocked(true);
-                    door.setRequiresKey(true);
-                } else if (roomType == DungeonRoom.RoomType.COMBAT) {
-                    // Combat room door is always locked in puzzle room
-                    door.setLocked(true);
-                } else {
-                    door.setLocked(false);
-                }
-            } else if (currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
-                if (roomType == DungeonRoom.RoomType.COMBAT) {
-                    // Combat room door is unlocked after treasure room is cleared
-                    door.setLocked(false);
-                } else {
-                    door.setLocked(false);
-                }
-            }
-            
-            doors.add(door);
-            existingDoorPositions.add(new Point2D(doorX, doorY));
-        }
-    }
-
-    private void populateRoom(DungeonRoom room) {
-        // Clear existing entities
-        enemies.clear();
-        roomItems.clear();
-        roomCleared = false;
-        
-        // Get room center
-        double centerX = gameCanvas.getWidth() / 2;
-        double centerY = gameCanvas.getHeight() / 2;
-        Point2D roomCenter = new Point2D(centerX, centerY);
-        double minX = 40, minY = 40;
-        double maxX = gameCanvas.getWidth() - 40;
-        double maxY = gameCanvas.getHeight() - 40;
-        
-        // Adjust difficulty based on level
-        double difficultyMultiplier = 1.0 + (currentLevel - 1) * 0.2;
-        
-        switch (room.getType()) {
-            case PUZZLE:
-                System.out.println("Populating puzzle room...");
-                // Create a new puzzle for this room
-                Puzzle puzzle = Puzzle.createRandomPuzzle();
-                puzzles.put(room, puzzle);
-                System.out.println("Created puzzle: " + puzzle.getDescription());
-                
-                // Initialize statue in the center of the room
-                statueVisible = true;
-                statuePosition = new Point2D(gameCanvas.getWidth() / 2, gameCanvas.getHeight() / 2); // Move 50 pixels to the left
-                System.out.println("Statue placed at: " + statuePosition);
-                
-                // Only place key and random item if puzzle is already solved
-                if (puzzle.isSolved()) {
-                    // Place key in puzzle room
-                    placeKeyInRoom(room);
-                    
-                    // Place one random item in puzzle room
-                    double angle = random.nextDouble() * Math.PI * 2;
-                    double distance = 100;
-                    double offsetX = Math.cos(angle) * distance;
-                    double offsetY = Math.sin(angle) * distance;
-                    spawnRandomItem(roomCenter.add(offsetX, offsetY));
-                }
-                break;
-                
-            case TREASURE:
-                System.out.println("Populating treasure room...");
-                
-                // Force clear weather and disable weather changes for treasure room until equipment is collected
-                if (weatherSystem != null) {
-                    weatherSystem.setWeatherChangesAllowed(false);
-                    // Force clear weather immediately
-                    weatherSystem.startWeatherTransition(WeatherSystem.WeatherType.CLEAR);
-                }
-                
-                // Reset treasure room state
-                equipmentCollected = 0;
-                totalEquipmentInRoom = 3; // Always spawn 3 equipment items
-                treasureRoomLighted = false;
-                torchActive = false;
-                
-                // Generate spikes and safe areas
-                generateTreasureRoomLayout();
-                
-                // Spawn equipment items in safe areas
-                spawnTreasureRoomEquipment();
-                
-                break;
-                
-            case COMBAT:
-                currentWave = 1;
-                spawnCombatWave(currentWave);
-                break;
-                
-            case BOSS:
-                // Add boss enemy with increased difficulty
-                System.out.println("Spawning boss in boss room");
-                Enemy bossEnemy = new Enemy(centerX, centerY, Enemy.EnemyType.BOSS);
-                bossEnemy.setMaxHealth(bossEnemy.getMaxHealth() * difficultyMultiplier * 2);
-                bossEnemy.setDamage(bossEnemy.getDamage() * difficultyMultiplier * 1.5);
-                bossEnemy.heal(bossEnemy.getMaxHealth());
-                enemies.add(bossEnemy);
-                break;
-        }
-        
-        // Create doors for the new room
-        createDoors();
-    }
-
-    private void spawnCombatWave(int wave) {
-        System.out.println("Spawning wave " + wave + " in combat room for level " + currentLevel);
-        double centerX = gameCanvas.getWidth() / 2;
-        double centerY = gameCanvas.getHeight() / 2;
-        double minX = 40, minY = 40;
-        double maxX = gameCanvas.getWidth() - 40;
-        double maxY = gameCanvas.getHeight() - 40;
-        double difficultyMultiplier = 1.0 + (currentLevel - 1) * 0.2;
-        java.util.List<Point2D> spawnPoints = new java.util.ArrayList<>();
-        spawnPoints.add(new Point2D(minX, minY));
-        spawnPoints.add(new Point2D(maxX, minY));
-        spawnPoints.add(new Point2D(minX, maxY));
-        spawnPoints.add(new Point2D(maxX, maxY));
-        int numEnemies = 0;
-        switch (currentLevel) {
-            case 1: numEnemies = 4; break;
-            case 2: numEnemies = 5; break;
-            case 3: numEnemies = 7; break;
-            default: numEnemies = 5 + (currentLevel - 3); break;
-        }
-        while (spawnPoints.size() < numEnemies) {
-            double rx = minX + random.nextDouble() * (maxX - minX);
-            double ry = minY + random.nextDouble() * (maxY - minY);
-            spawnPoints.add(new Point2D(rx, ry));
-        }
-        int spawnIdx = 0;
-        switch (currentLevel) {
-            case 1:
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.SKELETON, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.SKELETON, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
-                break;
-            case 2:
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.SKELETON, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
-                break;
-            case 3:
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.MAGE, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.MAGE, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
-                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
-                break;
-            default:
-                Enemy.EnemyType[] types = {Enemy.EnemyType.GOBLIN, Enemy.EnemyType.SKELETON, Enemy.EnemyType.ORC, Enemy.EnemyType.MAGE};
-                for (int i = 0; i < numEnemies; i++) {
-                    Enemy.EnemyType randomType = types[random.nextInt(types.length)];
-                    spawnEnemyWithType(spawnPoints.get(i), randomType, difficultyMultiplier);
-                }
-                break;
-        }
-    }
-
-    private void spawnEnemyWithType(Point2D roomCenter, Enemy.EnemyType type, double difficultyMultiplier) {
-        // Calculate random position around the room center
-        double angle = random.nextDouble() * Math.PI * 2;
-        double distance = 100 + random.nextDouble() * 50;
-        double enemyX = roomCenter.getX() + Math.cos(angle) * distance;
-        double enemyY = roomCenter.getY() + Math.sin(angle) * distance;
-                    
-        // Create enemy with specified type
-        Enemy enemy = new Enemy(enemyX, enemyY, type);
-        
-        // Apply difficulty scaling
-        enemy.setMaxHealth(enemy.getMaxHealth() * difficultyMultiplier);
-        enemy.setDamage(enemy.getDamage() * difficultyMultiplier);
-        
-        // Increase speed based on level - using velocity instead of speed
-        double speedMultiplier = 1.0 + (currentLevel - 1) * 0.3; // 30% speed increase per level
-        Point2D currentVelocity = enemy.getVelocity();
-        if (currentVelocity != null) {
-            enemy.setVelocity(currentVelocity.multiply(speedMultiplier));
-        }
-        
-        enemy.heal(enemy.getMaxHealth());
-        
-        // Add to enemies list
-        enemies.add(enemy);
-        
-        System.out.println("Spawned " + type + " at position: " + enemyX + "," + enemyY + " with speed multiplier: " + speedMultiplier);
-    }
-
-    private void spawnWeapon(Point2D position) {
-        // Randomly select a weapon type
-        Weapon.WeaponType[] weaponTypes = Weapon.WeaponType.values();
-        Weapon.WeaponType randomType = weaponTypes[(int)(Math.random() * weaponTypes.length)];
-        
-        // Get base damage for the specific weapon type
-        int baseDamage;
-        switch (randomType) {
-            case DAGGER: baseDamage = 17; break;  // 17 * 0.7 = 12 damage
-            case SPEAR: baseDamage = 18; break;   // 18 * 0.9 = 16 damage  
-            case SWORD: baseDamage = 20; break;   // 20 * 1.0 = 20 damage
-            case BOW: baseDamage = 23; break;     // 23 * 0.8 = 18 damage
-            case AXE: baseDamage = 19; break;     // 19 * 1.3 = 25 damage
-            default: baseDamage = 20; break;
-        }
-        
-        // Create weapon with matching name and type
-        Weapon weapon = new Weapon(
-            randomType.name(), // Use enum name as weapon name
-            "A " + randomType.name().toLowerCase() + " for combat", // Basic description
-            baseDamage, // Use weapon-specific base damage
-            randomType,
-            false // not a puzzle reward
-        );
-        
-        // Set position and size
-        weapon.setX(position.getX());
-        weapon.setY(position.getY());
-        weapon.setSize(20);
-        
-        roomItems.add(weapon);
-    }
-    
-        private void spawnArmor(Point2D position) {
-        // Randomly select an armor type
-        Armor.ArmorType[] armorTypes = Armor.ArmorType.values();
-        Armor.ArmorType randomType = armorTypes[(int)(Math.random() * armorTypes.length)];
-        
-        // Create armor with matching name and type
-        Armor armor = new Armor(
-            randomType.name(), // Use enum name as armor name
-            "A " + randomType.name().toLowerCase() + " for protection", // Basic description
-            randomType // Corrected: removed the baseDefense integer
-        );
-        
-        // Set position and size
-        armor.setX(position.getX());
-        armor.setY(position.getY());
-        armor.setSize(20);
-        
-        roomItems.add(armor);
-    }
-    
-    private void spawnPotion(Point2D position) {
-        String[] potionTypes = {"Health", "Strength", "Speed"};
-        String type = potionTypes[(int)(Math.random() * potionTypes.length)];
-        String name = type + " Potion";
-        String description = "A potion that restores " + type.toLowerCase() + ".";
-        int value = 20;
-        
-        Item potion = new Item(name, description, Item.ItemType.POTION, value, true);
-        potion.setX(position.getX());
-        potion.setY(position.getY());
-        potion.setSize(20);
-        
-        roomItems.add(potion);
-    }
-    
-    private void placeKeyInRoom(DungeonRoom room) {
-        // Get the center of the room on the canvas
-        double centerX = gameCanvas.getWidth() / 2;
-        double centerY = gameCanvas.getHeight() / 2;
-        
-        // Add some randomness to key position
-        Random random = new Random();
-        double keyX = centerX + (random.nextDouble() - 0.5) * 100;
-        double keyY = centerY + (random.nextDouble() - 0.5) * 100;
-        
-        // Create and add the key
-        Item roomKey = new Item("Room Key", "Opens locked doors", Item.ItemType.KEY, 1, true);
-        roomKey.setX(keyX);
-        roomKey.setY(keyY);
-        roomKey.setSize(20);
-        
-        System.out.println("Added key at position: " + keyX + "," + keyY);
-        roomItems.add(roomKey);
-    }
-    
-    private void spawnEnemy(DungeonRoom room) {
-        Random random = new Random();
-        Point2D roomPos = new Point2D(room.getX(), room.getY());
-        Point2D randomOffset = new Point2D(
-            random.nextDouble() * room.getWidth(),
-            random.nextDouble() * room.getHeight()
-        );
-        Point2D spawnPos = roomPos.add(randomOffset).multiply(8); // Scale to pixel coordinates
-        
-        Enemy.EnemyType type = random.nextBoolean() ? Enemy.EnemyType.GOBLIN : Enemy.EnemyType.SKELETON;
-        enemies.add(new Enemy(spawnPos.getX(), spawnPos.getY(), type));
-    }
-
-    private boolean isInMeleeRange(Entity attacker, Entity target) {
-        double attackRange = 40; // Melee attack range
-        
-        Point2D attackerCenter = attacker.getPosition().add(new Point2D(attacker.getSize() / 2, attacker.getSize() / 2));
-        Point2D targetCenter = target.getPosition().add(new Point2D(target.getSize() / 2, target.getSize() / 2));
-        
-        return attackerCenter.distance(targetCenter) < (attacker.getSize() / 2 + target.getSize() / 2 + attackRange);
-    }
-    private void checkRoomTransition() {
-        // Check if player is at a door to a connected room
-        for (Door door : doors) {
-            if (isPlayerTouchingDoor(door)) {
-                System.out.println("Player touching door to " + door.getConnectedRoom().getType() + 
-                                  " - Door locked: " + door.isLocked() + 
-                                  ", Requires key: " + door.requiresKey());
-                
-                if (!door.isLocked()) {
-                    // Get the connected room
-                    DungeonRoom targetRoom = door.getConnectedRoom();
-                    if (targetRoom != null) {
-                        System.out.println("Door unlocked - transitioning to room: " + targetRoom.getType() + 
-                                          " at position " + targetRoom.getX() + "," + targetRoom.getY());
-                        
-                        // Calculate entry position based on door direction
-                        Point2D entryPosition = getEntryPosition(door);
-                        
-                        // Pass target room and entry position to transition method
-                        transitionToRoom(targetRoom, entryPosition);
-                        
-                    // Update difficulty based on room type if it's a boss room
-                        if (targetRoom.getType() == DungeonRoom.RoomType.BOSS) {
-                        adjustDifficultyForLevel();
-                    }
-                        
-                    break;
-                    } else {
-                        System.err.println("ERROR: Connected room is null!");
-                    }
-                } else {
-                    // Show message about locked door if player is touching it
-                    if (door.requiresKey()) {
-                        Point2D textPosition = calculateSafeTextPosition(door);
-                        effectsManager.showFloatingText("locked", textPosition, Color.YELLOW);
-                        
-                        // Try to unlock with key if player has one
-                        if (player.getInventory().hasItem(Item.ItemType.KEY)) {
-                            if (door.unlock(player.getInventory())) {
-                                effectsManager.showFloatingText("Door unlocked!", 
-                                    new Point2D(door.getX() + door.getWidth()/2, door.getY() - 10),
-                                    Color.GREEN);
-                                // Door is now unlocked, but wait for next check to transition
-                            }
-                        }
-                    } else {
-                        // Door is locked for other reasons - show simple "locked" message
-                        Point2D textPosition = calculateSafeTextPosition(door);
-                        effectsManager.showFloatingText("locked", textPosition, Color.RED);
-                    }
-                }
-            }
-        }
-    }
-
-    private void transitionToRoom(DungeonRoom newRoom, Point2D entryPosition) {
-        System.out.println("Transitioning to room: " + newRoom.getType());
-        
-        // Hide statue when leaving puzzle room
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE) {
-            statueVisible = false;
-        }
-        
-        // Re-enable weather changes when leaving treasure room
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
-            if (weatherSystem != null) {
-                weatherSystem.setWeatherChangesAllowed(true);
-            }
-        }
-
-        soundManager.stopSound("running");
-        activeKeys.clear(); // Clear any "stuck" keys
-        roomTransitionInProgress = true;
-        
-        // Play transition sound
-        soundManager.playSound("teleport");
-        
-        // Start room transition effect
-        effectsManager.startRoomTransition(newRoom.getType(), 
-            () -> {
-                // This runs after the fade-in (screen is black)
-                currentRoom = newRoom;
-                currentRoom.setVisited(true);
-                
-                // Set player position
-                player.setPosition(entryPosition.getX(), entryPosition.getY());
-                
-                // Clear existing room data
-                enemies.clear();
-                projectiles.clear();
-                roomItems.clear();
-                doors.clear();
-                
-                // Reset statue state
-                statueVisible = false;
-                
-                // Reset treasure room state
-                torchActive = false;
-                treasureRoomLighted = false;
-                equipmentCollected = 0;
-                spikePositions.clear();
-                safePositions.clear();
-                
-                // Reset room cleared state
-                roomCleared = false;
-                
-                // Populate new room
-                populateRoom(currentRoom);
-                
-                // Create doors for the new room
-                createDoors();
-                
-                // Update minimap
-                updateMinimap();
-                
-                // Force a render to ensure all text positions are updated
-                render();
-                
-                // Ensure canvas has focus
-                gameCanvas.requestFocus();
-            },
-            () -> {
-                // This runs after the fade-out is complete
-                roomTransitionInProgress = false;
-            }
-        );
-    }
-    private Point2D getEntryPosition(Door door) {
-        // Calculate entry position based on door location
-        double entryX, entryY;
-        double offset = 50; // Distance from door to place player
-        
-        // Determine direction based on door position
-        if (door.getY() < 50) { // North door
-            entryX = door.getX() + door.getWidth() / 2;
-            entryY = door.getY() + offset;
-        } else if (door.getY() > gameCanvas.getHeight() - 50) { // South door
-            entryX = door.getX() + door.getWidth() / 2;
-            entryY = door.getY() - offset;
-        } else if (door.getX() < 50) { // West door
-            entryX = door.getX() + offset;
-            entryY = door.getY() + door.getHeight() / 2;
-        } else { // East door
-            entryX = door.getX() - offset;
-            entryY = door.getY() + door.getHeight() / 2;
-        }
-        
-        return new Point2D(entryX, entryY);
-    }
-    
-    private boolean isRoomCleared() {
-        if (currentRoom.getType() == DungeonRoom.RoomType.COMBAT) {
-            return enemies.isEmpty();
-        } else if (currentRoom.getType() == DungeonRoom.RoomType.BOSS) {
-            // Check for boss death
-            return enemies.isEmpty();
-        } else if (currentRoom.getType() == DungeonRoom.RoomType.PUZZLE) {
-            // This would depend on puzzle completion logic
-            return puzzleCompleted;
-        }
-        
-        // Other room types don't need clearing
-        return true;
-    }
-    
-    private void updateDoorLockStates() {
-        boolean cleared = isRoomCleared();
-        
-        for (Door door : doors) {
-            // Only update doors that don't require keys
-            if (!door.requiresKey()) {
-                door.setLocked(!cleared);
-            }
-        }
-    }
-    
-    private void handleItemPickup() {
-        Iterator<Item> iterator = roomItems.iterator();
-        while (iterator.hasNext()) {
-            Item item = iterator.next();
-            
-            // Check if player collides with item
-            if (item.checkPlayerCollision(player)) {
-                // Add to player's inventory
-                player.addItem(item);
-                
-                // Show pickup effect
-                effectsManager.addPickupEffect(
-                    new Point2D(item.getX(), item.getY()),
-                    item.getName()
-                );
-                
-                // Remove item from room
-                iterator.remove();
-            }
-        }
-    }
-    
-    private Point2D getRandomRoomPosition() {
-        Random random = new Random();
-        
-        // Add padding to keep items away from edges
-        double padding = 100;
-        double x = padding + random.nextDouble() * (gameCanvas.getWidth() - padding * 2);
-        double y = padding + random.nextDouble() * (gameCanvas.getHeight() - padding * 2);
-        
-        return new Point2D(x, y);
-    }
-
-    private void addItemToRoom(DungeonRoom room) {
-        if (room == null) return;
-        
-        // Get the center position of the room
-        Point2D roomCenter = room.getCenter();
-        
-        // Add some randomness to the spawn position
-        Random random = new Random();
-        double offsetX = (random.nextDouble() - 0.5) * 100;
-        double offsetY = (random.nextDouble() - 0.5) * 100;
-        Point2D spawnPos = roomCenter.add(offsetX, offsetY);
-        
-        // Randomize item type based on room type
-            Item.ItemType type;
-        String name;
-        String description;
-        int value;
-        boolean consumable;
-        
-        if (room.getType() == DungeonRoom.RoomType.TREASURE) {
-            // Treasure rooms have better loot
-            if (random.nextDouble() < 0.4) {
-                type = Item.ItemType.POTION;
-                name = "Health Potion";
-                description = "Restores 20 health";
-                value = 20;
-                consumable = true;
-            } else {
-                type = Item.ItemType.TREASURE;
-                name = "Gold Coins";
-                description = "Valuable treasure";
-                value = 100;
-                consumable = true;
-            }
-        } else {
-            // Other rooms have basic loot
-            if (random.nextDouble() < 0.7) {
-                type = Item.ItemType.POTION;
-                name = "Health Potion";
-                description = "Restores 20 health";
-                value = 20;
-                consumable = true;
-            } else {
-                type = Item.ItemType.TREASURE;
-                name = "Gold Coins";
-                description = "Valuable treasure";
-                value = 30;
-                consumable = true;
-            }
-        }
-        
-        // Create the item
-        Item item = new Item(name, description, type, value, consumable);
-        item.setX(spawnPos.getX());
-        item.setY(spawnPos.getY());
-        item.setSize(20);
-        roomItems.add(item);
-    }
-
-    private void updateEnemies(double deltaTime) {
-        enemiesToBounceBack.clear(); // Clear at the start of each update
-        // Update each enemy in the room
-        Iterator<Enemy> enemyIterator = enemies.iterator();
-        while (enemyIterator.hasNext()) {
-            Enemy enemy = enemyIterator.next();
-            // Update enemy state
-            enemy.update(deltaTime);
-            
-            // Update attack cooldown
-            Double cooldown = enemyAttackCooldowns.getOrDefault(enemy, 0.0);
-            if (cooldown > 0) {
-                enemyAttackCooldowns.put(enemy, cooldown - deltaTime);
-            }
-            
-            // Skip if enemy is dead
-            if (enemy.getHealth() <= 0) {
-                enemyAttackCooldowns.remove(enemy);
-                onEnemyDefeated(enemy);
-                enemyIterator.remove();
-                continue;
-            }
-            
-            // Get distance to player
-            Point2D playerCenter = player.getPosition().add(player.getSize() / 2, player.getSize() / 2);
-            Point2D enemyCenter = enemy.getPosition().add(enemy.getSize() / 2, enemy.getSize() / 2);
-            double distanceToPlayer = playerCenter.distance(enemyCenter);
-            
-            // Check if enemy is in bounce-back state
-            boolean isBouncingBack = cooldown > 0;
-            
-            // Only non-boss, non-mage enemies bounce back if they were actually hit
-            if (enemiesToBounceBack.contains(enemy)) {
-                // Move enemy away from player during bounce-back
-                Point2D bounceDirection = enemyCenter.subtract(playerCenter).normalize();
-                double bounceSpeed = 50 * 0.5; // Reduced base speed during bounce
-                double dx = bounceDirection.getX() * bounceSpeed * deltaTime;
-                double dy = bounceDirection.getY() * bounceSpeed * deltaTime;
-                
-                Point2D newPosition = new Point2D(
-                    enemy.getPosition().getX() + dx,
-                    enemy.getPosition().getY() + dy
-                );
-                
-                // Add boundary checking for enemies
-                double minX = 10;
-                double minY = 10;
-                double maxX = gameCanvas.getWidth() - enemy.getSize() - 10;
-                double maxY = gameCanvas.getHeight() - enemy.getSize() - 10;
-                
-                // Ensure enemy stays within bounds
-                newPosition = new Point2D(
-                    Math.max(minX, Math.min(maxX, newPosition.getX())),
-                    Math.max(minY, Math.min(maxY, newPosition.getY()))
-                );
-                
-                enemy.setPosition(newPosition);
-            } else {
-                // Normal movement logic
-                boolean shouldMoveTowardsPlayer = false;
-                if (enemy.getType() == Enemy.EnemyType.BOSS) {
-                    shouldMoveTowardsPlayer = true; // Boss always moves towards player if not bouncing back
-                } else {
-                    if (distanceToPlayer > enemy.getSize() + player.getSize() + 5) {
-                        shouldMoveTowardsPlayer = true; // Other enemies move if far enough
-                    }
-                }
-
-                if (shouldMoveTowardsPlayer) {
-                    Point2D normalizedDirection = playerCenter.subtract(enemyCenter).normalize();
-                    Point2D effectiveMovementDirection = normalizedDirection; // Start with normalized
-
-                    double baseSpeed = 50; // Base speed for enemies
-                    double actualSpeed = baseSpeed * (1.0 + (currentLevel - 1) * 0.3); // Scale speed with level
-
-                    // Apply weather effects to enemy speed
-                    if (weatherSystem != null) {
-                        actualSpeed *= weatherSystem.getEnemySpeedMultiplier();
-                    }
-
-                    if (enemy.getType() == Enemy.EnemyType.BOSS) {
-                        actualSpeed *= 0.7; // Boss specific speed multiplier (reduced from 1.5 to 1.0)
-                        // Apply the "stronger tendency" by scaling the direction vector (reduced from 1.5 to 1.0)
-                        effectiveMovementDirection = normalizedDirection.multiply(1.0);
-                    }
-
-                    // Set velocity for proper rotation (uses effectiveMovementDirection which might be non-unit for boss)
-                    enemy.setVelocity(effectiveMovementDirection.multiply(actualSpeed));
-
-                    // Actual movement based on dx, dy, using the 0.3 factor from original logic
-                    double dx = effectiveMovementDirection.getX() * actualSpeed * 0.3 * deltaTime;
-                    double dy = effectiveMovementDirection.getY() * actualSpeed * 0.3 * deltaTime;
-
-                    Point2D newPosition = new Point2D(
-                        enemy.getPosition().getX() + dx,
-                        enemy.getPosition().getY() + dy
-                    );
-
-                    // Boundary checking for enemies
-                    double minX = 10;
-                    double minY = 10;
-                    double maxX = gameCanvas.getWidth() - enemy.getSize() - 10;
-                    double maxY = gameCanvas.getHeight() - enemy.getSize() - 10;
-
-                    // Ensure enemy stays within bounds
-                    newPosition = new Point2D(
-                        Math.max(minX, Math.min(maxX, newPosition.getX())),
-                        Math.max(minY, Math.min(maxY, newPosition.getY()))
-                    );
-                    enemy.setPosition(newPosition);
-                } else {
-                    // This 'else' now only applies to non-boss enemies that are too close
-                    // For non-boss enemies close to the player, maintain direction for rotation
-                    Point2D direction = playerCenter.subtract(enemyCenter).normalize();
-                    enemy.setVelocity(direction.multiply(0.1)); // Small velocity to maintain direction
-                }
-                
-                // Boss projectile attack logic
-                if (enemy.getType() == Enemy.EnemyType.BOSS && cooldown <= 0) {
-                    // Boss shoots projectiles at player
-                    Point2D direction = playerCenter.subtract(enemyCenter).normalize();
-                    double projectileDamage = enemy.getDamage() * 0.5; // Projectile does half of melee damage
-                    
-                    // Create projectile with correct constructor parameters
-                    Projectile bossProjectile = new Projectile(
-                        enemyCenter.getX(), // x position
-                        enemyCenter.getY(), // y position
-                        direction.getX() * 200, // velocity x
-                        direction.getY() * 200, // velocity y
-                        10, // size
-                        projectileDamage, // damage
-                        Color.RED, // color
-                        false // not from player
-                    );
-                    projectiles.add(bossProjectile);
-                    
-                    // Set attack cooldown
-                    enemyAttackCooldowns.put(enemy, ATTACK_COOLDOWN * 0.5); // Boss attacks more frequently
-                    
-                    // Remove sound effect for boss projectiles
-                    // soundManager.playSound("character");
-                }
-                // MAGE projectile attack logic
-                if (enemy.getType() == Enemy.EnemyType.MAGE && cooldown <= 0) {
-                    // Mage shoots projectiles at player
-                    Point2D direction = playerCenter.subtract(enemyCenter).normalize();
-                    double projectileDamage = 8.0; // Fixed damage for mage projectiles
-                    
-                    Projectile mageProjectile = new Projectile(
-                        enemyCenter.getX(),
-                        enemyCenter.getY(),
-                        direction.getX() * 180, // slightly slower than boss
-                        direction.getY() * 180,
-                        8, // size
-                        projectileDamage,
-                        Color.PURPLE, // mage color
-                        false
-                    );
-                    projectiles.add(mageProjectile);
-                    
-                    // Set attack cooldown for mage
-                    enemyAttackCooldowns.put(enemy, ATTACK_COOLDOWN); // Normal cooldown
-                }
-                // Enemy melee attack logic
-                if (distanceToPlayer < enemy.getSize() + player.getSize() + 20 && cooldown <= 0) {
-                    // Calculate damage based on enemy type and level
-                    double damage = calculateEnemyDamage(enemy);
-                    
-                    // Apply damage to player
-                    player.takeDamage(damage);
-                    enemiesToBounceBack.add(enemy);
-                    double damageBlocked = player.getLastDamageBlocked(); // Get amount blocked
-                    
-                    // Show floating text for damage blocked by armor
-                    if (damageBlocked > 0) {
-                        effectsManager.showFloatingText("Blocked: " + String.format("%.0f", damageBlocked), 
-                            playerCenter.add(0, -15), Color.LIGHTBLUE); // Display slightly above actual damage
-                    }
-
-                    // Show damage text with enemy type (actual damage dealt)
-                    double actualDamageDealtToPlayer = damage - damageBlocked;
-                    if (actualDamageDealtToPlayer > 0) {
-                        String enemyType = enemy.getType().toString();
-                        effectsManager.showFloatingText("-" + String.format("%.0f", actualDamageDealtToPlayer) + " (" + enemyType + ")", 
-                            playerCenter, Color.RED);
-                    }
-                    
-                    // Play hit sound
-                    soundManager.playSound("character");
-                    
-                    // Add a small knockback effect to player
-                    Point2D knockbackDirection = playerCenter.subtract(enemyCenter).normalize();
-                    double knockbackForce = 5.0;
-                    player.setPosition(
-                        player.getPosition().add(knockbackDirection.multiply(knockbackForce))
-                    );
-                    
-                    // Start attack cooldown and bounce-back
-                    enemyAttackCooldowns.put(enemy, ATTACK_COOLDOWN);
-                    
-                    // Add bounce-back effect to enemy
-                    Point2D bounceDirection = enemyCenter.subtract(playerCenter).normalize();
-                    Point2D bouncePosition = enemyCenter.add(bounceDirection.multiply(BOUNCE_DISTANCE));
-                    enemy.setPosition(bouncePosition);
-                }
-            }
-            if (enemy.getType() == Enemy.EnemyType.BOSS) {
-                // Summon minions every 7 seconds
-                bossMinionSummonTimer += deltaTime;
-                if (bossMinionSummonTimer >= 7.0) {
-                    bossMinionSummonTimer = 0;
-                    for (int i = 0; i < 2 + random.nextInt(2); i++) {
-                        double angle = random.nextDouble() * Math.PI * 2;
-                        double dist = 80 + random.nextDouble() * 40;
-                        double minionX = enemy.getX() + Math.cos(angle) * dist;
-                        double minionY = enemy.getY() + Math.sin(angle) * dist;
-                        Enemy.EnemyType minionType = random.nextBoolean() ? Enemy.EnemyType.GOBLIN : Enemy.EnemyType.SKELETON;
-                        Enemy minion = new Enemy(minionX, minionY, minionType);
-                        minion.setMaxHealth(minion.getMaxHealth() * 1.2);
-                        minion.heal(minion.getMaxHealth());
-                        enemies.add(minion);
-                        effectsManager.showFloatingText("Minion summoned!", new Point2D(minionX, minionY - 20), Color.LIGHTPINK);
-                    }
-                }
-                // Enrage below 50% health
-                if (!bossEnraged && enemy.getHealth() < enemy.getMaxHealth() * 0.5) {
-                    bossEnraged = true;
-                    enemy.setDamage(enemy.getDamage() * 1.5);
-                    Point2D currentVelocity = enemy.getVelocity();
-                    if (currentVelocity != null) {
-                        enemy.setVelocity(currentVelocity.multiply(1.5));
-                    }
-                    effectsManager.showFloatingText("Boss is enraged!", new Point2D(enemy.getX(), enemy.getY() - 40), Color.RED);
-                }
-                // Reset boss ability state when leaving boss room or boss is defeated
-                if (currentRoom == null || currentRoom.getType() != DungeonRoom.RoomType.BOSS || enemies.stream().noneMatch(e -> e.getType() == Enemy.EnemyType.BOSS)) {
-                    bossMinionSummonTimer = 0;
-                    bossEnraged = false;
-                }
-            }
-
-
-        }
-        
-        // Check if room is cleared
-        if (currentRoom.getType() == DungeonRoom.RoomType.COMBAT && enemies.isEmpty() && !roomCleared) {
-            roomCleared = true;
-            // Unlock doors when the room is cleared
-            for (Door door : doors) {
-                if (!door.requiresKey()) {
-                    door.setLocked(false);
-                }
-            }
-        }
-
-        // Add these fields to GameController:
-
-
-}
-
-    private double calculateEnemyDamage(Enemy enemy) {
-        // Base damage for each enemy type
-        double baseDamage;
-        switch (enemy.getType()) {
-            case SKELETON:
-                baseDamage = 5.0;
-                break;
-            case GOBLIN:
-                baseDamage = 15.0;
-                break;
-            case MAGE:
-                baseDamage = 25.0;
-                break;
-            case BOSS:
-                baseDamage = 40.0;
-                break;
-            default:
-                baseDamage = 10.0;
-        }
-        
-        // Scale damage with level
-        
-        
-        return baseDamage;
-}
-
-private void updateProjectiles(double deltaTime) {
-        Iterator<Projectile> iterator = projectiles.iterator();
-        while (iterator.hasNext()) {
-            Projectile projectile = iterator.next();
-            projectile.update(deltaTime);
-            
-            // Check if projectile has expired
-            if (projectile.isExpired()) {
-                iterator.remove();
-                continue;
-            }
-            
-            // Check for collisions with entities
-            Point2D projectilePos = projectile.getPosition();
-            double projectileSize = projectile.getSize();
-            
-            // If from player, check enemy collisions
-            if (projectile.isFromPlayer()) {
-                for (Enemy enemy : enemies) {
-                    Point2D enemyPos = enemy.getPosition();
-                    double enemySize = enemy.getSize();
-                    
-                    if (checkCollision(projectilePos, projectileSize, enemyPos, enemySize)) {
-                        // Apply damage to enemy
-                        enemy.takeDamage(projectile.getDamage());
-                        
-                        // Show damage text
-                        effectsManager.showFloatingText("-" + (int)projectile.getDamage(), 
-                            enemyPos, Color.RED);
-                        
-                        // Remove projectile
-                        iterator.remove();
-                        break;
-                    }
-                }
-            } 
-            // If from enemy, check player collision
-            else if (player != null) {
-                Point2D playerPos = player.getPosition();
-                double playerSize = player.getSize();
-                
-                if (checkCollision(projectilePos, projectileSize, playerPos, playerSize)) {
-                    double projectileDamage = projectile.getDamage(); // Store original projectile damage
-                    
-                    // Apply damage to player
-                    player.takeDamage(projectileDamage);
-                    double damageBlocked = player.getLastDamageBlocked(); // Get amount blocked
-                    
-                    // Show floating text for damage blocked by armor
-                    if (damageBlocked > 0) {
-                        effectsManager.showFloatingText("Blocked: " + String.format("%.0f", damageBlocked), 
-                            playerPos.add(0, -15), Color.LIGHTBLUE); // Display slightly above actual damage
-                    }
-
-                    // Show damage text for actual damage taken
-                    double actualDamageDealtToPlayer = projectileDamage - damageBlocked;
-                    if (actualDamageDealtToPlayer > 0) {
-                        effectsManager.showFloatingText("-" + String.format("%.0f", actualDamageDealtToPlayer), 
-                            playerPos, Color.RED);
-                    }
-                    
-                    // Remove projectile
-                    iterator.remove();
-                }
-            }
-        }
-    }
-
-    private boolean checkCollision(Point2D pos1, double size1, Point2D pos2, double size2) {
-        double dx = pos1.getX() - pos2.getX();
-        double dy = pos1.getY() - pos2.getY();
-        double distance = Math.sqrt(dx * dx + dy * dy);
-        return distance < (size1 + size2) / 2;
-}
-
-private void updateMinimap() {
-        // Simplified minimap implementation without creating a separate UI component
-        // Draw minimap directly on the canvas in the corner
-        
-        if (!gameCanvas.isVisible()) return;
-        
-        GraphicsContext gc = gameCanvas.getGraphicsContext2D();
-        double minimapSize = 120;
-        double minimapX = gameCanvas.getWidth() - minimapSize - 20;
-        double minimapY = 20;
-        
-        // Draw minimap background
-        gc.setFill(Color.rgb(0, 0, 0, 0.7));
-        gc.fillRect(minimapX, minimapY, minimapSize, minimapSize);
-        
-        // Draw minimap border
-        gc.setStroke(Color.GOLD);
-        gc.setLineWidth(2);
-        gc.strokeRect(minimapX, minimapY, minimapSize, minimapSize);
-        
-        // Find the dungeon bounds
-        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
-        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
-        
-        for (DungeonRoom room : currentDungeon) {
-            minX = Math.min(minX, room.getX());
-            minY = Math.min(minY, room.getY());
-            maxX = Math.max(maxX, room.getX());
-            maxY = Math.max(maxY, room.getY());
-        }
-        
-        // Calculate scale to fit dungeon in minimap
-        int dungeonWidth = maxX - minX + 1;
-        int dungeonHeight = maxY - minY + 1;
-        
-        double cellSize = Math.min(
-            (minimapSize - 20) / dungeonWidth,
-            (minimapSize - 20) / dungeonHeight
-        );
-        
-        // Center the minimap
-        double offsetX = minimapX + 10 + (minimapSize - 20 - cellSize * dungeonWidth) / 2;
-        double offsetY = minimapY + 10 + (minimapSize - 20 - cellSize * dungeonHeight) / 2;
-        
-        // Draw rooms
-        for (DungeonRoom room : currentDungeon) {
-            double roomX = offsetX + (room.getX() - minX) * cellSize;
-            double roomY = offsetY + (room.getY() - minY) * cellSize;
-            
-            // Set color based on room state
-            if (room == currentRoom) {
-                // Current room (player location)
-                gc.setFill(Color.YELLOW);
-            } else if (room.isVisited()) {
-                // Visited room - color based on type
-                switch (room.getType()) {
-                    case COMBAT: gc.setFill(Color.RED); break;
-                    case PUZZLE: gc.setFill(Color.BLUE); break;
-                    case TREASURE: gc.setFill(Color.GOLD); break;
-                    case BOSS: gc.setFill(Color.DARKRED); break;
-                    case SPAWN: gc.setFill(Color.GREEN); break;
-                    default: gc.setFill(Color.GRAY);
-                }
-            } else if (currentRoom.getConnectedRooms().contains(room)) {
-                // Adjacent unvisited room
-                gc.setFill(Color.GRAY);
-            } else {
-                // Unexplored room
-                gc.setFill(Color.BLACK);
-            }
-            
-            // Draw the room
-            gc.fillRect(roomX, roomY, cellSize - 2, cellSize - 2);
-            
-            // Draw room border
-            gc.setStroke(Color.DARKGRAY);
-            gc.setLineWidth(1);
-            gc.strokeRect(roomX, roomY, cellSize - 2, cellSize - 2);
-        }
-    }
-
-public void openInventory() {
-        if (isInventoryOpen) return; // Prevent opening multiple inventories
+public void openInventory() {
+        if (isInventoryOpen) return; // Prevent opening multiple inventories
 
         isInventoryOpen = true;
-        soundManager.stopSound("running");
+        stopRunningSound();
         activeKeys.clear();
 
         try {
@@ -2721,7 +1484,7 @@ public void openInventory() {
             // Get the controller and set up the inventory
             InventoryController controller = loader.getController();
             controller.setGameController(this);
-            controller.setInventory(player.getInventory());
+            controller.setInventory(simulation.getPlayer().getInventory());
             
             // Create the inventory window
             Stage inventoryStage = new Stage();
@@ -2748,13 +1511,14 @@ public void openInventory() {
 
 public void interactWithPuzzle() {
         // Only interact if we're in a puzzle room
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
         if (currentRoom == null || currentRoom.getType() != DungeonRoom.RoomType.PUZZLE) {
             System.out.println("Not in a puzzle room");
             return;
         }
         
         // Get the puzzle for this room
-        Puzzle puzzle = puzzles.get(currentRoom);
+        Puzzle puzzle = simulation.getPuzzle(currentRoom);
         if (puzzle == null) {
             System.out.println("No puzzle found for this room");
             return;
@@ -2782,7 +1546,7 @@ public void interactWithPuzzle() {
         activeKeys.clear();
         isPaused = true;
         gameLoopRunning = false;
-        soundManager.stopSound("running");
+        stopRunningSound();
         
         // Create puzzle window programmatically
         try {
@@ -2832,7 +1596,7 @@ public void interactWithPuzzle() {
             // Create a reference to the puzzle stage for use in lambdas
             final Stage[] puzzleStageRef = new Stage[1];
             // Create hint icon
-            ImageView hintIcon = new ImageView(new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/hint.png")));
+            ImageView hintIcon = new ImageView(AssetCache.getInstance().get("/com/dungeon/assets/images/hint.png"));
             hintIcon.setFitWidth(32);
             hintIcon.setFitHeight(32);
             hintIcon.setPreserveRatio(true);
@@ -2900,7 +1664,7 @@ public void interactWithPuzzle() {
                     
                     // Mark puzzle as solved
                     puzzle.setSolved(true);
-                    puzzleSolved = true;
+                    simulation.setPuzzleSolved(true);
                     
                     // Call onPuzzleSolved to handle rewards and door unlocking
                     onPuzzleSolved(currentRoom);
@@ -2947,51 +1711,13 @@ public void interactWithPuzzle() {
         showChat(owner);
     }
 
-    private void spawnRandomItem(Point2D position) {
-        Random random = new Random();
-        double offsetX = (random.nextDouble() - 0.5) * 60;
-        double offsetY = (random.nextDouble() - 0.5) * 60;
-        
-        Point2D itemPos = position.add(offsetX, offsetY);
-        
-        Item rewardItem = null;
-        double itemTypeRoll = random.nextDouble();
-
-        if (itemTypeRoll < 0.1) { // 10% chance for a key (optional, can be removed if not desired from puzzles)
-            rewardItem = new Item("Dungeon Key", "Opens locked doors", Item.ItemType.KEY, 1, true);
-        } else if (itemTypeRoll < 0.45) { // 35% chance for a weapon (10% to 45%)
-            // Create a random weapon (tier 1 for now) as a puzzle reward (half damage)
-            rewardItem = Weapon.createRandomWeapon(1, true);
-        } else if (itemTypeRoll < 0.80) { // 35% chance for armor (45% to 80%)
-            // Create a random armor (tier 1 for now) as a puzzle reward
-            rewardItem = Armor.createRandomArmor(1, true);
-        } else { // 20% chance for a potion (80% to 100%)
-            rewardItem = new Item("Health Potion", "Restores health when consumed", Item.ItemType.POTION, 25 + random.nextInt(25), true);
-        }
-        
-        if (rewardItem != null) {
-        rewardItem.setX(itemPos.getX());
-        rewardItem.setY(itemPos.getY());
-            rewardItem.setSize(20); // Default item size on ground
-        roomItems.add(rewardItem);
-        
-        // Add visual effect for the reward
-        effectsManager.addExplosionEffect(itemPos, 1.0);
-            System.out.println("Puzzle solved, spawned item: " + rewardItem.getName() + " of type " + rewardItem.getType());
-        } else {
-            System.out.println("Puzzle solved, but failed to spawn a specific item type.");
-        }
-    }
-
     private void showGameOverScreen() {
         try {
             System.out.println("Showing game over screen...");
             gameLoopRunning = false;
-            soundManager.stopSound("running");
+            stopGameLoop();
+            stopRunningSound();
            
-            if (weatherSystem != null) {
-                    weatherSystem.shutdown();
-                        }
 
             // Get the current scene and its root pane
             Scene currentScene = gameCanvas.getScene();
@@ -3009,7 +1735,7 @@ public void interactWithPuzzle() {
                     gameOverRoot.setOpacity(0.0);
 
                     GameOverController controller = loader.getController();
-                    controller.setGameStats((int)player.getScore(), currentLevel - 1, enemiesDefeated);
+                    controller.setGameStats((int)simulation.getPlayer().getScore(), simulation.getCurrentLevel() - 1, simulation.getEnemiesDefeated(), simulation.getSeed());
                     controller.setGameController(this);
 
                     // 3. Replace the scene's root
@@ -3033,23 +1759,12 @@ public void interactWithPuzzle() {
         }
     }
 
-    private void checkVictoryCondition() {
-        // Check if boss is defeated in the boss room
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.BOSS && 
-            bossDefeated && !victory) {
-            victory = true;
-            showVictoryScreen();
-        }
-    }
-
     private void showVictoryScreen() {
         try {
-            soundManager.stopSound("running");
+            stopRunningSound();
             soundManager.stopBackgroundMusic();
-            if (weatherSystem != null) {
-                weatherSystem.shutdown();
-            }
             gameLoopRunning = false;
+            stopGameLoop();
 
             // Get the current scene and its root pane
             Scene currentScene = gameCanvas.getScene();
@@ -3070,7 +1785,8 @@ public void interactWithPuzzle() {
                     long endTime = System.currentTimeMillis();
                     long timeInSeconds = (endTime - startTime) / 1000;
                     String timeElapsed = String.format("%02d:%02d", timeInSeconds / 60, timeInSeconds % 60);
-                    controller.setGameStats((int)player.getScore(), timeElapsed, enemiesDefeated, currentLevel);
+                    controller.setGameStats((int)simulation.getPlayer().getScore(), timeElapsed, simulation.getEnemiesDefeated(), simulation.getCurrentLevel());
+                    controller.setSeed(simulation.getSeed());
                     controller.setGameController(this);
 
                     // 3. Replace the scene's root
@@ -3093,328 +1809,11 @@ public void interactWithPuzzle() {
         }
     }
 
-    // Update the enemy defeated counter
-    private void onEnemyDefeated(Enemy enemy) {
-        enemiesDefeated++;
-        player.addScore((int)enemy.getScoreValue());
-        dropItemFromEnemy(enemy);
-        soundManager.playSound("death");
-        
-        // If in boss room and the defeated enemy is the boss, trigger victory immediately
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.BOSS && 
-            enemy.getType() == Enemy.EnemyType.BOSS) {
-            bossDefeated = true;
-            // Trigger victory screen after a short delay to allow for effects
-            javafx.application.Platform.runLater(() -> {
-                javafx.animation.PauseTransition delay = new javafx.animation.PauseTransition(Duration.seconds(1.5));
-                delay.setOnFinished(e -> checkVictoryCondition());
-                delay.play();
-            });
-            return;
-        }
-        // If in boss room and all enemies are defeated, mark boss as defeated
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.BOSS && 
-            enemies.isEmpty()) {
-            bossDefeated = true;
-            // Victory music will be played by VictoryController, so no need for "start" sound here
-            // Trigger victory screen after a short delay to allow for effects
-            javafx.application.Platform.runLater(() -> {
-                javafx.animation.PauseTransition delay = new javafx.animation.PauseTransition(Duration.seconds(1.5));
-                delay.setOnFinished(e -> checkVictoryCondition());
-                delay.play();
-            });
-        }
-    }
-
-    // Add a basic checkPlayerStatus method
-    private void checkPlayerStatus() {
-        if (player != null && player.getHealth() <= 0 && !gameOver) {
-            // Mark game as over to prevent multiple game over screens
-            gameOver = true;
-            soundManager.stopSound("running"); // Stop running sound
-            soundManager.playSound("gameOver");
-            soundManager.stopBackgroundMusic();
-            
-            // Show game over screen
-            showGameOverScreen();
-        }
-    }
-
-    public void setLevel(int level) {
-        this.currentLevel = level;
-        adjustDifficultyForLevel();
-    }
-
-    private void adjustDifficultyForLevel() {
-        // Increase enemy health and damage based on level
-        for (Enemy enemy : enemies) {
-            // Increase damage based on level
-            if (currentLevel > 1) {
-                double multiplier = 1.0 + (currentLevel - 1) * 0.2;
-                enemy.setDamage(enemy.getDamage() * multiplier);
-            }
-        }
-        
-        // Spawn more enemies in combat rooms for levels > 1
-        if (currentLevel > 1) {
-            for (int i = 0; i < currentLevel - 1; i++) {
-                for (DungeonRoom room : currentDungeon) {
-                    if (room.getType() == DungeonRoom.RoomType.COMBAT && room != currentRoom) {
-                        spawnEnemy(room);
-                    }
-                }
-            }
-        }
-}
-
-public void onPuzzleSolved(DungeonRoom room) {
-        // Mark puzzle as solved
-        puzzleCompleted = true;
-        
-        // Hide the statue
-        statueVisible = false;
-        
-        // Play success sound
-        soundManager.playSound("start");
-        
-        // Show success message
-        Point2D roomCenter = new Point2D(gameCanvas.getWidth() / 2, gameCanvas.getHeight() / 2);
-        effectsManager.showFloatingText("Puzzle Solved!", roomCenter, Color.GREEN);
-        
-        // Place the key in the room
-        placeKeyInRoom(room);
-        
-        // Unlock doors
-        for (Door door : doors) {
-            if (!door.requiresKey()) {
-                door.setLocked(false);
-            }
-        }
-        
-        // Spawn reward
-        spawnRandomItem(roomCenter);
-    }
-
-    private void updatePlayerProjectiles(double deltaTime) {
-        // Update player projectile attacks
-        Iterator<ProjectileAttack> iterator = playerProjectiles.iterator();
-        while (iterator.hasNext()) {
-            ProjectileAttack attack = iterator.next();
-            attack.update(deltaTime);
-            
-            // Check if attack is expired
-            if (attack.isExpired()) {
-                iterator.remove();
-                continue;
-            }
-            
-            // Check for collisions with enemies
-            Point2D attackPos = attack.getPosition();
-            double attackSize = attack.getSize();
-            
-            for (Enemy enemy : enemies) {
-                Point2D enemyPos = enemy.getPosition();
-                double enemySize = enemy.getSize();
-                
-                if (checkCollision(attackPos, attackSize, enemyPos, enemySize)) {
-                    // Apply damage to enemy
-                    enemy.takeDamage(attack.getDamage());
-                    
-                    // Show damage text
-                    effectsManager.showFloatingText("-" + (int)attack.getDamage(), 
-                        enemyPos, Color.RED);
-                    
-                    // Remove projectile attack
-                    iterator.remove();
-                    break;
-                }
-            }
-        }
-    }
-
-    private void firePlayerProjectile() {
-        if (player == null || player.getEquippedWeapon() == null) {
-            System.out.println("Player has no equipped weapon to fire projectile.");
-            return; 
-        }
-
-        Point2D playerPos = player.getPosition().add(player.getSize() / 2, player.getSize() / 2); 
-        Point2D targetPos = new Point2D(mouseX, mouseY);
-        Point2D direction = targetPos.subtract(playerPos).normalize();
-        
-        Weapon equippedWeapon = player.getEquippedWeapon();
-        double damage = equippedWeapon.getDamage(); 
-        Color projectileColor = equippedWeapon.getWeaponType().getProjectileColor(); // Get color from WeaponType
-        
-        // Determine projectile type (optional, could be always ARROW or vary by weapon)
-        ProjectileAttack.ProjectileType projectileType = ProjectileAttack.ProjectileType.ARROW;
-        // Example: if (equippedWeapon.getWeaponType() == Weapon.WeaponType.STAFF) { projectileType = ProjectileAttack.ProjectileType.MAGIC_BOLT; }
-
-        ProjectileAttack attack = new ProjectileAttack(
-            playerPos.getX(), 
-            playerPos.getY(), 
-            direction, 
-            damage,
-            projectileColor, // Use the dynamic color
-            projectileType 
-        );
-        playerProjectiles.add(attack);
-        
-        soundManager.playSound("damage");
-    }
-
-    private void movePlayer(double deltaTime) {
-        if (player == null) return;
-        
-        // Check if player is moving (any WASD key is pressed)
-        boolean isMoving = activeKeys.contains(KeyCode.W) || 
-                          activeKeys.contains(KeyCode.A) || 
-                          activeKeys.contains(KeyCode.S) || 
-                          activeKeys.contains(KeyCode.D);
-        
-        // Play running sound if moving
-        if (isMoving) {
-            soundManager.playSound("running");
-        } else {
-            soundManager.stopSound("running");
-        }
-        
-        // Apply weather effects to player movement
-        double weatherSpeedMultiplier = 1.0;
-        if (weatherSystem != null) {
-            weatherSpeedMultiplier = weatherSystem.getPlayerSpeedMultiplier();
-        }
-        
-        // Check for statue collision in puzzle rooms
-        checkStatueCollision();
-        
-        // Limit player movement to stay within the room boundaries
-        double minX = 10; // Left wall + margin
-        double minY = 10; // Top wall + margin
-        double maxX = gameCanvas.getWidth() - player.getSize() - 10; // Right wall - player size - margin
-        double maxY = gameCanvas.getHeight() - player.getSize() - 10; // Bottom wall - player size - margin
-        
-        // Get current position
-        Point2D currentPos = player.getPosition();
-        
-        // Ensure player stays within bounds
-        double newX = Math.max(minX, Math.min(maxX, currentPos.getX()));
-        double newY = Math.max(minY, Math.min(maxY, currentPos.getY()));
-        
-        // Update player position if it changed due to boundaries
-        if (newX != currentPos.getX() || newY != currentPos.getY()) {
-            player.setPosition(new Point2D(newX, newY));
-        }
-    }
-    
-    private void checkStatueCollision() {
-        // Only check statue collision in puzzle rooms when statue is visible
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE && 
-            statueVisible && statuePosition != null && player != null) {
-            
-            Point2D playerCenter = player.getPosition().add(player.getSize() / 2, player.getSize() / 2);
-            double distance = playerCenter.distance(statuePosition);
-            
-            // If player is too close to statue, push them back
-            double minDistance = (player.getSize() / 2 + STATUE_SIZE / 2);
-            if (distance < minDistance) {
-                // Calculate direction from statue to player
-                Point2D direction = playerCenter.subtract(statuePosition).normalize();
-                
-                // Calculate new position that maintains minimum distance
-                Point2D newPlayerCenter = statuePosition.add(direction.multiply(minDistance));
-                Point2D newPlayerPosition = newPlayerCenter.subtract(player.getSize() / 2, player.getSize() / 2);
-                
-                // Set player to new position
-                player.setPosition(newPlayerPosition);
-            }
-        }
-    }
-    
-    private void dropItemFromEnemy(Enemy enemy) {
-        if (enemy == null) return;
-        
-        Random random = new Random();
-        if (random.nextDouble() > 0.3) return; // 30% drop chance
-        
-        // Get enemy position
-        Point2D position = enemy.getPosition();
-        
-        // Randomize drop type
-        Item item;
-        
-        if (random.nextDouble() < 0.6) {
-            // 60% chance for a potion
-            item = new Item("Health Potion", "Restores 20 health", Item.ItemType.POTION, 20, true);
-        } else if (random.nextDouble() < 0.8) {
-            // 20% chance for a weapon
-            Weapon.WeaponType[] weaponTypes = Weapon.WeaponType.values();
-            Weapon.WeaponType randomType = weaponTypes[random.nextInt(weaponTypes.length)];
-            String name = randomType.toString().charAt(0) + randomType.toString().substring(1).toLowerCase();
-            
-            // Get base damage for the specific weapon type
-            int baseDamage;
-            switch (randomType) {
-                case DAGGER: baseDamage = 17; break;  // 17 * 0.7 = 12 damage
-                case SPEAR: baseDamage = 18; break;   // 18 * 0.9 = 16 damage  
-                case SWORD: baseDamage = 20; break;   // 20 * 1.0 = 20 damage
-                case BOW: baseDamage = 23; break;     // 23 * 0.8 = 18 damage
-                case AXE: baseDamage = 19; break;     // 19 * 1.3 = 25 damage
-                default: baseDamage = 20; break;
-            }
-            
-            item = new Weapon(name, "A basic " + name.toLowerCase(), baseDamage, randomType, false);
-        } else {
-            // 20% chance for armor
-            Armor.ArmorType[] armorTypes = Armor.ArmorType.values();
-            Armor.ArmorType randomType = armorTypes[random.nextInt(armorTypes.length)];
-            String name = randomType.toString().charAt(0) + randomType.toString().substring(1).toLowerCase() + " Armor";
-            item = new Armor(name, "Basic " + name.toLowerCase(), randomType);
-        }
-        
-        // Set item position and size
-        item.setX(position.getX());
-        item.setY(position.getY());
-        item.setSize(20);
-        roomItems.add(item);
-}
-
-    // Handle weapon selection
-    private void selectWeapon(int weaponIndex) {
-        if (player == null) return;
-        
-        System.out.println("Attempting to select weapon: " + weaponIndex);
-        
-        // Implement weapon selection logic
-        player.selectWeapon(weaponIndex);
-        
-        // Show message about selected weapon
-        String weaponName = "Unknown";
-        switch (weaponIndex) {
-            case 0: weaponName = "Sword"; break;
-            case 1: weaponName = "Bow"; break;
-            case 2: weaponName = "Spear"; break;
-            case 3: weaponName = "Axe"; break;
-        }
-        
-        effectsManager.showFloatingText("Selected: " + weaponName, 
-            player.getPosition(), Color.LIGHTYELLOW);
-    }
-  
- private void showLevelCompletionMessage() {
-        // Show a floating text in the center of the canvas
-        if (gameCanvas != null && effectsManager != null) {
-            effectsManager.showFloatingText(
-                "Level Complete!",
-                new javafx.geometry.Point2D(gameCanvas.getWidth() / 2, 50), // Position at top-middle
-                javafx.scene.paint.Color.GOLD
-            );
-        } else {
-            System.out.println("Level Complete!");
-        }
-    }
     // Add new method to render doors with animations
     private void renderDoorsWithAnimations(GraphicsContext gc) {
+        List<Door> doors = simulation.getDoors();
+        Player player = simulation.getPlayer();
+        DungeonRoom currentRoom = simulation.getCurrentRoom();
         if (doors.isEmpty()) {
             // System.out.println("No doors to render");
             return;
@@ -3459,18 +1858,12 @@ public void onPuzzleSolved(DungeonRoom room) {
         // Render each door with its animation state
         for (Door door : doors) {
             // In treasure room, only show doors if torch is active and door is within light radius
-            if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && !treasureRoomLighted) {
-                if (!torchActive || player == null) {
+            if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && !simulation.isTreasureRoomLighted()) {
+                if (!simulation.isTorchActive() || player == null) {
                     continue; // Skip rendering if torch is not active
                 }
                 
-                Point2D lightCenter = new Point2D(player.getPosition().getX() + player.getSize()/2, 
-                                                 player.getPosition().getY() + player.getSize()/2);
-                Point2D doorCenter = new Point2D(door.getX() + door.getWidth()/2, 
-                                               door.getY() + door.getHeight()/2);
-                double distance = lightCenter.distance(doorCenter);
-                
-                if (distance > TORCH_LIGHT_RADIUS) {
+                if (!isInTorchLight(player, door.getX() + door.getWidth()/2, door.getY() + door.getHeight()/2)) {
                     continue; // Skip rendering if door is outside light radius
                 }
             }
@@ -3563,162 +1956,52 @@ public void onPuzzleSolved(DungeonRoom room) {
     }
 
     public void addItemToRoom(Item item) {
-        if (item != null) {
-            roomItems.add(item);
-           
-            effectsManager.showFloatingText("Item dropped!", 
-                new Point2D(item.getX(), item.getY()), 
-                Color.YELLOW);
-        }
+        simulation.addItemToRoom(item);
     }
 
-    private void loadWeaponImages() {
-        try {
-            for (Weapon.WeaponType type : Weapon.WeaponType.values()) {
-                weaponImages.put(type, new javafx.scene.image.Image(getClass().getResourceAsStream(type.getImagePath())));
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading weapon images: " + e.getMessage());
-            e.printStackTrace();
-        }
+    public void setLevel(int level) {
+        simulation.setLevel(level);
     }
 
-    private void checkStatueInteraction() {
-        // Only check statue interaction in puzzle rooms when statue is visible
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE && 
-            statueVisible && statuePosition != null && player != null) {
-            
-            // Calculate distance between player and statue
-            Point2D playerCenter = player.getPosition().add(player.getSize() / 2, player.getSize() / 2);
-            double distance = playerCenter.distance(statuePosition);
-            
-            // Show floating text when player is near statue
-            if (distance < STATUE_INTERACTION_RANGE) {
-                // Show the floating text slightly above the statue
-                Point2D textPosition = new Point2D(statuePosition.getX(), statuePosition.getY() - STATUE_SIZE/2 - 30);
-                effectsManager.showFloatingText("Press F to unlock the doors", textPosition, Color.YELLOW);
-            }
-        }
-    }
-    
-    private void toggleTorch() {
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
-            torchActive = !torchActive;
-            String message = torchActive ? "Torch lit!" : "Torch extinguished!";
-            Point2D playerPos = player.getPosition();
-            effectsManager.showFloatingText(message, playerPos, torchActive ? Color.YELLOW : Color.GRAY);
-        }
+    /**
+     * Carries a run's seed into the next level's controller
+     */
+    public void setSeed(long seed) {
+        simulation.setSeed(seed);
     }
-    
-    private void generateTreasureRoomLayout() {
-        spikePositions.clear();
-        safePositions.clear();
-        
-        double roomWidth = gameCanvas.getWidth();
-        double roomHeight = gameCanvas.getHeight();
-        
-        // Create a grid of positions
-        int gridSize = 8;
-        double cellWidth = roomWidth / gridSize;
-        double cellHeight = roomHeight / gridSize;
-        
-        // Generate random spike pattern (about 60% of cells have spikes)
-        for (int x = 0; x < gridSize; x++) {
-            for (int y = 0; y < gridSize; y++) {
-                double posX = x * cellWidth + cellWidth / 2;
-                double posY = y * cellHeight + cellHeight / 2;
-                
-                // Keep center area and door areas safe
-                boolean isCenter = (x >= 3 && x <= 4 && y >= 3 && y <= 4);
-                boolean isDoorArea = (x == 0 || x == gridSize-1 || y == 0 || y == gridSize-1);
-                
-                if (!isCenter && !isDoorArea && random.nextDouble() < 0.6) {
-                    spikePositions.add(new Point2D(posX, posY));
-                } else {
-                    safePositions.add(new Point2D(posX, posY));
-                }
-            }
-        }
-        
-        System.out.println("Generated " + spikePositions.size() + " spikes and " + safePositions.size() + " safe areas");
+
+    public void onPuzzleSolved(DungeonRoom room) {
+        simulation.onPuzzleSolved(room);
     }
-    
-    private void spawnTreasureRoomEquipment() {
-        // Spawn 3 equipment items in safe areas, scattered near the middle area
-        List<Point2D> availableSafePositions = new ArrayList<>(safePositions);
-        double roomCenterX = gameCanvas.getWidth() / 2;
-        double roomCenterY = gameCanvas.getHeight() / 2;
-        double minDist = Math.min(gameCanvas.getWidth(), gameCanvas.getHeight()) * 0.18; // not too close to center
-        double maxDist = Math.min(gameCanvas.getWidth(), gameCanvas.getHeight()) * 0.38; // not too far from center
-        // Filter positions to a "middle ring"
-        List<Point2D> middleRing = new ArrayList<>();
-        for (Point2D pos : availableSafePositions) {
-            double dist = pos.distance(roomCenterX, roomCenterY);
-            if (dist >= minDist && dist <= maxDist) {
-                middleRing.add(pos);
-            }
-        }
-        // If not enough, fallback to all safe positions
-        List<Point2D> spawnPositions = middleRing.size() >= 3 ? middleRing : availableSafePositions;
-        Collections.shuffle(spawnPositions, random);
-        int equipmentCount = Math.min(3, spawnPositions.size());
-        for (int i = 0; i < equipmentCount; i++) {
-            Point2D position = spawnPositions.get(i);
-            // Add a small random offset to scatter
-            double offsetX = (random.nextDouble() - 0.5) * 40;
-            double offsetY = (random.nextDouble() - 0.5) * 40;
-            Point2D scatterPos = new Point2D(position.getX() + offsetX, position.getY() + offsetY);
-            Item equipment;
-            switch (i) {
-                case 0:
-                    Weapon.WeaponType[] weaponTypes = Weapon.WeaponType.values();
-                    Weapon.WeaponType weaponType = weaponTypes[random.nextInt(weaponTypes.length)];
-                    int weaponDamage = Math.min(20 + currentLevel * 5, 30); // Cap at 30
-                    equipment = new Weapon(weaponType.name(), "A powerful " + weaponType.name().toLowerCase(), weaponDamage, weaponType, false);
-                    break;
-                case 1:
-                    Armor.ArmorType[] armorTypes = Armor.ArmorType.values();
-                    Armor.ArmorType armorType = armorTypes[random.nextInt(armorTypes.length)];
-                    equipment = new Armor(armorType.name() + " Armor", "Protective " + armorType.name().toLowerCase(), armorType);
-                    break;
-                case 2:
-                    equipment = new Item("Health Potion", "Restores 30 health", Item.ItemType.POTION, 30, true);
-                    break;
-                default:
-                    equipment = new Item("Gold", "Valuable treasure", Item.ItemType.TREASURE, 50, true);
-                    break;
-            }
-            equipment.setX(scatterPos.getX());
-            equipment.setY(scatterPos.getY());
-            equipment.setSize(25);
-            roomItems.add(equipment);
-        }
+
+    private void stopRunningSound() {
+        simulation.stopRunningSound();
     }
 
-    private void checkSpikeCollision() {
-        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && 
-            player != null && !treasureRoomLighted) {
-            
-            Point2D playerCenter = player.getPosition().add(player.getSize() / 2, player.getSize() / 2);
-            
-            for (Point2D spikePos : spikePositions) {
-                double distance = playerCenter.distance(spikePos);
+    private void transitionToRoom(DungeonRoom newRoom) {
+        roomTransitionInProgress = true;
+        
+        // Start room transition effect
+        effectsManager.startRoomTransition(newRoom.getType(), 
+            () -> {
+                // This runs after the fade-in (screen is black)
+                simulation.completeTransition();
+                invalidateRoomLayer();
                 
-                if (distance < (player.getSize() / 2 + SPIKE_SIZE / 2)) {
-                    // Player hit a spike
-                    player.takeDamage(SPIKE_DAMAGE);
-                    effectsManager.showFloatingText("-" + (int)SPIKE_DAMAGE, player.getPosition(), Color.RED);
-                    soundManager.playSound("damage");
-                    
-                    // Push player back slightly
-                    Point2D direction = playerCenter.subtract(spikePos).normalize();
-                    Point2D newPos = player.getPosition().add(direction.multiply(30));
-                    player.setPosition(newPos);
-                    
-                    break; // Only hit one spike at a time
-                }
+                // Update minimap
+                updateMinimap();
+                
+                // Force a render to ensure all text positions are updated
+                render();
+                
+                // Ensure canvas has focus
+                gameCanvas.requestFocus();
+            },
+            () -> {
+                // This runs after the fade-out is complete
+                roomTransitionInProgress = false;
             }
-        }
+        );
     }
 
 }
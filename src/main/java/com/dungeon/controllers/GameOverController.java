@@ -1,6 +1,7 @@
 package com.dungeon.controllers;
 
 import com.dungeon.data.ScoreManager;
+import com.dungeon.utils.AssetCache;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -31,6 +32,9 @@ public class GameOverController {
     
     @FXML
     private Text enemiesText;
+
+    @FXML
+    private Text seedText;
     
     @FXML
     private Button tryAgainButton;
@@ -47,12 +51,13 @@ public class GameOverController {
     private int score;
     private int levelsCompleted;
     private int enemiesDefeated;
+    private long seed;
     private GameController gameController;
     
     @FXML
     public void initialize() {
         // Set the background image for the game over screen
-        Image bgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/gameover.jpg"));
+        Image bgImage = AssetCache.getInstance().get("/com/dungeon/assets/images/gameover.jpg");
         ImageView bgView = new ImageView(bgImage);
         bgView.setPreserveRatio(false);
         bgView.setFitWidth(gameOverRoot.getWidth());
@@ -65,14 +70,19 @@ public class GameOverController {
         gameOverRoot.getChildren().add(0, bgView);
     }
     
-    public void setGameStats(int score, int levelsCompleted, int enemiesDefeated) {
+    /**
+     * @param seed Run seed; start the game with -Ddungeon.seed=<seed> to replay the same dungeons
+     */
+    public void setGameStats(int score, int levelsCompleted, int enemiesDefeated, long seed) {
         this.score = score;
         this.levelsCompleted = levelsCompleted;
         this.enemiesDefeated = enemiesDefeated;
+        this.seed = seed;
         
         scoreText.setText("Score: " + score);
         levelText.setText("Levels Completed: " + levelsCompleted);
         enemiesText.setText("Enemies Defeated: " + enemiesDefeated);
+        seedText.setText("Dungeon Seed: " + seed);
 
         Platform.runLater(() -> {
             TextInputDialog dialog = new TextInputDialog("Player");
@@ -5,6 +5,7 @@ import com.dungeon.model.Inventory;
 import com.dungeon.model.Armor;
 import com.dungeon.model.Weapon;
 import com.dungeon.model.entity.Player;
+import com.dungeon.utils.AssetCache;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
@@ -266,11 +267,7 @@ public class InventoryController {
                 break;
         }
         if (path != null) {
-            try {
-                return new Image(getClass().getResourceAsStream(path));
-            } catch (Exception e) {
-                System.err.println("Could not load image: " + path);
-            }
+            return AssetCache.getInstance().get(path);
         }
         return null; // Return null if no image path is found
     }
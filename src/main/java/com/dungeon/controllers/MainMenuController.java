@@ -1,5 +1,6 @@
 package com.dungeon.controllers;
 
+import com.dungeon.utils.AssetCache;
 import com.dungeon.utils.UIUtils;
 
 import javafx.animation.FadeTransition;
@@ -248,7 +249,7 @@ public class MainMenuController {
     @FXML
     public void initialize() {
         // Set the background image for the main menu
-        Image bgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/mainmenu.jpg"));
+        Image bgImage = AssetCache.getInstance().get("/com/dungeon/assets/images/mainmenu.jpg");
         ImageView bgView = new ImageView(bgImage);
         bgView.setPreserveRatio(false);
         bgView.setFitWidth(mainMenuRoot.getWidth());
@@ -1,5 +1,7 @@
 package com.dungeon.controllers;
 
+import com.dungeon.utils.AssetCache;
+
 import javafx.animation.FadeTransition;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
@@ -20,8 +22,11 @@ public class SplashScreenController {
 
     @FXML
     public void initialize() {
+        // Decode the game's sprites, backgrounds and GIFs in the background while the splash is showing
+        AssetCache.getInstance().preloadAll();
+
         // Set the background image for the splash screen to use full screen
-        Image bgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/dungeon_eclipse.png"));
+        Image bgImage = AssetCache.getInstance().get("/com/dungeon/assets/images/dungeon_eclipse.png");
         ImageView bgView = new ImageView(bgImage);
         bgView.setPreserveRatio(false);
         bgView.setFitWidth(rootPane.getWidth());
@@ -2,6 +2,7 @@ package com.dungeon.controllers;
 
 import com.dungeon.data.ScoreManager;
 import com.dungeon.audio.SoundManager;
+import com.dungeon.utils.AssetCache;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -51,12 +52,13 @@ public class VictoryController {
     private String timeElapsed;
     private int enemiesDefeated;
     private int currentLevel;
+    private long seed; // Run seed, kept for the next level
     private GameController gameController;
     
     @FXML
     public void initialize() {
         // Set the background image for the victory screen
-        Image bgImage = new Image(getClass().getResourceAsStream("/com/dungeon/assets/images/victory.jpeg"));
+        Image bgImage = AssetCache.getInstance().get("/com/dungeon/assets/images/victory.jpeg");
         ImageView bgView = new ImageView(bgImage);
         bgView.setPreserveRatio(false);
         bgView.setFitWidth(victoryRoot.getWidth());
@@ -69,6 +71,10 @@ public class VictoryController {
         victoryRoot.getChildren().add(0, bgView);
     }
     
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
     public void setGameStats(int score, String timeElapsed, int enemiesDefeated, int level) {
         this.score = score;
         this.timeElapsed = timeElapsed;
@@ -190,6 +196,7 @@ public class VictoryController {
                     fadeIn.setOnFinished(e -> {
                         GameController newGameController = loader.getController();
                         Platform.runLater(() -> {
+                            newGameController.setSeed(seed);
                             newGameController.setLevel(this.currentLevel + 1);
                             newGameController.onSceneReady();
                         });
@@ -12,7 +12,8 @@ import java.util.List;
 
 public class ScoreManager {
 
-    private static final String SCORES_FILE = "highscores.dat";
+    // Overridable so benchmarks and tools can point at a scratch file
+    private static final String SCORES_FILE = System.getProperty("dungeon.scores.file", "highscores.dat");
     private static final int MAX_SCORES = 10; // Maximum number of scores to keep
 
     // Inner class to represent a score entry
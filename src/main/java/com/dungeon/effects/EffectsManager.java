@@ -1,8 +1,5 @@
 package com.dungeon.effects;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Random;
 
 import com.dungeon.audio.SoundManager;
@@ -40,11 +37,33 @@ import javafx.scene.text.Text;
 import javafx.scene.transform.Rotate;
 import javafx.util.Duration;
 
+/**
+ * The game's single effect pipeline. Canvas effects go into three typed pools,
+ * each with a fixed capacity that is its per-frame budget: at most that many
+ * effects are updated and drawn, and a full pool drops its oldest effect to
+ * make room. Room transitions and other one-off animations use scene-graph
+ * nodes on the effects pane.
+ */
 public class EffectsManager {
     private final Pane effectsPane;
     private final Canvas effectsCanvas;
-    private final GraphicsContext gc;
-    private final List<VisualEffect> effects;
+    
+    // Typed effect pools; caps can be changed with -Ddungeon.particles, -Ddungeon.texts and -Ddungeon.shapes, and 0 turns a pool off
+    private final ParticleSystem particles = new ParticleSystem(
+        Integer.getInteger("dungeon.particles", ParticleSystem.DEFAULT_CAPACITY));
+    private final FloatingTextPool floatingTexts = new FloatingTextPool(
+        Integer.getInteger("dungeon.texts", FloatingTextPool.DEFAULT_CAPACITY));
+    private final ShapeEffectPool shapes = new ShapeEffectPool(
+        Integer.getInteger("dungeon.shapes", ShapeEffectPool.DEFAULT_CAPACITY));
+    
+    /**
+     * Live effect counts and how many were culled early because a pool was full
+     */
+    public record Stats(int particles, int floatingTexts, int shapes, long culled) {
+        public int total() {
+            return particles + floatingTexts + shapes;
+        }
+    }
     private final Random random;
     private final SoundManager soundManager;
     
@@ -60,7 +79,35 @@ public class EffectsManager {
         showFloatingText(s, position, green, 20);
     }
 
+    /**
+     * Draws the canvas-based effects (shapes, particles, floating text) on top of the game scene.
+     * Called from the render pass so the effects survive the frame being redrawn.
+     */
     public void render(GraphicsContext gc) {
+        shapes.render(gc);
+        particles.render(gc);
+        floatingTexts.render(gc);
+    }
+    
+    /**
+     * @return Whether render() would draw anything
+     */
+    public boolean hasActiveEffects() {
+        return particles.getCount() > 0 || floatingTexts.getActiveCount() > 0 || shapes.getActiveCount() > 0;
+    }
+    
+    public Stats getStats() {
+        return new Stats(particles.getCount(), floatingTexts.getActiveCount(), shapes.getActiveCount(),
+            particles.getCulledCount() + floatingTexts.getCulledCount() + shapes.getCulledCount());
+    }
+    
+    /**
+     * Removes every canvas effect, e.g. when a new game starts
+     */
+    public void clear() {
+        particles.clear();
+        floatingTexts.clear();
+        shapes.clear();
     }
 
     // Enum for different room effect types
@@ -74,8 +121,6 @@ public class EffectsManager {
     public EffectsManager(Pane effectsPane, Canvas effectsCanvas) {
         this.effectsPane = effectsPane;
         this.effectsCanvas = effectsCanvas;
-        this.gc = effectsCanvas.getGraphicsContext2D();
-        this.effects = new ArrayList<>();
         this.random = new Random();
         this.soundManager = SoundManager.getInstance();
         
@@ -90,20 +135,10 @@ public class EffectsManager {
     }
     
     public void update(double deltaTime) {
-        // Clear canvas
-        gc.clearRect(0, 0, effectsCanvas.getWidth(), effectsCanvas.getHeight());
-        
-        // Update and render canvas-based effects
-        Iterator<VisualEffect> iterator = effects.iterator();
-        while (iterator.hasNext()) {
-            VisualEffect effect = iterator.next();
-            effect.update(deltaTime);
-            effect.render(gc);
-            
-            if (effect.isExpired()) {
-                iterator.remove();
-            }
-        }
+        // Update canvas-based effects; they are drawn in render()
+        floatingTexts.update(deltaTime);
+        particles.update(deltaTime);
+        shapes.update(deltaTime);
     }
     
     public void resize(double width, double height) {
@@ -452,33 +487,8 @@ public class EffectsManager {
     }
     
     public void showFloatingText(String text, Point2D position, Color color, double fontSize) {
-        Text floatingText = new Text(text);
-        floatingText.setFont(Font.font("Arial", FontWeight.BOLD, fontSize));
-        floatingText.setFill(color);
-        
-        // Add drop shadow
-        DropShadow shadow = new DropShadow();
-        shadow.setColor(Color.BLACK);
-        shadow.setRadius(2);
-        floatingText.setEffect(shadow);
-        
-        // Position text
-        floatingText.setLayoutX(position.getX() - floatingText.getLayoutBounds().getWidth() / 2);
-        floatingText.setLayoutY(position.getY());
-        floatingText.setOpacity(0.9);
-        effectsPane.getChildren().add(floatingText);
-        
-        // Animation
-        TranslateTransition translate = new TranslateTransition(Duration.seconds(FLOATING_TEXT_DURATION), floatingText);
-        translate.setByY(-50);
-        
-        FadeTransition fade = new FadeTransition(Duration.seconds(FLOATING_TEXT_DURATION), floatingText);
-        fade.setFromValue(0.9);
-        fade.setToValue(0);
-        
-        ParallelTransition transition = new ParallelTransition(translate, fade);
-        transition.setOnFinished(e -> effectsPane.getChildren().remove(floatingText));
-        transition.play();
+        // Drawn on the game canvas from a fixed pool; rises 50px and fades out
+        floatingTexts.show(text, position.getX(), position.getY(), color, fontSize, FLOATING_TEXT_DURATION);
     }
     
     public void addDamageEffect(Point2D position, double damage) {
@@ -487,9 +497,7 @@ public class EffectsManager {
         showFloatingText(damageText, position, Color.RED, 24);
         
         // Add hit particles
-        for (int i = 0; i < 10; i++) {
-            addParticle(position, Color.RED, 1.0);
-        }
+        addParticles(position, Color.RED, 1.0, 10);
     }
     
     public void addHealEffect(Point2D position, double amount) {
@@ -498,9 +506,7 @@ public class EffectsManager {
         showFloatingText(healText, position, Color.GREEN, 24);
         
         // Add healing particles
-        for (int i = 0; i < 15; i++) {
-            addParticle(position, Color.LIGHTGREEN, 1.2);
-        }
+        addParticles(position, Color.LIGHTGREEN, 1.2, 15);
     }
     
     public void addPickupEffect(Point2D position, String itemName) {
@@ -508,116 +514,70 @@ public class EffectsManager {
         showFloatingText("Got " + itemName, position, Color.YELLOW, 20);
         
         // Add sparkle particles
-        for (int i = 0; i < 12; i++) {
-            addParticle(position, Color.YELLOW, 1.0);
-        }
+        addParticles(position, Color.YELLOW, 1.0, 12);
     }
     
     public void addExplosionEffect(Point2D position, double scale) {
         // Add explosion particles
-        for (int i = 0; i < 30; i++) {
-            double angle = random.nextDouble() * Math.PI * 2;
-            double speed = 50 + random.nextDouble() * 100;
-            double lifetime = 0.5 + random.nextDouble() * 0.5;
-            
-            Point2D velocity = new Point2D(
-                Math.cos(angle) * speed,
-                Math.sin(angle) * speed
-            );
-            
-            Color color = random.nextBoolean() ? 
-                Color.ORANGE : (random.nextBoolean() ? Color.RED : Color.YELLOW);
-            
-            effects.add(new ParticleEffect(
-                position.getX(), position.getY(),
-                velocity,
-                5 * scale + random.nextDouble() * 5 * scale,
-                color,
-                lifetime
-            ));
-        }
+        particles.emitBurst(position.getX(), position.getY(), 30, random,
+            50, 100,                   // speed
+            5 * scale, 5 * scale,      // size
+            0.5, 0.5,                  // lifetime
+            Color.ORANGE, Color.RED, Color.YELLOW, Color.ORANGE); // Half orange, a quarter each red and yellow
     }
     
-    public void addParticle(Point2D position, Color color, double size) {
-        double angle = random.nextDouble() * Math.PI * 2;
-        double speed = 30 + random.nextDouble() * 70;
-        
-        double velocityX = Math.cos(angle) * speed;
-        double velocityY = Math.sin(angle) * speed;
-        
-        effects.add(new ParticleEffect(
-            position.getX(), position.getY(),
-            new Point2D(velocityX, velocityY),
-            2 * size + random.nextDouble() * 3 * size,
-            color,
-            PARTICLE_DURATION * (0.7 + random.nextDouble() * 0.6)
-        ));
+    /**
+     * Brief flash that grows and fades at a point
+     * @param duration Seconds the flash lasts
+     */
+    public void addExplosionFlash(Point2D position, double duration) {
+        shapes.show(ShapeEffectPool.Shape.EXPLOSION, position.getX(), position.getY(), Color.ORANGE, duration);
     }
     
-    // Inner classes for canvas-based effects
-    private abstract class VisualEffect {
-        protected double lifetime;
-        protected double maxLifetime;
-        
-        public VisualEffect(double lifetime) {
-            this.lifetime = lifetime;
-            this.maxLifetime = lifetime;
-        }
-        
-        public abstract void update(double deltaTime);
-        public abstract void render(GraphicsContext gc);
-        
-        public boolean isExpired() {
-            return lifetime <= 0;
-        }
-        
-        protected double getLifetimePercentage() {
-            return lifetime / maxLifetime;
-        }
+    /**
+     * Ring of sparkling dots, e.g. where something appears or vanishes
+     * @param duration Seconds the sparkle lasts
+     */
+    public void addSparkleEffect(Point2D position, double duration) {
+        shapes.show(ShapeEffectPool.Shape.SPARKLE, position.getX(), position.getY(), Color.GOLD, duration);
     }
     
-    private class ParticleEffect extends VisualEffect {
-        private Point2D position;
-        private Point2D velocity;
-        private double size;
-        private Color color;
-        
-        public ParticleEffect(double x, double y, Point2D velocity, double size, Color color, double lifetime) {
-            super(lifetime);
-            this.position = new Point2D(x, y);
-            this.velocity = velocity;
-            this.size = size;
-            this.color = color;
-        }
-        
-        @Override
-        public void update(double deltaTime) {
-            // Update position
-            position = position.add(velocity.multiply(deltaTime));
-            
-            // Apply gravity and friction
-            velocity = velocity.multiply(0.95); // Air resistance
-            velocity = velocity.add(0, 100 * deltaTime); // Gravity
-            
-            // Update lifetime
-            lifetime -= deltaTime;
+    public void addRoomClearEffect(Point2D position) {
+        // Create multiple sparkles around the position
+        for (int i = 0; i < 12; i++) {
+            double offsetX = (random.nextDouble() - 0.5) * 100;
+            double offsetY = (random.nextDouble() - 0.5) * 100;
+            shapes.show(ShapeEffectPool.Shape.SPARKLE, position.getX() + offsetX, position.getY() + offsetY, Color.GOLD, 1.5);
         }
-        
-        @Override
-        public void render(GraphicsContext gc) {
-            double alpha = getLifetimePercentage();
-            double currentSize = size * (0.5 + getLifetimePercentage() * 0.5);
-            
-            gc.setGlobalAlpha(alpha);
-            gc.setFill(color);
-            gc.fillOval(
-                position.getX() - currentSize / 2,
-                position.getY() - currentSize / 2,
-                currentSize,
-                currentSize
-            );
-            gc.setGlobalAlpha(1.0);
+        showFloatingText("Room cleared!", position, Color.LIGHTGREEN, 20);
+    }
+    
+    public void addPuzzleSolvedEffect(Point2D position) {
+        // Create sparkle pattern
+        for (int i = 0; i < 16; i++) {
+            double angle = Math.PI * 2 * i / 16;
+            double distance = 50;
+            shapes.show(ShapeEffectPool.Shape.SPARKLE,
+                position.getX() + Math.cos(angle) * distance, position.getY() + Math.sin(angle) * distance,
+                Color.CYAN, 1.5);
         }
+        showFloatingText("Puzzle solved!", position, Color.CYAN, 20);
+    }
+    
+    public void addParticle(Point2D position, Color color, double size) {
+        addParticles(position, color, size, 1);
+    }
+    
+    /**
+     * Emits a burst of small particles in one call
+     * @param count Number of particles
+     */
+    public void addParticles(Point2D position, Color color, double size, int count) {
+        particles.emitBurst(position.getX(), position.getY(), count, random,
+            30, 70,                                            // speed
+            2 * size, 3 * size,                                // size
+            PARTICLE_DURATION * 0.7, PARTICLE_DURATION * 0.6,  // lifetime
+            color);
     }
     
     // Add new method for door opening animation
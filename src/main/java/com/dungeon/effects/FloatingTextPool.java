@@ -0,0 +1,163 @@
+package com.dungeon.effects;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Fixed-capacity pool of floating texts (damage numbers, pickups, hints) drawn
+ * straight onto the game canvas. Each text rises and fades out over its
+ * lifetime. State is kept in parallel arrays, so showing a text allocates
+ * nothing but the string itself; when the pool is full the oldest text is
+ * replaced. The drop shadow is a second, offset fill of the same glyphs
+ * instead of a DropShadow effect, and fonts are cached per size.
+ */
+public class FloatingTextPool {
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final double RISE = 50; // Pixels a text moves up over its lifetime
+    private static final double START_OPACITY = 0.9;
+    private static final double SHADOW_OFFSET = 1.5;
+
+    private final int capacity;
+    private final String[] texts;
+    private final double[] x;
+    private final double[] y;
+    private final double[] age;
+    private final double[] duration;
+    private final Color[] colors;
+    private final Font[] fonts;
+    private final boolean[] active;
+    private int next; // Where the search for a free slot starts
+    private int activeCount;
+    private long culled;
+
+    private final Map<Double, Font> fontCache = new HashMap<>();
+
+    public FloatingTextPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Most texts on screen at once; zero turns floating texts off
+     */
+    public FloatingTextPool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Text capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        texts = new String[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        age = new double[capacity];
+        duration = new double[capacity];
+        colors = new Color[capacity];
+        fonts = new Font[capacity];
+        active = new boolean[capacity];
+    }
+
+    /**
+     * Shows a text centred horizontally on (x, y), with y as the baseline
+     * @param lifetime Seconds until it has faded out
+     */
+    public void show(String text, double x, double y, Color color, double fontSize, double lifetime) {
+        if (capacity == 0) return;
+        int slot = findSlot();
+        texts[slot] = text;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        age[slot] = 0;
+        duration[slot] = lifetime;
+        colors[slot] = color;
+        fonts[slot] = fontCache.computeIfAbsent(fontSize, size -> Font.font("Arial", FontWeight.BOLD, size));
+        if (!active[slot]) {
+            active[slot] = true;
+            activeCount++;
+        }
+    }
+
+    public void update(double deltaTime) {
+        if (activeCount == 0) return;
+        for (int i = 0; i < capacity; i++) {
+            if (!active[i]) continue;
+            age[i] += deltaTime;
+            if (age[i] >= duration[i]) {
+                active[i] = false;
+                texts[i] = null;
+                activeCount--;
+            }
+        }
+    }
+
+    public void render(GraphicsContext gc) {
+        if (activeCount == 0) return;
+        gc.save();
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.BASELINE);
+        for (int i = 0; i < capacity; i++) {
+            if (!active[i]) continue;
+            double progress = age[i] / duration[i];
+            double drawY = y[i] - RISE * progress;
+            gc.setFont(fonts[i]);
+            gc.setGlobalAlpha(START_OPACITY * (1 - progress));
+
+            // Shadow
+            gc.setFill(Color.BLACK);
+            gc.fillText(texts[i], x[i] + SHADOW_OFFSET, drawY + SHADOW_OFFSET);
+
+            gc.setFill(colors[i]);
+            gc.fillText(texts[i], x[i], drawY);
+        }
+        gc.restore();
+    }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            active[i] = false;
+            texts[i] = null;
+        }
+        activeCount = 0;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return Texts replaced before they faded out because the pool was full
+     */
+    public long getCulledCount() {
+        return culled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return A free slot, or the oldest text's slot when the pool is full
+     */
+    private int findSlot() {
+        for (int n = 0; n < capacity; n++) {
+            int slot = (next + n) % capacity;
+            if (!active[slot]) {
+                next = (slot + 1) % capacity;
+                return slot;
+            }
+        }
+        // Full: replace the text that has been up the longest
+        culled++;
+        int oldest = 0;
+        for (int i = 1; i < capacity; i++) {
+            if (age[i] > age[oldest]) {
+                oldest = i;
+            }
+        }
+        return oldest;
+    }
+}
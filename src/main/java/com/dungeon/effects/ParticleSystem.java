@@ -0,0 +1,233 @@
+package com.dungeon.effects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Particles kept in primitive arrays used as a ring buffer. Emitting writes
+ * into the next slot and, once the buffer is full, overwrites the oldest
+ * particle, so there is no allocation per particle and no list removal.
+ * Particles live in the range [start, start + count); dead ones inside that
+ * range are skipped and the range shrinks from the old end as they expire.
+ *
+ * Rendering groups particles by colour, so the fill is set once per colour
+ * rather than once per particle.
+ */
+public class ParticleSystem {
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final double AIR_RESISTANCE = 0.95; // Velocity kept per update
+    private static final double GRAVITY = 100; // Pixels per second squared
+
+    private final int capacity;
+    private final double[] x;
+    private final double[] y;
+    private final double[] velocityX;
+    private final double[] velocityY;
+    private final double[] size;
+    private final double[] life;
+    private final double[] maxLife;
+    private final int[] colorIndex;
+    private int start; // Oldest slot in use
+    private int count; // Slots in use, dead or alive, from start
+    private int alive;
+    private long culled;
+
+    // Palette of colours seen so far; particles store an index into it
+    private final List<Color> palette = new ArrayList<>();
+    private final Map<Color, Integer> paletteIndex = new HashMap<>();
+
+    // Scratch arrays for the colour-bucketed render pass
+    private int[] bucketStart = new int[8];
+    private int[] bucketFill = new int[8];
+    private final int[] order;
+
+    public ParticleSystem() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Most particles alive at once; beyond this the oldest are replaced. Zero turns particles off
+     */
+    public ParticleSystem(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Particle capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        x = new double[capacity];
+        y = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        size = new double[capacity];
+        life = new double[capacity];
+        maxLife = new double[capacity];
+        colorIndex = new int[capacity];
+        order = new int[capacity];
+    }
+
+    /**
+     * Adds a single particle
+     */
+    public void emit(double x, double y, double velocityX, double velocityY, double size, Color color, double lifetime) {
+        emit(x, y, velocityX, velocityY, size, colorIndexOf(color), lifetime);
+    }
+
+    /**
+     * Emits particles flying out of a point in random directions. Every range
+     * is [min, min + spread).
+     * @param colors One of these is picked per particle
+     */
+    public void emitBurst(double x, double y, int particles, Random random,
+                          double minSpeed, double speedSpread,
+                          double minSize, double sizeSpread,
+                          double minLifetime, double lifetimeSpread,
+                          Color... colors) {
+        if (capacity == 0) return;
+        // Resolve the colours once for the whole burst
+        int[] indices = new int[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            indices[i] = colorIndexOf(colors[i]);
+        }
+        for (int i = 0; i < particles; i++) {
+            double angle = random.nextDouble() * Math.PI * 2;
+            double speed = minSpeed + random.nextDouble() * speedSpread;
+            double particleSize = minSize + random.nextDouble() * sizeSpread;
+            double lifetime = minLifetime + random.nextDouble() * lifetimeSpread;
+            int color = indices.length == 1 ? indices[0] : indices[random.nextInt(indices.length)];
+            emit(x, y, Math.cos(angle) * speed, Math.sin(angle) * speed, particleSize, color, lifetime);
+        }
+    }
+
+    public void update(double deltaTime) {
+        for (int n = 0; n < count; n++) {
+            int i = (start + n) % capacity;
+            if (life[i] <= 0) continue;
+
+            // Update position
+            x[i] += velocityX[i] * deltaTime;
+            y[i] += velocityY[i] * deltaTime;
+
+            // Apply gravity and friction
+            velocityX[i] *= AIR_RESISTANCE;
+            velocityY[i] = velocityY[i] * AIR_RESISTANCE + GRAVITY * deltaTime;
+
+            life[i] -= deltaTime;
+            if (life[i] <= 0) {
+                alive--;
+            }
+        }
+        // Drop expired particles from the old end of the ring
+        while (count > 0 && life[start] <= 0) {
+            start = (start + 1) % capacity;
+            count--;
+        }
+    }
+
+    public void render(GraphicsContext gc) {
+        if (alive == 0) return;
+
+        // Counting sort of the live particles by colour
+        int colors = palette.size();
+        if (bucketStart.length < colors + 1) {
+            bucketStart = new int[colors + 1];
+            bucketFill = new int[colors + 1];
+        }
+        Arrays.fill(bucketStart, 0, colors + 1, 0);
+        for (int n = 0; n < count; n++) {
+            int i = (start + n) % capacity;
+            if (life[i] > 0) {
+                bucketStart[colorIndex[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < colors; c++) {
+            bucketStart[c + 1] += bucketStart[c];
+        }
+        System.arraycopy(bucketStart, 0, bucketFill, 0, colors + 1);
+        for (int n = 0; n < count; n++) {
+            int i = (start + n) % capacity;
+            if (life[i] > 0) {
+                order[bucketFill[colorIndex[i]]++] = i;
+            }
+        }
+
+        // One fill colour per bucket
+        for (int c = 0; c < colors; c++) {
+            if (bucketStart[c] == bucketStart[c + 1]) continue;
+            gc.setFill(palette.get(c));
+            for (int k = bucketStart[c]; k < bucketStart[c + 1]; k++) {
+                int i = order[k];
+                double remaining = life[i] / maxLife[i];
+                double currentSize = size[i] * (0.5 + remaining * 0.5);
+                gc.setGlobalAlpha(remaining);
+                gc.fillOval(x[i] - currentSize / 2, y[i] - currentSize / 2, currentSize, currentSize);
+            }
+        }
+        gc.setGlobalAlpha(1.0);
+    }
+
+    public void clear() {
+        start = 0;
+        count = 0;
+        alive = 0;
+    }
+
+    /**
+     * @return Number of live particles
+     */
+    public int getCount() {
+        return alive;
+    }
+
+    /**
+     * @return Live particles overwritten because the buffer was full
+     */
+    public long getCulledCount() {
+        return culled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void emit(double px, double py, double vx, double vy, double particleSize, int color, double lifetime) {
+        if (capacity == 0) return;
+        int i;
+        if (count < capacity) {
+            i = (start + count) % capacity;
+            count++;
+        } else {
+            // Full: overwrite the oldest particle
+            i = start;
+            start = (start + 1) % capacity;
+            if (life[i] > 0) {
+                alive--;
+                culled++;
+            }
+        }
+        x[i] = px;
+        y[i] = py;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        size[i] = particleSize;
+        life[i] = lifetime;
+        maxLife[i] = lifetime;
+        colorIndex[i] = color;
+        alive++;
+    }
+
+    private int colorIndexOf(Color color) {
+        Integer index = paletteIndex.get(color);
+        if (index == null) {
+            index = palette.size();
+            palette.add(color);
+            paletteIndex.put(color, index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,154 @@
+package com.dungeon.effects;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Fixed-capacity pool of short vector effects drawn on the game canvas: an
+ * expanding explosion flash and a ring of sparkle dots. Like the other effect
+ * pools, state lives in parallel arrays and a full pool replaces its oldest
+ * effect.
+ */
+public class ShapeEffectPool {
+    public static final int DEFAULT_CAPACITY = 128;
+    private static final double SIZE = 30;
+    private static final int SPARKLE_DOTS = 8;
+
+    public enum Shape {
+        EXPLOSION,
+        SPARKLE
+    }
+
+    private final int capacity;
+    private final Shape[] shapes;
+    private final double[] x;
+    private final double[] y;
+    private final double[] age;
+    private final double[] duration;
+    private final Color[] colors;
+    private final boolean[] active;
+    private int next; // Where the search for a free slot starts
+    private int activeCount;
+    private long culled;
+
+    public ShapeEffectPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Most effects alive at once; zero turns these effects off
+     */
+    public ShapeEffectPool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Shape effect capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        shapes = new Shape[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        age = new double[capacity];
+        duration = new double[capacity];
+        colors = new Color[capacity];
+        active = new boolean[capacity];
+    }
+
+    /**
+     * @param lifetime Seconds the effect plays for
+     */
+    public void show(Shape shape, double x, double y, Color color, double lifetime) {
+        if (capacity == 0) return;
+        int slot = findSlot();
+        shapes[slot] = shape;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        age[slot] = 0;
+        duration[slot] = lifetime;
+        colors[slot] = color;
+        if (!active[slot]) {
+            active[slot] = true;
+            activeCount++;
+        }
+    }
+
+    public void update(double deltaTime) {
+        if (activeCount == 0) return;
+        for (int i = 0; i < capacity; i++) {
+            if (!active[i]) continue;
+            age[i] += deltaTime;
+            if (age[i] >= duration[i]) {
+                active[i] = false;
+                activeCount--;
+            }
+        }
+    }
+
+    public void render(GraphicsContext gc) {
+        if (activeCount == 0) return;
+        for (int i = 0; i < capacity; i++) {
+            if (!active[i]) continue;
+            double progress = age[i] / duration[i];
+            gc.setGlobalAlpha(1.0 - progress);
+            if (shapes[i] == Shape.EXPLOSION) {
+                // Expanding flash with a yellow core
+                double currentSize = SIZE * (1.0 + progress);
+                gc.setFill(colors[i]);
+                gc.fillOval(x[i] - currentSize / 2, y[i] - currentSize / 2, currentSize, currentSize);
+                gc.setFill(Color.YELLOW);
+                gc.fillOval(x[i] - currentSize / 4, y[i] - currentSize / 4, currentSize / 2, currentSize / 2);
+            } else {
+                // Ring of dots moving outwards
+                double distance = SIZE * (1.0 - progress * 0.5) / 2 * progress;
+                gc.setFill(colors[i]);
+                for (int dot = 0; dot < SPARKLE_DOTS; dot++) {
+                    double angle = Math.PI * 2 * dot / SPARKLE_DOTS;
+                    gc.fillOval(x[i] + Math.cos(angle) * distance - 2, y[i] + Math.sin(angle) * distance - 2, 4, 4);
+                }
+            }
+        }
+        gc.setGlobalAlpha(1.0);
+    }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            active[i] = false;
+        }
+        activeCount = 0;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return Effects replaced before they finished because the pool was full
+     */
+    public long getCulledCount() {
+        return culled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return A free slot, or the oldest effect's slot when the pool is full
+     */
+    private int findSlot() {
+        for (int n = 0; n < capacity; n++) {
+            int slot = (next + n) % capacity;
+            if (!active[slot]) {
+                next = (slot + 1) % capacity;
+                return slot;
+            }
+        }
+        // Full: replace the effect that has been playing the longest
+        culled++;
+        int oldest = 0;
+        for (int i = 1; i < capacity; i++) {
+            if (age[i] > age[oldest]) {
+                oldest = i;
+            }
+        }
+        return oldest;
+    }
+}
@@ -0,0 +1,116 @@
+package com.dungeon.model;
+
+import java.util.Arrays;
+
+/**
+ * Map from a grid cell to a room index, used as the occupancy map when laying
+ * out dungeons. The cell's (x, y) is packed into one long key and stored with
+ * open addressing and linear probing in two flat arrays, so lookups box
+ * nothing and a map of a million rooms is two arrays rather than a million
+ * entry objects.
+ */
+public class CellMap {
+    public static final int NONE = -1;
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys;
+    private int[] values; // NONE marks an empty slot
+    private int mask;
+    private int shift; // 64 minus the number of index bits
+    private int size;
+
+    public CellMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize Number of cells the map should hold without growing
+     */
+    public CellMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) Math.ceil(expectedSize / MAX_LOAD)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return The room index at the cell, or NONE
+     */
+    public int get(int x, int y) {
+        long key = key(x, y);
+        for (int slot = slotFor(key); ; slot = (slot + 1) & mask) {
+            if (values[slot] == NONE) return NONE;
+            if (keys[slot] == key) return values[slot];
+        }
+    }
+
+    public boolean contains(int x, int y) {
+        return get(x, y) != NONE;
+    }
+
+    /**
+     * @param value Room index, not negative
+     * @return The previous room index at the cell, or NONE
+     */
+    public int put(int x, int y, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Room index must not be negative: " + value);
+        }
+        if (size + 1 > keys.length * MAX_LOAD) {
+            grow();
+        }
+        long key = key(x, y);
+        int slot = slotFor(key);
+        while (values[slot] != NONE) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return NONE;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, NONE);
+        size = 0;
+    }
+
+    private int slotFor(long key) {
+        // Fibonacci hashing spreads neighbouring cells across the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NONE);
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == NONE) continue;
+            int slot = slotFor(oldKeys[i]);
+            while (values[slot] != NONE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
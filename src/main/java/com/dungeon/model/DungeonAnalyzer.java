@@ -0,0 +1,183 @@
+package com.dungeon.model;
+
+/**
+ * Post-generation pass over a DungeonGraph. It measures the layout (depth,
+ * diameter, dead ends, branching) and gives rooms their roles from the
+ * shape of the graph rather than from dice rolls. Everything is built on the
+ * spawn distances the graph already holds plus at most two more breadth-first
+ * searches, so it is linear in the room count.
+ */
+public final class DungeonAnalyzer {
+
+    /**
+     * Shape of a layout
+     * @param rooms Number of rooms
+     * @param maxDepth Doors from spawn to the farthest room
+     * @param diameter Longest shortest path between any two rooms, by double sweep; exact when the layout has no loops, a lower bound otherwise
+     * @param deadEnds Rooms with a single door
+     * @param junctions Rooms with three or four doors
+     * @param branchingFactor Mean number of doors leading onwards (away from spawn) out of rooms that are not dead ends
+     * @param criticalPath Doors from spawn to the boss room, or -1 without a boss
+     */
+    public record Metrics(int rooms, int maxDepth, int diameter, int deadEnds, int junctions,
+                          double branchingFactor, int criticalPath) {
+    }
+
+    private DungeonAnalyzer() {
+    }
+
+    public static Metrics analyze(DungeonGraph graph) {
+        int rooms = graph.getRoomCount();
+        int deadEnds = 0;
+        int junctions = 0;
+        int onwardDoors = 0;
+        int roomsWithOnwardDoors = 0;
+        int maxDepth = 0;
+        for (int room = 0; room < rooms; room++) {
+            int doors = graph.getDoorCount(room);
+            if (doors == 1) deadEnds++;
+            if (doors >= 3) junctions++;
+            maxDepth = Math.max(maxDepth, graph.getDistance(room));
+
+            // Doors to rooms farther from spawn than this one
+            int onward = 0;
+            for (int side = 0; side < 4; side++) {
+                int next = graph.getNeighbour(room, side);
+                if (next != DungeonGraph.NONE && graph.getDistance(next) > graph.getDistance(room)) {
+                    onward++;
+                }
+            }
+            if (onward > 0) {
+                onwardDoors += onward;
+                roomsWithOnwardDoors++;
+            }
+        }
+        double branchingFactor = roomsWithOnwardDoors > 0 ? (double) onwardDoors / roomsWithOnwardDoors : 0;
+        int boss = graph.getBossRoom();
+        int criticalPath = boss != DungeonGraph.NONE ? graph.getDistance(boss) : -1;
+        return new Metrics(rooms, maxDepth, diameter(graph), deadEnds, junctions, branchingFactor, criticalPath);
+    }
+
+    /**
+     * Double sweep: the room farthest from spawn is one end of a longest
+     * path (in a tree), and the room farthest from it is the other end.
+     */
+    static int diameter(DungeonGraph graph) {
+        int start = graph.getFarthestRoom();
+        if (start == DungeonGraph.NONE) return 0;
+        int[] distance = DungeonGraph.distancesFrom(graph.getLinks(), graph.getRoomCount(), start);
+        int diameter = 0;
+        for (int d : distance) {
+            diameter = Math.max(diameter, d);
+        }
+        return diameter;
+    }
+
+    /**
+     * Gives every room its role:
+     * - the boss takes the room farthest from spawn, a dead end if one is that far;
+     * - treasure goes to dead ends, deepest first, as rewards off the main route;
+     * - puzzles gate the critical path from spawn to the boss at even spacing,
+     *   then take junctions, deepest first;
+     * - everything else is combat.
+     * If the layout is short of dead ends or path rooms, the deepest combat
+     * rooms make up the numbers.
+     * @param treasureRooms Treasure rooms wanted
+     * @param puzzleRooms Puzzle rooms wanted
+     */
+    static void assignRoles(DungeonGraph graph, int treasureRooms, int puzzleRooms) {
+        int rooms = graph.getRoomCount();
+        int spawn = graph.getSpawnRoom();
+        for (int room = 0; room < rooms; room++) {
+            graph.setType(room, room == spawn ? DungeonRoom.RoomType.SPAWN : DungeonRoom.RoomType.COMBAT);
+        }
+        if (rooms < 2) return;
+
+        // Rooms ordered deepest first, by a counting sort on spawn distance
+        int maxDepth = 0;
+        for (int room = 0; room < rooms; room++) {
+            maxDepth = Math.max(maxDepth, graph.getDistance(room));
+        }
+        int[] start = new int[maxDepth + 2];
+        for (int room = 0; room < rooms; room++) {
+            start[maxDepth - graph.getDistance(room) + 1]++;
+        }
+        for (int depth = 0; depth <= maxDepth; depth++) {
+            start[depth + 1] += start[depth];
+        }
+        int[] deepestFirst = new int[rooms];
+        for (int room = 0; room < rooms; room++) {
+            deepestFirst[start[maxDepth - graph.getDistance(room)]++] = room;
+        }
+
+        // Boss: the deepest room, preferring a dead end at that depth
+        int boss = deepestFirst[0];
+        for (int i = 0; i < rooms && graph.getDistance(deepestFirst[i]) == maxDepth; i++) {
+            if (graph.getDoorCount(deepestFirst[i]) == 1) {
+                boss = deepestFirst[i];
+                break;
+            }
+        }
+        graph.setType(boss, DungeonRoom.RoomType.BOSS);
+
+        // Treasure in dead ends
+        int treasure = 0;
+        for (int i = 0; i < rooms && treasure < treasureRooms; i++) {
+            int room = deepestFirst[i];
+            if (graph.getType(room) == DungeonRoom.RoomType.COMBAT && graph.getDoorCount(room) == 1) {
+                graph.setType(room, DungeonRoom.RoomType.TREASURE);
+                treasure++;
+            }
+        }
+
+        // Puzzles spread along the critical path, walked back from the boss
+        int pathLength = graph.getDistance(boss);
+        int puzzles = 0;
+        if (puzzleRooms > 0 && pathLength > 1) {
+            int spacing = Math.max(1, pathLength / (puzzleRooms + 1));
+            int room = boss;
+            while (graph.getDistance(room) > 1 && puzzles < puzzleRooms) {
+                room = stepTowardsSpawn(graph, room);
+                int depth = graph.getDistance(room);
+                if (depth % spacing == 0 && graph.getType(room) == DungeonRoom.RoomType.COMBAT) {
+                    graph.setType(room, DungeonRoom.RoomType.PUZZLE);
+                    puzzles++;
+                }
+            }
+        }
+        // Then at junctions
+        for (int i = 0; i < rooms && puzzles < puzzleRooms; i++) {
+            int room = deepestFirst[i];
+            if (graph.getType(room) == DungeonRoom.RoomType.COMBAT && graph.getDoorCount(room) >= 3) {
+                graph.setType(room, DungeonRoom.RoomType.PUZZLE);
+                puzzles++;
+            }
+        }
+
+        // Make up any shortfall from the deepest combat rooms
+        for (int i = 0; i < rooms && (treasure < treasureRooms || puzzles < puzzleRooms); i++) {
+            int room = deepestFirst[i];
+            if (graph.getType(room) != DungeonRoom.RoomType.COMBAT) continue;
+            if (treasure < treasureRooms) {
+                graph.setType(room, DungeonRoom.RoomType.TREASURE);
+                treasure++;
+            } else {
+                graph.setType(room, DungeonRoom.RoomType.PUZZLE);
+                puzzles++;
+            }
+        }
+    }
+
+    /**
+     * @return A neighbour one door closer to spawn
+     */
+    private static int stepTowardsSpawn(DungeonGraph graph, int room) {
+        for (int side = 0; side < 4; side++) {
+            int next = graph.getNeighbour(room, side);
+            if (next != DungeonGraph.NONE && graph.getDistance(next) == graph.getDistance(room) - 1) {
+                return next;
+            }
+        }
+        throw new IllegalStateException("Room " + room + " is not reachable from spawn");
+    }
+}
@@ -1,6 +1,5 @@
 package com.dungeon.model;
 
-import javafx.geometry.Point2D;
 import java.util.*;
 
 public class DungeonGenerator {
@@ -8,269 +7,229 @@ public class DungeonGenerator {
     private static final int MIN_ROOMS = 10;
     private static final int MAX_ROOMS = 15;
     private static final int MIN_SPECIAL_ROOMS = 3; // Minimum special rooms (puzzle/treasure)
-    private static final double TREASURE_CHANCE = 0.3; // 30% chance for treasure room
-    private static final double PUZZLE_CHANCE = 0.4; // 40% chance for puzzle room
+    private static final double TREASURE_CHANCE = 0.3; // Share of rooms (besides spawn and boss) that hold treasure
+    private static final double PUZZLE_CHANCE = 0.4; // Share of the remaining rooms that hold puzzles
+    private static final double BRANCH_CHANCE = 0.5; // generateLayout: grow from a random frontier room rather than the newest
+    private static final double LOOP_CHANCE = 0.03; // generateLayout: chance per difficulty level of an extra door into a neighbour
     
     // Room dimensions
     private static final int ROOM_WIDTH = 10;
     private static final int ROOM_HEIGHT = 10;
     
-    // Direction vectors for room connections
-    private static final int[][] DIRECTIONS = {
-        {0, -1}, // North
-        {1, 0},  // East
-        {0, 1},  // South
-        {-1, 0}  // West
-    };
-    
-    private Random random;
+    private SplittableRandom random;
     private int difficulty; // 1-3, affects dungeon complexity
 
     public DungeonGenerator() {
-        this.random = new Random();
-        this.difficulty = 1;
+        this(1);
     }
     
     public DungeonGenerator(int difficulty) {
-        this.random = new Random();
+        this(difficulty, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Every random choice comes from this seed, so the same seed and difficulty always
+     * give the same layout.
+     * @param difficulty 1-3, affects dungeon complexity
+     * @param seed Layout seed
+     */
+    public DungeonGenerator(int difficulty, long seed) {
+        this.random = new SplittableRandom(seed);
         this.difficulty = Math.min(3, Math.max(1, difficulty)); // Clamp between 1-3
     }
 
     public List<DungeonRoom> generateDungeon() {
+        return generateGraph().getRooms();
+    }
+
+    /**
+     * Generates a game-sized dungeon. Rooms are kept as ids and links while
+     * the layout is worked out, including the room roles, and the room
+     * objects are only made at the end, so no room is ever replaced after its
+     * neighbours have linked to it.
+     */
+    public DungeonGraph generateGraph() {
         // Calculate number of rooms based on difficulty
         int targetRooms = MIN_ROOMS + (difficulty - 1) * 3;
         targetRooms = Math.min(MAX_ROOMS, targetRooms);
         
-        // Create dungeon map (hash map of coordinates to rooms)
-        Map<Point2D, DungeonRoom> dungeonMap = new HashMap<>();
-        List<DungeonRoom> roomList = new ArrayList<>();
-        Queue<DungeonRoom> roomsToProcess = new LinkedList<>();
+        // Occupancy map of grid cells to room ids
+        CellMap dungeonMap = new CellMap(targetRooms);
+        int[] xs = new int[targetRooms];
+        int[] ys = new int[targetRooms];
+        DungeonRoom.RoomType[] types = new DungeonRoom.RoomType[targetRooms];
+        int[] links = new int[targetRooms * 4];
+        Arrays.fill(links, DungeonGraph.NONE);
         
         // Create spawn room at origin
-        DungeonRoom spawnRoom = new DungeonRoom(0, 0, ROOM_WIDTH, ROOM_HEIGHT, DungeonRoom.RoomType.SPAWN);
-        dungeonMap.put(new Point2D(0, 0), spawnRoom);
-        roomList.add(spawnRoom);
-        roomsToProcess.add(spawnRoom);
-        
-        // Create boss room - will be placed farthest from spawn
-        DungeonRoom bossRoom = new DungeonRoom(0, 0, ROOM_WIDTH, ROOM_HEIGHT, DungeonRoom.RoomType.BOSS);
-        DungeonRoom farthestRoom = spawnRoom;
-        int maxDistance = 0;
+        types[0] = DungeonRoom.RoomType.SPAWN;
+        dungeonMap.put(0, 0, 0);
+        int roomCount = 1;
         
-        // Generate connected rooms using BFS approach
-        while (!roomsToProcess.isEmpty() && roomList.size() < targetRooms) {
-            DungeonRoom currentRoom = roomsToProcess.poll();
-            
-            // Try to add rooms in each direction
-            for (int[] dir : DIRECTIONS) {
-                // Stop if we've reached our target room count
-                if (roomList.size() >= targetRooms) {
-                    break;
-                }
+        // Generate connected rooms using BFS approach; rooms are processed in the order they were made.
+        // A pass can die out early when every roll fails, so passes repeat until the dungeon is full.
+        while (roomCount < targetRooms) {
+            for (int currentRoom = 0; currentRoom < roomCount && roomCount < targetRooms; currentRoom++) {
+                // Try to add rooms in each direction
+                for (int side = 0; side < 4; side++) {
+                    // Stop if we've reached our target room count
+                    if (roomCount >= targetRooms) {
+                        break;
+                    }
                 
-                // Calculate potential new room coordinates
-                int newX = currentRoom.getX() + dir[0] * ROOM_WIDTH;
-                int newY = currentRoom.getY() + dir[1] * ROOM_HEIGHT;
-                Point2D newPos = new Point2D(newX, newY);
+                    // Calculate potential new room coordinates
+                    int cellX = xs[currentRoom] + DungeonGraph.DX[side];
+                    int cellY = ys[currentRoom] + DungeonGraph.DY[side];
+                    int newX = cellX * ROOM_WIDTH;
+                    int newY = cellY * ROOM_HEIGHT;
                 
-                // Skip if room already exists at this position
-                if (dungeonMap.containsKey(newPos)) {
-                    continue;
-                }
+                    // Skip if room already exists at this position
+                    if (dungeonMap.contains(cellX, cellY)) {
+                        continue;
+                    }
                 
-                // Room creation probability decreases with distance from origin 
-                // to create more interesting, branching layouts
-                double distanceFromOrigin = Math.sqrt(newX * newX + newY * newY);
-                double createChance = 0.9 - (distanceFromOrigin * 0.1);
-                createChance = Math.max(0.3, createChance); // Minimum 30% chance
+                    // Room creation probability decreases with distance from origin 
+                    // to create more interesting, branching layouts
+                    double distanceFromOrigin = Math.sqrt(newX * newX + newY * newY);
+                    double createChance = 0.9 - (distanceFromOrigin * 0.1);
+                    createChance = Math.max(0.3, createChance); // Minimum 30% chance
                 
-                // Higher difficulty increases chance of room creation
-                createChance += (difficulty - 1) * 0.1;
+                    // Higher difficulty increases chance of room creation
+                    createChance += (difficulty - 1) * 0.1;
                 
-                if (random.nextDouble() < createChance) {
-                    // Determine room type - Combat is default
-                    DungeonRoom.RoomType roomType = DungeonRoom.RoomType.COMBAT;
-                    
-                    // 30% chance for treasure room, 40% chance for puzzle room (if not treasure)
-                    if (random.nextDouble() < TREASURE_CHANCE) {
-                        roomType = DungeonRoom.RoomType.TREASURE;
-                    } else if (random.nextDouble() < PUZZLE_CHANCE) {
-                        roomType = DungeonRoom.RoomType.PUZZLE;
-                    }
-                    
-                    // Create new room
-                    DungeonRoom newRoom = new DungeonRoom(newX, newY, ROOM_WIDTH, ROOM_HEIGHT, roomType);
-                    dungeonMap.put(newPos, newRoom);
-                    roomList.add(newRoom);
-                    roomsToProcess.add(newRoom);
-                    
-                    // Connect rooms bidirectionally
-                    currentRoom.connect(newRoom);
-                    
-                    // Check if this is the farthest room from spawn
-                    if (distanceFromOrigin > maxDistance) {
-                        maxDistance = (int)distanceFromOrigin;
-                        farthestRoom = newRoom;
+                    if (random.nextDouble() < createChance) {
+                        // Create new room, linked back to the room it grew from; its role comes later
+                        int newRoom = roomCount++;
+                        xs[newRoom] = cellX;
+                        ys[newRoom] = cellY;
+                        types[newRoom] = DungeonRoom.RoomType.COMBAT;
+                        dungeonMap.put(cellX, cellY, newRoom);
+                        link(links, currentRoom, newRoom, side);
                     }
                 }
             }
         }
         
-        // Ensure we have a minimum number of special rooms
-        ensureMinimumSpecialRooms(roomList);
-        
-        // Place boss room at or near the farthest position from spawn
-        if (farthestRoom != spawnRoom) {
-            // Remove the room at the farthest position
-            roomList.remove(farthestRoom);
-            // Replace with boss room at same position
-            bossRoom = new DungeonRoom(farthestRoom.getX(), farthestRoom.getY(), ROOM_WIDTH, ROOM_HEIGHT, DungeonRoom.RoomType.BOSS);
-            roomList.add(bossRoom);
-            
-            // Connect boss room to the same rooms that were connected to the farthest room
-            for (DungeonRoom connectedRoom : farthestRoom.getConnectedRooms()) {
-                bossRoom.connect(connectedRoom);
-                
-                // Update the connected room's connections (already handled by connect method)
-                // The connect method in DungeonRoom already handles bidirectional connections
-            }
-        }
-        
-        // Ensure connectivity of the entire dungeon
-        ensureDungeonConnectivity(roomList);
-        
-        return roomList;
+        // Every room was linked to the one it grew from, so all of them are reachable
+        DungeonGraph graph = new DungeonGraph(roomCount, xs, ys, types, links, ROOM_WIDTH, ROOM_HEIGHT);
+        assignRoles(graph);
+        return graph;
     }
     
-    private void ensureMinimumSpecialRooms(List<DungeonRoom> rooms) {
-        // Count existing special rooms
-        int treasureCount = 0;
-        int puzzleCount = 0;
-
-        for (DungeonRoom room : rooms) {
-            if (room.getType() == DungeonRoom.RoomType.TREASURE) {
-                treasureCount++;
-            } else if (room.getType() == DungeonRoom.RoomType.PUZZLE) {
-                puzzleCount++;
-            }
-        }
-        
-        // Calculate how many more special rooms we need
-        int targetSpecialRooms = MIN_SPECIAL_ROOMS + (difficulty - 1);
-        int currentSpecialRooms = treasureCount + puzzleCount;
-        int roomsToConvert = Math.max(0, targetSpecialRooms - currentSpecialRooms);
-        
-        // Convert some combat rooms to special rooms if needed
-        if (roomsToConvert > 0) {
-            // We need to implement a way to change room types
-            // Since DungeonRoom doesn't have a setType method, we'll need to replace rooms
-            
-            // Get list of eligible combat rooms (not spawn or boss)
-            List<Integer> combatRoomIndices = new ArrayList<>();
-            for (int i = 0; i < rooms.size(); i++) {
-                DungeonRoom room = rooms.get(i);
-                if (room.getType() == DungeonRoom.RoomType.COMBAT) {
-                    combatRoomIndices.add(i);
-                }
-            }
-            
-            // Shuffle to randomize selection
-            Collections.shuffle(combatRoomIndices);
-            
-            // Convert rooms
-            for (int i = 0; i < Math.min(roomsToConvert, combatRoomIndices.size()); i++) {
-                int index = combatRoomIndices.get(i);
-                DungeonRoom oldRoom = rooms.get(index);
-                
-                // Determine new room type
-                DungeonRoom.RoomType newType = (i % 2 == 0) 
-                    ? DungeonRoom.RoomType.TREASURE 
-                    : DungeonRoom.RoomType.PUZZLE;
-                
-                // Create new room with the new type
-                DungeonRoom newRoom = new DungeonRoom(
-                    oldRoom.getX(), 
-                    oldRoom.getY(), 
-                    oldRoom.getWidth(), 
-                    oldRoom.getHeight(), 
-                    newType
-                );
-                
-                // Connect to the same rooms
-                for (DungeonRoom connectedRoom : oldRoom.getConnectedRooms()) {
-                    newRoom.connect(connectedRoom);
-                }
-                
-                // Replace in the list
-                rooms.set(index, newRoom);
-            }
-        }
+    /**
+     * Gives the rooms their roles from the shape of the layout: boss deepest,
+     * treasure in dead ends, puzzles along the way to the boss. The number of
+     * special rooms follows the room count, with at least MIN_SPECIAL_ROOMS
+     * (plus one per difficulty level) where there is room for them.
+     */
+    private void assignRoles(DungeonGraph graph) {
+        int freeRooms = Math.max(0, graph.getRoomCount() - 2); // Besides spawn and boss
+        int minimumSpecial = Math.min(freeRooms, MIN_SPECIAL_ROOMS + (difficulty - 1));
+        int treasureRooms = Math.min(freeRooms,
+            Math.max((minimumSpecial + 1) / 2, (int) Math.round(freeRooms * TREASURE_CHANCE)));
+        int puzzleRooms = Math.min(freeRooms - treasureRooms,
+            Math.max(minimumSpecial - treasureRooms, (int) Math.round(freeRooms * (1 - TREASURE_CHANCE) * PUZZLE_CHANCE)));
+        DungeonAnalyzer.assignRoles(graph, treasureRooms, puzzleRooms);
     }
     
-    private void ensureDungeonConnectivity(List<DungeonRoom> rooms) {
-        // Simple connectivity check - make sure all rooms are reachable from spawn
-        Set<DungeonRoom> visited = new HashSet<>();
-        Queue<DungeonRoom> queue = new LinkedList<>();
-        
-        // Find spawn room
-        DungeonRoom spawn = null;
-        for (DungeonRoom room : rooms) {
-            if (room.getType() == DungeonRoom.RoomType.SPAWN) {
-                spawn = room;
-                break;
-            }
-        }
-        
-        if (spawn == null) return; // No spawn room found
-        
-        // BFS from spawn
-        queue.add(spawn);
-        visited.add(spawn);
-        
-        while (!queue.isEmpty()) {
-            DungeonRoom current = queue.poll();
-            
-            for (DungeonRoom neighbor : current.getConnectedRooms()) {
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    queue.add(neighbor);
-                }
-            }
+    /**
+     * Generates a layout of any size, from a handful of rooms to a million,
+     * in time linear in the room count.
+     *
+     * Rooms grow out of the spawn room with the growing-tree method: each step
+     * takes a room from the frontier (rooms with a free side) and opens a
+     * new room next to it, linked back to it. Every room is linked to the one
+     * it grew from, so the dungeon is connected by construction and needs no
+     * connectivity pass. Taking the newest frontier room gives long corridors,
+     * a random one gives side branches; BRANCH_CHANCE mixes the two. A room
+     * whose four sides are taken leaves the frontier, so every step either
+     * places a room or shrinks the frontier.
+     *
+     * @param rooms Number of rooms to place
+     * @return The dungeon, with the boss in the room farthest (in doors) from
+     * spawn and the other roles placed by DungeonAnalyzer
+     */
+    public DungeonGraph generateLayout(int rooms) {
+        if (rooms < 1) {
+            throw new IllegalArgumentException("A dungeon needs at least one room: " + rooms);
         }
-        
-        // Connect any unvisited rooms to the nearest visited room
-        if (visited.size() < rooms.size()) {
-            for (DungeonRoom room : rooms) {
-                if (!visited.contains(room)) {
-                    // Find closest visited room
-                    DungeonRoom closest = null;
-                    int minDistance = Integer.MAX_VALUE;
-                    
-                    for (DungeonRoom visitedRoom : visited) {
-                        int distance = calculateManhattanDistance(room, visitedRoom);
-                        if (distance < minDistance) {
-                            minDistance = distance;
-                            closest = visitedRoom;
-                        }
-                    }
-                    
-                    // Connect rooms bidirectionally
-                    if (closest != null) {
-                        room.connect(closest);
-                        
-                        // Mark as visited and add to queue to continue connectivity check
-                        visited.add(room);
-                        queue.add(room);
+        CellMap cells = new CellMap(rooms);
+        int[] xs = new int[rooms];
+        int[] ys = new int[rooms];
+        DungeonRoom.RoomType[] types = new DungeonRoom.RoomType[rooms];
+        int[] links = new int[rooms * 4];
+        Arrays.fill(links, DungeonGraph.NONE);
+        int[] frontier = new int[rooms];
+        int frontierSize = 0;
+
+        // Spawn room at the origin
+        types[0] = DungeonRoom.RoomType.SPAWN;
+        cells.put(0, 0, 0);
+        frontier[frontierSize++] = 0;
+        int count = 1;
+        double loopChance = LOOP_CHANCE * difficulty;
+
+        while (count < rooms && frontierSize > 0) {
+            int pick = random.nextDouble() < BRANCH_CHANCE ? random.nextInt(frontierSize) : frontierSize - 1;
+            int room = frontier[pick];
+
+            // Try the four sides starting from a random one
+            int firstSide = random.nextInt(4);
+            int placed = DungeonGraph.NONE;
+            for (int turn = 0; turn < 4 && placed == DungeonGraph.NONE; turn++) {
+                int side = (firstSide + turn) & 3;
+                int nx = xs[room] + DungeonGraph.DX[side];
+                int ny = ys[room] + DungeonGraph.DY[side];
+                if (cells.contains(nx, ny)) continue;
+
+                placed = count++;
+                xs[placed] = nx;
+                ys[placed] = ny;
+                cells.put(nx, ny, placed);
+                link(links, room, placed, side);
+                types[placed] = DungeonRoom.RoomType.COMBAT;
+
+                // Occasionally open a door into an existing neighbour as well, making a loop
+                for (int other = 0; other < 4; other++) {
+                    if (other == ((side + 2) & 3)) continue; // The side it grew from
+                    int neighbour = cells.get(nx + DungeonGraph.DX[other], ny + DungeonGraph.DY[other]);
+                    if (neighbour != CellMap.NONE && random.nextDouble() < loopChance) {
+                        link(links, placed, neighbour, other);
                     }
                 }
+                frontier[frontierSize++] = placed;
+            }
+            if (placed == DungeonGraph.NONE) {
+                // Boxed in: drop it from the frontier
+                frontier[pick] = frontier[--frontierSize];
             }
         }
+
+        DungeonGraph graph = new DungeonGraph(count, xs, ys, types, links, ROOM_WIDTH, ROOM_HEIGHT);
+        assignRoles(graph);
+        return graph;
     }
-    
+
+    /**
+     * Links two rooms in both directions
+     * @param side Side of the first room the second one is on
+     */
+    private static void link(int[] links, int room, int other, int side) {
+        links[room * 4 + side] = other;
+        links[other * 4 + ((side + 2) & 3)] = room;
+    }
+
     private int calculateManhattanDistance(DungeonRoom a, DungeonRoom b) {
         return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
     }
     
+    /**
+     * Restarts the layout sequence from a seed
+     */
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
     public void setDifficulty(int difficulty) {
         this.difficulty = Math.min(3, Math.max(1, difficulty));
     }
@@ -0,0 +1,244 @@
+package com.dungeon.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A generated dungeon as a graph over integer room ids, held in flat arrays so
+ * layouts of hundreds of thousands of rooms stay compact. Rooms are numbered
+ * from 0 (the spawn room) in the order they were placed. Each room has one
+ * grid cell and a link slot per side (north, east, south, west), so finding
+ * the neighbour through a side or checking whether two rooms are connected
+ * looks at four ints at most. Door distances from spawn are computed once,
+ * when the graph is built.
+ *
+ * The DungeonRoom objects the game plays on are made from the graph on first
+ * use, once, so every room's neighbours are the very objects in the list.
+ * Not thread-safe; hand a graph to another thread only through a safe
+ * publication such as a future.
+ */
+public class DungeonGraph {
+    public static final int NONE = CellMap.NONE;
+    public static final int NORTH = 0;
+    public static final int EAST = 1;
+    public static final int SOUTH = 2;
+    public static final int WEST = 3;
+    static final int[] DX = {0, 1, 0, -1};
+    static final int[] DY = {-1, 0, 1, 0};
+
+    private final int roomCount;
+    private final int[] x;
+    private final int[] y;
+    private final DungeonRoom.RoomType[] types;
+    private final int[] links; // links[room * 4 + side] is the room through that side, or NONE
+    private final int[] distance; // Doors to walk from the spawn room, -1 if unreachable
+    private final int farthestRoom;
+    private int bossRoom;
+    private final int cellWidth;
+    private final int cellHeight;
+
+    // Built on first use by getRooms()
+    private List<DungeonRoom> rooms;
+    private Map<DungeonRoom, Integer> ids;
+
+    /**
+     * @param cellWidth Width of one grid cell in room coordinates
+     * @param cellHeight Height of one grid cell in room coordinates
+     */
+    DungeonGraph(int roomCount, int[] x, int[] y, DungeonRoom.RoomType[] types, int[] links,
+                 int cellWidth, int cellHeight) {
+        this.roomCount = roomCount;
+        this.x = x;
+        this.y = y;
+        this.types = types;
+        this.links = links;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.distance = distancesFrom(links, roomCount, 0);
+
+        int farthest = NONE;
+        int boss = NONE;
+        for (int room = 0; room < roomCount; room++) {
+            if (room != 0 && (farthest == NONE || distance[room] > distance[farthest])) {
+                farthest = room;
+            }
+            if (boss == NONE && types[room] == DungeonRoom.RoomType.BOSS) {
+                boss = room;
+            }
+        }
+        this.farthestRoom = farthest;
+        this.bossRoom = boss;
+    }
+
+    /**
+     * Breadth-first door distances over a link array
+     * @return Distance of every room from the start room, -1 where it cannot be reached
+     */
+    static int[] distancesFrom(int[] links, int roomCount, int start) {
+        int[] distance = new int[roomCount];
+        Arrays.fill(distance, -1);
+        if (roomCount == 0) return distance;
+        int[] queue = new int[roomCount];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        distance[start] = 0;
+        while (head < tail) {
+            int room = queue[head++];
+            for (int side = 0; side < 4; side++) {
+                int next = links[room * 4 + side];
+                if (next != NONE && distance[next] < 0) {
+                    distance[next] = distance[room] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distance;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * @return Grid column of the room; the spawn room is at (0, 0)
+     */
+    public int getX(int room) {
+        return x[room];
+    }
+
+    /**
+     * @return Grid row of the room
+     */
+    public int getY(int room) {
+        return y[room];
+    }
+
+    public DungeonRoom.RoomType getType(int room) {
+        return types[room];
+    }
+
+    /**
+     * Changes a room's type; only while the room objects have not been built
+     */
+    void setType(int room, DungeonRoom.RoomType type) {
+        if (rooms != null) {
+            throw new IllegalStateException("Room types are fixed once the rooms are built");
+        }
+        types[room] = type;
+        if (type == DungeonRoom.RoomType.BOSS && (bossRoom == NONE || room < bossRoom)) {
+            bossRoom = room;
+        } else if (type != DungeonRoom.RoomType.BOSS && room == bossRoom) {
+            bossRoom = NONE;
+            for (int other = 0; other < roomCount; other++) {
+                if (types[other] == DungeonRoom.RoomType.BOSS) {
+                    bossRoom = other;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param side NORTH, EAST, SOUTH or WEST
+     * @return The room through that side, or NONE
+     */
+    public int getNeighbour(int room, int side) {
+        return links[room * 4 + side];
+    }
+
+    /**
+     * @return Number of doors out of the room, 0 to 4
+     */
+    public int getDoorCount(int room) {
+        int doors = 0;
+        for (int side = 0; side < 4; side++) {
+            if (links[room * 4 + side] != NONE) {
+                doors++;
+            }
+        }
+        return doors;
+    }
+
+    int[] getLinks() {
+        return links;
+    }
+
+    public boolean areConnected(int room, int other) {
+        for (int side = 0; side < 4; side++) {
+            if (links[room * 4 + side] == other) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Shortest number of doors from the spawn room, -1 if it cannot be reached
+     */
+    public int getDistance(int room) {
+        return distance[room];
+    }
+
+    public int getSpawnRoom() {
+        return 0;
+    }
+
+    /**
+     * @return The room most doors away from spawn, or NONE for a single-room dungeon
+     */
+    public int getFarthestRoom() {
+        return farthestRoom;
+    }
+
+    /**
+     * @return The boss room, or NONE if there is none
+     */
+    public int getBossRoom() {
+        return bossRoom;
+    }
+
+    /**
+     * @return The room objects, indexed by id; built on the first call. Meant
+     * for dungeons of game size, as every room becomes an object.
+     */
+    public List<DungeonRoom> getRooms() {
+        if (rooms == null) {
+            List<DungeonRoom> built = new ArrayList<>(roomCount);
+            ids = new IdentityHashMap<>(roomCount);
+            for (int room = 0; room < roomCount; room++) {
+                DungeonRoom dungeonRoom = new DungeonRoom(x[room] * cellWidth, y[room] * cellHeight, cellWidth, cellHeight, types[room]);
+                built.add(dungeonRoom);
+                ids.put(dungeonRoom, room);
+            }
+            for (int room = 0; room < roomCount; room++) {
+                // Each link is stored on both rooms; connect it once, from the east and south sides
+                int east = links[room * 4 + EAST];
+                if (east != NONE) {
+                    built.get(room).connect(built.get(east));
+                }
+                int south = links[room * 4 + SOUTH];
+                if (south != NONE) {
+                    built.get(room).connect(built.get(south));
+                }
+            }
+            rooms = Collections.unmodifiableList(built);
+        }
+        return rooms;
+    }
+
+    public DungeonRoom getRoom(int room) {
+        return getRooms().get(room);
+    }
+
+    /**
+     * @return The id of a room from getRooms(), or NONE for a room not in this dungeon
+     */
+    public int getId(DungeonRoom room) {
+        getRooms();
+        Integer id = ids.get(room);
+        return id != null ? id : NONE;
+    }
+}
@@ -0,0 +1,2243 @@
+package com.dungeon.model;
+
+import com.dungeon.model.entity.Enemy;
+import com.dungeon.model.entity.Entity;
+import com.dungeon.model.entity.Player;
+import com.dungeon.model.entity.ProjectileAttack;
+import com.dungeon.utils.FrameProfiler;
+import com.dungeon.utils.VectorMath;
+import javafx.geometry.Point2D;
+import javafx.scene.input.KeyCode;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * The game rules without a screen: dungeon, rooms, doors, player, enemies,
+ * waves and projectiles, advanced one fixed step at a time by update().
+ *
+ * Nothing here touches the JavaFX scene graph or needs the toolkit running.
+ * Room bounds come from setBounds() rather than a canvas, input arrives as
+ * key codes and an aim point, and everything the player would see or hear is
+ * reported through a Listener. GameController drives one of these per run;
+ * tests and soak runs can drive one directly with scripted input.
+ */
+public class GameSimulation {
+
+    /**
+     * Receives presentation events from the simulation. All methods default
+     * to doing nothing, so a headless driver only overrides what it needs.
+     */
+    public interface Listener {
+        /** A short text popup at a room position (damage, pickups, hints) */
+        default void onFloatingText(String text, double x, double y, Color color) {
+        }
+
+        /** A sound effect should start */
+        default void onSound(String name) {
+        }
+
+        /** A looping sound effect should stop */
+        default void onSoundStopped(String name) {
+        }
+
+        /** A burst effect at a room position */
+        default void onExplosion(double x, double y, double intensity) {
+        }
+
+        /**
+         * The player walked through an unlocked door. The simulation pauses
+         * until completeTransition() is called.
+         */
+        default void onRoomTransition(DungeonRoom targetRoom) {
+        }
+
+        /** The player died */
+        default void onGameOver() {
+        }
+
+        /** The boss was defeated */
+        default void onVictory() {
+        }
+    }
+
+    /** Listener that ignores every event */
+    public static final Listener NO_EVENTS = new Listener() {
+    };
+
+    public static final double DEFAULT_WIDTH = 800;
+    public static final double DEFAULT_HEIGHT = 600;
+    public static final double STATUE_SIZE = 200.0;
+    public static final double SPIKE_SIZE = 20.0;
+
+    private static final double ATTACK_COOLDOWN = 2.0; // 2 seconds cooldown
+    private static final double BOUNCE_DISTANCE = 100.0; // Distance to bounce back
+    private static final double STATUE_INTERACTION_RANGE = 250.0;
+    private static final double MELEE_ATTACK_RANGE = 40; // Reach beyond touching distance
+    private static final double SPIKE_DAMAGE = 5.0;
+    private static final double DOOR_WIDTH = 40;
+    private static final double DOOR_HEIGHT = 40;
+
+    private final Listener listener;
+    private long seed; // Run seed; every level's layout, spawns and drops derive from it
+    private SplittableRandom random; // Gameplay stream of the current level
+    private double width = DEFAULT_WIDTH;
+    private double height = DEFAULT_HEIGHT;
+    private WeatherSystem weatherSystem; // Optional; headless runs have no weather
+    private boolean debugLogging = false;
+
+    // World state
+    private List<DungeonRoom> currentDungeon = new ArrayList<>();
+    private DungeonGraph dungeonGraph; // Same rooms as currentDungeon, by id
+    private DungeonRoom currentRoom;
+    private Player player;
+    private final List<Enemy> enemies = new ArrayList<>();
+    private final List<Item> roomItems = new ArrayList<>();
+    private final List<Door> doors = new ArrayList<>();
+    private final Map<DungeonRoom, Puzzle> puzzles = new HashMap<>();
+    private List<Puzzle> allPuzzles;
+    private final List<ProjectileAttack> playerProjectiles = new ArrayList<>();
+    private final ProjectileManager projectileManager = new ProjectileManager(); // Boss and mage shots, stored as primitive arrays
+    // Pool that recycles player attacks instead of allocating one per shot
+    private final ObjectPool<ProjectileAttack> playerProjectilePool = new ObjectPool<>("Player projectile", ProjectileAttack::new, 32, 256);
+    private final SpatialGrid<Enemy> enemyGrid = new SpatialGrid<>(); // Collision broadphase, rebuilt each tick
+    private final List<Enemy> nearbyEnemies = new ArrayList<>(); // Scratch list for grid queries
+    private FrameProfiler profiler = new FrameProfiler(1); // Disabled unless the host supplies one
+
+    // Input
+    private final Set<KeyCode> activeKeys = new HashSet<>();
+    private double aimX, aimY;
+    private boolean runningSoundOn; // Last running-sound state sent to the listener
+
+    // Room transition requested by a door, applied by completeTransition()
+    private DungeonRoom pendingRoom;
+    private double pendingEntryX, pendingEntryY;
+
+    // Progress
+    private boolean bossDefeated;
+    private boolean roomCleared;
+    private boolean puzzleCompleted;
+    private int currentLevel = 1;
+    private int enemiesDefeated = 0;
+    private int roomsClearedInLevel = 0; // Track rooms cleared in current level
+    private final List<DungeonRoom.RoomType> availableRoomTypes = new ArrayList<>(); // Track available room types
+    private boolean gameOver = false;
+    private boolean victory = false;
+    private boolean puzzleSolved = false;
+    private boolean awaitingLevelUp = false; // Track if player needs to return to spawn for level up
+    private boolean puzzleClearedInLevel = false;
+    private boolean treasureClearedInLevel = false;
+    private boolean justLeveledUp = false; // Track if player just leveled up
+    private double bossMinionSummonTimer = 0;
+    private boolean bossEnraged = false;
+    private final Set<Enemy> enemiesToBounceBack = new HashSet<>();
+    private int currentWave = 1;
+    private final int totalWaves = 2;
+    private long tickCount;
+    private long roomsEntered;
+
+    // Statue in puzzle rooms
+    private boolean statueVisible = false;
+    private Point2D statuePosition;
+
+    // Torch and treasure room state
+    private boolean torchActive = false;
+    private final List<Point2D> spikePositions = new ArrayList<>();
+    private final List<Point2D> safePositions = new ArrayList<>();
+    private int equipmentCollected = 0;
+    private int totalEquipmentInRoom = 0;
+    private boolean treasureRoomLighted = false;
+
+    public GameSimulation() {
+        this(NO_EVENTS);
+    }
+
+    /**
+     * @param listener Receives presentation events
+     */
+    public GameSimulation(Listener listener) {
+        this(listener, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * @param listener Receives presentation events
+     * @param seed Seed for room layouts, spawns and drops, for repeatable runs
+     */
+    public GameSimulation(Listener listener, long seed) {
+        this.listener = listener != null ? listener : NO_EVENTS;
+        applySeed(seed);
+    }
+
+    /**
+     * Replaces the run seed. Takes effect from the next startNewGame().
+     * @param seed Seed for room layouts, spawns and drops
+     */
+    public void setSeed(long seed) {
+        applySeed(seed);
+    }
+
+    private void applySeed(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return The run seed, e.g. for a bug report; the same seed and level rebuild the same dungeon
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the room size in pixels. The player, enemies and doors are laid
+     * out and clamped against these bounds.
+     * @param width Room width
+     * @param height Room height
+     */
+    public void setBounds(double width, double height) {
+        if (width > 0) this.width = width;
+        if (height > 0) this.height = height;
+    }
+
+    /**
+     * Generates a fresh dungeon and puts a new player in the spawn room.
+     * The current level is kept, so setLevel() may be called beforehand.
+     */
+    public void startNewGame() {
+        // Hand any projectiles from a previous run back to their pools
+        playerProjectilePool.releaseAll(playerProjectiles);
+        projectileManager.clearProjectiles();
+        activeKeys.clear();
+        enemies.clear();
+        roomItems.clear();
+        doors.clear();
+        puzzles.clear();
+        spikePositions.clear();
+        safePositions.clear();
+        pendingRoom = null;
+        roomsClearedInLevel = 0;
+        puzzleClearedInLevel = false;
+        treasureClearedInLevel = false;
+        enemiesDefeated = 0;
+        bossDefeated = false;
+        roomCleared = false;
+        puzzleCompleted = false;
+        puzzleSolved = false;
+        awaitingLevelUp = false;
+        justLeveledUp = false;
+        gameOver = false;
+        victory = false;
+        bossEnraged = false;
+        bossMinionSummonTimer = 0;
+        statueVisible = false;
+        torchActive = false;
+        treasureRoomLighted = false;
+        runningSoundOn = false;
+
+        // Initialize available room types for the first level
+        availableRoomTypes.clear();
+        availableRoomTypes.add(DungeonRoom.RoomType.COMBAT);
+        availableRoomTypes.add(DungeonRoom.RoomType.PUZZLE);
+        availableRoomTypes.add(DungeonRoom.RoomType.TREASURE);
+
+        // Take the dungeon prepared in the background while the previous level
+        // was played (or generate it now), and start on the next one
+        debug("Generating dungeon (seed " + seed + ", level " + currentLevel + ")...");
+        LevelPipeline.PreparedLevel level = LevelPipeline.getInstance().take(seed, currentLevel);
+        prefetchNextLevel();
+        dungeonGraph = level.graph();
+        currentDungeon = level.dungeon();
+        allPuzzles = level.puzzles();
+        random = level.random(); // Puzzles, spawns and drops
+        if (weatherSystem != null) {
+            // Its own seed, so attaching weather never shifts the gameplay stream
+            weatherSystem.setSeed(level.weatherSeed());
+        }
+
+        debug("Dungeon created with " + currentDungeon.size() + " rooms");
+        if (debugLogging) {
+            debug("Layout: " + DungeonAnalyzer.analyze(dungeonGraph));
+        }
+
+        // Set current room to spawn room
+        currentRoom = null;
+        for (DungeonRoom room : currentDungeon) {
+            if (room.getType() == DungeonRoom.RoomType.SPAWN) {
+                currentRoom = room;
+                break;
+            }
+        }
+
+        if (currentRoom != null) {
+            currentRoom.setVisited(true);
+
+            debug("Found spawn room: " + currentRoom);
+
+            // Generate puzzles for puzzle rooms
+            generatePuzzles();
+
+            // Place player in the middle of the spawn room
+            player = new Player(width / 2, height / 2);
+            aimX = width / 2;
+            aimY = height / 2;
+
+            debug("Player created at " + player.getX() + "," + player.getY());
+
+            populateRoom(currentRoom);
+            createDoors();
+        } else {
+            System.err.println("ERROR: No spawn room found in dungeon!");
+        }
+    }
+
+    /**
+     * Advances the game by one step. Does nothing while a room transition is
+     * pending or once the run has ended.
+     * @param deltaTime Step length in seconds
+     */
+    public void update(double deltaTime) {
+        if (player == null || currentRoom == null || pendingRoom != null || gameOver || victory) {
+            return;
+        }
+
+        // Remember where everything started this step for render interpolation
+        player.capturePreviousPosition();
+        for (int i = 0; i < enemies.size(); i++) {
+            enemies.get(i).capturePreviousPosition();
+        }
+
+        // Advance the weather with the rest of the world
+        if (weatherSystem != null) {
+            weatherSystem.tick(deltaTime);
+        }
+
+        // Handle player input
+        long phaseStart = profiler.start();
+        player.handleInput(activeKeys, deltaTime);
+
+        // Move player
+        movePlayer(deltaTime);
+
+        // Check for item pickups
+        checkItemPickups();
+
+        // Check for door interactions
+        checkDoorInteraction();
+
+        // Check for room transitions
+        checkRoomTransition();
+
+        profiler.stop(FrameProfiler.Phase.INPUT, phaseStart);
+
+        // Update enemies
+        phaseStart = profiler.start();
+        updateEnemies(deltaTime);
+
+        // Bucket enemies by cell so projectile checks only look at nearby ones
+        rebuildEnemyGrid();
+        profiler.stop(FrameProfiler.Phase.ENEMIES, phaseStart);
+
+        // Update projectiles
+        phaseStart = profiler.start();
+        updateProjectiles(deltaTime);
+
+        // Update player projectiles
+        updatePlayerProjectiles(deltaTime);
+        profiler.stop(FrameProfiler.Phase.PROJECTILES, phaseStart);
+
+        // Check for enemy defeat conditions
+        checkRoomClearConditions();
+
+        // Check player status
+        checkPlayerStatus();
+
+        // Check victory condition
+        checkVictoryCondition();
+
+        // Check if we need to show the level up message
+        if (justLeveledUp) {
+            showLevelCompletionMessage();
+            justLeveledUp = false;
+        }
+
+        // Check statue interaction in puzzle room
+        checkStatueInteraction();
+
+        // Check spike collision in treasure room
+        checkSpikeCollision();
+
+        tickCount++;
+    }
+
+    /**
+     * @return The live set of held keys; callers may add and remove keys directly
+     */
+    public Set<KeyCode> getActiveKeys() {
+        return activeKeys;
+    }
+
+    public void pressKey(KeyCode code) {
+        activeKeys.add(code);
+    }
+
+    public void releaseKey(KeyCode code) {
+        activeKeys.remove(code);
+    }
+
+    /**
+     * Points the player's aim, e.g. at the mouse cursor
+     * @param x Aim X in room coordinates
+     * @param y Aim Y in room coordinates
+     */
+    public void setAim(double x, double y) {
+        aimX = x;
+        aimY = y;
+        if (player != null) {
+            player.updateMousePosition(x, y);
+        }
+    }
+
+    /**
+     * Attaches the weather. Every level reseeds it from the level's weather
+     * seed, so the same seed and level always bring the same weather.
+     */
+    public void setWeatherSystem(WeatherSystem weatherSystem) {
+        this.weatherSystem = weatherSystem;
+    }
+
+    /**
+     * @param profiler Receives the input, enemy and projectile phase timings of each step
+     */
+    public void setFrameProfiler(FrameProfiler profiler) {
+        this.profiler = profiler != null ? profiler : new FrameProfiler(1);
+    }
+
+    /**
+     * @param debugLogging Whether to print room and spawn progress to stdout; off by default, the game turns it on
+     */
+    public void setDebugLogging(boolean debugLogging) {
+        this.debugLogging = debugLogging;
+    }
+
+    /**
+     * Marks the current puzzle room's puzzle as answered, so the room counts as
+     * cleared on the next step.
+     */
+    public void setPuzzleSolved(boolean puzzleSolved) {
+        this.puzzleSolved = puzzleSolved;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public List<Enemy> getEnemies() {
+        return enemies;
+    }
+
+    public List<Item> getRoomItems() {
+        return roomItems;
+    }
+
+    public List<Door> getDoors() {
+        return doors;
+    }
+
+    public List<ProjectileAttack> getPlayerProjectiles() {
+        return playerProjectiles;
+    }
+
+    /**
+     * @return Pool the player's shots are drawn from, with its occupancy statistics
+     */
+    public ObjectPool<ProjectileAttack> getPlayerProjectilePool() {
+        return playerProjectilePool;
+    }
+
+    public ProjectileManager getProjectileManager() {
+        return projectileManager;
+    }
+
+    public List<DungeonRoom> getDungeon() {
+        return currentDungeon;
+    }
+
+    /**
+     * @return The level's rooms as a graph, with door distances from spawn
+     */
+    public DungeonGraph getDungeonGraph() {
+        return dungeonGraph;
+    }
+
+    public DungeonRoom getCurrentRoom() {
+        return currentRoom;
+    }
+
+    public Puzzle getPuzzle(DungeonRoom room) {
+        return puzzles.get(room);
+    }
+
+    public int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    public int getEnemiesDefeated() {
+        return enemiesDefeated;
+    }
+
+    public int getCurrentWave() {
+        return currentWave;
+    }
+
+    public boolean isStatueVisible() {
+        return statueVisible;
+    }
+
+    public Point2D getStatuePosition() {
+        return statuePosition;
+    }
+
+    public List<Point2D> getSpikePositions() {
+        return spikePositions;
+    }
+
+    public boolean isTorchActive() {
+        return torchActive;
+    }
+
+    public boolean isTreasureRoomLighted() {
+        return treasureRoomLighted;
+    }
+
+    public boolean isTransitionPending() {
+        return pendingRoom != null;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isVictory() {
+        return victory;
+    }
+
+    /**
+     * @return Number of update() steps simulated since construction
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return Number of rooms entered through doors since construction
+     */
+    public long getRoomsEntered() {
+        return roomsEntered;
+    }
+
+    private void showFloatingText(String text, Point2D position, Color color) {
+        listener.onFloatingText(text, position.getX(), position.getY(), color);
+    }
+
+    private void debug(String message) {
+        if (debugLogging) {
+            System.out.println(message);
+        }
+    }
+
+    private void generatePuzzles() {
+        Iterator<Puzzle> puzzleIterator = allPuzzles.iterator();
+
+        for (DungeonRoom room : currentDungeon) {
+            if (room.getType() == DungeonRoom.RoomType.PUZZLE) {
+                if (!puzzleIterator.hasNext()) {
+                    // Restart iterator if run out of puzzles
+                    puzzleIterator = allPuzzles.iterator();
+                }
+                puzzles.put(room, puzzleIterator.next());
+            }
+        }
+    }
+
+    public void attackEnemiesInRange() {
+        // Enemies may have moved since the last tick, so re-bucket before querying
+        rebuildEnemyGrid();
+        
+        // Grid keys are enemy top-left corners, so pad the reach by a full enemy size
+        double reach = player.getSize() / 2 + MELEE_ATTACK_RANGE + enemyGrid.getMaxItemSize() * 1.5;
+        enemyGrid.query(player.getX() + player.getSize() / 2, player.getY() + player.getSize() / 2, reach, nearbyEnemies);
+        for (Enemy enemy : nearbyEnemies) {
+            if (isInMeleeRange(player, enemy)) {
+                // Apply melee damage from player's equipped weapon
+                double meleeDamage = player.getMeleeDamage(); 
+                enemy.takeDamage(meleeDamage);
+                listener.onSound("character");
+                
+                // Show damage text
+                showFloatingText("-" + (int)meleeDamage, 
+                    enemy.getPosition(), Color.ORANGE);
+            }
+        }
+    }
+
+    private void checkItemPickups() {
+        Iterator<Item> itemIterator = roomItems.iterator();
+        boolean itemsPickedUp = false;
+        while (itemIterator.hasNext()) {
+            Item item = itemIterator.next();
+            
+            // Debug print
+            // debug("Checking item: " + item.getName() + " at " + item.getX() + "," + item.getY());
+            // debug("Player position: " + player.getX() + "," + player.getY());
+
+            // Improved collision detection for items
+            double playerCenterX = player.getX() + player.getSize() / 2;
+            double playerCenterY = player.getY() + player.getSize() / 2;
+
+            // If player is close enough to item
+            if (VectorMath.isWithin(playerCenterX, playerCenterY, item.getX(), item.getY(),
+                    player.getSize() / 2 + item.getSize() / 2)) {
+                // debug("Player picked up: " + item.getName());
+                listener.onSound("start"); // Changed from "character" to "start"
+                
+                // Handle item pickup based on type
+                switch (item.getType()) {
+                    case POTION:
+                        // Calculate healing amount based on potion value
+                        double healAmount = item.getValue();
+                        double oldHealth = player.getHealth();
+                        player.heal(healAmount);
+                        double actualHeal = player.getHealth() - oldHealth;
+                        
+                        // Show healing effect with actual amount healed
+                        showFloatingText("+" + (int)actualHeal + " HP", 
+                            player.getPosition(), Color.GREEN);
+                        player.addScore(25); // Add score for potion
+                        break;
+                    case WEAPON:
+                        // Add weapon to inventory
+                        player.addItem(item);
+                        showFloatingText("Picked up " + item.getName(), 
+                            player.getPosition(), Color.YELLOW);
+                        player.addScore(50); // Add score for weapon
+                        break;
+                    case ARMOR:
+                        // Add armor to inventory
+                        player.addItem(item);
+                        showFloatingText("Picked up " + item.getName(), 
+                            player.getPosition(), Color.BLUE);
+                        player.addScore(50); // Add score for armor
+                        break;
+                    case KEY:
+                        // Unlock all doors in the current room
+                        unlockDoorsWithKey();
+                        showFloatingText("Doors unlocked!", 
+                            player.getPosition(), Color.GOLD);
+                        player.addScore(100); // Add score for key
+                        break;
+                    default:
+                        // Generic pickup
+                        player.addItem(item);
+                        showFloatingText("Picked up " + item.getName(), 
+                            player.getPosition(), Color.WHITE);
+                        player.addScore(25); // Default score addition
+                        break;
+                }
+                
+                // Remove item from room
+                itemIterator.remove();
+                itemsPickedUp = true;
+                
+                // Track equipment collection in treasure room
+                if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
+                    equipmentCollected++;
+                    debug("Equipment collected: " + equipmentCollected + "/" + totalEquipmentInRoom);
+                    
+                    // Turn on lights when 2 out of 3 equipment items are collected
+                    if (equipmentCollected >= 2 && !treasureRoomLighted) {
+                        treasureRoomLighted = true;
+                        
+                        // Re-enable weather changes after collecting 2 equipment items
+                        if (weatherSystem != null) {
+                            weatherSystem.setWeatherChangesAllowed(true);
+                        }
+                        
+                        showFloatingText("Lights restored!", 
+                            new Point2D(width / 2, height / 2), Color.YELLOW);
+                        listener.onSound("start");
+                    }
+                }
+            }
+        }
+        // If in treasure room, and all items are picked up, mark treasureClearedInLevel and update doors
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && roomItems.isEmpty() && !treasureClearedInLevel) {
+            treasureClearedInLevel = true;
+            createDoors(); // This will unlock the combat room in the spawn room
+        }
+    }
+    
+    private void unlockDoorsWithKey() {
+        for (Door door : doors) {
+            if (door.requiresKey()) {
+                door.unlockWithKey();
+            }
+        }
+    }
+    
+    public void checkDoorInteraction() {
+        // Check if player is near a door and pressing F
+        if (activeKeys.contains(KeyCode.F)) {
+            for (Door door : doors) {
+                if (isPlayerTouchingDoor(door)) {
+                    if (door.isLocked()) {
+                        // Show simple "locked" message for all locked doors
+                        Point2D textPosition = calculateSafeTextPosition(door);
+                        showFloatingText("locked", textPosition, Color.RED);
+                    }
+                    // If door is unlocked, the transition will be handled in checkRoomTransition
+                }
+            }
+            // Remove the key press to prevent multiple interactions
+            activeKeys.remove(KeyCode.F);
+        }
+    }
+    
+    private Point2D calculateSafeTextPosition(Door door) {
+        double textX = door.getX() + door.getWidth() / 2;
+        double textY = door.getY() - 20; // Default position above door
+        
+        // Ensure text stays within canvas bounds
+        double minY = 30; // Minimum Y to keep text visible
+        double maxY = height - 30; // Maximum Y to keep text visible
+        
+        if (textY < minY) {
+            textY = door.getY() + door.getHeight() + 20; // Show below door instead
+        } else if (textY > maxY) {
+            textY = door.getY() - 20; // Keep above door
+        }
+        
+        return new Point2D(textX, textY);
+    }
+    
+    private boolean isPlayerTouchingDoor(Door door) {
+        // Calculate player center
+        double playerCenterX = player.getX() + player.getSize() / 2;
+        double playerCenterY = player.getY() + player.getSize() / 2;
+        
+        // Calculate door center and dimensions
+        double doorCenterX = door.getX() + door.getWidth() / 2;
+        double doorCenterY = door.getY() + door.getHeight() / 2;
+        
+        // Calculate distance between centers
+        double distanceX = Math.abs(playerCenterX - doorCenterX);
+        double distanceY = Math.abs(playerCenterY - doorCenterY);
+        
+        // Check if player is close enough to interact with door (smaller range for actual transition)
+        return distanceX < (player.getSize() / 2 + door.getWidth() / 2 + 5) &&
+               distanceY < (player.getSize() / 2 + door.getHeight() / 2 + 5);
+    }
+    
+    private void checkRoomClearConditions() {
+        if (currentRoom == null || roomCleared) return;
+        // debug("Checking room clear conditions - Room type: " + currentRoom.getType() + 
+        //                   ", Rooms cleared: " + roomsClearedInLevel + 
+        //                   ", Current level: " + currentLevel + 
+        //                   ", awaiting level up: " + awaitingLevelUp);
+        switch (currentRoom.getType()) {
+            case COMBAT:
+                if (enemies.isEmpty() || allEnemiesDefeated()) {
+                    if (currentWave < totalWaves) {
+                        currentWave++;
+                        showFloatingText("Second Wave!", new Point2D(width / 2, 80), Color.GOLD);
+                        spawnCombatWave(currentWave);
+                    } else {
+                    roomCleared = true;
+                    roomsClearedInLevel++;
+                    debug("Combat room cleared! Total rooms cleared: " + roomsClearedInLevel + 
+                                      ", Current level: " + currentLevel + 
+                                      ", Total needed for boss: " + (currentLevel >= 3 && roomsClearedInLevel >= 3));
+                    
+                    // After combat room is cleared, show spawn room door
+                    if (!awaitingLevelUp) {
+                        awaitingLevelUp = true;
+                        debug("Setting awaitingLevelUp to true");
+                        
+                        // Create only the spawn room door in the combat room
+                        doors.clear();
+                        DungeonRoom spawnRoom = currentDungeon.stream()
+                            .filter(room -> room.getType() == DungeonRoom.RoomType.SPAWN)
+                            .findFirst()
+                            .orElse(null);
+                        if (spawnRoom != null) {
+                            double roomWidth = width - 100;
+                            double roomHeight = height - 100;
+                            double doorWidth = DOOR_WIDTH;
+                            double doorHeight = DOOR_HEIGHT;
+                            double doorX = 50;
+                            double doorY = roomHeight / 2 - doorHeight / 2;
+                            Door spawnDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, spawnRoom, Door.DoorDirection.WEST);
+                            spawnDoor.setLocked(false);
+                            doors.add(spawnDoor);
+                            debug("Created spawn door at: " + doorX + "," + doorY);
+                            }
+                        }
+                    }
+                }
+                break;
+            case PUZZLE:
+                if (puzzleSolved) {
+                    roomCleared = true;
+                    roomsClearedInLevel++;
+                    puzzleClearedInLevel = true;
+                    debug("Puzzle room cleared! Total rooms cleared: " + roomsClearedInLevel);
+                    // After puzzle is cleared, update spawn room doors
+                    createDoors();
+                }
+                break;
+            case TREASURE:
+                
+                break;
+            case BOSS:
+                if (enemies.isEmpty() || allEnemiesDefeated()) {
+                    roomCleared = true;
+                    declareVictory();
+                }
+                break;
+        }
+    }
+    
+    private void createDoors() {
+        doors.clear();
+        if (currentRoom == null) {
+            System.err.println("ERROR: Cannot create doors for null room");
+            return;
+        }
+        debug("Creating doors for room type: " + currentRoom.getType() + ", Rooms cleared in level: " + roomsClearedInLevel + ", Current level: " + currentLevel + ", Awaiting level up: " + awaitingLevelUp);
+        double roomWidth = width - 100;
+        double roomHeight = height - 100;
+        double doorWidth = DOOR_WIDTH;
+        double doorHeight = DOOR_HEIGHT;
+        List<Point2D> existingDoorPositions = new ArrayList<>();
+        
+        if (currentRoom.getType() == DungeonRoom.RoomType.SPAWN) {
+            // Ensure boss room creation works at level 3
+            if ((currentLevel == 3 && roomsClearedInLevel >= 3) || (currentLevel >= 3 && awaitingLevelUp)) {
+                debug("Boss door condition met! Creating boss door in spawn room.");
+                doors.clear();
+                DungeonRoom bossRoom = new DungeonRoom(
+                    currentRoom.getX() + 1,
+                    currentRoom.getY(),
+                    800, 600, DungeonRoom.RoomType.BOSS
+                );
+                double doorX = roomWidth - doorWidth + 50;
+                double doorY = roomHeight / 2 - doorHeight / 2;
+                Door bossDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, bossRoom, Door.DoorDirection.EAST);
+                bossDoor.setLocked(false);
+                doors.add(bossDoor);
+                
+                debug("Created boss door in spawn room");
+                return;
+            }
+            
+            // If player is returning after clearing 3 rooms, level up and reset
+            if (awaitingLevelUp) {
+                awaitingLevelUp = false;
+                justLeveledUp = true; // Set flag to show message after transition
+                
+                // Special condition for level 3 - create boss door instead of regular doors
+                if (currentLevel >= 3) {
+                    // Always create only the boss door in the spawn room after level 3 combat room is cleared
+                    doors.clear();
+                    DungeonRoom bossRoom = new DungeonRoom(
+                        currentRoom.getX() + 1,
+                        currentRoom.getY(),
+                        800, 600, DungeonRoom.RoomType.BOSS
+                    );
+                    double doorX = roomWidth - doorWidth + 50;
+                    double doorY = roomHeight / 2 - doorHeight / 2;
+                    Door bossDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, bossRoom, Door.DoorDirection.EAST);
+                    bossDoor.setLocked(false);
+                    doors.add(bossDoor);
+                    debug("Created boss door in spawn room after level 3");
+                    return;
+                } else {
+                    // Reset all level-specific flags
+                    currentLevel++;
+                    prefetchNextLevel();
+                    roomsClearedInLevel = 0;
+                    puzzleClearedInLevel = false;
+                    treasureClearedInLevel = false;
+                    puzzleSolved = false;
+                    puzzleCompleted = false;
+                    
+                    // Clear and reset available room types
+                    availableRoomTypes.clear();
+                    availableRoomTypes.add(DungeonRoom.RoomType.COMBAT);
+                    availableRoomTypes.add(DungeonRoom.RoomType.PUZZLE);
+                    availableRoomTypes.add(DungeonRoom.RoomType.TREASURE);
+                    
+                    // Clear any existing puzzles
+                    puzzles.clear();
+                }
+            }
+            
+            // Create all three doors with specific locking logic
+            double spacing = roomHeight / 4;
+            double startY = spacing;
+            for (DungeonRoom.RoomType type : availableRoomTypes) {
+                DungeonRoom newRoom = new DungeonRoom(
+                    currentRoom.getX() + 1,
+                    currentRoom.getY(),
+                    800,
+                    600,
+                    type
+                );
+                double doorX = roomWidth - doorWidth + 50;
+                double doorY = startY;
+                startY += spacing;
+                Door door = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, newRoom, Door.DoorDirection.EAST);
+                
+                // Original door locking logic - same for all levels
+                if (type == DungeonRoom.RoomType.COMBAT) {
+                    // Combat room is always locked initially
+                    door.setLocked(true);
+                } else if (type == DungeonRoom.RoomType.PUZZLE) {
+                    // Puzzle room is always unlocked
+                    door.setLocked(false);
+                } else if (type == DungeonRoom.RoomType.TREASURE) {
+                    // Treasure room is always locked and requires key at start of level
+                    door.setLocked(true);
+                    door.setRequiresKey(true);
+                }
+                
+                doors.add(door);
+                existingDoorPositions.add(new Point2D(doorX, doorY));
+            }
+        } else if (currentRoom.getType() == DungeonRoom.RoomType.BOSS) {
+            debug("Boss room - no doors to create");
+            return;
+        } else {
+            // Remove the current room type from available types
+            availableRoomTypes.remove(currentRoom.getType());
+            createDoorsForRoomTypes(availableRoomTypes, roomWidth, roomHeight, doorWidth, doorHeight, existingDoorPositions);
+            
+            // Only add spawn door if 3 rooms cleared and awaitingLevelUp is true
+            if (roomsClearedInLevel >= 3 && awaitingLevelUp) {
+                DungeonRoom spawnRoom = currentDungeon.stream()
+                    .filter(room -> room.getType() == DungeonRoom.RoomType.SPAWN)
+                    .findFirst()
+                    .orElse(null);
+                if (spawnRoom != null) {
+                    double doorX = 50;
+                    double doorY = roomHeight / 2 - doorHeight / 2;
+                    Door spawnDoor = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, spawnRoom, Door.DoorDirection.WEST);
+                    spawnDoor.setLocked(false);
+                    doors.add(spawnDoor);
+                    existingDoorPositions.add(new Point2D(doorX, doorY));
+                    
+                    debug("Created spawn door at: " + doorX + "," + doorY);
+                }
+            }
+        }
+        debug("Created " + doors.size() + " doors");
+    }
+
+
+    private void createDoorsForRoomTypes(List<DungeonRoom.RoomType> roomTypes, double roomWidth, double roomHeight, 
+                                       double doorWidth, double doorHeight, List<Point2D> existingDoorPositions) {
+        // Calculate door positions to prevent overlap
+        double doorSpacing = roomHeight / (roomTypes.size() + 1);
+        double startY = doorSpacing;
+        
+        for (DungeonRoom.RoomType roomType : roomTypes) {
+            // Create a new room of the specified type
+            DungeonRoom newRoom = new DungeonRoom(
+                currentRoom.getX() + 1,
+                currentRoom.getY(),
+                800,
+                600,
+                roomType
+            );
+            
+            // Calculate door position
+            double doorX = roomWidth - doorWidth + 50;
+            double doorY = startY;
+            startY += doorSpacing;
+            
+            // Create the door
+            Door door = new Door(doorX, doorY, doorWidth, doorHeight, currentRoom, newRoom, Door.DoorDirection.EAST);
+            
+            // Lock doors based on room type and current room
+            if (currentRoom.getType() == DungeonRoom.RoomType.COMBAT) {
+                // In combat room, all doors are locked until enemies are cleared
+                door.setLocked(!enemies.isEmpty());
+            } else if (currentRoom.getType() == DungeonRoom.RoomType.PUZZLE) {
+                if (roomType == DungeonRoom.RoomType.TREASURE) {
+                    // Treasure room door requires key and is locked until puzzle is solved
+                    door.setLocked(true);
+                    door.setRequiresKey(true);
+                } else if (roomType == DungeonRoom.RoomType.COMBAT) {
+                    // Combat room door is always locked in puzzle room
+                    door.setLocked(true);
+                } else {
+                    door.setLocked(false);
+                }
+            } else if (currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
+                if (roomType == DungeonRoom.RoomType.COMBAT) {
+                    // Combat room door is unlocked after treasure room is cleared
+                    door.setLocked(false);
+                } else {
+                    door.setLocked(false);
+                }
+            }
+            
+            doors.add(door);
+            existingDoorPositions.add(new Point2D(doorX, doorY));
+        }
+    }
+
+    private void populateRoom(DungeonRoom room) {
+        // Clear existing entities
+        enemies.clear();
+        roomItems.clear();
+        roomCleared = false;
+        
+        // Get room center
+        double centerX = width / 2;
+        double centerY = height / 2;
+        Point2D roomCenter = new Point2D(centerX, centerY);
+        double minX = 40, minY = 40;
+        double maxX = width - 40;
+        double maxY = height - 40;
+        
+        // Adjust difficulty based on level
+        double difficultyMultiplier = 1.0 + (currentLevel - 1) * 0.2;
+        
+        switch (room.getType()) {
+            case PUZZLE:
+                debug("Populating puzzle room...");
+                // Create a new puzzle for this room
+                Puzzle puzzle = Puzzle.createRandomPuzzle(random);
+                puzzles.put(room, puzzle);
+                debug("Created puzzle: " + puzzle.getDescription());
+                
+                // Initialize statue in the center of the room
+                statueVisible = true;
+                statuePosition = new Point2D(width / 2, height / 2); // Move 50 pixels to the left
+                debug("Statue placed at: " + statuePosition);
+                
+                // Only place key and random item if puzzle is already solved
+                if (puzzle.isSolved()) {
+                    // Place key in puzzle room
+                    placeKeyInRoom(room);
+                    
+                    // Place one random item in puzzle room
+                    double angle = random.nextDouble() * Math.PI * 2;
+                    double distance = 100;
+                    double offsetX = Math.cos(angle) * distance;
+                    double offsetY = Math.sin(angle) * distance;
+                    spawnRandomItem(roomCenter.add(offsetX, offsetY));
+                }
+                break;
+                
+            case TREASURE:
+                debug("Populating treasure room...");
+                
+                // Force clear weather and disable weather changes for treasure room until equipment is collected
+                if (weatherSystem != null) {
+                    weatherSystem.setWeatherChangesAllowed(false);
+                    // Force clear weather immediately
+                    weatherSystem.startWeatherTransition(WeatherSystem.WeatherType.CLEAR);
+                }
+                
+                // Reset treasure room state
+                equipmentCollected = 0;
+                totalEquipmentInRoom = 3; // Always spawn 3 equipment items
+                treasureRoomLighted = false;
+                torchActive = false;
+                
+                // Generate spikes and safe areas
+                generateTreasureRoomLayout();
+                
+                // Spawn equipment items in safe areas
+                spawnTreasureRoomEquipment();
+                
+                break;
+                
+            case COMBAT:
+                currentWave = 1;
+                spawnCombatWave(currentWave);
+                break;
+                
+            case BOSS:
+                // Add boss enemy with increased difficulty
+                debug("Spawning boss in boss room");
+                Enemy bossEnemy = new Enemy(centerX, centerY, Enemy.EnemyType.BOSS);
+                bossEnemy.setMaxHealth(bossEnemy.getMaxHealth() * difficultyMultiplier * 2);
+                bossEnemy.setDamage(bossEnemy.getDamage() * difficultyMultiplier * 1.5);
+                bossEnemy.heal(bossEnemy.getMaxHealth());
+                enemies.add(bossEnemy);
+                break;
+        }
+        
+        // Create doors for the new room
+        createDoors();
+    }
+
+    private void spawnCombatWave(int wave) {
+        debug("Spawning wave " + wave + " in combat room for level " + currentLevel);
+        double centerX = width / 2;
+        double centerY = height / 2;
+        double minX = 40, minY = 40;
+        double maxX = width - 40;
+        double maxY = height - 40;
+        double difficultyMultiplier = 1.0 + (currentLevel - 1) * 0.2;
+        java.util.List<Point2D> spawnPoints = new java.util.ArrayList<>();
+        spawnPoints.add(new Point2D(minX, minY));
+        spawnPoints.add(new Point2D(maxX, minY));
+        spawnPoints.add(new Point2D(minX, maxY));
+        spawnPoints.add(new Point2D(maxX, maxY));
+        int numEnemies = 0;
+        switch (currentLevel) {
+            case 1: numEnemies = 4; break;
+            case 2: numEnemies = 5; break;
+            case 3: numEnemies = 7; break;
+            default: numEnemies = 5 + (currentLevel - 3); break;
+        }
+        while (spawnPoints.size() < numEnemies) {
+            double rx = minX + random.nextDouble() * (maxX - minX);
+            double ry = minY + random.nextDouble() * (maxY - minY);
+            spawnPoints.add(new Point2D(rx, ry));
+        }
+        int spawnIdx = 0;
+        switch (currentLevel) {
+            case 1:
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.SKELETON, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.SKELETON, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
+                break;
+            case 2:
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.SKELETON, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
+                break;
+            case 3:
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.GOBLIN, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.MAGE, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.MAGE, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
+                spawnEnemyWithType(spawnPoints.get(spawnIdx++), Enemy.EnemyType.ORC, difficultyMultiplier);
+                break;
+            default:
+                Enemy.EnemyType[] types = {Enemy.EnemyType.GOBLIN, Enemy.EnemyType.SKELETON, Enemy.EnemyType.ORC, Enemy.EnemyType.MAGE};
+                for (int i = 0; i < numEnemies; i++) {
+                    Enemy.EnemyType randomType = types[random.nextInt(types.length)];
+                    spawnEnemyWithType(spawnPoints.get(i), randomType, difficultyMultiplier);
+                }
+                break;
+        }
+    }
+
+    private void spawnEnemyWithType(Point2D roomCenter, Enemy.EnemyType type, double difficultyMultiplier) {
+        // Calculate random position around the room center
+        double angle = random.nextDouble() * Math.PI * 2;
+        double distance = 100 + random.nextDouble() * 50;
+        double enemyX = roomCenter.getX() + Math.cos(angle) * distance;
+        double enemyY = roomCenter.getY() + Math.sin(angle) * distance;
+                    
+        // Create enemy with specified type
+        Enemy enemy = new Enemy(enemyX, enemyY, type);
+        
+        // Apply difficulty scaling
+        enemy.setMaxHealth(enemy.getMaxHealth() * difficultyMultiplier);
+        enemy.setDamage(enemy.getDamage() * difficultyMultiplier);
+        
+        // Increase speed based on level - using velocity instead of speed
+        double speedMultiplier = 1.0 + (currentLevel - 1) * 0.3; // 30% speed increase per level
+        Point2D currentVelocity = enemy.getVelocity();
+        if (currentVelocity != null) {
+            enemy.setVelocity(currentVelocity.multiply(speedMultiplier));
+        }
+        
+        enemy.heal(enemy.getMaxHealth());
+        
+        // Add to enemies list
+        enemies.add(enemy);
+        
+        if (debugLogging) {
+            debug("Spawned " + type + " at position: " + enemyX + "," + enemyY + " with speed multiplier: " + speedMultiplier);
+        }
+    }
+
+    private void placeKeyInRoom(DungeonRoom room) {
+        // Get the center of the room on the canvas
+        double centerX = width / 2;
+        double centerY = height / 2;
+        
+        // Add some randomness to key position
+        double keyX = centerX + (random.nextDouble() - 0.5) * 100;
+        double keyY = centerY + (random.nextDouble() - 0.5) * 100;
+        
+        // Create and add the key
+        Item roomKey = new Item("Room Key", "Opens locked doors", Item.ItemType.KEY, 1, true);
+        roomKey.setX(keyX);
+        roomKey.setY(keyY);
+        roomKey.setSize(20);
+        
+        debug("Added key at position: " + keyX + "," + keyY);
+        roomItems.add(roomKey);
+    }
+    
+    private void spawnEnemy(DungeonRoom room) {
+        Point2D roomPos = new Point2D(room.getX(), room.getY());
+        Point2D randomOffset = new Point2D(
+            random.nextDouble() * room.getWidth(),
+            random.nextDouble() * room.getHeight()
+        );
+        Point2D spawnPos = roomPos.add(randomOffset).multiply(8); // Scale to pixel coordinates
+        
+        Enemy.EnemyType type = random.nextBoolean() ? Enemy.EnemyType.GOBLIN : Enemy.EnemyType.SKELETON;
+        enemies.add(new Enemy(spawnPos.getX(), spawnPos.getY(), type));
+    }
+
+    private boolean isInMeleeRange(Entity attacker, Entity target) {
+        double dx = (attacker.getX() + attacker.getSize() / 2) - (target.getX() + target.getSize() / 2);
+        double dy = (attacker.getY() + attacker.getSize() / 2) - (target.getY() + target.getSize() / 2);
+        double reach = attacker.getSize() / 2 + target.getSize() / 2 + MELEE_ATTACK_RANGE;
+        
+        // Compare squared distances to avoid the square root
+        return dx * dx + dy * dy < reach * reach;
+    }
+    
+    private void rebuildEnemyGrid() {
+        enemyGrid.rebuild(enemies, width, height);
+    }
+    private void checkRoomTransition() {
+        // Check if player is at a door to a connected room
+        for (Door door : doors) {
+            if (isPlayerTouchingDoor(door)) {
+                // Checked first: this runs every tick the player stands in a doorway
+                if (debugLogging) {
+                    debug("Player touching door to " + door.getConnectedRoom().getType() + 
+                                      " - Door locked: " + door.isLocked() + 
+                                      ", Requires key: " + door.requiresKey());
+                }
+                
+                if (!door.isLocked()) {
+                    // Get the connected room
+                    DungeonRoom targetRoom = door.getConnectedRoom();
+                    if (targetRoom != null) {
+                        debug("Door unlocked - transitioning to room: " + targetRoom.getType() + 
+                                          " at position " + targetRoom.getX() + "," + targetRoom.getY());
+                        
+                        // Calculate entry position based on door direction
+                        Point2D entryPosition = getEntryPosition(door);
+                        
+                        // Pass target room and entry position to transition method
+                        transitionToRoom(targetRoom, entryPosition);
+                        
+                    // Update difficulty based on room type if it's a boss room
+                        if (targetRoom.getType() == DungeonRoom.RoomType.BOSS) {
+                        adjustDifficultyForLevel();
+                    }
+                        
+                    break;
+                    } else {
+                        System.err.println("ERROR: Connected room is null!");
+                    }
+                } else {
+                    // Show message about locked door if player is touching it
+                    if (door.requiresKey()) {
+                        Point2D textPosition = calculateSafeTextPosition(door);
+                        showFloatingText("locked", textPosition, Color.YELLOW);
+                        
+                        // Try to unlock with key if player has one
+                        if (player.getInventory().hasItem(Item.ItemType.KEY)) {
+                            if (door.unlock(player.getInventory())) {
+                                showFloatingText("Door unlocked!", 
+                                    new Point2D(door.getX() + door.getWidth()/2, door.getY() - 10),
+                                    Color.GREEN);
+                                // Door is now unlocked, but wait for next check to transition
+                            }
+                        }
+                    } else {
+                        // Door is locked for other reasons - show simple "locked" message
+                        Point2D textPosition = calculateSafeTextPosition(door);
+                        showFloatingText("locked", textPosition, Color.RED);
+                    }
+                }
+            }
+        }
+    }
+
+    private void transitionToRoom(DungeonRoom newRoom, Point2D entryPosition) {
+        debug("Transitioning to room: " + newRoom.getType());
+        
+        // Hide statue when leaving puzzle room
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE) {
+            statueVisible = false;
+        }
+        
+        // Re-enable weather changes when leaving treasure room
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
+            if (weatherSystem != null) {
+                weatherSystem.setWeatherChangesAllowed(true);
+            }
+        }
+
+        stopRunningSound();
+        activeKeys.clear(); // Clear any "stuck" keys
+        pendingRoom = newRoom;
+        pendingEntryX = entryPosition.getX();
+        pendingEntryY = entryPosition.getY();
+        
+        // Play transition sound
+        listener.onSound("teleport");
+        
+        // The front end decides when the room actually changes (e.g. behind a fade)
+        listener.onRoomTransition(newRoom);
+    }
+
+    /**
+     * Moves the player into the room requested by the last door transition and
+     * populates it. The simulation does not advance while a transition is pending.
+     */
+    public void completeTransition() {
+        if (pendingRoom == null) return;
+        
+        currentRoom = pendingRoom;
+        currentRoom.setVisited(true);
+        pendingRoom = null;
+        
+        // Set player position
+        player.setPosition(pendingEntryX, pendingEntryY);
+        player.capturePreviousPosition();
+        
+        // Clear existing room data
+        enemies.clear();
+        projectileManager.clearProjectiles();
+        playerProjectilePool.releaseAll(playerProjectiles);
+        roomItems.clear();
+        doors.clear();
+        
+        // Reset statue state
+        statueVisible = false;
+        
+        // Reset treasure room state
+        torchActive = false;
+        treasureRoomLighted = false;
+        equipmentCollected = 0;
+        spikePositions.clear();
+        safePositions.clear();
+        
+        // Reset room cleared state
+        roomCleared = false;
+        
+        // Populate new room
+        populateRoom(currentRoom);
+        
+        // Create doors for the new room
+        createDoors();
+        roomsEntered++;
+    }
+
+    private Point2D getEntryPosition(Door door) {
+        // Calculate entry position based on door location
+        double entryX, entryY;
+        double offset = 50; // Distance from door to place player
+        
+        // Determine direction based on door position
+        if (door.getY() < 50) { // North door
+            entryX = door.getX() + door.getWidth() / 2;
+            entryY = door.getY() + offset;
+        } else if (door.getY() > height - 50) { // South door
+            entryX = door.getX() + door.getWidth() / 2;
+            entryY = door.getY() - offset;
+        } else if (door.getX() < 50) { // West door
+            entryX = door.getX() + offset;
+            entryY = door.getY() + door.getHeight() / 2;
+        } else { // East door
+            entryX = door.getX() - offset;
+            entryY = door.getY() + door.getHeight() / 2;
+        }
+        
+        return new Point2D(entryX, entryY);
+    }
+    
+    private void updateEnemies(double deltaTime) {
+        enemiesToBounceBack.clear(); // Clear at the start of each update
+        
+        // Player centre is fixed for this pass except for knockback, which is re-read below
+        double playerSize = player.getSize();
+        
+        // Update each enemy in the room. Index loop: boss summons append to the list mid-pass
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            // Update enemy state (also counts down its attack cooldown)
+            enemy.update(deltaTime);
+            double cooldown = enemy.getAttackCooldown();
+            
+            // Skip if enemy is dead
+            if (enemy.getHealth() <= 0) {
+                onEnemyDefeated(enemy);
+                enemies.remove(i);
+                i--;
+                continue;
+            }
+            
+            // Get distance to player
+            double playerCenterX = player.getX() + playerSize / 2;
+            double playerCenterY = player.getY() + playerSize / 2;
+            double enemySize = enemy.getSize();
+            double enemyCenterX = enemy.getX() + enemySize / 2;
+            double enemyCenterY = enemy.getY() + enemySize / 2;
+            double distanceToPlayer = VectorMath.distance(playerCenterX, playerCenterY, enemyCenterX, enemyCenterY);
+            
+            // Unit vector from the enemy towards the player
+            double toPlayerX = VectorMath.directionX(enemyCenterX, enemyCenterY, playerCenterX, playerCenterY);
+            double toPlayerY = VectorMath.directionY(enemyCenterX, enemyCenterY, playerCenterX, playerCenterY);
+            
+            // Boundary for enemies
+            double minX = 10;
+            double minY = 10;
+            double maxX = width - enemySize - 10;
+            double maxY = height - enemySize - 10;
+            
+            // Only non-boss, non-mage enemies bounce back if they were actually hit
+            if (enemiesToBounceBack.contains(enemy)) {
+                // Move enemy away from player during bounce-back
+                double bounceSpeed = 50 * 0.5; // Reduced base speed during bounce
+                double newX = enemy.getX() - toPlayerX * bounceSpeed * deltaTime;
+                double newY = enemy.getY() - toPlayerY * bounceSpeed * deltaTime;
+                
+                // Ensure enemy stays within bounds
+                enemy.setPosition(VectorMath.clamp(newX, minX, maxX), VectorMath.clamp(newY, minY, maxY));
+            } else {
+                // Normal movement logic
+                boolean shouldMoveTowardsPlayer = false;
+                if (enemy.getType() == Enemy.EnemyType.BOSS) {
+                    shouldMoveTowardsPlayer = true; // Boss always moves towards player if not bouncing back
+                } else {
+                    if (distanceToPlayer > enemySize + playerSize + 5) {
+                        shouldMoveTowardsPlayer = true; // Other enemies move if far enough
+                    }
+                }
+
+                if (shouldMoveTowardsPlayer) {
+                    double baseSpeed = 50; // Base speed for enemies
+                    double actualSpeed = baseSpeed * (1.0 + (currentLevel - 1) * 0.3); // Scale speed with level
+
+                    // Apply weather effects to enemy speed
+                    if (weatherSystem != null) {
+                        actualSpeed *= weatherSystem.getEnemySpeedMultiplier();
+                    }
+
+                    if (enemy.getType() == Enemy.EnemyType.BOSS) {
+                        actualSpeed *= 0.7; // Boss specific speed multiplier (reduced from 1.5 to 1.0)
+                    }
+
+                    // Set velocity for proper rotation
+                    enemy.setVelocity(toPlayerX * actualSpeed, toPlayerY * actualSpeed);
+
+                    // Actual movement based on dx, dy, using the 0.3 factor from original logic
+                    double newX = enemy.getX() + toPlayerX * actualSpeed * 0.3 * deltaTime;
+                    double newY = enemy.getY() + toPlayerY * actualSpeed * 0.3 * deltaTime;
+
+                    // Ensure enemy stays within bounds
+                    enemy.setPosition(VectorMath.clamp(newX, minX, maxX), VectorMath.clamp(newY, minY, maxY));
+                } else {
+                    // This 'else' now only applies to non-boss enemies that are too close
+                    // For non-boss enemies close to the player, maintain direction for rotation
+                    enemy.setVelocity(toPlayerX * 0.1, toPlayerY * 0.1); // Small velocity to maintain direction
+                }
+                
+                // Boss projectile attack logic
+                if (enemy.getType() == Enemy.EnemyType.BOSS && cooldown <= 0) {
+                    // Boss shoots projectiles at player
+                    double projectileDamage = enemy.getDamage() * 0.5; // Projectile does half of melee damage
+                    
+                    // Spawn into the projectile store (argument order is damage, then size)
+                    projectileManager.spawnProjectile(
+                        enemyCenterX, // x position
+                        enemyCenterY, // y position
+                        toPlayerX * 200, // velocity x
+                        toPlayerY * 200, // velocity y
+                        projectileDamage, // damage
+                        10, // size
+                        Color.RED, // color
+                        false // not from player
+                    );
+                    
+                    // Set attack cooldown
+                    enemy.setAttackCooldown(ATTACK_COOLDOWN * 0.5); // Boss attacks more frequently
+                    
+                    // Remove sound effect for boss projectiles
+                    // listener.onSound("character");
+                }
+                // MAGE projectile attack logic
+                if (enemy.getType() == Enemy.EnemyType.MAGE && cooldown <= 0) {
+                    // Mage shoots projectiles at player
+                    double projectileDamage = 8.0; // Fixed damage for mage projectiles
+                    
+                    projectileManager.spawnProjectile(
+                        enemyCenterX,
+                        enemyCenterY,
+                        toPlayerX * 180, // slightly slower than boss
+                        toPlayerY * 180,
+                        projectileDamage,
+                        8, // size
+                        Color.PURPLE, // mage color
+                        false
+                    );
+                    
+                    // Set attack cooldown for mage
+                    enemy.setAttackCooldown(ATTACK_COOLDOWN); // Normal cooldown
+                }
+                // Enemy melee attack logic
+                if (distanceToPlayer < enemySize + playerSize + 20 && cooldown <= 0) {
+                    // Calculate damage based on enemy type and level
+                    double damage = calculateEnemyDamage(enemy);
+                    
+                    // Apply damage to player
+                    player.takeDamage(damage);
+                    enemiesToBounceBack.add(enemy);
+                    double damageBlocked = player.getLastDamageBlocked(); // Get amount blocked
+                    Point2D playerCenter = new Point2D(playerCenterX, playerCenterY);
+                    
+                    // Show floating text for damage blocked by armor
+                    if (damageBlocked > 0) {
+                        showFloatingText("Blocked: " + String.format("%.0f", damageBlocked), 
+                            playerCenter.add(0, -15), Color.LIGHTBLUE); // Display slightly above actual damage
+                    }
+
+                    // Show damage text with enemy type (actual damage dealt)
+                    double actualDamageDealtToPlayer = damage - damageBlocked;
+                    if (actualDamageDealtToPlayer > 0) {
+                        String enemyType = enemy.getType().toString();
+                        showFloatingText("-" + String.format("%.0f", actualDamageDealtToPlayer) + " (" + enemyType + ")", 
+                            playerCenter, Color.RED);
+                    }
+                    
+                    // Play hit sound
+                    listener.onSound("character");
+                    
+                    // Add a small knockback effect to player
+                    double knockbackForce = 5.0;
+                    player.move(toPlayerX * knockbackForce, toPlayerY * knockbackForce);
+                    
+                    // Start attack cooldown and bounce-back
+                    enemy.setAttackCooldown(ATTACK_COOLDOWN);
+                    
+                    // Add bounce-back effect to enemy
+                    enemy.setPosition(enemyCenterX - toPlayerX * BOUNCE_DISTANCE, enemyCenterY - toPlayerY * BOUNCE_DISTANCE);
+                }
+            }
+            if (enemy.getType() == Enemy.EnemyType.BOSS) {
+                // Summon minions every 7 seconds
+                bossMinionSummonTimer += deltaTime;
+                if (bossMinionSummonTimer >= 7.0) {
+                    bossMinionSummonTimer = 0;
+                    for (int m = 0; m < 2 + random.nextInt(2); m++) {
+                        double angle = random.nextDouble() * Math.PI * 2;
+                        double dist = 80 + random.nextDouble() * 40;
+                        double minionX = enemy.getX() + Math.cos(angle) * dist;
+                        double minionY = enemy.getY() + Math.sin(angle) * dist;
+                        Enemy.EnemyType minionType = random.nextBoolean() ? Enemy.EnemyType.GOBLIN : Enemy.EnemyType.SKELETON;
+                        Enemy minion = new Enemy(minionX, minionY, minionType);
+                        minion.setMaxHealth(minion.getMaxHealth() * 1.2);
+                        minion.heal(minion.getMaxHealth());
+                        enemies.add(minion);
+                        showFloatingText("Minion summoned!", new Point2D(minionX, minionY - 20), Color.LIGHTPINK);
+                    }
+                }
+                // Enrage below 50% health
+                if (!bossEnraged && enemy.getHealth() < enemy.getMaxHealth() * 0.5) {
+                    bossEnraged = true;
+                    enemy.setDamage(enemy.getDamage() * 1.5);
+                    enemy.setVelocity(enemy.getVelocityX() * 1.5, enemy.getVelocityY() * 1.5);
+                    showFloatingText("Boss is enraged!", new Point2D(enemy.getX(), enemy.getY() - 40), Color.RED);
+                }
+                // Reset boss ability state when leaving boss room or boss is defeated
+                if (currentRoom == null || currentRoom.getType() != DungeonRoom.RoomType.BOSS || !hasLivingBoss()) {
+                    bossMinionSummonTimer = 0;
+                    bossEnraged = false;
+                }
+            }
+        }
+        
+        // Check if room is cleared
+        if (currentRoom.getType() == DungeonRoom.RoomType.COMBAT && enemies.isEmpty() && !roomCleared) {
+            roomCleared = true;
+            // Unlock doors when the room is cleared
+            for (Door door : doors) {
+                if (!door.requiresKey()) {
+                    door.setLocked(false);
+                }
+            }
+        }
+}
+
+    private boolean allEnemiesDefeated() {
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.get(i).getHealth() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasLivingBoss() {
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.get(i).getType() == Enemy.EnemyType.BOSS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double calculateEnemyDamage(Enemy enemy) {
+        // Base damage for each enemy type
+        double baseDamage;
+        switch (enemy.getType()) {
+            case SKELETON:
+                baseDamage = 5.0;
+                break;
+            case GOBLIN:
+                baseDamage = 15.0;
+                break;
+            case MAGE:
+                baseDamage = 25.0;
+                break;
+            case BOSS:
+                baseDamage = 40.0;
+                break;
+            default:
+                baseDamage = 10.0;
+        }
+        
+        // Scale damage with level
+        
+        
+        return baseDamage;
+}
+
+    private void updateProjectiles(double deltaTime) {
+        // Move everything and drop expired shots in one pass over the arrays
+        projectileManager.update(deltaTime);
+        
+        ProjectileStore store = projectileManager.getStore();
+        for (int i = 0; i < store.size(); ) {
+            // Check for collisions with entities
+            double projectileX = store.getX(i);
+            double projectileY = store.getY(i);
+            double projectileSize = store.getSize(i);
+            double projectileDamage = store.getDamage(i);
+            boolean hit = false;
+            
+            // If from player, check enemy collisions
+            if (store.isFromPlayer(i)) {
+                enemyGrid.query(projectileX, projectileY,
+                    (projectileSize + enemyGrid.getMaxItemSize()) / 2, nearbyEnemies);
+                for (Enemy enemy : nearbyEnemies) {
+                    if (checkCollision(projectileX, projectileY, projectileSize, enemy.getX(), enemy.getY(), enemy.getSize())) {
+                        // Apply damage to enemy
+                        enemy.takeDamage(projectileDamage);
+                        
+                        // Show damage text
+                        showFloatingText("-" + (int)projectileDamage, 
+                            enemy.getPosition(), Color.RED);
+                        
+                        hit = true;
+                        break;
+                    }
+                }
+            } 
+            // If from enemy, check player collision
+            else if (player != null) {
+                if (checkCollision(projectileX, projectileY, projectileSize, player.getX(), player.getY(), player.getSize())) {
+                    Point2D playerPos = player.getPosition();
+                    
+                    // Apply damage to player
+                    player.takeDamage(projectileDamage);
+                    double damageBlocked = player.getLastDamageBlocked(); // Get amount blocked
+                    
+                    // Show floating text for damage blocked by armor
+                    if (damageBlocked > 0) {
+                        showFloatingText("Blocked: " + String.format("%.0f", damageBlocked), 
+                            playerPos.add(0, -15), Color.LIGHTBLUE); // Display slightly above actual damage
+                    }
+
+                    // Show damage text for actual damage taken
+                    double actualDamageDealtToPlayer = projectileDamage - damageBlocked;
+                    if (actualDamageDealtToPlayer > 0) {
+                        showFloatingText("-" + String.format("%.0f", actualDamageDealtToPlayer), 
+                            playerPos, Color.RED);
+                    }
+                    
+                    hit = true;
+                }
+            }
+            
+            // Removing moves the last projectile into slot i, so re-check the same slot
+            if (hit) {
+                store.remove(i);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    private boolean checkCollision(Point2D pos1, double size1, Point2D pos2, double size2) {
+        return checkCollision(pos1.getX(), pos1.getY(), size1, pos2.getX(), pos2.getY(), size2);
+    }
+    
+    private boolean checkCollision(double x1, double y1, double size1, double x2, double y2, double size2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        double reach = (size1 + size2) / 2;
+        return dx * dx + dy * dy < reach * reach;
+}
+
+    private void spawnRandomItem(Point2D position) {
+        double offsetX = (random.nextDouble() - 0.5) * 60;
+        double offsetY = (random.nextDouble() - 0.5) * 60;
+        
+        Point2D itemPos = position.add(offsetX, offsetY);
+        
+        Item rewardItem = null;
+        double itemTypeRoll = random.nextDouble();
+
+        if (itemTypeRoll < 0.1) { // 10% chance for a key (optional, can be removed if not desired from puzzles)
+            rewardItem = new Item("Dungeon Key", "Opens locked doors", Item.ItemType.KEY, 1, true);
+        } else if (itemTypeRoll < 0.45) { // 35% chance for a weapon (10% to 45%)
+            // Create a random weapon (tier 1 for now) as a puzzle reward (half damage)
+            rewardItem = Weapon.createRandomWeapon(1, true);
+        } else if (itemTypeRoll < 0.80) { // 35% chance for armor (45% to 80%)
+            // Create a random armor (tier 1 for now) as a puzzle reward
+            rewardItem = Armor.createRandomArmor(1, true);
+        } else { // 20% chance for a potion (80% to 100%)
+            rewardItem = new Item("Health Potion", "Restores health when consumed", Item.ItemType.POTION, 25 + random.nextInt(25), true);
+        }
+        
+        if (rewardItem != null) {
+        rewardItem.setX(itemPos.getX());
+        rewardItem.setY(itemPos.getY());
+            rewardItem.setSize(20); // Default item size on ground
+        roomItems.add(rewardItem);
+        
+        // Add visual effect for the reward
+        listener.onExplosion(itemPos.getX(), itemPos.getY(), 1.0);
+            debug("Puzzle solved, spawned item: " + rewardItem.getName() + " of type " + rewardItem.getType());
+        } else {
+            debug("Puzzle solved, but failed to spawn a specific item type.");
+        }
+    }
+
+    private void checkVictoryCondition() {
+        // Check if boss is defeated in the boss room
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.BOSS && 
+            bossDefeated) {
+            declareVictory();
+        }
+    }
+
+    private void declareVictory() {
+        // Boss death and the boss room clear check can both get here in one tick
+        if (victory) return;
+        victory = true;
+        stopRunningSound();
+        listener.onVictory();
+    }
+
+    // Update the enemy defeated counter
+    private void onEnemyDefeated(Enemy enemy) {
+        enemiesDefeated++;
+        player.addScore((int)enemy.getScoreValue());
+        dropItemFromEnemy(enemy);
+        listener.onSound("death");
+        
+        // If in boss room and the defeated enemy is the boss, trigger victory immediately
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.BOSS && 
+            enemy.getType() == Enemy.EnemyType.BOSS) {
+            bossDefeated = true;
+            return;
+        }
+        // If in boss room and all enemies are defeated, mark boss as defeated
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.BOSS && 
+            enemies.isEmpty()) {
+            bossDefeated = true;
+            // Victory music will be played by VictoryController, so no need for "start" sound here
+        }
+    }
+
+    // Add a basic checkPlayerStatus method
+    private void checkPlayerStatus() {
+        if (player != null && player.getHealth() <= 0 && !gameOver) {
+            // Mark game as over to prevent multiple game over screens
+            gameOver = true;
+            stopRunningSound(); // Stop running sound
+            listener.onSound("gameOver");
+            
+            // Let the front end show the game over screen
+            listener.onGameOver();
+        }
+    }
+
+    /**
+     * Starts building the dungeon the next startNewGame() will ask for. The
+     * level advances inside a run without a new dungeon, and the victory
+     * screen starts the level after the one reached, so this is called again
+     * every time the level goes up. Not called from setLevel(): that runs
+     * just before startNewGame() takes the level prefetched for it.
+     */
+    private void prefetchNextLevel() {
+        LevelPipeline.getInstance().prefetch(seed, currentLevel + 1);
+    }
+
+    public void setLevel(int level) {
+        this.currentLevel = level;
+        adjustDifficultyForLevel();
+    }
+
+    private void adjustDifficultyForLevel() {
+        // Increase enemy health and damage based on level
+        for (Enemy enemy : enemies) {
+            // Increase damage based on level
+            if (currentLevel > 1) {
+                double multiplier = 1.0 + (currentLevel - 1) * 0.2;
+                enemy.setDamage(enemy.getDamage() * multiplier);
+            }
+        }
+        
+        // Spawn more enemies in combat rooms for levels > 1
+        if (currentLevel > 1) {
+            for (int i = 0; i < currentLevel - 1; i++) {
+                for (DungeonRoom room : currentDungeon) {
+                    if (room.getType() == DungeonRoom.RoomType.COMBAT && room != currentRoom) {
+                        spawnEnemy(room);
+                    }
+                }
+            }
+        }
+}
+
+    public void onPuzzleSolved(DungeonRoom room) {
+        // Mark puzzle as solved
+        puzzleCompleted = true;
+        
+        // Hide the statue
+        statueVisible = false;
+        
+        // Play success sound
+        listener.onSound("start");
+        
+        // Show success message
+        Point2D roomCenter = new Point2D(width / 2, height / 2);
+        showFloatingText("Puzzle Solved!", roomCenter, Color.GREEN);
+        
+        // Place the key in the room
+        placeKeyInRoom(room);
+        
+        // Unlock doors
+        for (Door door : doors) {
+            if (!door.requiresKey()) {
+                door.setLocked(false);
+            }
+        }
+        
+        // Spawn reward
+        spawnRandomItem(roomCenter);
+    }
+
+    private void updatePlayerProjectiles(double deltaTime) {
+        // Update player projectile attacks
+        for (int i = 0; i < playerProjectiles.size(); ) {
+            ProjectileAttack attack = playerProjectiles.get(i);
+            attack.update(deltaTime);
+            
+            // Check if attack is expired
+            if (attack.isExpired()) {
+                playerProjectilePool.releaseAt(playerProjectiles, i);
+                continue;
+            }
+            
+            // Check for collisions with enemies
+            double attackX = attack.getX();
+            double attackY = attack.getY();
+            double attackSize = attack.getSize();
+            boolean hit = false;
+            
+            enemyGrid.query(attackX, attackY,
+                (attackSize + enemyGrid.getMaxItemSize()) / 2, nearbyEnemies);
+            for (Enemy enemy : nearbyEnemies) {
+                if (checkCollision(attackX, attackY, attackSize, enemy.getX(), enemy.getY(), enemy.getSize())) {
+                    // Apply damage to enemy
+                    enemy.takeDamage(attack.getDamage());
+                    
+                    // Show damage text
+                    showFloatingText("-" + (int)attack.getDamage(), 
+                        enemy.getPosition(), Color.RED);
+                    
+                    hit = true;
+                    break;
+                }
+            }
+            
+            // Recycle the attack with a swap-remove rather than shifting the list
+            if (hit) {
+                playerProjectilePool.releaseAt(playerProjectiles, i);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    public void firePlayerProjectile() {
+        if (player == null || player.getEquippedWeapon() == null) {
+            debug("Player has no equipped weapon to fire projectile.");
+            return; 
+        }
+
+        Point2D playerPos = player.getPosition().add(player.getSize() / 2, player.getSize() / 2); 
+        Point2D targetPos = new Point2D(aimX, aimY);
+        Point2D direction = targetPos.subtract(playerPos).normalize();
+        
+        Weapon equippedWeapon = player.getEquippedWeapon();
+        double damage = equippedWeapon.getDamage(); 
+        Color projectileColor = equippedWeapon.getWeaponType().getProjectileColor(); // Get color from WeaponType
+        
+        // Determine projectile type (optional, could be always ARROW or vary by weapon)
+        ProjectileAttack.ProjectileType projectileType = ProjectileAttack.ProjectileType.ARROW;
+        // Example: if (equippedWeapon.getWeaponType() == Weapon.WeaponType.STAFF) { projectileType = ProjectileAttack.ProjectileType.MAGIC_BOLT; }
+
+        ProjectileAttack attack = playerProjectilePool.acquire().reset(
+            playerPos.getX(), 
+            playerPos.getY(), 
+            direction.getX(), 
+            direction.getY(), 
+            damage,
+            projectileColor, // Use the dynamic color
+            projectileType 
+        );
+        playerProjectiles.add(attack);
+        
+        listener.onSound("damage");
+    }
+
+    private void movePlayer(double deltaTime) {
+        if (player == null) return;
+        
+        // Check if player is moving (any WASD key is pressed)
+        boolean isMoving = activeKeys.contains(KeyCode.W) || 
+                          activeKeys.contains(KeyCode.A) || 
+                          activeKeys.contains(KeyCode.S) || 
+                          activeKeys.contains(KeyCode.D);
+        
+        // Play running sound if moving. Only tell the sound manager when the state
+        // changes; each call queues a task, which used to happen every tick
+        if (isMoving != runningSoundOn) {
+            if (isMoving) {
+                listener.onSound("running");
+            } else {
+                listener.onSoundStopped("running");
+            }
+            runningSoundOn = isMoving;
+        }
+        
+        // Apply weather effects to player movement
+        double weatherSpeedMultiplier = 1.0;
+        if (weatherSystem != null) {
+            weatherSpeedMultiplier = weatherSystem.getPlayerSpeedMultiplier();
+        }
+        
+        // Check for statue collision in puzzle rooms
+        checkStatueCollision();
+        
+        // Limit player movement to stay within the room boundaries
+        double minX = 10; // Left wall + margin
+        double minY = 10; // Top wall + margin
+        double maxX = width - player.getSize() - 10; // Right wall - player size - margin
+        double maxY = height - player.getSize() - 10; // Bottom wall - player size - margin
+        
+        // Ensure player stays within bounds
+        double newX = VectorMath.clamp(player.getX(), minX, maxX);
+        double newY = VectorMath.clamp(player.getY(), minY, maxY);
+        
+        // Update player position if it changed due to boundaries
+        if (newX != player.getX() || newY != player.getY()) {
+            player.setPosition(newX, newY);
+        }
+    }
+    
+    public void stopRunningSound() {
+        listener.onSoundStopped("running");
+        runningSoundOn = false;
+    }
+    
+    private void checkStatueCollision() {
+        // Only check statue collision in puzzle rooms when statue is visible
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE && 
+            statueVisible && statuePosition != null && player != null) {
+            
+            double playerCenterX = player.getX() + player.getSize() / 2;
+            double playerCenterY = player.getY() + player.getSize() / 2;
+            
+            // If player is too close to statue, push them back
+            double minDistance = (player.getSize() / 2 + STATUE_SIZE / 2);
+            if (VectorMath.isWithin(playerCenterX, playerCenterY, statuePosition.getX(), statuePosition.getY(), minDistance)) {
+                // Calculate direction from statue to player
+                double directionX = VectorMath.directionX(statuePosition.getX(), statuePosition.getY(), playerCenterX, playerCenterY);
+                double directionY = VectorMath.directionY(statuePosition.getX(), statuePosition.getY(), playerCenterX, playerCenterY);
+                
+                // Set player to a position that maintains minimum distance
+                player.setPosition(
+                    statuePosition.getX() + directionX * minDistance - player.getSize() / 2,
+                    statuePosition.getY() + directionY * minDistance - player.getSize() / 2);
+            }
+        }
+    }
+    
+    private void dropItemFromEnemy(Enemy enemy) {
+        if (enemy == null) return;
+        
+        if (random.nextDouble() > 0.3) return; // 30% drop chance
+        
+        // Get enemy position
+        Point2D position = enemy.getPosition();
+        
+        // Randomize drop type
+        Item item;
+        
+        if (random.nextDouble() < 0.6) {
+            // 60% chance for a potion
+            item = new Item("Health Potion", "Restores 20 health", Item.ItemType.POTION, 20, true);
+        } else if (random.nextDouble() < 0.8) {
+            // 20% chance for a weapon
+            Weapon.WeaponType[] weaponTypes = Weapon.WeaponType.values();
+            Weapon.WeaponType randomType = weaponTypes[random.nextInt(weaponTypes.length)];
+            String name = randomType.toString().charAt(0) + randomType.toString().substring(1).toLowerCase();
+            
+            // Get base damage for the specific weapon type
+            int baseDamage;
+            switch (randomType) {
+                case DAGGER: baseDamage = 17; break;  // 17 * 0.7 = 12 damage
+                case SPEAR: baseDamage = 18; break;   // 18 * 0.9 = 16 damage  
+                case SWORD: baseDamage = 20; break;   // 20 * 1.0 = 20 damage
+                case BOW: baseDamage = 23; break;     // 23 * 0.8 = 18 damage
+                case AXE: baseDamage = 19; break;     // 19 * 1.3 = 25 damage
+                default: baseDamage = 20; break;
+            }
+            
+            item = new Weapon(name, "A basic " + name.toLowerCase(), baseDamage, randomType, false);
+        } else {
+            // 20% chance for armor
+            Armor.ArmorType[] armorTypes = Armor.ArmorType.values();
+            Armor.ArmorType randomType = armorTypes[random.nextInt(armorTypes.length)];
+            String name = randomType.toString().charAt(0) + randomType.toString().substring(1).toLowerCase() + " Armor";
+            item = new Armor(name, "Basic " + name.toLowerCase(), randomType);
+        }
+        
+        // Set item position and size
+        item.setX(position.getX());
+        item.setY(position.getY());
+        item.setSize(20);
+        roomItems.add(item);
+}
+
+    // Handle weapon selection
+    public void selectWeapon(int weaponIndex) {
+        if (player == null) return;
+        
+        debug("Attempting to select weapon: " + weaponIndex);
+        
+        // Implement weapon selection logic
+        player.selectWeapon(weaponIndex);
+        
+        // Show message about selected weapon
+        String weaponName = "Unknown";
+        switch (weaponIndex) {
+            case 0: weaponName = "Sword"; break;
+            case 1: weaponName = "Bow"; break;
+            case 2: weaponName = "Spear"; break;
+            case 3: weaponName = "Axe"; break;
+        }
+        
+        showFloatingText("Selected: " + weaponName, 
+            player.getPosition(), Color.LIGHTYELLOW);
+    }
+  
+    private void showLevelCompletionMessage() {
+        // Show a floating text at the top-middle of the room
+        showFloatingText("Level Complete!", new Point2D(width / 2, 50), Color.GOLD);
+    }
+    public void addItemToRoom(Item item) {
+        if (item != null) {
+            roomItems.add(item);
+           
+            showFloatingText("Item dropped!", 
+                new Point2D(item.getX(), item.getY()), 
+                Color.YELLOW);
+        }
+    }
+
+    private void checkStatueInteraction() {
+        // Only check statue interaction in puzzle rooms when statue is visible
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.PUZZLE && 
+            statueVisible && statuePosition != null && player != null) {
+            
+            // Calculate distance between player and statue
+            double playerCenterX = player.getX() + player.getSize() / 2;
+            double playerCenterY = player.getY() + player.getSize() / 2;
+            
+            // Show floating text when player is near statue
+            if (VectorMath.isWithin(playerCenterX, playerCenterY, statuePosition.getX(), statuePosition.getY(), STATUE_INTERACTION_RANGE)) {
+                // Show the floating text slightly above the statue
+                Point2D textPosition = new Point2D(statuePosition.getX(), statuePosition.getY() - STATUE_SIZE/2 - 30);
+                showFloatingText("Press F to unlock the doors", textPosition, Color.YELLOW);
+            }
+        }
+    }
+    
+    public void toggleTorch() {
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE) {
+            torchActive = !torchActive;
+            String message = torchActive ? "Torch lit!" : "Torch extinguished!";
+            Point2D playerPos = player.getPosition();
+            showFloatingText(message, playerPos, torchActive ? Color.YELLOW : Color.GRAY);
+        }
+    }
+    
+    private void generateTreasureRoomLayout() {
+        spikePositions.clear();
+        safePositions.clear();
+        
+        double roomWidth = width;
+        double roomHeight = height;
+        
+        // Create a grid of positions
+        int gridSize = 8;
+        double cellWidth = roomWidth / gridSize;
+        double cellHeight = roomHeight / gridSize;
+        
+        // Generate random spike pattern (about 60% of cells have spikes)
+        for (int x = 0; x < gridSize; x++) {
+            for (int y = 0; y < gridSize; y++) {
+                double posX = x * cellWidth + cellWidth / 2;
+                double posY = y * cellHeight + cellHeight / 2;
+                
+                // Keep center area and door areas safe
+                boolean isCenter = (x >= 3 && x <= 4 && y >= 3 && y <= 4);
+                boolean isDoorArea = (x == 0 || x == gridSize-1 || y == 0 || y == gridSize-1);
+                
+                if (!isCenter && !isDoorArea && random.nextDouble() < 0.6) {
+                    spikePositions.add(new Point2D(posX, posY));
+                } else {
+                    safePositions.add(new Point2D(posX, posY));
+                }
+            }
+        }
+        
+        debug("Generated " + spikePositions.size() + " spikes and " + safePositions.size() + " safe areas");
+    }
+    
+    private void spawnTreasureRoomEquipment() {
+        // Spawn 3 equipment items in safe areas, scattered near the middle area
+        List<Point2D> availableSafePositions = new ArrayList<>(safePositions);
+        double roomCenterX = width / 2;
+        double roomCenterY = height / 2;
+        double minDist = Math.min(width, height) * 0.18; // not too close to center
+        double maxDist = Math.min(width, height) * 0.38; // not too far from center
+        // Filter positions to a "middle ring"
+        List<Point2D> middleRing = new ArrayList<>();
+        for (Point2D pos : availableSafePositions) {
+            double dist = pos.distance(roomCenterX, roomCenterY);
+            if (dist >= minDist && dist <= maxDist) {
+                middleRing.add(pos);
+            }
+        }
+        // If not enough, fallback to all safe positions
+        List<Point2D> spawnPositions = middleRing.size() >= 3 ? middleRing : availableSafePositions;
+        Collections.shuffle(spawnPositions, random);
+        int equipmentCount = Math.min(3, spawnPositions.size());
+        for (int i = 0; i < equipmentCount; i++) {
+            Point2D position = spawnPositions.get(i);
+            // Add a small random offset to scatter
+            double offsetX = (random.nextDouble() - 0.5) * 40;
+            double offsetY = (random.nextDouble() - 0.5) * 40;
+            Point2D scatterPos = new Point2D(position.getX() + offsetX, position.getY() + offsetY);
+            Item equipment;
+            switch (i) {
+                case 0:
+                    Weapon.WeaponType[] weaponTypes = Weapon.WeaponType.values();
+                    Weapon.WeaponType weaponType = weaponTypes[random.nextInt(weaponTypes.length)];
+                    int weaponDamage = Math.min(20 + currentLevel * 5, 30); // Cap at 30
+                    equipment = new Weapon(weaponType.name(), "A powerful " + weaponType.name().toLowerCase(), weaponDamage, weaponType, false);
+                    break;
+                case 1:
+                    Armor.ArmorType[] armorTypes = Armor.ArmorType.values();
+                    Armor.ArmorType armorType = armorTypes[random.nextInt(armorTypes.length)];
+                    equipment = new Armor(armorType.name() + " Armor", "Protective " + armorType.name().toLowerCase(), armorType);
+                    break;
+                case 2:
+                    equipment = new Item("Health Potion", "Restores 30 health", Item.ItemType.POTION, 30, true);
+                    break;
+                default:
+                    equipment = new Item("Gold", "Valuable treasure", Item.ItemType.TREASURE, 50, true);
+                    break;
+            }
+            equipment.setX(scatterPos.getX());
+            equipment.setY(scatterPos.getY());
+            equipment.setSize(25);
+            roomItems.add(equipment);
+        }
+    }
+
+    private void checkSpikeCollision() {
+        if (currentRoom != null && currentRoom.getType() == DungeonRoom.RoomType.TREASURE && 
+            player != null && !treasureRoomLighted) {
+            
+            double playerCenterX = player.getX() + player.getSize() / 2;
+            double playerCenterY = player.getY() + player.getSize() / 2;
+            
+            for (int i = 0; i < spikePositions.size(); i++) {
+                Point2D spikePos = spikePositions.get(i);
+                
+                if (VectorMath.isWithin(playerCenterX, playerCenterY, spikePos.getX(), spikePos.getY(),
+                        player.getSize() / 2 + SPIKE_SIZE / 2)) {
+                    // Player hit a spike
+                    player.takeDamage(SPIKE_DAMAGE);
+                    showFloatingText("-" + (int)SPIKE_DAMAGE, player.getPosition(), Color.RED);
+                    listener.onSound("damage");
+                    
+                    // Push player back slightly
+                    player.move(
+                        VectorMath.directionX(spikePos.getX(), spikePos.getY(), playerCenterX, playerCenterY) * 30,
+                        VectorMath.directionY(spikePos.getX(), spikePos.getY(), playerCenterX, playerCenterY) * 30);
+                    
+                    break; // Only hit one spike at a time
+                }
+            }
+        }
+    }
+}
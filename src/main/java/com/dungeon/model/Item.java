@@ -1,6 +1,7 @@
 package com.dungeon.model;
 
 import com.dungeon.model.entity.Player;
+import com.dungeon.utils.AssetCache;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -28,7 +29,7 @@ public class Item {
     private final ItemType type;
     private final int value;  // Flexible value - can mean damage, defense, heal amount, etc.
     private final boolean consumable;
-    private final Image icon;
+    private final String iconPath;
     
     private double x;
     private double y;
@@ -53,12 +54,7 @@ public class Item {
         this.value = value;
         this.consumable = consumable;
         
-        // Load image if path is provided
-        if (iconPath != null && !iconPath.isEmpty()) {
-            this.icon = new Image(getClass().getResourceAsStream(iconPath));
-        } else {
-            this.icon = null;
-        }
+        this.iconPath = iconPath;
     }
     
     /**
@@ -118,7 +114,8 @@ public class Item {
      * @return Item icon
      */
     public Image getIcon() {
-        return icon;
+        // Shared with every other item of the same kind; decoded on first use
+        return AssetCache.getInstance().get(iconPath);
     }
     
     @Override
@@ -0,0 +1,129 @@
+package com.dungeon.model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds levels ahead of time. When a level starts, the next one is generated
+ * and validated on a virtual thread, and the next startNewGame() takes it
+ * instead of generating on the FX thread. Every level is a pure function of
+ * the run seed and the level number, so a prepared level is identical to one
+ * generated on the spot; if the prepared one is missing or for another run,
+ * the level is simply generated synchronously.
+ *
+ * Process-wide, because each level gets a fresh controller and simulation.
+ */
+public class LevelPipeline {
+    private static final int MAX_ATTEMPTS = 8; // Layouts tried before accepting an invalid one
+
+    /**
+     * A generated level, ready to play
+     * @param seed Run seed it was generated from
+     * @param level Level number
+     * @param graph Room graph, connected and with spawn and boss rooms
+     * @param puzzles Puzzles for the level's puzzle rooms, in assignment order
+     * @param random Gameplay stream for the level (puzzles, spawns and drops)
+     * @param weatherSeed Seed for the level's weather, kept apart from the gameplay stream
+     */
+    public record PreparedLevel(long seed, int level, DungeonGraph graph,
+                                List<Puzzle> puzzles, SplittableRandom random, long weatherSeed) {
+        /**
+         * @return The room objects, indexed by graph id
+         */
+        public List<DungeonRoom> dungeon() {
+            return graph.getRooms();
+        }
+    }
+
+    private record Pending(long seed, int level, CompletableFuture<PreparedLevel> future) {
+    }
+
+    private static LevelPipeline instance;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+
+    private LevelPipeline() {
+    }
+
+    public static synchronized LevelPipeline getInstance() {
+        if (instance == null) {
+            instance = new LevelPipeline();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts preparing a level in the background, replacing any level prepared earlier
+     */
+    public void prefetch(long seed, int level) {
+        Pending current = pending.get();
+        if (current != null && current.seed() == seed && current.level() == level) {
+            return;
+        }
+        CompletableFuture<PreparedLevel> future = CompletableFuture.supplyAsync(() -> prepare(seed, level), executor);
+        pending.set(new Pending(seed, level, future));
+    }
+
+    /**
+     * Hands over the prepared level, waiting for it if it is still being
+     * built, or generates it now if nothing matching was prefetched.
+     */
+    public PreparedLevel take(long seed, int level) {
+        Pending current = pending.getAndSet(null);
+        if (current != null && current.seed() == seed && current.level() == level) {
+            try {
+                return current.future().join();
+            } catch (Exception e) {
+                System.err.println("Background level generation failed, generating again: " + e.getMessage());
+            }
+        }
+        return prepare(seed, level);
+    }
+
+    /**
+     * Generates and validates a level. Safe on any thread: it only touches
+     * the objects it creates.
+     */
+    public static PreparedLevel prepare(long seed, int level) {
+        // Each level splits its own streams off the run seed and the level number,
+        // so a level plays out the same whatever happened on the levels before it
+        SplittableRandom levelRandom = new SplittableRandom(levelSeed(seed, level));
+        DungeonGenerator generator = new DungeonGenerator(1, levelRandom.nextLong());
+        long weatherSeed = levelRandom.nextLong(); // Drawn whether or not the level has weather
+        SplittableRandom random = levelRandom.split();
+
+        DungeonGraph graph = generator.generateGraph();
+        for (int attempt = 1; attempt < MAX_ATTEMPTS && !isPlayable(graph); attempt++) {
+            System.out.println("Level " + level + " layout failed validation, generating another");
+            generator.setSeed(levelRandom.nextLong());
+            graph = generator.generateGraph();
+        }
+        graph.getRooms(); // Build the room objects here rather than on the FX thread
+        return new PreparedLevel(seed, level, graph, Puzzle.loadPuzzlesFromResources(), random, weatherSeed);
+    }
+
+    /**
+     * Hashes a run seed and level number into the level's seed. The run seed
+     * is mixed before the level is added; with seed + level, seed S on level 2
+     * and seed S + 1 on level 1 would build the same dungeon.
+     */
+    static long levelSeed(long seed, int level) {
+        return new SplittableRandom(new SplittableRandom(seed).nextLong() + level).nextLong();
+    }
+
+    /**
+     * @return Whether the dungeon has a boss room and every room can be reached from spawn
+     */
+    static boolean isPlayable(DungeonGraph graph) {
+        if (graph.getBossRoom() == DungeonGraph.NONE) return false;
+        for (int room = 0; room < graph.getRoomCount(); room++) {
+            if (graph.getDistance(room) < 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+package com.dungeon.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Simple free-list pool for short-lived game objects such as projectiles.
+ * Objects are handed out with acquire() and must be re-initialised by the
+ * caller; release() puts them back for reuse instead of leaving them to the GC.
+ *
+ * Not thread-safe: pools are owned by the game loop thread.
+ */
+public class ObjectPool<T> {
+    private final String name;
+    private final Supplier<T> factory;
+    private final int maxIdle;
+    private final List<T> idle;
+
+    // Occupancy metrics
+    private int inUse;
+    private int peakInUse;
+    private long created;
+    private long acquired;
+
+    /**
+     * @param name Label used in metrics output
+     * @param factory Creates a fresh object when the pool is empty
+     * @param initialSize Number of objects to create up front
+     * @param maxIdle Upper bound on objects kept around once released
+     */
+    public ObjectPool(String name, Supplier<T> factory, int initialSize, int maxIdle) {
+        this.name = name;
+        this.factory = factory;
+        this.maxIdle = Math.max(initialSize, maxIdle);
+        this.idle = new ArrayList<>(this.maxIdle);
+        for (int i = 0; i < initialSize; i++) {
+            idle.add(factory.get());
+            created++;
+        }
+    }
+
+    /**
+     * Takes an object from the pool, creating one if none are idle.
+     * @return An object that the caller must reset before use
+     */
+    public T acquire() {
+        T object;
+        int last = idle.size() - 1;
+        if (last >= 0) {
+            object = idle.remove(last);
+        } else {
+            object = factory.get();
+            created++;
+        }
+        acquired++;
+        inUse++;
+        if (inUse > peakInUse) {
+            peakInUse = inUse;
+        }
+        return object;
+    }
+
+    /**
+     * Returns an object to the pool. The caller must not use it afterwards.
+     * @param object The object to recycle
+     */
+    public void release(T object) {
+        if (object == null) return;
+        inUse = Math.max(0, inUse - 1);
+        if (idle.size() < maxIdle) {
+            idle.add(object);
+        }
+    }
+
+    /**
+     * Removes the element at the given index by moving the last element into
+     * its slot, then releases it. Unlike ArrayList.remove(int) this does not
+     * shift the tail of the list, at the cost of not preserving order.
+     * @param active The list of live objects
+     * @param index Index of the object to remove
+     */
+    public void releaseAt(List<T> active, int index) {
+        int last = active.size() - 1;
+        T removed = active.get(index);
+        if (index != last) {
+            active.set(index, active.get(last));
+        }
+        active.remove(last);
+        release(removed);
+    }
+
+    /**
+     * Releases every object in the list and clears it.
+     * @param active The list of live objects
+     */
+    public void releaseAll(List<T> active) {
+        for (int i = 0; i < active.size(); i++) {
+            release(active.get(i));
+        }
+        active.clear();
+    }
+
+    public int getInUseCount() {
+        return inUse;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getPeakInUse() {
+        return peakInUse;
+    }
+
+    public long getCreatedCount() {
+        return created;
+    }
+
+    public long getAcquiredCount() {
+        return acquired;
+    }
+
+    /**
+     * @return Fraction of acquisitions served from the free list (0..1)
+     */
+    public double getReuseRate() {
+        return acquired == 0 ? 1.0 : Math.max(0, acquired - created) / (double) acquired;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s pool: %d in use, %d idle, peak %d, created %d, reuse %.0f%%",
+            name, inUse, idle.size(), peakInUse, created, getReuseRate() * 100);
+    }
+}
@@ -3,18 +3,16 @@ package com.dungeon.model;
 import com.dungeon.model.entity.Enemy;
 import com.dungeon.model.entity.Entity;
 import com.dungeon.model.entity.Player;
-import com.dungeon.model.entity.Projectile;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 
 /**
- * Manages all projectiles in the game world
+ * Manages all projectiles in the game world. Projectiles live in a
+ * structure-of-arrays ProjectileStore and are addressed by slot index.
  */
 public class ProjectileManager {
     private static final double DEFAULT_PROJECTILE_SPEED = 400.0;
@@ -22,12 +20,12 @@ public class ProjectileManager {
     private static final double DEFAULT_PROJECTILE_DAMAGE = 10.0;
     private static final double DEFAULT_PROJECTILE_LIFETIME = 2.0;
     
-    private final List<Projectile> projectiles;
+    private final ProjectileStore store;
     private double playerFireCooldown;
     private final Random random;
     
     public ProjectileManager() {
-        this.projectiles = new ArrayList<>();
+        this.store = new ProjectileStore();
         this.playerFireCooldown = 0;
         this.random = new Random();
     }
@@ -42,17 +40,8 @@ public class ProjectileManager {
             playerFireCooldown -= deltaTime;
         }
         
-        // Update projectiles and remove expired ones
-        Iterator<Projectile> iterator = projectiles.iterator();
-        while (iterator.hasNext()) {
-            Projectile projectile = iterator.next();
-            projectile.update(deltaTime);
-            
-            // Remove expired projectiles
-            if (projectile.isExpired()) {
-                iterator.remove();
-            }
-        }
+        // Move projectiles and drop expired ones in one linear pass
+        store.update(deltaTime);
     }
     
     /**
@@ -60,8 +49,31 @@ public class ProjectileManager {
      * @param gc Graphics context to render on
      */
     public void render(GraphicsContext gc) {
-        for (Projectile projectile : projectiles) {
-            projectile.render(gc);
+        for (int i = 0; i < store.count; i++) {
+            double x = store.x[i];
+            double y = store.y[i];
+            double size = store.size[i];
+            Color color = store.color[i];
+            
+            gc.setFill(color);
+            gc.fillOval(x - size/2, y - size/2, size, size);
+            
+            // Add glow effect
+            gc.setGlobalAlpha(0.3);
+            gc.fillOval(x - size, y - size, size * 2, size * 2);
+            
+            // Add trail effect, pointing back along the velocity
+            double vx = store.velocityX[i];
+            double vy = store.velocityY[i];
+            double speed = Math.sqrt(vx * vx + vy * vy);
+            if (speed > 0) {
+                double trailLength = speed * 0.1;
+                gc.setStroke(color);
+                gc.setLineWidth(size * 0.7);
+                gc.setGlobalAlpha(0.5);
+                gc.strokeLine(x, y, x - vx / speed * trailLength, y - vy / speed * trailLength);
+            }
+            gc.setGlobalAlpha(1.0);
         }
     }
     
@@ -71,12 +83,12 @@ public class ProjectileManager {
      * @param targetX Target X coordinate
      * @param targetY Target Y coordinate
      * @param weaponType The type of weapon being used
-     * @return The created projectile or null if on cooldown
+     * @return Slot index of the created projectile, or -1 if on cooldown
      */
-    public Projectile firePlayerProjectile(Player player, double targetX, double targetY, Weapon.WeaponType weaponType) {
+    public int firePlayerProjectile(Player player, double targetX, double targetY, Weapon.WeaponType weaponType) {
         // Check if weapon is on cooldown
         if (playerFireCooldown > 0) {
-            return null;
+            return -1;
         }
         
         // Get player center position
@@ -142,7 +154,7 @@ public class ProjectileManager {
         }
         
         // Create the projectile
-        Projectile projectile = new Projectile(
+        int projectile = store.add(
             playerX, playerY,
             dirX * projectileSpeed, dirY * projectileSpeed,
             damage, projectileSize, projectileColor, true
@@ -150,16 +162,13 @@ public class ProjectileManager {
         
         // Set special properties
         if (piercing) {
-            projectile.setPiercing(true);
+            store.setPiercing(projectile, true);
         }
         
         if (explosive) {
-            projectile.setExplosive(true, explosionRadius);
+            store.setExplosive(projectile, true, explosionRadius);
         }
         
-        // Add to list
-        projectiles.add(projectile);
-        
         return projectile;
     }
     
@@ -168,10 +177,10 @@ public class ProjectileManager {
      * @param enemy The enemy firing the projectile
      * @param player The target player
      * @param accuracy How accurate the aim is (0-1, with 1 being perfect aim)
-     * @return The created projectile
+     * @return Slot index of the created projectile, or -1 if there was no shooter or target
      */
-    public Projectile fireEnemyProjectile(Enemy enemy, Player player, double accuracy) {
-        if (enemy == null || player == null) return null;
+    public int fireEnemyProjectile(Enemy enemy, Player player, double accuracy) {
+        if (enemy == null || player == null) return -1;
         
         // Get positions
         double enemyX = enemy.getX() + enemy.getWidth() / 2;
@@ -217,7 +226,7 @@ public class ProjectileManager {
         }
         
         // Create the projectile
-        Projectile projectile = new Projectile(
+        int projectile = store.add(
             enemyX, enemyY,
             dirX * projectileSpeed, dirY * projectileSpeed,
             enemy.getDamage(), projectileSize, projectileColor, false
@@ -225,12 +234,9 @@ public class ProjectileManager {
         
         // Boss projectiles can be explosive
         if (enemy.getType() == Enemy.EnemyType.BOSS && random.nextDouble() < 0.3) {
-            projectile.setExplosive(true, 40);
+            store.setExplosive(projectile, true, 40);
         }
         
-        // Add to list
-        projectiles.add(projectile);
-        
         return projectile;
     }
     
@@ -266,16 +272,32 @@ public class ProjectileManager {
             
             // Create projectile
             Color color = fromPlayer ? Color.BLUE : Color.RED;
-            Projectile projectile = new Projectile(
+            store.add(
                 sourceX, sourceY,
                 newDirX * DEFAULT_PROJECTILE_SPEED, newDirY * DEFAULT_PROJECTILE_SPEED,
                 damage, DEFAULT_PROJECTILE_SIZE, color, fromPlayer
             );
-            
-            projectiles.add(projectile);
         }
     }
     
+    /**
+     * Adds a projectile with explicit properties, for callers that aim and
+     * tune their own shots
+     * @param x Initial X position (centre)
+     * @param y Initial Y position (centre)
+     * @param velocityX X velocity
+     * @param velocityY Y velocity
+     * @param damage Damage amount
+     * @param size Size of the projectile
+     * @param color Color of the projectile
+     * @param fromPlayer Whether the projectile was fired by the player
+     * @return Slot index of the created projectile
+     */
+    public int spawnProjectile(double x, double y, double velocityX, double velocityY,
+                               double damage, double size, Color color, boolean fromPlayer) {
+        return store.add(x, y, velocityX, velocityY, damage, size, color, fromPlayer);
+    }
+    
     /**
      * Checks projectile collisions with entities
      * @param entities List of entities to check collisions with
@@ -283,34 +305,42 @@ public class ProjectileManager {
     public void checkCollisions(List<Entity> entities) {
         if (entities == null || entities.isEmpty()) return;
         
-        Iterator<Projectile> iterator = projectiles.iterator();
-        while (iterator.hasNext()) {
-            Projectile projectile = iterator.next();
+        for (int i = 0; i < store.count; ) {
+            boolean fromPlayer = store.isFromPlayer(i);
+            boolean consumed = false;
             
             for (Entity entity : entities) {
                 // Skip null entities or wrong targets (player projectiles hit enemies, enemy projectiles hit player)
                 if (entity == null || !entity.isAlive() || 
-                    (projectile.isFromPlayer() && entity instanceof Player) ||
-                    (!projectile.isFromPlayer() && entity instanceof Enemy)) {
+                    (fromPlayer && entity instanceof Player) ||
+                    (!fromPlayer && entity instanceof Enemy)) {
                     continue;
                 }
                 
-                if (projectile.collidesWith(entity)) {
+                if (collidesWith(i, entity)) {
                     // Apply damage
-                    entity.takeDamage((int)projectile.getDamage());
+                    entity.takeDamage((int)store.damage[i]);
                     
                     // Handle explosive projectiles
-                    if (projectile.isExplosive()) {
-                        projectile.explode(entities.toArray(new Entity[0]));
+                    if (store.isExplosive(i)) {
+                        explode(i, entities);
+                        consumed = true;
+                        break;
                     }
                     
                     // Remove non-piercing projectiles
-                    if (!projectile.isPiercing()) {
-                        iterator.remove();
+                    if (!store.isPiercing(i)) {
+                        consumed = true;
                         break;
                     }
                 }
             }
+            
+            if (consumed) {
+                store.remove(i);
+                continue;
+            }
+            i++;
         }
     }
     
@@ -321,40 +351,81 @@ public class ProjectileManager {
     public void checkWallCollisions(List<double[]> walls) {
         if (walls == null || walls.isEmpty()) return;
         
-        Iterator<Projectile> iterator = projectiles.iterator();
-        while (iterator.hasNext()) {
-            Projectile projectile = iterator.next();
+        for (int i = 0; i < store.count; ) {
+            double half = store.size[i] / 2;
+            boolean hitWall = false;
             
             for (double[] wall : walls) {
                 if (wall.length < 4) continue;
                 
-                if (projectile.collidesWithWall(wall[0], wall[1], wall[2], wall[3])) {
-                    // Handle explosive projectiles
-                    if (projectile.isExplosive()) {
-                        // We could pass nearby entities here if we had a spatial system
-                        projectile.explode(new Entity[0]);
-                    }
-                    
-                    iterator.remove();
+                // Simple bounding box collision
+                if (store.x[i] + half > wall[0] && store.x[i] - half < wall[0] + wall[2] &&
+                    store.y[i] + half > wall[1] && store.y[i] - half < wall[1] + wall[3]) {
+                    hitWall = true;
                     break;
                 }
             }
+            
+            if (hitWall) {
+                store.remove(i);
+                continue;
+            }
+            i++;
+        }
+    }
+    
+    /**
+     * Checks whether the projectile in a slot overlaps an entity
+     * @param i Slot index
+     * @param entity The entity to check collision with
+     * @return true if colliding
+     */
+    private boolean collidesWith(int i, Entity entity) {
+        double dx = store.x[i] - (entity.getX() + entity.getWidth() / 2);
+        double dy = store.y[i] - (entity.getY() + entity.getHeight() / 2);
+        double reach = store.size[i] / 2 + Math.min(entity.getWidth(), entity.getHeight()) / 2;
+        
+        // Collision if distance is less than sum of radii
+        return dx * dx + dy * dy < reach * reach;
+    }
+    
+    /**
+     * Applies explosion damage with distance falloff around a projectile
+     * @param i Slot index of the exploding projectile
+     * @param entities Entities that may be caught in the blast
+     */
+    private void explode(int i, List<Entity> entities) {
+        double radius = store.explosionRadius[i];
+        if (radius <= 0) return;
+        
+        for (Entity entity : entities) {
+            if (entity == null) continue;
+            
+            double dx = store.x[i] - (entity.getX() + entity.getWidth() / 2);
+            double dy = store.y[i] - (entity.getY() + entity.getHeight() / 2);
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            
+            if (distance <= radius) {
+                // Calculate damage falloff based on distance
+                double damageMultiplier = 1.0 - (distance / radius);
+                entity.takeDamage((int)Math.max(1, store.damage[i] * damageMultiplier));
+            }
         }
     }
     
     /**
-     * Gets all active projectiles
-     * @return List of projectiles
+     * Gets the store holding all active projectiles
+     * @return The projectile store
      */
-    public List<Projectile> getProjectiles() {
-        return new ArrayList<>(projectiles);
+    public ProjectileStore getStore() {
+        return store;
     }
     
     /**
      * Clears all projectiles
      */
     public void clearProjectiles() {
-        projectiles.clear();
+        store.clear();
     }
     
     /**
@@ -362,6 +433,6 @@ public class ProjectileManager {
      * @return The number of active projectiles
      */
     public int getProjectileCount() {
-        return projectiles.size();
+        return store.size();
     }
 } 
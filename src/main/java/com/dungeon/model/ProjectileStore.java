@@ -0,0 +1,219 @@
+package com.dungeon.model;
+
+import java.util.Arrays;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Structure-of-arrays storage for projectiles. Each projectile is a slot index
+ * into parallel primitive arrays rather than an object, so the update and
+ * collision passes walk contiguous memory and never allocate.
+ *
+ * Live projectiles always occupy slots 0..count-1; removal moves the last
+ * projectile into the freed slot, so slot indices are only stable until the
+ * next removal.
+ */
+public class ProjectileStore {
+    public static final int DEFAULT_CAPACITY = 128;
+    public static final double DEFAULT_LIFETIME = 2.0; // seconds
+
+    private static final byte FLAG_FROM_PLAYER = 1;
+    private static final byte FLAG_PIERCING = 2;
+    private static final byte FLAG_EXPLOSIVE = 4;
+
+    // Parallel per-projectile data, package-visible for ProjectileManager's loops
+    double[] x;
+    double[] y;
+    double[] velocityX;
+    double[] velocityY;
+    double[] lifetime; // seconds left before the projectile expires
+    double[] damage;
+    double[] size;
+    double[] explosionRadius;
+    byte[] flags;
+    Color[] color;
+    int count;
+
+    public ProjectileStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Initial number of slots; the store grows if it fills up
+     */
+    public ProjectileStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new double[capacity];
+        y = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        lifetime = new double[capacity];
+        damage = new double[capacity];
+        size = new double[capacity];
+        explosionRadius = new double[capacity];
+        flags = new byte[capacity];
+        color = new Color[capacity];
+    }
+
+    /**
+     * Adds a projectile to the store
+     * @param x Initial X position (centre)
+     * @param y Initial Y position (centre)
+     * @param velocityX X velocity in pixels per second
+     * @param velocityY Y velocity in pixels per second
+     * @param damage Damage amount
+     * @param size Diameter of the projectile
+     * @param color Color of the projectile
+     * @param fromPlayer Whether the projectile was fired by the player
+     * @return The slot index of the new projectile
+     */
+    public int add(double x, double y, double velocityX, double velocityY,
+                   double damage, double size, Color color, boolean fromPlayer) {
+        if (count == this.x.length) {
+            grow();
+        }
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.velocityX[i] = velocityX;
+        this.velocityY[i] = velocityY;
+        this.lifetime[i] = DEFAULT_LIFETIME;
+        this.damage[i] = damage;
+        this.size[i] = size;
+        this.explosionRadius[i] = 0;
+        this.flags[i] = fromPlayer ? FLAG_FROM_PLAYER : 0;
+        this.color[i] = color;
+        return i;
+    }
+
+    /**
+     * Moves every projectile and drops the ones whose lifetime ran out
+     * @param deltaTime Time since last update in seconds
+     */
+    public void update(double deltaTime) {
+        for (int i = 0; i < count; ) {
+            x[i] += velocityX[i] * deltaTime;
+            y[i] += velocityY[i] * deltaTime;
+            lifetime[i] -= deltaTime;
+            if (lifetime[i] <= 0) {
+                // The last projectile moves into slot i and is updated next
+                remove(i);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Removes the projectile in the given slot by moving the last one into it
+     * @param i Slot index to free
+     */
+    public void remove(int i) {
+        int last = --count;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            velocityX[i] = velocityX[last];
+            velocityY[i] = velocityY[last];
+            lifetime[i] = lifetime[last];
+            damage[i] = damage[last];
+            size[i] = size[last];
+            explosionRadius[i] = explosionRadius[last];
+            flags[i] = flags[last];
+            color[i] = color[last];
+        }
+        color[last] = null;
+    }
+
+    /**
+     * Removes every projectile
+     */
+    public void clear() {
+        Arrays.fill(color, 0, count, null);
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    public double getVelocityX(int i) {
+        return velocityX[i];
+    }
+
+    public double getVelocityY(int i) {
+        return velocityY[i];
+    }
+
+    public double getDamage(int i) {
+        return damage[i];
+    }
+
+    public double getSize(int i) {
+        return size[i];
+    }
+
+    public Color getColor(int i) {
+        return color[i];
+    }
+
+    public boolean isFromPlayer(int i) {
+        return (flags[i] & FLAG_FROM_PLAYER) != 0;
+    }
+
+    public boolean isPiercing(int i) {
+        return (flags[i] & FLAG_PIERCING) != 0;
+    }
+
+    public boolean isExplosive(int i) {
+        return (flags[i] & FLAG_EXPLOSIVE) != 0;
+    }
+
+    public double getExplosionRadius(int i) {
+        return explosionRadius[i];
+    }
+
+    /**
+     * @param i Slot index
+     * @param piercing Whether the projectile keeps flying after a hit
+     */
+    public void setPiercing(int i, boolean piercing) {
+        flags[i] = (byte) (piercing ? flags[i] | FLAG_PIERCING : flags[i] & ~FLAG_PIERCING);
+    }
+
+    /**
+     * @param i Slot index
+     * @param explosive Whether the projectile explodes on impact
+     * @param radius The explosion radius
+     */
+    public void setExplosive(int i, boolean explosive, double radius) {
+        flags[i] = (byte) (explosive ? flags[i] | FLAG_EXPLOSIVE : flags[i] & ~FLAG_EXPLOSIVE);
+        explosionRadius[i] = explosive ? radius : 0;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        lifetime = Arrays.copyOf(lifetime, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        size = Arrays.copyOf(size, capacity);
+        explosionRadius = Arrays.copyOf(explosionRadius, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        color = Arrays.copyOf(color, capacity);
+    }
+}
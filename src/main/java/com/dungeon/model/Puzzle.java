@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.InputStream;
 import java.io.FileNotFoundException;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public class Puzzle {
     public enum PuzzleType {
@@ -85,11 +86,15 @@ public class Puzzle {
 
     // Returns a random puzzle from JSON loaded puzzles, fallback if empty
     public static Puzzle createRandomPuzzle() {
+        return createRandomPuzzle(new SplittableRandom());
+    }
+
+    // Same, but the choice comes from the caller's random source so it can be replayed
+    public static Puzzle createRandomPuzzle(RandomGenerator random) {
         List<Puzzle> puzzles = loadPuzzlesFromResources();
         if (puzzles.isEmpty()) {
             return new Puzzle(PuzzleType.RIDDLE, "Solve this riddle.", "What has hands but can’t clap?", "clock");
         }
-        Collections.shuffle(puzzles);
-        return puzzles.get(0);
+        return puzzles.get(random.nextInt(puzzles.size()));
     }
 }
@@ -0,0 +1,150 @@
+package com.dungeon.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.dungeon.model.entity.Entity;
+
+/**
+ * Uniform grid over the room used as a collision broadphase. Entities are
+ * bucketed by the cell containing their position, so a query only has to look
+ * at the handful of cells around a point instead of every entity in the room.
+ *
+ * The grid is rebuilt from scratch each tick with a counting sort into flat
+ * int arrays, which keeps it allocation-free once the arrays have grown to fit.
+ */
+public class SpatialGrid<T extends Entity> {
+    public static final double DEFAULT_CELL_SIZE = 64;
+
+    private final double cellSize;
+    private int columns;
+    private int rows;
+
+    // Items in cell c are entries[cellStart[c] .. cellStart[c + 1])
+    private int[] cellStart = new int[1];
+    private int[] entries = new int[16];
+    private int[] itemCells = new int[16];
+    private final List<T> items = new ArrayList<>();
+    private double maxItemSize;
+
+    public SpatialGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param cellSize Width and height of one grid cell in pixels
+     */
+    public SpatialGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Re-buckets all entities for the current tick.
+     * @param entities Entities to index, usually the enemies in the room
+     * @param width Width of the area covered by the grid
+     * @param height Height of the area covered by the grid
+     */
+    public void rebuild(List<? extends T> entities, double width, double height) {
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        int cellCount = columns * rows;
+        if (cellStart.length < cellCount + 1) {
+            cellStart = new int[cellCount + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cellCount + 1, 0);
+        }
+
+        // Copy element by element; addAll would allocate a temporary array every tick
+        items.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            items.add(entities.get(i));
+        }
+        int count = items.size();
+        if (entries.length < count) {
+            int capacity = Math.max(count, entries.length * 2);
+            entries = new int[capacity];
+            itemCells = new int[capacity];
+        }
+
+        // Count items per cell, shifted by one so the prefix sum yields start offsets
+        maxItemSize = 0;
+        for (int i = 0; i < count; i++) {
+            T item = items.get(i);
+            int cell = cellIndex(columnOf(item.getX()), rowOf(item.getY()));
+            itemCells[i] = cell;
+            cellStart[cell + 1]++;
+            maxItemSize = Math.max(maxItemSize, item.getSize());
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        // Scatter, using cellStart[c] as a write cursor and restoring it afterwards
+        for (int i = 0; i < count; i++) {
+            entries[cellStart[itemCells[i]]++] = i;
+        }
+        for (int c = cellCount; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    /**
+     * Collects every entity whose position lies in a cell overlapping the square
+     * of the given radius around (x, y). Callers still run an exact test on the
+     * candidates; this only rules out the ones that are definitely too far away.
+     * @param x Query centre X
+     * @param y Query centre Y
+     * @param radius Half-width of the query square
+     * @param out List to fill with candidates; cleared first
+     */
+    public void query(double x, double y, double radius, List<T> out) {
+        out.clear();
+        if (items.isEmpty()) return;
+
+        int minColumn = columnOf(x - radius);
+        int maxColumn = columnOf(x + radius);
+        int minRow = rowOf(y - radius);
+        int maxRow = rowOf(y + radius);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = cellIndex(column, row);
+                for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+                    out.add(items.get(entries[e]));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The largest entity size seen in the last rebuild, for padding query radii
+     */
+    public double getMaxItemSize() {
+        return maxItemSize;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    private int columnOf(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    private int rowOf(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+
+    private int cellIndex(int column, int row) {
+        return row * columns + column;
+    }
+}
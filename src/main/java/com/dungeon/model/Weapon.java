@@ -18,7 +18,7 @@ public class Weapon extends Item {
      * Types of weapons with different attributes
      */
     public enum WeaponType {
-        SWORD(1.0, 50, 1.5, "/com/dungeon/assets/images/SWORD.png", Color.LIGHTGRAY),    // Balanced
+        SWORD(1.0, 50, 1.5, "/com/dungeon/assets/images/sword.png", Color.LIGHTGRAY),    // Balanced
         DAGGER(0.7, 40, 2.0, "/com/dungeon/assets/images/DAGGER.png", Color.SILVER),   // Fast but short range
         AXE(1.3, 45, 1.0, "/com/dungeon/assets/images/AXE.png", Color.BROWN),      // High damage but slow
         SPEAR(0.9, 70, 1.2, "/com/dungeon/assets/images/SPEAR.png", Color.SANDYBROWN),    // Long range
@@ -0,0 +1,118 @@
+package com.dungeon.model;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+/**
+ * A tiling weather GIF pre-composited into one screen-sized texture.
+ *
+ * The tile is repeated to cover the canvas plus one extra tile in each
+ * direction, so scrolling is a single drawImage at an offset of less than one
+ * tile. Stacked layers (the storm's three sheets of rain) scroll together, so
+ * they are blended into the same texture with their alpha and offset baked in.
+ * The texture is rebuilt only when the canvas grows or shrinks by a tile.
+ */
+class WeatherLayer {
+    private final Image tile;
+    private final double[] layerAlpha;
+
+    private WritableImage texture;
+    private int tilesX;
+    private int tilesY;
+    private boolean failed;
+
+    /**
+     * @param tile Image repeated across the screen
+     * @param layerAlpha Opacity of each stacked layer, bottom first; layers are a third of a tile apart
+     */
+    WeatherLayer(Image tile, double... layerAlpha) {
+        this.tile = tile;
+        this.layerAlpha = layerAlpha;
+    }
+
+    /**
+     * Draws the layer scrolled by the given offset; positive offsets move the texture up and left
+     */
+    void render(GraphicsContext gc, double canvasWidth, double canvasHeight, double offsetX, double offsetY) {
+        if (!ensureTexture(canvasWidth, canvasHeight)) return;
+        double tileWidth = tile.getWidth();
+        double tileHeight = tile.getHeight();
+        gc.drawImage(texture, -(offsetX % tileWidth), -(offsetY % tileHeight));
+    }
+
+    private boolean ensureTexture(double canvasWidth, double canvasHeight) {
+        if (failed || tile == null || tile.getWidth() < 1 || tile.getHeight() < 1) return false;
+        int tileWidth = (int) tile.getWidth();
+        int tileHeight = (int) tile.getHeight();
+        // One spare tile so the texture still covers the canvas at any offset
+        int neededX = (int) Math.ceil(canvasWidth / tileWidth) + 1;
+        int neededY = (int) Math.ceil(canvasHeight / tileHeight) + 1;
+        if (texture != null && neededX == tilesX && neededY == tilesY) return true;
+
+        PixelReader reader = tile.getPixelReader();
+        if (reader == null) {
+            System.err.println("Weather image cannot be read; weather effect disabled");
+            failed = true;
+            return false;
+        }
+        int[] source = new int[tileWidth * tileHeight];
+        reader.getPixels(0, 0, tileWidth, tileHeight, PixelFormat.getIntArgbInstance(), source, 0, tileWidth);
+        int[] composite = compositeLayers(source, tileWidth, tileHeight);
+
+        // Repeat the composited tile across one band of rows, then stamp the band down the texture
+        int width = neededX * tileWidth;
+        int height = neededY * tileHeight;
+        int[] band = new int[width * tileHeight];
+        for (int y = 0; y < tileHeight; y++) {
+            for (int x = 0; x < width; x += tileWidth) {
+                System.arraycopy(composite, y * tileWidth, band, y * width + x, tileWidth);
+            }
+        }
+        texture = new WritableImage(width, height);
+        for (int y = 0; y < height; y += tileHeight) {
+            texture.getPixelWriter().setPixels(0, y, width, tileHeight,
+                PixelFormat.getIntArgbInstance(), band, 0, width);
+        }
+        tilesX = neededX;
+        tilesY = neededY;
+        return true;
+    }
+
+    /**
+     * Blends every layer of the tile into one tile, source-over, in non-premultiplied ARGB
+     */
+    private int[] compositeLayers(int[] source, int tileWidth, int tileHeight) {
+        if (layerAlpha.length == 1 && layerAlpha[0] >= 1.0) {
+            return source;
+        }
+        int[] composite = new int[source.length];
+        for (int layer = 0; layer < layerAlpha.length; layer++) {
+            int shiftX = layer * tileWidth / 3;
+            int shiftY = layer * tileHeight / 3;
+            for (int y = 0; y < tileHeight; y++) {
+                int sourceRow = ((y + shiftY) % tileHeight) * tileWidth;
+                for (int x = 0; x < tileWidth; x++) {
+                    int src = source[sourceRow + (x + shiftX) % tileWidth];
+                    int i = y * tileWidth + x;
+                    composite[i] = blend(composite[i], src, layerAlpha[layer]);
+                }
+            }
+        }
+        return composite;
+    }
+
+    private static int blend(int dst, int src, double opacity) {
+        double sa = ((src >>> 24) / 255.0) * opacity;
+        if (sa <= 0) return dst;
+        double da = (dst >>> 24) / 255.0;
+        double outA = sa + da * (1 - sa);
+        double dw = da * (1 - sa);
+        int r = (int) Math.round((((src >> 16) & 0xFF) * sa + ((dst >> 16) & 0xFF) * dw) / outA);
+        int g = (int) Math.round((((src >> 8) & 0xFF) * sa + ((dst >> 8) & 0xFF) * dw) / outA);
+        int b = (int) Math.round(((src & 0xFF) * sa + (dst & 0xFF) * dw) / outA);
+        return ((int) Math.round(outA * 255) << 24) | (r << 16) | (g << 8) | b;
+    }
+}
@@ -1,19 +1,18 @@
 package com.dungeon.model;
 
+import com.dungeon.utils.AssetCache;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.image.Image;
-import javafx.application.Platform;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Weather that changes every so often, slows or speeds up the player and
+ * enemies, and is drawn over the room. It has no threads of its own: the
+ * simulation advances it with tick() and every step publishes an immutable
+ * Snapshot that render() draws. With the same seed and the same steps the
+ * weather plays out the same way.
+ */
 public class WeatherSystem {
     public enum WeatherType {
         CLEAR("Clear", 1.0, 1.0, 1.0, Color.TRANSPARENT),
@@ -43,196 +42,175 @@ public class WeatherSystem {
         public Color getOverlayColor() { return overlayColor; }
     }
 
-    // Thread-safe state variables
-    private final AtomicReference<WeatherType> currentWeather = new AtomicReference<>(WeatherType.CLEAR);
-    private final AtomicReference<WeatherType> targetWeather = new AtomicReference<>(WeatherType.CLEAR);
-    private final AtomicBoolean isTransitioning = new AtomicBoolean(false);
-    private final AtomicBoolean thunderActive = new AtomicBoolean(false);
-    
-    // Thread-safe timers
-    private volatile double weatherTimer = 0;
-    private volatile double animationTimer = 0;
-    private volatile double thunderTimer = 0;
-    private volatile double transitionProgress = 0;
-    
-    private final Random random = new Random();
-    private final double weatherDuration = 20.0;
-    
-    // Weather GIF images (loaded once, thread-safe)
-    private volatile Image rainGif;
-    private volatile Image thunderGif;
-    private volatile Image snowGif;
-    
-    // Threading components
-    private final ExecutorService weatherExecutor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "WeatherThread");
-        t.setDaemon(true);
-        return t;
-    });
-    
-    private final ScheduledExecutorService animationExecutor = Executors.newScheduledThreadPool(1, r -> {
-        Thread t = new Thread(r, "AnimationThread");
-        t.setDaemon(true);
-        return t;
-    });
-    
-    private volatile boolean isShutdown = false;
-    private int weatherUpdateCount = 0;
-    private int animationUpdateCount = 0;
+    /**
+     * What the renderer needs from one weather step. A new snapshot is
+     * published after every step, so the renderer never sees a half-updated state.
+     * @param weather Weather drawn, after transitions and the treasure room lock
+     * @param animationTime Seconds of weather animation, drives the scrolling
+     * @param thunder Whether a lightning flash is showing
+     */
+    public record Snapshot(WeatherType weather, double animationTime, boolean thunder) {
+    }
+
+    private static final double STEP = 0.1; // Weather logic runs in fixed 100 ms steps
+    private static final double WEATHER_DURATION = 20.0; // Seconds between weather changes
+    private static final double TRANSITION_RATE = 0.5; // Transition progress per second
+
+    // Weather state, advanced only by tick()
+    private WeatherType currentWeather = WeatherType.CLEAR;
+    private WeatherType targetWeather = WeatherType.CLEAR;
+    private boolean isTransitioning = false;
+    private boolean thunderActive = false;
+    private double weatherTimer = 0;
+    private double animationTimer = 0;
+    private double thunderTimer = 0;
+    private double transitionProgress = 0;
+    private double stepAccumulator = 0;
+
+    private final Random random;
+
+    // Latest state for the renderer
+    private volatile Snapshot snapshot = new Snapshot(WeatherType.CLEAR, 0, false);
+
+    // Weather GIF images
+    private final Image rainGif;
+    private final Image thunderGif;
+    private final Image snowGif;
+
+    // Screen-sized textures built from the GIFs on first use (FX thread only)
+    private WeatherLayer rainLayer;
+    private WeatherLayer stormLayer;
+    private WeatherLayer snowLayer;
 
     // Control weather changes (for treasure room)
-    private volatile boolean weatherChangesAllowed = true;
+    private boolean weatherChangesAllowed = true;
 
     public WeatherSystem() {
-        System.out.println("🌤️  [WeatherSystem] Initializing multithreaded weather system...");
-        loadWeatherImages();
-        startWeatherThread();
-        startAnimationThread();
-        System.out.println("✅ [WeatherSystem] Multithreaded weather system initialized successfully!");
+        this(new Random());
     }
 
-    private void loadWeatherImages() {
-        weatherExecutor.submit(() -> {
-            try {
-                System.out.println("🖼️  [WeatherThread] Loading weather GIF assets...");
-                rainGif = new Image(getClass().getResourceAsStream("/com/dungeon/assets/GIFS/rain.gif"));
-                thunderGif = new Image(getClass().getResourceAsStream("/com/dungeon/assets/GIFS/thunder.gif"));
-                snowGif = new Image(getClass().getResourceAsStream("/com/dungeon/assets/GIFS/snow.gif"));
-                System.out.println("✅ [WeatherThread] Weather GIFs loaded successfully!");
-                System.out.println("   - Rain GIF: " + (rainGif != null ? "Loaded" : "Failed"));
-                System.out.println("   - Thunder GIF: " + (thunderGif != null ? "Loaded" : "Failed"));
-                System.out.println("   - Snow GIF: " + (snowGif != null ? "Loaded" : "Failed"));
-            } catch (Exception e) {
-                System.err.println("❌ [WeatherThread] Error loading weather GIFs: " + e.getMessage());
-            }
-        });
+    /**
+     * @param seed Seed for weather changes and thunder, for repeatable runs
+     */
+    public WeatherSystem(long seed) {
+        this(new Random(seed));
     }
 
-    private void startWeatherThread() {
-        System.out.println("🌦️  [WeatherSystem] Starting WeatherThread...");
-        weatherExecutor.submit(() -> {
-            System.out.println("🔄 [WeatherThread] WeatherThread started - Thread ID: " + Thread.currentThread().getId());
-            while (!isShutdown) {
-                try {
-                    Thread.sleep(100); // Update every 100ms
-                    updateWeatherLogic();
-                } catch (InterruptedException e) {
-                    System.out.println("⚠️  [WeatherThread] WeatherThread interrupted");
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    System.err.println("❌ [WeatherThread] Error in weather thread: " + e.getMessage());
-                }
-            }
-            System.out.println("🛑 [WeatherThread] WeatherThread stopped");
-        });
+    private WeatherSystem(Random random) {
+        this.random = random;
+        AssetCache assets = AssetCache.getInstance();
+        rainGif = assets.get(AssetCache.GIFS + "rain.gif");
+        thunderGif = assets.get(AssetCache.GIFS + "thunder.gif");
+        snowGif = assets.get(AssetCache.GIFS + "snow.gif");
     }
 
-    private void startAnimationThread() {
-        System.out.println("🎬 [WeatherSystem] Starting AnimationThread...");
-        animationExecutor.scheduleAtFixedRate(() -> {
-            if (!isShutdown) {
-                updateAnimationLogic();
-            }
-        }, 0, 16, TimeUnit.MILLISECONDS); // 60 FPS animation updates
-        System.out.println("✅ [AnimationThread] AnimationThread started - 60 FPS updates");
+    /**
+     * Restarts the random stream behind weather changes and thunder; the
+     * weather showing now is kept
+     * @param seed Seed for weather changes and thunder
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
     }
 
-    private void updateWeatherLogic() {
-        weatherTimer += 0.1; // 100ms = 0.1 seconds
-        weatherUpdateCount++;
-        
-        // Print weather updates every 50 updates (5 seconds)
-        if (weatherUpdateCount % 50 == 0) {
-            System.out.println("🌤️  [WeatherThread] Weather update #" + weatherUpdateCount + 
-                             " - Current: " + currentWeather.get().getName() + 
-                             " - Timer: " + String.format("%.1f", weatherTimer) + "s");
+    /**
+     * Advances the weather; called from the simulation step
+     * @param deltaTime Step length in seconds
+     */
+    public void tick(double deltaTime) {
+        animationTimer += deltaTime;
+
+        // Changes, transitions and thunder rolls happen on a fixed 100 ms grid,
+        // so the weather only depends on the seed and the total time simulated
+        stepAccumulator += deltaTime;
+        while (stepAccumulator >= STEP) {
+            stepAccumulator -= STEP;
+            updateWeatherLogic();
         }
-        
-        if (weatherTimer >= weatherDuration) {
+        publish();
+    }
+
+    /**
+     * @return The state to draw; safe to read from any thread
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(getEffectiveWeather(), animationTimer, thunderActive);
+    }
+
+    private void updateWeatherLogic() {
+        weatherTimer += STEP;
+        if (weatherTimer >= WEATHER_DURATION) {
             changeWeather();
             weatherTimer = 0;
         }
-        
-        if (isTransitioning.get()) {
-            transitionProgress += 0.05; // 100ms * 0.5 = 0.05
+
+        if (isTransitioning) {
+            transitionProgress += TRANSITION_RATE * STEP;
             if (transitionProgress >= 1.0) {
-                WeatherType oldWeather = currentWeather.get();
-                currentWeather.set(targetWeather.get());
-                isTransitioning.set(false);
+                WeatherType oldWeather = currentWeather;
+                currentWeather = targetWeather;
+                isTransitioning = false;
                 transitionProgress = 0;
-                System.out.println("🔄 [WeatherThread] Weather transition complete: " + 
-                                 oldWeather.getName() + " → " + currentWeather.get().getName());
+                System.out.println("🔄 [WeatherSystem] Weather transition complete: " +
+                                 oldWeather.getName() + " → " + currentWeather.getName());
             }
         }
-        
+
         // Thunder effect for storm weather
-        if (currentWeather.get() == WeatherType.STORM) {
-            thunderTimer += 0.1;
+        if (currentWeather == WeatherType.STORM) {
+            thunderTimer += STEP;
             if (thunderTimer > 2.0) {
-                if (random.nextDouble() < 0.4) { // 40% chance every 2 seconds
-                    thunderActive.set(true);
+                if (random.nextDouble() < 0.4) { // 40% chance every step once 2 seconds have passed
+                    thunderActive = true;
                     thunderTimer = 0;
-                    System.out.println("⚡ [WeatherThread] THUNDER STRIKE! Lightning effect activated");
                 }
             }
-            
+
             // Thunder effect duration
-            if (thunderActive.get() && thunderTimer > 0.5) {
-                thunderActive.set(false);
-                System.out.println("⚡ [WeatherThread] Thunder effect ended");
+            if (thunderActive && thunderTimer > 0.5) {
+                thunderActive = false;
             }
-        }
-    }
-
-    private void updateAnimationLogic() {
-        animationTimer += 0.016; // 16ms = 0.016 seconds (60 FPS)
-        animationUpdateCount++;
-        
-        // Print animation updates every 300 updates (5 seconds at 60 FPS)
-        if (animationUpdateCount % 300 == 0) {
-            System.out.println("🎬 [AnimationThread] Animation update #" + animationUpdateCount + 
-                             " - Timer: " + String.format("%.2f", animationTimer) + "s");
+        } else {
+            thunderActive = false;
         }
     }
 
     private void changeWeather() {
         // Don't change weather if changes are not allowed (e.g., in treasure room)
         if (!weatherChangesAllowed) {
-            System.out.println("🌤️  [WeatherThread] Weather change blocked - treasure room active");
             return;
         }
-        
+
         WeatherType[] weathers = WeatherType.values();
         WeatherType newWeather;
         do {
             newWeather = weathers[random.nextInt(weathers.length)];
-        } while (newWeather == currentWeather.get());
-        
-        System.out.println("🌪️  [WeatherThread] Weather change triggered: " + 
-                         currentWeather.get().getName() + " → " + newWeather.getName());
+        } while (newWeather == currentWeather);
+
+        System.out.println("🌪️  [WeatherSystem] Weather change triggered: " +
+                         currentWeather.getName() + " → " + newWeather.getName());
         startWeatherTransition(newWeather);
     }
 
     public void startWeatherTransition(WeatherType newWeather) {
         System.out.println("🔄 [WeatherSystem] Manual weather transition: " + 
-                         currentWeather.get().getName() + " → " + newWeather.getName());
-        targetWeather.set(newWeather);
-        isTransitioning.set(true);
+                         currentWeather.getName() + " → " + newWeather.getName());
+        targetWeather = newWeather;
+        isTransitioning = true;
         transitionProgress = 0;
+        publish();
     }
 
-    // This method is called from the main game thread (JavaFX thread)
+    /**
+     * Draws the latest published snapshot
+     */
     public void render(GraphicsContext gc, double canvasWidth, double canvasHeight) {
-        WeatherType effectiveWeather;
-        
-        // If weather changes are disabled, force clear weather
-        if (!weatherChangesAllowed) {
-            effectiveWeather = WeatherType.CLEAR;
-        } else {
-            effectiveWeather = isTransitioning.get() ? 
-            interpolateWeather(currentWeather.get(), targetWeather.get(), transitionProgress) : currentWeather.get();
-        }
+        Snapshot state = snapshot;
+        WeatherType effectiveWeather = state.weather();
         
         // Apply weather overlay
         if (effectiveWeather.getOverlayColor() != Color.TRANSPARENT) {
@@ -243,14 +221,14 @@ public class WeatherSystem {
         // Render weather effects based on type
         switch (effectiveWeather) {
             case RAIN:
-                renderRainEffect(gc, canvasWidth, canvasHeight, false); // Regular rain density
+                renderRainEffect(gc, canvasWidth, canvasHeight, state.animationTime(), false); // Regular rain density
                 break;
             case SNOW:
-                renderSnowEffect(gc, canvasWidth, canvasHeight);
+                renderSnowEffect(gc, canvasWidth, canvasHeight, state.animationTime());
                 break;
             case STORM:
-                renderRainEffect(gc, canvasWidth, canvasHeight, true); // Dense rain for storm
-                if (thunderActive.get()) {
+                renderRainEffect(gc, canvasWidth, canvasHeight, state.animationTime(), true); // Dense rain for storm
+                if (state.thunder()) {
                     renderThunderEffect(gc, canvasWidth, canvasHeight);
                 }
                 break;
@@ -259,78 +237,60 @@ public class WeatherSystem {
         }
     }
 
+    /**
+     * @return The weather currently drawn, taking transitions and the treasure room lock into account
+     */
+    private WeatherType getEffectiveWeather() {
+        // If weather changes are disabled, force clear weather
+        if (!weatherChangesAllowed) {
+            return WeatherType.CLEAR;
+        }
+        return isTransitioning ?
+            interpolateWeather(currentWeather, targetWeather, transitionProgress) : currentWeather;
+    }
+
+    /**
+     * @return Whether render() currently draws nothing, so the screen under it can be left alone
+     */
+    public boolean isClear() {
+        return snapshot.weather() == WeatherType.CLEAR;
+    }
+
     private WeatherType interpolateWeather(WeatherType from, WeatherType to, double progress) {
         return progress < 0.5 ? from : to;
     }
 
-    private void renderRainEffect(GraphicsContext gc, double canvasWidth, double canvasHeight, boolean dense) {
+    private void renderRainEffect(GraphicsContext gc, double canvasWidth, double canvasHeight, double animationTimer, boolean dense) {
         if (rainGif == null) return;
-        
-        // Calculate how many rain GIFs we need to tile across the screen
-        double gifWidth = rainGif.getWidth();
-        double gifHeight = rainGif.getHeight();
-        
-        // For dense rain (storm), use more tiles to create thicker rain
-        int tilesX = (int) Math.ceil(canvasWidth / gifWidth) + (dense ? 2 : 1);
-        int tilesY = (int) Math.ceil(canvasHeight / gifHeight) + (dense ? 2 : 1);
-        
-        // Add some offset based on animation timer for movement effect
-        // Storm rain moves faster than regular rain
-        double speedMultiplier = dense ? 1.5 : 1.0;
-        double offsetX = (animationTimer * 50 * speedMultiplier) % gifWidth;
-        double offsetY = (animationTimer * 100 * speedMultiplier) % gifHeight;
-        
-        // For dense rain, add additional layers with different offsets
-        int layers = dense ? 3 : 1;
-        
-        for (int layer = 0; layer < layers; layer++) {
-            // Different offset for each layer to create depth
-            double layerOffsetX = offsetX + (layer * gifWidth / 3);
-            double layerOffsetY = offsetY + (layer * gifHeight / 3);
-            
-            for (int x = -1; x < tilesX; x++) {
-                for (int y = -1; y < tilesY; y++) {
-                    double drawX = x * gifWidth - layerOffsetX;
-                    double drawY = y * gifHeight - layerOffsetY;
-                    
-                    // For dense rain, add some transparency variation
-                    if (dense && layer > 0) {
-                        gc.setGlobalAlpha(0.7 - (layer * 0.2)); // Each layer slightly more transparent
-                    }
-                    
-                    gc.drawImage(rainGif, drawX, drawY, gifWidth, gifHeight);
-                    
-                    // Reset alpha for next iteration
-                    if (dense) {
-                        gc.setGlobalAlpha(1.0);
-                    }
-                }
+
+        // Storm rain is three stacked sheets, each more transparent, pre-composited into one texture
+        WeatherLayer layer;
+        if (dense) {
+            if (stormLayer == null) {
+                stormLayer = new WeatherLayer(rainGif, 1.0, 0.5, 0.3);
+            }
+            layer = stormLayer;
+        } else {
+            if (rainLayer == null) {
+                rainLayer = new WeatherLayer(rainGif, 1.0);
             }
+            layer = rainLayer;
         }
+
+        // Offset based on animation timer for movement; storm rain moves faster than regular rain
+        double speedMultiplier = dense ? 1.5 : 1.0;
+        layer.render(gc, canvasWidth, canvasHeight,
+            animationTimer * 50 * speedMultiplier, animationTimer * 100 * speedMultiplier);
     }
 
-    private void renderSnowEffect(GraphicsContext gc, double canvasWidth, double canvasHeight) {
+    private void renderSnowEffect(GraphicsContext gc, double canvasWidth, double canvasHeight, double animationTimer) {
         if (snowGif == null) return;
-        
-        // Calculate how many snow GIFs we need to tile across the screen
-        double gifWidth = snowGif.getWidth();
-        double gifHeight = snowGif.getHeight();
-        
-        int tilesX = (int) Math.ceil(canvasWidth / gifWidth) + 1;
-        int tilesY = (int) Math.ceil(canvasHeight / gifHeight) + 1;
-        
-        // Add some offset based on animation timer for gentle snow movement
-        double offsetX = (animationTimer * 20) % gifWidth; // Slower than rain
-        double offsetY = (animationTimer * 30) % gifHeight;
-        
-        for (int x = -1; x < tilesX; x++) {
-            for (int y = -1; y < tilesY; y++) {
-                double drawX = x * gifWidth - offsetX;
-                double drawY = y * gifHeight - offsetY;
-                
-                gc.drawImage(snowGif, drawX, drawY, gifWidth, gifHeight);
-            }
+        if (snowLayer == null) {
+            snowLayer = new WeatherLayer(snowGif, 1.0);
         }
+
+        // Gentle snow movement, slower than rain
+        snowLayer.render(gc, canvasWidth, canvasHeight, animationTimer * 20, animationTimer * 30);
     }
 
     private void renderThunderEffect(GraphicsContext gc, double canvasWidth, double canvasHeight) {
@@ -355,25 +315,25 @@ public class WeatherSystem {
         gc.drawImage(thunderGif, drawX, drawY, scaledWidth, scaledHeight);
     }
 
-    // Thread-safe getters
+    // Current weather, as used by the simulation
     public WeatherType getCurrentWeather() {
-        return currentWeather.get();
+        return currentWeather;
     }
 
     public double getVisibilityMultiplier() {
-        return currentWeather.get().getVisibilityMultiplier();
+        return currentWeather.getVisibilityMultiplier();
     }
 
     public double getEnemySpeedMultiplier() {
-        return currentWeather.get().getEnemySpeedMultiplier();
+        return currentWeather.getEnemySpeedMultiplier();
     }
 
     public double getPlayerSpeedMultiplier() {
-        return currentWeather.get().getPlayerSpeedMultiplier();
+        return currentWeather.getPlayerSpeedMultiplier();
     }
 
     public String getWeatherName() {
-        return currentWeather.get().getName();
+        return currentWeather.getName();
     }
 
     // Control weather changes for treasure room
@@ -382,41 +342,18 @@ public class WeatherSystem {
         if (!allowed) {
             System.out.println("🌤️  [WeatherSystem] Weather changes disabled for treasure room");
             // Force clear weather when disabling changes
-            currentWeather.set(WeatherType.CLEAR);
-            targetWeather.set(WeatherType.CLEAR);
-            isTransitioning.set(false);
+            currentWeather = WeatherType.CLEAR;
+            targetWeather = WeatherType.CLEAR;
+            isTransitioning = false;
+            thunderActive = false;
             transitionProgress = 0;
         } else {
             System.out.println("🌤️  [WeatherSystem] Weather changes re-enabled");
         }
+        publish();
     }
     
     public boolean isWeatherChangesAllowed() {
         return weatherChangesAllowed;
     }
-
-    // Cleanup method - call this when shutting down the game
-    public void shutdown() {
-        System.out.println("🛑 [WeatherSystem] Shutting down multithreaded weather system...");
-        isShutdown = true;
-        weatherExecutor.shutdown();
-        animationExecutor.shutdown();
-        
-        try {
-            if (!weatherExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
-                weatherExecutor.shutdownNow();
-                System.out.println("⚠️  [WeatherSystem] WeatherThread force shutdown");
-            }
-            if (!animationExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
-                animationExecutor.shutdownNow();
-                System.out.println("⚠️  [WeatherSystem] AnimationThread force shutdown");
-            }
-            System.out.println("✅ [WeatherSystem] Weather system shutdown complete");
-        } catch (InterruptedException e) {
-            weatherExecutor.shutdownNow();
-            animationExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-            System.out.println("❌ [WeatherSystem] Shutdown interrupted");
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.dungeon.model.entity;
 
+import com.dungeon.utils.VectorMath;
+
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
@@ -24,7 +26,8 @@ public class Enemy extends Entity {
     private List<ProjectileAttack> projectiles;
     private Random random;
     private double aiUpdateTimer;
-    private Point2D targetPosition;
+    private double targetX;
+    private double targetY;
     private AIState aiState;
     private double specialAbilityCooldown;
     private double scoreValue;
@@ -94,7 +97,8 @@ public class Enemy extends Entity {
         this.projectiles = new ArrayList<>();
         this.random = new Random();
         this.aiUpdateTimer = 0;
-        this.targetPosition = new Point2D(x, y);
+        this.targetX = x;
+        this.targetY = y;
         this.aiState = AIState.IDLE;
         this.specialAbilityCooldown = 0;
         
@@ -108,8 +112,8 @@ public class Enemy extends Entity {
         
         // Set initial patrol point for patrolling enemies
         if (behavior == BehaviorType.PATROLLER) {
-            this.targetPosition = new Point2D(x + (random.nextDouble() * 200 - 100),
-                                         y + (random.nextDouble() * 200 - 100));
+            this.targetX = x + (random.nextDouble() * 200 - 100);
+            this.targetY = y + (random.nextDouble() * 200 - 100);
         }
     }
     
@@ -124,12 +128,12 @@ public class Enemy extends Entity {
                 
             case RANGED:
                 // Increase range, decrease movement speed slightly
-                setVelocity(getVelocity().multiply(0.8));
+                setVelocity(vx * 0.8, vy * 0.8);
                 break;
                 
             case PATROLLER:
                 // Faster movement when patrolling
-                setVelocity(getVelocity().multiply(1.2));
+                setVelocity(vx * 1.2, vy * 1.2);
                 break;
                 
             case AMBUSHER:
@@ -184,7 +188,7 @@ public class Enemy extends Entity {
             aiUpdateTimer = 0.5 + random.nextDouble() * 0.5;
             
             // Calculate distance to player
-            double distanceToPlayer = position.distance(player.getPosition());
+            double distanceToPlayer = VectorMath.distance(x, y, player.getX(), player.getY());
             
             // Determine AI state based on distance, type and behavior
             if (distanceToPlayer <= AGGRO_RANGE) {
@@ -257,7 +261,8 @@ public class Enemy extends Entity {
                         // Set a new random target position
                         double offsetX = (random.nextDouble() - 0.5) * 100;
                         double offsetY = (random.nextDouble() - 0.5) * 100;
-                        targetPosition = new Point2D(position.getX() + offsetX, position.getY() + offsetY);
+                        targetX = x + offsetX;
+                        targetY = y + offsetY;
                     }
                 }
             }
@@ -266,18 +271,18 @@ public class Enemy extends Entity {
         // Execute behavior based on current AI state
         switch (aiState) {
             case IDLE:
-                moveTowardsTarget(targetPosition, 0.5);
+                moveTowardsTarget(targetX, targetY, 0.5);
                 break;
                 
             case CHASE:
-                moveTowardsTarget(player.getPosition(), 1.0);
+                moveTowardsTarget(player.getX(), player.getY(), 1.0);
                 break;
                 
             case RETREAT:
                 // Move away from player
-                Point2D awayVector = position.subtract(player.getPosition()).normalize();
-                targetPosition = position.add(awayVector.multiply(100));
-                moveTowardsTarget(targetPosition, 1.0);
+                targetX = x + VectorMath.directionX(player.getX(), player.getY(), x, y) * 100;
+                targetY = y + VectorMath.directionY(player.getX(), player.getY(), x, y) * 100;
+                moveTowardsTarget(targetX, targetY, 1.0);
                 break;
                 
             case ATTACK:
@@ -293,14 +298,13 @@ public class Enemy extends Entity {
     }
     
     private void handlePatrolBehavior() {
-        // Calculate direction to patrol point
-        Point2D direction = targetPosition.subtract(position);
-        double distance = direction.magnitude();
+        // Calculate distance to patrol point
+        double distance = VectorMath.distance(x, y, targetX, targetY);
         
         // If close to patrol point, select a new one
         if (distance < 10) {
-            targetPosition = new Point2D(position.getX() + (random.nextDouble() * 200 - 100),
-                                    position.getY() + (random.nextDouble() * 200 - 100));
+            targetX = x + (random.nextDouble() * 200 - 100);
+            targetY = y + (random.nextDouble() * 200 - 100);
             return;
         }
         
@@ -308,16 +312,18 @@ public class Enemy extends Entity {
         aiState = AIState.IDLE;
     }
     
-    private void moveTowardsTarget(Point2D target, double speedMultiplier) {
+    private void moveTowardsTarget(double targetX, double targetY, double speedMultiplier) {
         // Calculate direction to target
-        Point2D direction = target.subtract(position);
+        double dx = targetX - x;
+        double dy = targetY - y;
+        double distance = VectorMath.length(dx, dy);
         
         // Only move if not already at target
-        if (direction.magnitude() > 5) {
-            direction = direction.normalize();
-            setVelocity(direction.multiply(speed * speedMultiplier));
+        if (distance > 5) {
+            double scale = speed * speedMultiplier / distance;
+            setVelocity(dx * scale, dy * scale);
         } else {
-            setVelocity(new Point2D(0, 0));
+            setVelocity(0, 0);
         }
     }
     
@@ -328,12 +334,12 @@ public class Enemy extends Entity {
                 attackCooldown = ATTACK_COOLDOWN;
                 
                 // Calculate direction to player
-                Point2D direction = player.getPosition().subtract(position).normalize();
+                Point2D direction = player.getPosition().subtract(x, y).normalize();
                 
                 // Create projectile
                 ProjectileAttack projectile = new ProjectileAttack(
-                    position.getX() + size/2,
-                    position.getY() + size/2,
+                    x + size/2,
+                    y + size/2,
                     direction,
                     damage,
                     Color.RED,
@@ -347,7 +353,7 @@ public class Enemy extends Entity {
                 attackCooldown = ATTACK_COOLDOWN;
                 
                 // Check if player is in melee range
-                if (position.distance(player.getPosition()) <= ATTACK_RANGE) {
+                if (VectorMath.distance(x, y, player.getX(), player.getY()) <= ATTACK_RANGE) {
                     player.takeDamage(damage);
                 }
                 break;
@@ -355,11 +361,19 @@ public class Enemy extends Entity {
     }
     
     private void updateProjectiles(double deltaTime) {
-        // Update and remove expired projectiles
-        projectiles.removeIf(projectile -> {
+        // Update and swap-remove expired projectiles; a removeIf lambda capturing
+        // deltaTime would be allocated on every tick
+        for (int i = 0; i < projectiles.size(); ) {
+            ProjectileAttack projectile = projectiles.get(i);
             projectile.update(deltaTime);
-            return projectile.isExpired();
-        });
+            if (projectile.isExpired()) {
+                int last = projectiles.size() - 1;
+                projectiles.set(i, projectiles.get(last));
+                projectiles.remove(last);
+            } else {
+                i++;
+            }
+        }
     }
     
     private void useSpecialAbility(Player player) {
@@ -376,8 +390,8 @@ public class Enemy extends Entity {
                 Point2D dir = new Point2D(Math.cos(angle), Math.sin(angle));
                 
                 ProjectileAttack projectile = new ProjectileAttack(
-                    position.getX() + size/2,
-                    position.getY() + size/2,
+                    x + size/2,
+                    y + size/2,
                     dir,
                     damage * 1.5,
                     Color.DARKRED,
@@ -398,10 +412,10 @@ public class Enemy extends Entity {
             setPosition(newPos);
             
             // Then attack
-            Point2D direction = player.getPosition().subtract(position).normalize();
+            Point2D direction = player.getPosition().subtract(x, y).normalize();
             ProjectileAttack projectile = new ProjectileAttack(
-                position.getX() + size/2,
-                position.getY() + size/2,
+                x + size/2,
+                y + size/2,
                 direction,
                 damage * 1.2,
                 Color.PURPLE,
@@ -440,14 +454,14 @@ public class Enemy extends Entity {
         
         // Draw enemy body
         gc.setFill(enemyColor);
-        gc.fillOval(position.getX(), position.getY(), size, size);
+        gc.fillOval(x, y, size, size);
         
         // Draw health bar
         double healthPercentage = getHealth() / (double) getMaxHealth();
         double healthBarWidth = size;
         double healthBarHeight = 5;
-        double healthBarX = position.getX();
-        double healthBarY = position.getY() - 10;
+        double healthBarX = x;
+        double healthBarY = y - 10;
         
         // Background
         gc.setFill(Color.RED);
@@ -492,6 +506,14 @@ public class Enemy extends Entity {
         this.aggravated = aggravated;
     }
     
+    public double getAttackCooldown() {
+        return attackCooldown;
+    }
+    
+    public void setAttackCooldown(double attackCooldown) {
+        this.attackCooldown = attackCooldown;
+    }
+    
     public boolean wasHit() {
         return wasHit;
     }
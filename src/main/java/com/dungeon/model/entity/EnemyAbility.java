@@ -1,6 +1,6 @@
 package com.dungeon.model.entity;
 
-import com.dungeon.view.EffectsManager;
+import com.dungeon.effects.EffectsManager;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
@@ -42,23 +42,27 @@ public class EnemyAbility {
     }
     
     private static void castFireball(Enemy enemy, Player player, EffectsManager effectsManager) {
-        Point2D enemyPos = enemy.getPosition();
-        Point2D playerPos = player.getPosition();
-        Point2D direction = playerPos.subtract(enemyPos).normalize();
+        double dx = player.getX() - enemy.getX();
+        double dy = player.getY() - enemy.getY();
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length > 0) {
+            dx /= length;
+            dy /= length;
+        }
         
         // Create projectile
         Projectile fireball = new Projectile(
-            enemyPos.getX(), 
-            enemyPos.getY(), 
-            direction.getX() * PROJECTILE_SPEED, 
-            direction.getY() * PROJECTILE_SPEED,
+            enemy.getX(), 
+            enemy.getY(), 
+            dx * PROJECTILE_SPEED, 
+            dy * PROJECTILE_SPEED,
             15, // damage
             2.0, // lifetime
             Color.ORANGE
         );
         
         // Add visual effect
-        effectsManager.addExplosionEffect(enemyPos, 0.3);
+        effectsManager.addExplosionFlash(enemy.getPosition(), 0.3);
     }
     
     private static void castPoisonCloud(Enemy enemy, Player player, EffectsManager effectsManager) {
@@ -71,7 +75,7 @@ public class EnemyAbility {
             double x = enemyPos.getX() + Math.cos(angle) * distance;
             double y = enemyPos.getY() + Math.sin(angle) * distance;
             
-            effectsManager.addExplosionEffect(new Point2D(x, y), 1.0);
+            effectsManager.addExplosionFlash(new Point2D(x, y), 1.0);
         }
         
         // Check if player is in range
@@ -107,7 +111,7 @@ public class EnemyAbility {
         enemy.setVelocity(direction.multiply(500));
         
         // Add visual effect
-        effectsManager.addExplosionEffect(enemyPos, 0.3);
+        effectsManager.addExplosionFlash(enemyPos, 0.3);
         
         // Check if hit player
         double distanceToPlayer = enemyPos.distance(playerPos);
@@ -134,8 +138,10 @@ public class EnemyAbility {
     }
     
     public static class Projectile {
-        private Point2D position;
-        private Point2D velocity;
+        private double x;
+        private double y;
+        private double velocityX;
+        private double velocityY;
         private double damage;
         private double lifetime;
         private double currentTime;
@@ -143,8 +149,10 @@ public class EnemyAbility {
         private double size = 10;
         
         public Projectile(double x, double y, double vx, double vy, double damage, double lifetime, Color color) {
-            this.position = new Point2D(x, y);
-            this.velocity = new Point2D(vx, vy);
+            this.x = x;
+            this.y = y;
+            this.velocityX = vx;
+            this.velocityY = vy;
             this.damage = damage;
             this.lifetime = lifetime;
             this.currentTime = 0;
@@ -152,7 +160,8 @@ public class EnemyAbility {
         }
         
         public void update(double deltaTime) {
-            position = position.add(velocity.multiply(deltaTime));
+            x += velocityX * deltaTime;
+            y += velocityY * deltaTime;
             currentTime += deltaTime;
         }
         
@@ -162,21 +171,31 @@ public class EnemyAbility {
         
         public void render(GraphicsContext gc) {
             gc.setFill(color);
-            gc.fillOval(position.getX() - size/2, position.getY() - size/2, size, size);
+            gc.fillOval(x - size/2, y - size/2, size, size);
             
             // Add trail effect
+            double speed = Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+            double trailX = speed > 0 ? velocityX / speed : 0;
+            double trailY = speed > 0 ? velocityY / speed : 0;
             double alpha = 0.7;
             for (int i = 1; i <= 3; i++) {
-                Point2D trailPos = position.subtract(velocity.normalize().multiply(i * 5));
                 gc.setGlobalAlpha(alpha);
-                gc.fillOval(trailPos.getX() - size/2, trailPos.getY() - size/2, size, size);
+                gc.fillOval(x - trailX * i * 5 - size/2, y - trailY * i * 5 - size/2, size, size);
                 alpha -= 0.2;
             }
             gc.setGlobalAlpha(1.0);
         }
         
         public Point2D getPosition() {
-            return position;
+            return new Point2D(x, y);
+        }
+        
+        public double getX() {
+            return x;
+        }
+        
+        public double getY() {
+            return y;
         }
         
         public double getDamage() {
@@ -9,10 +9,16 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 
 public abstract class Entity {
-    // Position and movement
-    protected Point2D position;
-    protected Point2D velocity;
+    // Position and movement, kept as primitives so updates never allocate
+    protected double x;
+    protected double y;
+    protected double vx;
+    protected double vy;
     protected double size;
+
+    // Position at the start of the last simulation step, used for render interpolation
+    protected double previousX;
+    protected double previousY;
     
     // Health and stats
     protected final IntegerProperty health = new SimpleIntegerProperty(100);
@@ -28,8 +34,10 @@ public abstract class Entity {
     protected double height;
 
     public Entity(double x, double y, double health, double speed, double size) {
-        this.position = new Point2D(x, y);
-        this.velocity = new Point2D(0, 0);
+        this.x = x;
+        this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.maxHealth.set((int)health);
         this.health.set((int)health);
         this.speed = speed;
@@ -41,10 +49,12 @@ public abstract class Entity {
 
     public void update(double deltaTime) {
         // Update position based on velocity
-        position = position.add(velocity.multiply(deltaTime));
+        x += vx * deltaTime;
+        y += vy * deltaTime;
         
         // Reset velocity (movement is frame-based)
-        velocity = new Point2D(0, 0);
+        vx = 0;
+        vy = 0;
     }
 
     public void takeDamage(double damage) {
@@ -73,36 +83,83 @@ public abstract class Entity {
 
     // Position methods
     public void setPosition(double x, double y) {
-        this.position = new Point2D(x, y);
+        this.x = x;
+        this.y = y;
     }
 
     public void setPosition(Point2D newPosition) {
-        this.position = newPosition;
+        setPosition(newPosition.getX(), newPosition.getY());
     }
 
+    /**
+     * Compatibility view of the position. Allocates a new Point2D on every
+     * call, so update code should use getX()/getY() instead.
+     */
     public Point2D getPosition() {
-        return position;
+        return new Point2D(x, y);
     }
 
     public double getX() {
-        return position.getX();
+        return x;
     }
 
     public double getY() {
-        return position.getY();
+        return y;
+    }
+
+    /**
+     * Records the current position as the start point of the next simulation step.
+     * Call once per step before moving, and again after teleporting the entity.
+     */
+    public void capturePreviousPosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * @param alpha Fraction of the way from the previous step to the current one
+     * @return X coordinate to draw at for the given interpolation factor
+     */
+    public double getRenderX(double alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha Fraction of the way from the previous step to the current one
+     * @return Y coordinate to draw at for the given interpolation factor
+     */
+    public double getRenderY(double alpha) {
+        return previousY + (y - previousY) * alpha;
     }
 
     // Movement methods
+    /**
+     * Compatibility view of the velocity; allocates like getPosition()
+     */
     public Point2D getVelocity() {
-        return velocity;
+        return new Point2D(vx, vy);
+    }
+
+    public double getVelocityX() {
+        return vx;
+    }
+
+    public double getVelocityY() {
+        return vy;
     }
 
     public void setVelocity(Point2D velocity) {
-        this.velocity = velocity;
+        setVelocity(velocity.getX(), velocity.getY());
+    }
+
+    public void setVelocity(double vx, double vy) {
+        this.vx = vx;
+        this.vy = vy;
     }
 
     public void move(double dx, double dy) {
-        position = position.add(dx, dy);
+        x += dx;
+        y += dy;
     }
 
     // Health methods
@@ -159,7 +216,7 @@ public abstract class Entity {
     }
 
     public Rectangle2D getBoundingBox() {
-        return new Rectangle2D(position.getX(), position.getY(), width, height);
+        return new Rectangle2D(x, y, width, height);
     }
 
     public double getWidth() {
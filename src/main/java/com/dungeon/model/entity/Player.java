@@ -8,6 +8,7 @@ import com.dungeon.model.Armor;
 import com.dungeon.model.Inventory;
 import com.dungeon.model.Item;
 import com.dungeon.model.Weapon;
+import com.dungeon.utils.AssetCache;
 
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -19,19 +20,23 @@ import javafx.scene.paint.Color;
 
 public class Player extends Entity {
     private Image playerImage;
+    private boolean playerImageLoaded; // Loaded on first render, so a Player can exist without the JavaFX toolkit
+    private static final double SPRITE_SIZE = AssetCache.PLAYER_SPRITE_SIZE; // The sprite is scaled to fit 64x64
     private static final double DEFAULT_HEALTH = 100;
     private static final double DEFAULT_SPEED = 200; // pixels per second
     private static final double DEFAULT_SIZE = 30;
     private static final double MELEE_DAMAGE = 20;  // Default damage (matches sword)
     private static final double RANGED_DAMAGE = 18; // Default damage (matches bow)
     private static final double ATTACK_COOLDOWN = 0.5; // seconds
+    private static final double DASH_SPEED = 3000; // pixels per second while SHIFT is held
     private static final javafx.scene.paint.Color DEFAULT_PROJECTILE_COLOR = javafx.scene.paint.Color.YELLOW;
     
     // Combat
     private final Set<ProjectileAttack> projectiles;
     private double attackCooldown;
     private Point2D aimDirection;
-    private Point2D facingDirection;
+    private double facingX;
+    private double facingY;
     private boolean isMeleeAttacking;
     private double meleeAttackTimer;
     private List<Weapon> weapons;
@@ -60,28 +65,14 @@ public class Player extends Entity {
 
     public Player(double x, double y) {
         super(x, y, DEFAULT_HEALTH, DEFAULT_SPEED, DEFAULT_SIZE);
-         try {
-            // Load the player image from resources
-          playerImage = new Image(
-    getClass().getResourceAsStream("/com/dungeon/assets/images/player.gif"),
-    64,   // width
-    64,   // height
-    true, // preserve ratio
-    true  // smooth
-);
-this.size = 64;
-
-            // Adjust size to match image dimensions if needed
-            this.size = Math.max(playerImage.getWidth(), playerImage.getHeight());
-        } catch (Exception e) {
-            System.err.println("Error loading player image: " + e.getMessage());
-            playerImage = null; 
-        }
+        // Collision size matches the sprite whether or not it has been loaded yet
+        this.size = SPRITE_SIZE;
         // Initialize combat
         this.projectiles = new HashSet<>();
         this.attackCooldown = 0;
         this.aimDirection = new Point2D(1, 0);
-        this.facingDirection = new Point2D(1, 0);
+        this.facingX = 1;
+        this.facingY = 0;
         this.isMeleeAttacking = false;
         this.meleeAttackTimer = 0;
         
@@ -160,7 +151,8 @@ this.size = 64;
             double length = Math.sqrt(dx * dx + dy * dy);
             dx /= length;
             dy /= length;
-            facingDirection = new Point2D(dx, dy);
+            facingX = dx;
+            facingY = dy;
         }
         
         // Normalize diagonal movement
@@ -179,8 +171,8 @@ this.size = 64;
         if (activeKeys.contains(KeyCode.SHIFT)) {
             // Dash in movement direction
             if (dx != 0 || dy != 0) {
-                // Simple dash - teleport a short distance
-                move(dx * 50, dy * 50);
+                // Simple dash - scaled by deltaTime so it no longer depends on the tick rate
+                move(dx * DASH_SPEED * deltaTime, dy * DASH_SPEED * deltaTime);
             }
         }
     }
@@ -190,8 +182,8 @@ this.size = 64;
         this.mouseY = mouseY;
         
         // Calculate aim direction
-        double centerX = position.getX() + size / 2;
-        double centerY = position.getY() + size / 2;
+        double centerX = x + size / 2;
+        double centerY = y + size / 2;
         
         double dx = mouseX - centerX;
         double dy = mouseY - centerY;
@@ -214,7 +206,7 @@ this.size = 64;
     
     private void rangedAttack() {
         // Calculate direction to mouse cursor
-        Point2D playerCenter = position.add(size / 2, size / 2);
+        Point2D playerCenter = new Point2D(x + size / 2, y + size / 2);
         Point2D mousePos = new Point2D(mouseX, mouseY);
         Point2D direction = mousePos.subtract(playerCenter).normalize();
         
@@ -264,22 +256,49 @@ this.size = 64;
 
     @Override
     public void render(GraphicsContext gc) {
-        // Render Player Body (rotates with WASD facingDirection)
+        render(gc, 1.0);
+    }
+
+    private void loadPlayerImage() {
+        playerImageLoaded = true;
+        // Decoded once at the size it is drawn at and shared through the asset cache
+        playerImage = AssetCache.getInstance().get(AssetCache.PLAYER_SPRITE,
+            SPRITE_SIZE,   // width
+            SPRITE_SIZE,   // height
+            true, // preserve ratio
+            true  // smooth
+        );
+    }
+
+    /**
+     * Renders the player interpolated between the last two simulation steps.
+     * @param gc The graphics context to draw on
+     * @param alpha Interpolation factor supplied by the fixed-step game loop
+     */
+    public void render(GraphicsContext gc, double alpha) {
+        double drawX = getRenderX(alpha);
+        double drawY = getRenderY(alpha);
+
+        if (!playerImageLoaded) {
+            loadPlayerImage();
+        }
+
+        // Render Player Body (rotates with WASD facing direction)
         if (playerImage != null) {
             gc.save(); // Save for player body transformations
-            double playerCenterX = position.getX() + size / 2;
-            double playerCenterY = position.getY() + size / 2;
+            double playerCenterX = drawX + size / 2;
+            double playerCenterY = drawY + size / 2;
             double bodyAngle;
-            if (facingDirection.getY() < -0.1) { 
+            if (facingY < -0.1) { 
                 bodyAngle = -90; 
-            } else if (facingDirection.getY() > 0.1) { 
+            } else if (facingY > 0.1) { 
                 bodyAngle = 90;  
             } else {
                 bodyAngle = 0;   
             }
             gc.translate(playerCenterX, playerCenterY);
             gc.rotate(bodyAngle);
-            if (facingDirection.getX() < 0 && bodyAngle == 0) { 
+            if (facingX < 0 && bodyAngle == 0) { 
                 gc.scale(-1, 1); 
             }
             gc.drawImage(playerImage, -size / 2, -size / 2, size, size);
@@ -304,12 +323,12 @@ this.size = 64;
     } else {
             // Fallback player rendering (unchanged)
         gc.setFill(Color.DARKBLUE);
-        gc.fillOval(position.getX(), position.getY(), size, size);
-            double cX = position.getX() + size / 2;
-            double cY = position.getY() + size / 2;
+        gc.fillOval(drawX, drawY, size, size);
+            double cX = drawX + size / 2;
+            double cY = drawY + size / 2;
         double eyeSize = size / 8;
-            double eyeOffsetX = facingDirection.getX() * size / 6;
-            double eyeOffsetY = facingDirection.getY() * size / 6;
+            double eyeOffsetX = facingX * size / 6;
+            double eyeOffsetY = facingY * size / 6;
         gc.setFill(Color.WHITE);
             gc.fillOval(cX - size/4 + eyeOffsetX/2, cY - size/4 + eyeOffsetY/2, eyeSize, eyeSize);
             gc.fillOval(cX + size/4 + eyeOffsetX/2, cY + size/4 + eyeOffsetY/2, eyeSize, eyeSize); // Corrected Y offset for right eye
@@ -321,8 +340,8 @@ this.size = 64;
             Image weaponIcon = equippedWeapon.getIcon();
             double weaponSize = size * 0.7; // Can be adjusted
             // Position weapon relative to player center, slight offset forward based on aim
-            double weaponAnchorX = position.getX() + size / 2 + aimDirection.getX() * (size * 0.2); 
-            double weaponAnchorY = position.getY() + size / 2 + aimDirection.getY() * (size * 0.2);
+            double weaponAnchorX = drawX + size / 2 + aimDirection.getX() * (size * 0.2); 
+            double weaponAnchorY = drawY + size / 2 + aimDirection.getY() * (size * 0.2);
 
             // Calculate angle for weapon to point towards mouse (aimDirection)
             double weaponAngle = Math.toDegrees(Math.atan2(aimDirection.getY(), aimDirection.getX()));
@@ -344,8 +363,8 @@ this.size = 64;
             gc.setStroke(Color.SILVER); 
             // If you want to draw the actual weapon icon during melee, do it here, rotated by aimDirection
             // For now, keeping the line animation:
-            double cX = position.getX() + size / 2;
-            double cY = position.getY() + size / 2;
+            double cX = drawX + size / 2;
+            double cY = drawY + size / 2;
             gc.strokeLine(
                 cX,
                 cY,
@@ -567,12 +586,9 @@ this.size = 64;
     }
 
     public void move(double dx, double dy) {
-        // Calculate new position
-        double newX = position.getX() + dx;
-        double newY = position.getY() + dy;
-        
-        // Set new position (boundary checking would be done in GameController)
-        position = new Point2D(newX, newY);
+        // Update position in place (boundary checking would be done in GameController)
+        x += dx;
+        y += dy;
     }
 
     public Weapon getWeapon() {
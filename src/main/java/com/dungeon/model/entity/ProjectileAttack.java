@@ -4,14 +4,16 @@ import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
-public class ProjectileAttack {
+public final class ProjectileAttack {
     private static final double PROJECTILE_SPEED = 400; // pixels per second
     private static final double PROJECTILE_SIZE = 10;
     private static final double MAX_DISTANCE = 500;
 
-    private Point2D position;
-    private final Point2D direction;
-    private final double damage;
+    private double x;
+    private double y;
+    private double directionX;
+    private double directionY;
+    private double damage;
     private double distanceTraveled;
     private boolean active;
     private Color color;
@@ -28,21 +30,52 @@ public class ProjectileAttack {
     }
     
     public ProjectileAttack(double x, double y, Point2D direction, double damage, Color color, ProjectileType type) {
-        this.position = new Point2D(x, y);
-        this.direction = direction.normalize();
+        reset(x, y, direction.getX(), direction.getY(), damage, color, type);
+    }
+    
+    /**
+     * Creates an inactive attack, for use as a pooled instance that is
+     * initialised later through reset()
+     */
+    public ProjectileAttack() {
+        this.active = false;
+        this.color = Color.YELLOW;
+        this.type = ProjectileType.DEFAULT;
+    }
+    
+    /**
+     * Re-initialises this attack so a pooled instance can be fired again.
+     * @param x Start X position
+     * @param y Start Y position
+     * @param directionX X component of the direction of travel (normalized here)
+     * @param directionY Y component of the direction of travel (normalized here)
+     * @param damage Damage dealt on hit
+     * @param color Projectile color
+     * @param type Visual style of the projectile
+     * @return This attack, for chaining
+     */
+    public ProjectileAttack reset(double x, double y, double directionX, double directionY,
+                                  double damage, Color color, ProjectileType type) {
+        double length = Math.sqrt(directionX * directionX + directionY * directionY);
+        this.x = x;
+        this.y = y;
+        this.directionX = length > 0 ? directionX / length : 0;
+        this.directionY = length > 0 ? directionY / length : 0;
         this.damage = damage;
         this.distanceTraveled = 0;
         this.active = true;
         this.color = color;
         this.type = type;
+        return this;
     }
 
     public void update(double deltaTime) {
         if (!active) return;
 
-        Point2D movement = direction.multiply(PROJECTILE_SPEED * deltaTime);
-        position = position.add(movement);
-        distanceTraveled += movement.magnitude();
+        double step = PROJECTILE_SPEED * deltaTime;
+        x += directionX * step;
+        y += directionY * step;
+        distanceTraveled += step;
 
         if (distanceTraveled >= MAX_DISTANCE) {
             active = false;
@@ -56,10 +89,10 @@ public class ProjectileAttack {
         gc.save();
         
         // Translate to the projectile position
-        gc.translate(position.getX(), position.getY());
+        gc.translate(x, y);
         
         // Rotate to match the direction of travel
-        double angle = Math.atan2(direction.getY(), direction.getX());
+        double angle = Math.atan2(directionY, directionX);
         gc.rotate(Math.toDegrees(angle));
         
         // Draw based on projectile type
@@ -126,7 +159,15 @@ public class ProjectileAttack {
     }
 
     public Point2D getPosition() {
-        return position;
+        return new Point2D(x, y);
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
     }
 
     public double getDamage() {
@@ -67,71 +67,7 @@ public class PuzzleServer {
             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()))
         ) {
             String input = in.readLine();
-            System.out.println("🔍 Puzzle server received: '" + input + "'");
-            
-            // Reload puzzles from JSON on each request to pick up changes
-            List<Puzzle> puzzles = loadPuzzlesFromJSON();
-            System.out.println("📚 Loaded " + puzzles.size() + " puzzles from JSON");
-            
-            // Show first few puzzles for debugging
-            for (int i = 0; i < Math.min(3, puzzles.size()); i++) {
-                Puzzle p = puzzles.get(i);
-                System.out.println("  Puzzle " + (i+1) + ": Q='" + p.getQuestion() + "' A='" + p.getAnswer() + "'");
-            }
-            
-            for (Puzzle puzzle : puzzles) {
-                String lowerInput = input.toLowerCase();
-                // If user asks 'why' or 'how' and mentions the answer, provide explanation
-                if ((lowerInput.contains("why") || lowerInput.contains("how")) && lowerInput.contains(puzzle.getAnswer().toLowerCase())) {
-                    System.out.println("✅ Explanation requested for answer!");
-                    out.write("Explanation: " + puzzle.getExplanation() + "\n");
-                    out.flush();
-                    return;
-                }
-            }
-            // If user just says 'why' or 'how', prompt for clarification
-            String trimmedInput = input.trim().toLowerCase();
-            if (trimmedInput.equals("why") || trimmedInput.equals("how")) {
-                out.write("Please specify which answer you want explained, e.g., 'why is the answer keyboard?'\n");
-                out.flush();
-                return;
-            }
-            for (Puzzle puzzle : puzzles) {
-                String lowerInput = input.toLowerCase();
-                // Check for exact match with question
-                if (input.equalsIgnoreCase(puzzle.getQuestion())) {
-                    System.out.println("✅ Exact question match found!");
-                    out.write("Hint: " + puzzle.getHint() + "\n");
-                    out.flush();
-                    return;
-                }
-                // Check for exact match with answer
-                else if (input.equalsIgnoreCase(puzzle.getAnswer())) {
-                    System.out.println("✅ Exact answer match found!");
-                    out.write("🎉 Congratulations! You solved the puzzle!\n");
-                    out.flush();
-                    return;
-                }
-                // Check for partial match with question (contains)
-                else if (puzzle.getQuestion().toLowerCase().contains(lowerInput) || 
-                         lowerInput.contains(puzzle.getQuestion().toLowerCase())) {
-                    System.out.println("✅ Partial question match found!");
-                    out.write("Hint: " + puzzle.getHint() + "\n");
-                    out.flush();
-                    return;
-                }
-                // Check for partial match with answer (contains)
-                else if (puzzle.getAnswer().toLowerCase().contains(lowerInput) || 
-                         lowerInput.contains(puzzle.getAnswer().toLowerCase())) {
-                    System.out.println("✅ Partial answer match found!");
-                    out.write("🎉 Congratulations! You solved the puzzle!\n");
-                    out.flush();
-                    return;
-                }
-            }
-            
-            System.out.println("❌ No match found for: '" + input + "'");
-            out.write("❌ Not recognized. Please ask a valid puzzle or submit an answer.\n");
+            out.write(handleRequest(input) + "\n");
             out.flush();
         } catch (IOException e) {
             if (running.get()) {
@@ -140,6 +76,68 @@ public class PuzzleServer {
         }
     }
 
+    /**
+     * Works out the reply to one client line, independent of the socket so
+     * the request path can be exercised directly.
+     * @param input The line sent by the client
+     * @return The reply line, without the trailing newline
+     */
+    public static String handleRequest(String input) throws IOException {
+        System.out.println("🔍 Puzzle server received: '" + input + "'");
+        
+        // Reload puzzles from JSON on each request to pick up changes
+        List<Puzzle> puzzles = loadPuzzlesFromJSON();
+        System.out.println("📚 Loaded " + puzzles.size() + " puzzles from JSON");
+        
+        // Show first few puzzles for debugging
+        for (int i = 0; i < Math.min(3, puzzles.size()); i++) {
+            Puzzle p = puzzles.get(i);
+            System.out.println("  Puzzle " + (i+1) + ": Q='" + p.getQuestion() + "' A='" + p.getAnswer() + "'");
+        }
+        
+        for (Puzzle puzzle : puzzles) {
+            String lowerInput = input.toLowerCase();
+            // If user asks 'why' or 'how' and mentions the answer, provide explanation
+            if ((lowerInput.contains("why") || lowerInput.contains("how")) && lowerInput.contains(puzzle.getAnswer().toLowerCase())) {
+                System.out.println("✅ Explanation requested for answer!");
+                return "Explanation: " + puzzle.getExplanation();
+            }
+        }
+        // If user just says 'why' or 'how', prompt for clarification
+        String trimmedInput = input.trim().toLowerCase();
+        if (trimmedInput.equals("why") || trimmedInput.equals("how")) {
+            return "Please specify which answer you want explained, e.g., 'why is the answer keyboard?'";
+        }
+        for (Puzzle puzzle : puzzles) {
+            String lowerInput = input.toLowerCase();
+            // Check for exact match with question
+            if (input.equalsIgnoreCase(puzzle.getQuestion())) {
+                System.out.println("✅ Exact question match found!");
+                return "Hint: " + puzzle.getHint();
+            }
+            // Check for exact match with answer
+            else if (input.equalsIgnoreCase(puzzle.getAnswer())) {
+                System.out.println("✅ Exact answer match found!");
+                return "🎉 Congratulations! You solved the puzzle!";
+            }
+            // Check for partial match with question (contains)
+            else if (puzzle.getQuestion().toLowerCase().contains(lowerInput) || 
+                     lowerInput.contains(puzzle.getQuestion().toLowerCase())) {
+                System.out.println("✅ Partial question match found!");
+                return "Hint: " + puzzle.getHint();
+            }
+            // Check for partial match with answer (contains)
+            else if (puzzle.getAnswer().toLowerCase().contains(lowerInput) || 
+                     lowerInput.contains(puzzle.getAnswer().toLowerCase())) {
+                System.out.println("✅ Partial answer match found!");
+                return "🎉 Congratulations! You solved the puzzle!";
+            }
+        }
+        
+        System.out.println("❌ No match found for: '" + input + "'");
+        return "❌ Not recognized. Please ask a valid puzzle or submit an answer.";
+    }
+
     private static List<Puzzle> loadPuzzlesFromJSON() throws IOException {
         ObjectMapper mapper = new ObjectMapper();
         InputStream inputStream = PuzzleServer.class.getResourceAsStream("/puzzles.json");
@@ -0,0 +1,208 @@
+package com.dungeon.utils;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.scene.image.Image;
+
+/**
+ * Process-wide image cache. Every image is decoded at most once per resource
+ * path (and requested size), no matter how many controllers, entities or items
+ * ask for it. preloadAll() decodes the game's sprites, backgrounds and GIFs on
+ * background threads while the splash screen is up, so the first game frame
+ * does not pay for it.
+ *
+ * Safe to use from any thread; javafx.scene.image.Image may be created off the FX thread.
+ */
+public class AssetCache {
+    public static final String IMAGES = "/com/dungeon/assets/images/";
+    public static final String GIFS = "/com/dungeon/assets/GIFS/";
+
+    // The player sprite is always decoded straight to its draw size
+    public static final String PLAYER_SPRITE = IMAGES + "player.gif";
+    public static final double PLAYER_SPRITE_SIZE = 64;
+
+    // Item and weapon icons are also decoded at this size for the sprite atlas
+    public static final double ICON_SIZE = 96;
+    private static final String[] ICONS = {
+        IMAGES + "potion.png", IMAGES + "armor.png", IMAGES + "key.png",
+        IMAGES + "sword.png", IMAGES + "AXE.png", IMAGES + "BOW.png",
+        IMAGES + "DAGGER.png", IMAGES + "SPEAR.png"
+    };
+
+    // Everything the game draws, in rough order of first use
+    private static final String[] PRELOAD = {
+        IMAGES + "dungeon_eclipse.png", IMAGES + "mainmenu.jpg",
+        IMAGES + "spawn.jpg", IMAGES + "combat.jpg", IMAGES + "puzzle.jpg",
+        IMAGES + "treasure.jpg", IMAGES + "boss.jpg",
+        IMAGES + "goblin.gif", IMAGES + "skeleton.gif",
+        IMAGES + "orc.gif", IMAGES + "mage.gif", IMAGES + "boss.gif",
+        IMAGES + "statue.gif", IMAGES + "torch.gif", IMAGES + "hint.png",
+        IMAGES + "potion.png", IMAGES + "armor.png", IMAGES + "key.png",
+        IMAGES + "sword.png", IMAGES + "AXE.png", IMAGES + "BOW.png",
+        IMAGES + "DAGGER.png", IMAGES + "SPEAR.png",
+        IMAGES + "gameover.jpg", IMAGES + "victory.jpeg",
+        GIFS + "rain.gif", GIFS + "thunder.gif", GIFS + "snow.gif"
+    };
+
+    private static AssetCache instance;
+
+    private final Map<String, CompletableFuture<Image>> images = new ConcurrentHashMap<>();
+    private final Map<String, Long> loadNanos = new ConcurrentHashMap<>();
+    private final ExecutorService loader;
+    private CompletableFuture<Void> preload;
+
+    private AssetCache() {
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        loader = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "AssetLoader-" + threadCount.incrementAndGet());
+            t.setDaemon(true); // Allows JVM to exit without waiting for this thread
+            return t;
+        });
+    }
+
+    public static synchronized AssetCache getInstance() {
+        if (instance == null) {
+            instance = new AssetCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the image at the given resource path at its natural size,
+     * decoding it on the calling thread if nobody has yet. If a preload of the
+     * same image is in flight, waits for it instead of decoding twice.
+     * @param path Classpath resource path, e.g. "/com/dungeon/assets/images/key.png"
+     * @return The image, or null if the resource does not exist or cannot be decoded
+     */
+    public Image get(String path) {
+        return get(path, 0, 0, false, false);
+    }
+
+    /**
+     * Returns the image at the given resource path decoded to a fixed size.
+     * Each distinct size is cached separately.
+     * @param path Classpath resource path
+     * @param width Requested width, or 0 for the natural width
+     * @param height Requested height, or 0 for the natural height
+     * @param preserveRatio Whether to keep the aspect ratio when scaling
+     * @param smooth Whether to use a better quality filter when scaling
+     * @return The image, or null if the resource does not exist or cannot be decoded
+     */
+    public Image get(String path, double width, double height, boolean preserveRatio, boolean smooth) {
+        if (path == null || path.isEmpty()) return null;
+        String key = keyFor(path, width, height, preserveRatio, smooth);
+        CompletableFuture<Image> entry = images.get(key);
+        if (entry == null) {
+            CompletableFuture<Image> created = new CompletableFuture<>();
+            entry = images.putIfAbsent(key, created);
+            if (entry == null) {
+                // This caller won the race and does the decoding
+                created.complete(decode(key, path, width, height, preserveRatio, smooth));
+                return created.join();
+            }
+        }
+        return entry.join();
+    }
+
+    /**
+     * Starts decoding every game image in parallel. Calling it again returns
+     * the same future.
+     * @return Completes once every image has been decoded (or has failed)
+     */
+    public synchronized CompletableFuture<Void> preloadAll() {
+        if (preload == null) {
+            long start = System.nanoTime();
+            List<CompletableFuture<?>> loads = new ArrayList<>(PRELOAD.length);
+            for (String path : PRELOAD) {
+                loads.add(preloadAsync(path, 0, 0, false, false));
+            }
+            loads.add(preloadAsync(PLAYER_SPRITE, PLAYER_SPRITE_SIZE, PLAYER_SPRITE_SIZE, true, true));
+            for (String icon : ICONS) {
+                loads.add(preloadAsync(icon, ICON_SIZE, ICON_SIZE, true, true));
+            }
+            preload = CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> System.out.printf("Preloaded %d images in %.0f ms%n",
+                    loads.size(), (System.nanoTime() - start) / 1_000_000.0));
+        }
+        return preload;
+    }
+
+    /**
+     * @return Decode time of every image loaded so far in milliseconds, slowest first
+     */
+    public Map<String, Double> getLoadTimes() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(loadNanos.entrySet());
+        entries.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        Map<String, Double> times = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : entries) {
+            times.put(entry.getKey(), entry.getValue() / 1_000_000.0);
+        }
+        return times;
+    }
+
+    /**
+     * @return Total time spent decoding images in milliseconds, across all threads
+     */
+    public double getTotalLoadTimeMs() {
+        long total = 0;
+        for (long nanos : loadNanos.values()) {
+            total += nanos;
+        }
+        return total / 1_000_000.0;
+    }
+
+    public int size() {
+        return images.size();
+    }
+
+    private CompletableFuture<Image> preloadAsync(String path, double width, double height, boolean preserveRatio, boolean smooth) {
+        String key = keyFor(path, width, height, preserveRatio, smooth);
+        CompletableFuture<Image> created = new CompletableFuture<>();
+        CompletableFuture<Image> existing = images.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        loader.execute(() -> created.complete(decode(key, path, width, height, preserveRatio, smooth)));
+        return created;
+    }
+
+    private Image decode(String key, String path, double width, double height, boolean preserveRatio, boolean smooth) {
+        long start = System.nanoTime();
+        try (InputStream stream = AssetCache.class.getResourceAsStream(path)) {
+            if (stream == null) {
+                System.err.println("Image not found: " + path);
+                return null;
+            }
+            Image image = new Image(stream, width, height, preserveRatio, smooth);
+            if (image.isError()) {
+                System.err.println("Could not decode image " + path + ": "
+                    + (image.getException() != null ? image.getException().getMessage() : "unknown error"));
+                return null;
+            }
+            return image;
+        } catch (Exception e) {
+            System.err.println("Error loading image " + path + ": " + e.getMessage());
+            return null;
+        } finally {
+            loadNanos.put(key, System.nanoTime() - start);
+        }
+    }
+
+    private static String keyFor(String path, double width, double height, boolean preserveRatio, boolean smooth) {
+        if (width <= 0 && height <= 0) {
+            return path;
+        }
+        return path + "@" + width + "x" + height + (preserveRatio ? "r" : "") + (smooth ? "s" : "");
+    }
+}
@@ -0,0 +1,120 @@
+package com.dungeon.utils;
+
+/**
+ * Fixed-timestep accumulator used to drive the game simulation independently
+ * of the render rate. Each animation pulse is turned into a whole number of
+ * simulation steps of identical length, and whatever time is left over is
+ * exposed as an interpolation factor for rendering.
+ */
+public final class FixedStepClock {
+    public static final int DEFAULT_TICK_RATE = 120;
+    public static final int DEFAULT_MAX_STEPS_PER_FRAME = 6;
+
+    private int tickRate;
+    private double stepSeconds;
+    private int maxStepsPerFrame;
+
+    private double accumulator;
+    private long lastFrameNanos = -1;
+    private long totalSteps;
+    private long droppedSteps;
+
+    public FixedStepClock() {
+        this(DEFAULT_TICK_RATE, DEFAULT_MAX_STEPS_PER_FRAME);
+    }
+
+    /**
+     * @param tickRate Simulation steps per second
+     * @param maxStepsPerFrame Upper bound on catch-up steps run for a single frame
+     */
+    public FixedStepClock(int tickRate, int maxStepsPerFrame) {
+        setTickRate(tickRate);
+        setMaxStepsPerFrame(maxStepsPerFrame);
+    }
+
+    /**
+     * Feeds a frame timestamp into the clock.
+     * @param nowNanos Timestamp of the current frame, as given to AnimationTimer.handle
+     * @return The number of fixed steps the caller should simulate this frame
+     */
+    public int advance(long nowNanos) {
+        if (lastFrameNanos < 0) {
+            lastFrameNanos = nowNanos;
+            return 0;
+        }
+
+        double frameSeconds = (nowNanos - lastFrameNanos) / 1_000_000_000.0;
+        lastFrameNanos = nowNanos;
+        if (frameSeconds <= 0) {
+            return 0;
+        }
+
+        accumulator += frameSeconds;
+        int steps = (int) (accumulator / stepSeconds);
+
+        if (steps > maxStepsPerFrame) {
+            // A hitch longer than the catch-up budget is dropped rather than
+            // simulated, so one slow frame cannot snowball into the next
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator = accumulator % stepSeconds;
+        } else {
+            accumulator -= steps * stepSeconds;
+        }
+
+        totalSteps += steps;
+        return steps;
+    }
+
+    /**
+     * Forgets the previous frame time and any banked time, e.g. after a pause,
+     * so the next frame does not try to make up for the time spent stopped.
+     */
+    public void reset() {
+        lastFrameNanos = -1;
+        accumulator = 0;
+    }
+
+    /**
+     * @return How far the render lies between the last two simulation steps (0..1)
+     */
+    public double getAlpha() {
+        return Math.min(1.0, accumulator / stepSeconds);
+    }
+
+    public double getStepSeconds() {
+        return stepSeconds;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public void setTickRate(int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive: " + tickRate);
+        }
+        this.tickRate = tickRate;
+        this.stepSeconds = 1.0 / tickRate;
+        this.accumulator = 0;
+    }
+
+    public int getMaxStepsPerFrame() {
+        return maxStepsPerFrame;
+    }
+
+    public void setMaxStepsPerFrame(int maxStepsPerFrame) {
+        if (maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("Max steps per frame must be positive: " + maxStepsPerFrame);
+        }
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
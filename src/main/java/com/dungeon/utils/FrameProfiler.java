@@ -0,0 +1,451 @@
+package com.dungeon.utils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Per-frame timing for the game loop. Each frame is split into named phases;
+ * callers bracket a phase with start() and stop(), and endFrame() closes the
+ * frame, records it in a frame-time histogram and keeps a rolling history that
+ * can be written out as CSV.
+ *
+ * Timing is off until enabled, and start()/stop() cost a single branch while off.
+ * Owned by the FX thread; not thread-safe.
+ */
+public class FrameProfiler {
+
+    /**
+     * The stages of one frame, in the order they run
+     */
+    public enum Phase {
+        INPUT("Input"),
+        ENEMIES("Enemies"),
+        PROJECTILES("Projectiles"),
+        EFFECTS("Effects"),
+        BACKGROUND("Background"),
+        DOORS("Doors"),
+        ENTITIES("Entities"),
+        UI("UI"),
+        MINIMAP("Minimap");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    public static final double FRAME_BUDGET_MS = 1000.0 / 60.0;
+    public static final int DEFAULT_HISTORY = 36_000; // ten minutes at 60 fps
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final double SMOOTHING = 0.05; // Weight of the newest frame in the overlay averages
+
+    private boolean enabled;
+    private String statusLine; // Extra lines shown in the overlay, e.g. effect counts
+    private int statusLineCount;
+    private int statusLineLength; // Characters in the longest status line
+    private boolean everEnabled;
+
+    // Current frame
+    private long frameStart = -1;
+    private final long[] phaseNanos = new long[PHASES.length];
+
+    // Overlay averages in milliseconds
+    private final double[] phaseAverageMs = new double[PHASES.length];
+    private double frameAverageMs;
+
+    private final Histogram frameHistogram = new Histogram();
+
+    // Rolling per-frame history for the CSV dump: column 0 is the frame total
+    private final float[][] history;
+    private int historyNext;
+    private long framesRecorded;
+
+    public FrameProfiler() {
+        this(DEFAULT_HISTORY);
+    }
+
+    /**
+     * @param historyFrames Number of most recent frames kept for the CSV dump
+     */
+    public FrameProfiler(int historyFrames) {
+        history = new float[Math.max(1, historyFrames)][PHASES.length + 1];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param statusLine Text shown under the phase timings, or null for none;
+     * separate several lines with '\n'
+     */
+    public void setStatusLine(String statusLine) {
+        this.statusLine = statusLine;
+        statusLineCount = 0;
+        statusLineLength = 0;
+        if (statusLine != null) {
+            int lineStart = 0;
+            for (int i = 0; i <= statusLine.length(); i++) {
+                if (i == statusLine.length() || statusLine.charAt(i) == '\n') {
+                    statusLineCount++;
+                    statusLineLength = Math.max(statusLineLength, i - lineStart);
+                    lineStart = i + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Turns timing on or off. Switching it on starts a fresh set of statistics.
+     * @param enabled Whether frames should be timed
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+            everEnabled = true;
+        }
+        this.enabled = enabled;
+        frameStart = -1;
+    }
+
+    public void toggle() {
+        setEnabled(!enabled);
+    }
+
+    /**
+     * @return Whether any frames were timed during this session
+     */
+    public boolean hasData() {
+        return everEnabled && framesRecorded > 0;
+    }
+
+    /**
+     * Marks the start of a frame. Phases timed before the first call are
+     * still counted towards the frame.
+     */
+    public void beginFrame() {
+        if (!enabled) return;
+        frameStart = System.nanoTime();
+    }
+
+    /**
+     * @return A timestamp to hand back to stop(), or 0 when timing is off
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since start() to a phase. A phase may be timed several
+     * times in one frame, e.g. once per simulation step.
+     * @param phase The phase that just ran
+     * @param startNanos The value returned by start()
+     */
+    public void stop(Phase phase, long startNanos) {
+        if (!enabled || startNanos == 0) return;
+        phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Closes the current frame and folds it into the statistics.
+     */
+    public void endFrame() {
+        if (!enabled || frameStart < 0) return;
+        long frameNanos = System.nanoTime() - frameStart;
+        frameStart = -1;
+
+        frameHistogram.record(frameNanos);
+
+        float[] row = history[historyNext];
+        double frameMs = frameNanos / 1_000_000.0;
+        row[0] = (float) frameMs;
+        frameAverageMs = framesRecorded == 0 ? frameMs : frameAverageMs + (frameMs - frameAverageMs) * SMOOTHING;
+        for (int i = 0; i < PHASES.length; i++) {
+            double phaseMs = phaseNanos[i] / 1_000_000.0;
+            row[i + 1] = (float) phaseMs;
+            phaseAverageMs[i] = framesRecorded == 0 ? phaseMs : phaseAverageMs[i] + (phaseMs - phaseAverageMs[i]) * SMOOTHING;
+            phaseNanos[i] = 0;
+        }
+
+        historyNext = (historyNext + 1) % history.length;
+        framesRecorded++;
+    }
+
+    /**
+     * Drops all collected statistics
+     */
+    public void reset() {
+        frameHistogram.reset();
+        Arrays.fill(phaseNanos, 0);
+        Arrays.fill(phaseAverageMs, 0);
+        frameAverageMs = 0;
+        historyNext = 0;
+        framesRecorded = 0;
+        frameStart = -1;
+    }
+
+    public Histogram getFrameHistogram() {
+        return frameHistogram;
+    }
+
+    /**
+     * @return Smoothed time spent in the phase per frame, in milliseconds
+     */
+    public double getPhaseAverageMs(Phase phase) {
+        return phaseAverageMs[phase.ordinal()];
+    }
+
+    /**
+     * @return Smoothed frame time in milliseconds
+     */
+    public double getFrameAverageMs() {
+        return frameAverageMs;
+    }
+
+    public long getFramesRecorded() {
+        return framesRecorded;
+    }
+
+    /**
+     * Draws the statistics panel in the bottom right corner of the canvas
+     * @param gc Graphics context to draw on
+     * @param canvasWidth Width of the canvas
+     * @param canvasHeight Height of the canvas
+     */
+    public void renderOverlay(GraphicsContext gc, double canvasWidth, double canvasHeight) {
+        if (!enabled) return;
+
+        double lineHeight = 14;
+        double padding = 8;
+        double charWidth = 6.7; // Advance of one 11 px monospaced character
+        double boxWidth = Math.max(230, padding * 2 + statusLineLength * charWidth);
+        double boxHeight = padding * 2 + lineHeight * (PHASES.length + 4 + statusLineCount);
+        double boxX = canvasWidth - boxWidth - 10;
+        double boxY = canvasHeight - boxHeight - 10;
+
+        gc.setFill(Color.rgb(0, 0, 0, 0.75));
+        gc.fillRect(boxX, boxY, boxWidth, boxHeight);
+        gc.setStroke(Color.LIMEGREEN);
+        gc.setLineWidth(1);
+        gc.strokeRect(boxX, boxY, boxWidth, boxHeight);
+
+        gc.setFont(Font.font("Monospaced", FontWeight.NORMAL, 11));
+        gc.setTextAlign(TextAlignment.LEFT);
+        double textX = boxX + padding;
+        double textY = boxY + padding + lineHeight - 3;
+
+        gc.setFill(frameAverageMs > FRAME_BUDGET_MS ? Color.ORANGERED : Color.LIMEGREEN);
+        gc.fillText(String.format(Locale.ROOT, "Frame %6.2f ms  (%.0f%% of budget)",
+            frameAverageMs, frameAverageMs / FRAME_BUDGET_MS * 100), textX, textY);
+        textY += lineHeight;
+
+        gc.setFill(Color.WHITE);
+        gc.fillText(String.format(Locale.ROOT, "p50 %.2f  p99 %.2f  max %.2f",
+            frameHistogram.getValueAtPercentile(50) / 1_000_000.0,
+            frameHistogram.getValueAtPercentile(99) / 1_000_000.0,
+            frameHistogram.getMax() / 1_000_000.0), textX, textY);
+        textY += lineHeight;
+
+        double tracked = 0;
+        for (Phase phase : PHASES) {
+            double ms = phaseAverageMs[phase.ordinal()];
+            tracked += ms;
+            drawPhaseLine(gc, phase.getLabel(), ms, textX, textY, boxWidth - padding * 2);
+            textY += lineHeight;
+        }
+        drawPhaseLine(gc, "Other", Math.max(0, frameAverageMs - tracked), textX, textY, boxWidth - padding * 2);
+        textY += lineHeight;
+
+        if (statusLine != null) {
+            gc.setFill(Color.WHITE);
+            gc.fillText(statusLine, textX, textY); // fillText breaks lines at '\n'
+            textY += lineHeight * statusLineCount;
+        }
+
+        gc.setFill(Color.GRAY);
+        gc.fillText("F3: hide", textX, textY);
+    }
+
+    private void drawPhaseLine(GraphicsContext gc, String label, double ms, double x, double y, double width) {
+        // Bar scaled so the full width is one 60 fps frame
+        double barX = x + 130;
+        double barWidth = width - 130;
+        gc.setFill(Color.rgb(255, 255, 255, 0.15));
+        gc.fillRect(barX, y - 9, barWidth, 8);
+        gc.setFill(ms > FRAME_BUDGET_MS / 4 ? Color.ORANGE : Color.LIMEGREEN);
+        gc.fillRect(barX, y - 9, barWidth * Math.min(1, ms / FRAME_BUDGET_MS), 8);
+
+        gc.setFill(Color.WHITE);
+        gc.fillText(String.format(Locale.ROOT, "%-11s%6.2f", label, ms), x, y);
+    }
+
+    /**
+     * Writes the recorded frames, oldest first, one row per frame with the
+     * frame total and each phase in milliseconds.
+     * @param file Destination CSV file
+     */
+    public void writeCsv(Path file) throws IOException {
+        int rows = (int) Math.min(framesRecorded, history.length);
+        int first = framesRecorded > history.length ? historyNext : 0;
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            StringBuilder header = new StringBuilder("frame,total_ms");
+            for (Phase phase : PHASES) {
+                header.append(',').append(phase.name().toLowerCase(Locale.ROOT)).append("_ms");
+            }
+            out.println(header);
+
+            long frameNumber = framesRecorded - rows;
+            for (int r = 0; r < rows; r++) {
+                float[] row = history[(first + r) % history.length];
+                out.print(frameNumber + r);
+                for (float value : row) {
+                    out.print(',');
+                    out.print(String.format(Locale.ROOT, "%.4f", value));
+                }
+                out.println();
+            }
+        }
+    }
+
+    /**
+     * Writes the CSV next to the game if any frames were profiled this session
+     * @return The file written, or null if there was nothing to write
+     */
+    public Path dumpCsv() {
+        if (!hasData()) return null;
+        Path file = Path.of(String.format("frame-profile-%d.csv", System.currentTimeMillis()));
+        try {
+            writeCsv(file);
+            System.out.println("Frame profile written to " + file.toAbsolutePath()
+                + " (" + frameHistogram + ")");
+            // Start over so the next dump only holds frames from after this one
+            reset();
+            everEnabled = enabled;
+            return file;
+        } catch (IOException e) {
+            System.err.println("Error writing frame profile: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fixed-size log-linear histogram in the style of HdrHistogram: values are
+     * bucketed by their highest set bit and then split into 32 linear
+     * sub-buckets, so any recorded value is reported within about 3% while the
+     * whole range from 1 microsecond to over a minute fits in a few hundred counters.
+     */
+    public static class Histogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 32
+        private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;     // values below 64 are exact
+        private static final int MAX_SHIFT = 26;                     // 64 << 26 microseconds is over an hour
+        private static final long UNIT_NANOS = 1_000;                // bucket values are in microseconds
+
+        private final long[] counts = new long[LINEAR_LIMIT + MAX_SHIFT * SUB_BUCKETS];
+        private long totalCount;
+        private long maxNanos;
+        private long minNanos = Long.MAX_VALUE;
+        private double sumNanos;
+
+        /**
+         * @param nanos Sample to record, in nanoseconds
+         */
+        public void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            counts[indexOf(nanos / UNIT_NANOS)]++;
+            totalCount++;
+            sumNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            minNanos = Math.min(minNanos, nanos);
+        }
+
+        /**
+         * @param percentile 0..100
+         * @return The highest value equivalent to the sample at that percentile, in nanoseconds
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0) return 0;
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    // Never report more than was actually seen
+                    return Math.min(maxNanos, highestEquivalent(i) * UNIT_NANOS + (UNIT_NANOS - 1));
+                }
+            }
+            return maxNanos;
+        }
+
+        public long getMax() {
+            return maxNanos;
+        }
+
+        public long getMin() {
+            return totalCount == 0 ? 0 : minNanos;
+        }
+
+        public double getMean() {
+            return totalCount == 0 ? 0 : sumNanos / totalCount;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public void reset() {
+            Arrays.fill(counts, 0);
+            totalCount = 0;
+            maxNanos = 0;
+            minNanos = Long.MAX_VALUE;
+            sumNanos = 0;
+        }
+
+        private static int indexOf(long value) {
+            if (value < LINEAR_LIMIT) {
+                return (int) value;
+            }
+            // Shift so the value keeps SUB_BUCKET_BITS + 1 significant bits, i.e. lands in [32, 64)
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            if (shift > MAX_SHIFT) {
+                return LINEAR_LIMIT + MAX_SHIFT * SUB_BUCKETS - 1;
+            }
+            int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+            return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long highestEquivalent(int index) {
+            if (index < LINEAR_LIMIT) {
+                return index;
+            }
+            int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+            long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+            return ((subBucket + 1) << shift) - 1;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d frames, mean %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                totalCount, getMean() / 1_000_000.0,
+                getValueAtPercentile(50) / 1_000_000.0,
+                getValueAtPercentile(99) / 1_000_000.0,
+                maxNanos / 1_000_000.0);
+        }
+    }
+}
@@ -11,7 +11,7 @@ public class UIUtils {
      */
     public static void setStageIcon(Stage stage) {
         try {
-            Image icon = new Image(UIUtils.class.getResourceAsStream("/com/dungeon/assets/images/dungeon_eclipse.png"));
+            Image icon = AssetCache.getInstance().get("/com/dungeon/assets/images/dungeon_eclipse.png");
             stage.getIcons().add(icon);
         } catch (Exception e) {
             System.err.println("Error loading application icon: " + e.getMessage());
@@ -0,0 +1,67 @@
+package com.dungeon.utils;
+
+/**
+ * Allocation-free 2D vector helpers for the per-tick update path.
+ * Everything works on raw x/y doubles, so callers never create a Point2D
+ * just to measure or normalise a direction.
+ */
+public final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    /**
+     * @return Length of the vector (x, y)
+     */
+    public static double length(double x, double y) {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * @return Squared distance between two points; cheaper than distance() for comparisons
+     */
+    public static double distanceSquared(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @return Distance between two points
+     */
+    public static double distance(double x1, double y1, double x2, double y2) {
+        return Math.sqrt(distanceSquared(x1, y1, x2, y2));
+    }
+
+    /**
+     * @return Whether two points are strictly closer than the given range
+     */
+    public static boolean isWithin(double x1, double y1, double x2, double y2, double range) {
+        return distanceSquared(x1, y1, x2, y2) < range * range;
+    }
+
+    /**
+     * X component of the unit vector pointing from (fromX, fromY) to (toX, toY).
+     * Returns 0 when the points coincide, matching Point2D.normalize().
+     */
+    public static double directionX(double fromX, double fromY, double toX, double toY) {
+        double length = distance(fromX, fromY, toX, toY);
+        return length == 0 ? 0 : (toX - fromX) / length;
+    }
+
+    /**
+     * Y component of the unit vector pointing from (fromX, fromY) to (toX, toY).
+     * Returns 0 when the points coincide, matching Point2D.normalize().
+     */
+    public static double directionY(double fromX, double fromY, double toX, double toY) {
+        double length = distance(fromX, fromY, toX, toY);
+        return length == 0 ? 0 : (toY - fromY) / length;
+    }
+
+    /**
+     * @return value limited to the range [min, max]
+     */
+    public static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,214 @@
+package com.dungeon.view;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Collects the parts of the game canvas that changed since the last frame, so
+ * the renderer can clear and repaint only those instead of the whole screen.
+ *
+ * Everything drawn reports its bounds each frame through track(). A rectangle
+ * becomes dirty when its owner moved, changed state, is animated, or was not
+ * reported this frame (it disappeared); both the old and the new bounds are
+ * marked. Overlapping rectangles are merged, and too many rectangles or too
+ * large an area fall back to a full redraw.
+ */
+public class DirtyRegionTracker {
+    private static final int MAX_REGIONS = 16;
+    private static final double MAX_AREA_FRACTION = 0.5; // Beyond this a full redraw is cheaper
+
+    /**
+     * Bounds an owner was drawn at last frame
+     */
+    private static final class Entry {
+        double x, y, width, height;
+        long state;
+        long frame;
+    }
+
+    private final Map<Object, Entry> entries = new IdentityHashMap<>();
+    private final double[] regions = new double[MAX_REGIONS * 4]; // x, y, width, height per region
+    private int regionCount;
+    private boolean fullRedraw = true;
+    private long frame;
+    private double canvasWidth;
+    private double canvasHeight;
+
+    /**
+     * Starts collecting the changes for a new frame
+     * @param width Current canvas width
+     * @param height Current canvas height
+     */
+    public void beginFrame(double width, double height) {
+        frame++;
+        regionCount = 0;
+        if (width != canvasWidth || height != canvasHeight) {
+            canvasWidth = width;
+            canvasHeight = height;
+            fullRedraw = true;
+        }
+    }
+
+    /**
+     * Reports where an owner is drawn this frame
+     * @param owner Object being drawn; compared by identity
+     * @param state Anything else that changes its look (health, angle, ...)
+     * @param animated Whether it changes every frame regardless (animated GIFs)
+     */
+    public void track(Object owner, double x, double y, double width, double height, long state, boolean animated) {
+        Entry entry = entries.get(owner);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(owner, entry);
+            add(x, y, width, height);
+        } else if (animated || entry.state != state
+                || entry.x != x || entry.y != y || entry.width != width || entry.height != height) {
+            add(entry.x, entry.y, entry.width, entry.height);
+            add(x, y, width, height);
+        }
+        entry.x = x;
+        entry.y = y;
+        entry.width = width;
+        entry.height = height;
+        entry.state = state;
+        entry.frame = frame;
+    }
+
+    /**
+     * Marks a rectangle dirty for this frame only
+     */
+    public void add(double x, double y, double width, double height) {
+        if (fullRedraw || width <= 0 || height <= 0) {
+            return;
+        }
+        // Snap outwards to whole pixels plus one, so antialiased edges are cleared too
+        double left = Math.floor(x) - 1;
+        double top = Math.floor(y) - 1;
+        width = Math.ceil(x + width) + 1 - left;
+        height = Math.ceil(y + height) + 1 - top;
+        x = left;
+        y = top;
+        // Grow an overlapping region instead of adding a new one
+        for (int i = 0; i < regionCount * 4; i += 4) {
+            if (overlaps(i, x, y, width, height)) {
+                merge(i, x, y, width, height);
+                return;
+            }
+        }
+        if (regionCount == MAX_REGIONS) {
+            // Too fragmented: collapse into one bounding box
+            for (int i = 4; i < regionCount * 4; i += 4) {
+                merge(0, regions[i], regions[i + 1], regions[i + 2], regions[i + 3]);
+            }
+            regionCount = 1;
+            merge(0, x, y, width, height);
+            return;
+        }
+        int i = regionCount * 4;
+        regions[i] = x;
+        regions[i + 1] = y;
+        regions[i + 2] = width;
+        regions[i + 3] = height;
+        regionCount++;
+    }
+
+    /**
+     * Forces the next frame to repaint the whole canvas
+     */
+    public void markFull() {
+        fullRedraw = true;
+    }
+
+    /**
+     * Finishes collecting: owners not reported this frame have disappeared, so
+     * their last bounds are dirty. Call before deciding what to clear.
+     * @return Whether the whole canvas has to be repainted
+     */
+    public boolean endCollect() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.frame != frame) {
+                add(entry.x, entry.y, entry.width, entry.height);
+                iterator.remove();
+            }
+        }
+        if (!fullRedraw) {
+            double area = 0;
+            for (int i = 0; i < regionCount * 4; i += 4) {
+                area += regions[i + 2] * regions[i + 3];
+            }
+            if (area > canvasWidth * canvasHeight * MAX_AREA_FRACTION) {
+                fullRedraw = true;
+            }
+        }
+        return fullRedraw;
+    }
+
+    /**
+     * Clears the dirty regions and restricts drawing to them. Must be paired with
+     * gc.restore() once the frame is drawn. Does nothing on a full redraw.
+     */
+    public void clearAndClip(GraphicsContext gc) {
+        gc.save();
+        if (fullRedraw) {
+            gc.clearRect(0, 0, canvasWidth, canvasHeight);
+            return;
+        }
+        gc.beginPath();
+        for (int i = 0; i < regionCount * 4; i += 4) {
+            gc.clearRect(regions[i], regions[i + 1], regions[i + 2], regions[i + 3]);
+            gc.rect(regions[i], regions[i + 1], regions[i + 2], regions[i + 3]);
+        }
+        gc.clip();
+    }
+
+    /**
+     * Ends the frame; the next one is incremental unless markFull() is called again
+     */
+    public void endFrame() {
+        fullRedraw = false;
+    }
+
+    /**
+     * @return Whether anything drawn in the rectangle would be visible this frame
+     */
+    public boolean intersects(double x, double y, double width, double height) {
+        if (fullRedraw) {
+            return true;
+        }
+        for (int i = 0; i < regionCount * 4; i += 4) {
+            if (overlaps(i, x, y, width, height)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isFullRedraw() {
+        return fullRedraw;
+    }
+
+    public int getRegionCount() {
+        return fullRedraw ? 1 : regionCount;
+    }
+
+    private boolean overlaps(int i, double x, double y, double width, double height) {
+        return x < regions[i] + regions[i + 2] && x + width > regions[i]
+            && y < regions[i + 1] + regions[i + 3] && y + height > regions[i + 1];
+    }
+
+    private void merge(int i, double x, double y, double width, double height) {
+        double minX = Math.min(regions[i], x);
+        double minY = Math.min(regions[i + 1], y);
+        double maxX = Math.max(regions[i] + regions[i + 2], x + width);
+        double maxY = Math.max(regions[i + 1] + regions[i + 3], y + height);
+        regions[i] = minX;
+        regions[i + 1] = minY;
+        regions[i + 2] = maxX - minX;
+        regions[i + 3] = maxY - minY;
+    }
+}
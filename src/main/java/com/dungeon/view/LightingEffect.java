@@ -4,79 +4,155 @@ import javafx.geometry.Point2D;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.BlendMode;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.CycleMethod;
-import javafx.scene.paint.RadialGradient;
-import javafx.scene.paint.Stop;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
+/**
+ * Darkens the scene with a light map that is multiplied onto the game canvas.
+ * The canvas must already hold the room background, since multiplying onto
+ * transparent pixels just paints the light map.
+ *
+ * The light map is computed on the CPU at a quarter of the canvas resolution
+ * into a buffer that is reused every frame, then uploaded into one persistent
+ * image and scaled up when drawn. Ambient light and static lights are baked
+ * once (per room, or when they change); each frame only the moving, flickering
+ * and pulsing lights are added on top of a copy of the baked map.
+ */
 public class LightingEffect {
-    private Canvas lightCanvas;
-    private GraphicsContext lightGc;
+    private static final int SCALE = 4; // Light map pixels are SCALE x SCALE screen pixels
+    private static final double STRENGTH = 0.8; // How strongly the light map darkens the scene
+
+    private final Canvas gameCanvas;
     private List<LightSource> lightSources;
     private Random random;
     private double ambientLight;
     private Color ambientColor;
     private double time;
-    
+
+    // Light map buffers, reallocated only when the canvas size changes
+    private int mapWidth;
+    private int mapHeight;
+    private int[] bakedMap;   // Ambient + static lights
+    private int[] frameMap;   // Baked map + dynamic lights for this frame
+    private WritableImage lightImage;
+    private boolean bakeNeeded = true;
+
     public LightingEffect(Canvas gameCanvas) {
-        // Create a separate canvas for lighting effects with the same dimensions
-        this.lightCanvas = new Canvas(gameCanvas.getWidth(), gameCanvas.getHeight());
-        this.lightGc = lightCanvas.getGraphicsContext2D();
+        // The light map follows the game canvas size
+        this.gameCanvas = gameCanvas;
         this.lightSources = new ArrayList<>();
         this.random = new Random();
         this.ambientLight = 0.2; // 20% ambient light
         this.ambientColor = Color.rgb(20, 20, 40); // Dark blue ambient
         this.time = 0;
     }
-    
+
     public void update(double deltaTime) {
         time += deltaTime;
-        
+
         // Update all light sources
         for (LightSource light : lightSources) {
-            light.update(deltaTime);
+            light.update(deltaTime, random);
         }
     }
-    
+
     public void render(GraphicsContext gc) {
-        // Clear the light canvas
-        lightGc.setFill(ambientColor);
-        lightGc.fillRect(0, 0, lightCanvas.getWidth(), lightCanvas.getHeight());
-        
-        // Draw all light sources
-        lightGc.setGlobalBlendMode(BlendMode.ADD);
+        ensureBuffers();
+        if (bakeNeeded) {
+            bake();
+        }
+
+        // Start from the baked map and add only the lights that change
+        System.arraycopy(bakedMap, 0, frameMap, 0, frameMap.length);
         for (LightSource light : lightSources) {
-            light.render(lightGc);
+            if (light.isDynamic()) {
+                light.accumulate(frameMap, mapWidth, mapHeight);
+            }
         }
-        
+        lightImage.getPixelWriter().setPixels(0, 0, mapWidth, mapHeight,
+            PixelFormat.getIntArgbInstance(), frameMap, 0, mapWidth);
+
         // Apply lighting to the main canvas
-        gc.setGlobalAlpha(0.8); // Adjust the strength of the lighting effect
+        gc.setGlobalAlpha(STRENGTH); // Adjust the strength of the lighting effect
         gc.setGlobalBlendMode(BlendMode.MULTIPLY);
-        gc.drawImage(lightCanvas.snapshot(null, null), 0, 0);
+        gc.drawImage(lightImage, 0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
         gc.setGlobalBlendMode(BlendMode.SRC_OVER);
         gc.setGlobalAlpha(1.0);
     }
-    
+
     public void addLightSource(Point2D position, double radius, Color color, LightSource.LightType type) {
-        lightSources.add(new LightSource(position, radius, color, type));
+        LightSource light = new LightSource(position, radius, color, type);
+        light.owner = this;
+        lightSources.add(light);
+        if (!light.isDynamic()) {
+            bakeNeeded = true;
+        }
     }
-    
+
+    /**
+     * Removes every light, e.g. when leaving a room
+     */
     public void clearLights() {
+        for (LightSource light : lightSources) {
+            light.owner = null;
+        }
         lightSources.clear();
+        bakeNeeded = true;
     }
-    
+
     public void setAmbientLight(double intensity) {
         this.ambientLight = Math.max(0.0, Math.min(1.0, intensity));
         int value = (int)(ambientLight * 255);
         this.ambientColor = Color.rgb(value/5, value/5, value/3);
+        bakeNeeded = true;
+    }
+
+    public List<LightSource> getLightSources() {
+        return lightSources;
+    }
+
+    private void ensureBuffers() {
+        int width = Math.max(1, (int) Math.ceil(gameCanvas.getWidth() / SCALE));
+        int height = Math.max(1, (int) Math.ceil(gameCanvas.getHeight() / SCALE));
+        if (width != mapWidth || height != mapHeight || lightImage == null) {
+            mapWidth = width;
+            mapHeight = height;
+            bakedMap = new int[width * height];
+            frameMap = new int[width * height];
+            lightImage = new WritableImage(width, height);
+            bakeNeeded = true;
+        }
+    }
+
+    /**
+     * Fills the baked map with the ambient colour and adds every static light
+     */
+    private void bake() {
+        Arrays.fill(bakedMap, toArgb(ambientColor));
+        for (LightSource light : lightSources) {
+            if (!light.isDynamic()) {
+                light.accumulate(bakedMap, mapWidth, mapHeight);
+            }
+        }
+        bakeNeeded = false;
     }
-    
+
+    private static int toArgb(Color color) {
+        return 0xFF000000
+            | ((int) Math.round(color.getRed() * 255) << 16)
+            | ((int) Math.round(color.getGreen() * 255) << 8)
+            | (int) Math.round(color.getBlue() * 255);
+    }
+
     public static class LightSource {
-        private Point2D position;
+        private double centerX;
+        private double centerY;
         private double radius;
         private Color color;
         private LightType type;
@@ -84,15 +160,18 @@ public class LightingEffect {
         private double time;
         private double currentRadius;
         private double pulseSpeed;
-        
+        private boolean moved; // Set once the light has been moved; it is then redrawn every frame
+        private LightingEffect owner;
+
         public enum LightType {
             STATIC,
             FLICKERING,
             PULSING
         }
-        
+
         public LightSource(Point2D position, double radius, Color color, LightType type) {
-            this.position = position;
+            this.centerX = position.getX();
+            this.centerY = position.getY();
             this.radius = radius;
             this.color = color;
             this.type = type;
@@ -101,59 +180,97 @@ public class LightingEffect {
             this.currentRadius = radius;
             this.pulseSpeed = 1.0 + Math.random() * 0.5;
         }
-        
-        public void update(double deltaTime) {
+
+        public void update(double deltaTime, Random random) {
             time += deltaTime;
-            
+
             // Update light properties based on type
             switch (type) {
                 case FLICKERING:
                     // Random flickering
-                    double flicker = 1.0 - flickerIntensity + Math.random() * flickerIntensity * 2;
+                    double flicker = 1.0 - flickerIntensity + random.nextDouble() * flickerIntensity * 2;
                     currentRadius = radius * flicker;
                     break;
-                    
+
                 case PULSING:
                     // Smooth pulsing
                     double pulse = 0.8 + 0.4 * Math.sin(time * pulseSpeed * 2);
                     currentRadius = radius * pulse;
                     break;
-                    
+
                 case STATIC:
                 default:
                     currentRadius = radius;
                     break;
             }
         }
-        
-        public void render(GraphicsContext gc) {
-            // Create a radial gradient for the light
-            RadialGradient gradient = new RadialGradient(
-                0, 0,
-                position.getX(), position.getY(),
-                currentRadius,
-                false,
-                CycleMethod.NO_CYCLE,
-                new Stop(0, color),
-                new Stop(0.7, color.deriveColor(0, 1, 1, 0.5)),
-                new Stop(1, color.deriveColor(0, 1, 1, 0))
-            );
-            
-            gc.setFill(gradient);
-            gc.fillOval(
-                position.getX() - currentRadius, 
-                position.getY() - currentRadius, 
-                currentRadius * 2, 
-                currentRadius * 2
-            );
+
+        /**
+         * @return Whether the light changes between frames and so cannot be baked
+         */
+        public boolean isDynamic() {
+            return moved || type != LightType.STATIC;
+        }
+
+        /**
+         * Adds this light to a light map. Falls off like the radial gradient it
+         * replaces: full colour at the centre, half at 70% of the radius, none at the edge.
+         * @param map Light map in ARGB, one int per light map pixel
+         */
+        void accumulate(int[] map, int mapWidth, int mapHeight) {
+            double r = currentRadius / SCALE;
+            if (r <= 0) return;
+            double cx = centerX / SCALE;
+            double cy = centerY / SCALE;
+            int x0 = Math.max(0, (int) Math.floor(cx - r));
+            int x1 = Math.min(mapWidth - 1, (int) Math.ceil(cx + r));
+            int y0 = Math.max(0, (int) Math.floor(cy - r));
+            int y1 = Math.min(mapHeight - 1, (int) Math.ceil(cy + r));
+
+            double red = color.getRed() * 255 * color.getOpacity();
+            double green = color.getGreen() * 255 * color.getOpacity();
+            double blue = color.getBlue() * 255 * color.getOpacity();
+            double r2 = r * r;
+            for (int y = y0; y <= y1; y++) {
+                double dy = y + 0.5 - cy;
+                int row = y * mapWidth;
+                for (int x = x0; x <= x1; x++) {
+                    double dx = x + 0.5 - cx;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 >= r2) continue;
+                    double t = Math.sqrt(d2) / r;
+                    double intensity = t < 0.7 ? 1.0 - t / 0.7 * 0.5 : 0.5 * (1.0 - t) / 0.3;
+
+                    int pixel = map[row + x];
+                    int pr = Math.min(255, ((pixel >> 16) & 0xFF) + (int) (red * intensity));
+                    int pg = Math.min(255, ((pixel >> 8) & 0xFF) + (int) (green * intensity));
+                    int pb = Math.min(255, (pixel & 0xFF) + (int) (blue * intensity));
+                    map[row + x] = 0xFF000000 | (pr << 16) | (pg << 8) | pb;
+                }
+            }
         }
-        
+
         public void setPosition(Point2D position) {
-            this.position = position;
+            setPosition(position.getX(), position.getY());
         }
-        
+
+        /**
+         * Moves the light without allocating; use this for lights that follow something every frame
+         */
+        public void setPosition(double x, double y) {
+            this.centerX = x;
+            this.centerY = y;
+            if (!moved) {
+                moved = true;
+                // It was baked into the static map; take it out again
+                if (owner != null) {
+                    owner.bakeNeeded = true;
+                }
+            }
+        }
+
         public Point2D getPosition() {
-            return position;
+            return new Point2D(centerX, centerY);
         }
     }
 }
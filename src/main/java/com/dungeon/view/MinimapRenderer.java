@@ -0,0 +1,237 @@
+package com.dungeon.view;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.dungeon.model.DungeonRoom;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Minimap of the dungeon's room grid, kept in an off-screen image.
+ *
+ * The whole map is rasterised once per dungeon. After that only the cells whose
+ * colour can change are repainted: when the player enters a room, that is the
+ * old and new current rooms and their neighbours. Drawing the minimap is a
+ * single image blit, so its cost does not grow with the number of rooms.
+ */
+public class MinimapRenderer {
+    private static final Color BACKGROUND = Color.rgb(0, 0, 0, 0.7);
+    private static final Color FRAME = Color.GOLD;
+    private static final Color CELL_BORDER = Color.DARKGRAY;
+    private static final int FRAME_WIDTH = 2;
+    private static final int MARGIN = 10; // Space between the frame and the room grid
+
+    private final int size;
+    private final WritableImage image;
+    private final PixelWriter writer;
+
+    private List<DungeonRoom> dungeon;
+    private int dungeonSize;
+    private final Map<DungeonRoom, Integer> roomIndex = new IdentityHashMap<>();
+    private int[] cellColors = new int[0]; // ARGB each cell was last painted with
+    private DungeonRoom currentRoom;
+    private final Set<DungeonRoom> currentNeighbours = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Grid placement inside the image
+    private int minX, minY;
+    private double cellSize, offsetX, offsetY;
+
+    /**
+     * @param size Width and height of the minimap in pixels
+     */
+    public MinimapRenderer(int size) {
+        this.size = size;
+        this.image = new WritableImage(size, size);
+        this.writer = image.getPixelWriter();
+    }
+
+    /**
+     * Brings the minimap image up to date and draws it
+     * @param gc Canvas to draw on
+     * @param x Left edge of the minimap
+     * @param y Top edge of the minimap
+     * @param dungeon Every room of the current level
+     * @param current Room the player is in
+     */
+    public void render(GraphicsContext gc, double x, double y, List<DungeonRoom> dungeon, DungeonRoom current) {
+        update(dungeon, current);
+        gc.drawImage(image, x, y);
+    }
+
+    /**
+     * Repaints whatever changed since the last call. A different dungeon list
+     * means a new level and rebuilds the whole image.
+     */
+    public void update(List<DungeonRoom> dungeon, DungeonRoom current) {
+        if (dungeon == null || dungeon.isEmpty()) {
+            return;
+        }
+        if (dungeon != this.dungeon || dungeon.size() != dungeonSize) {
+            rebuild(dungeon, current);
+            return;
+        }
+        if (current != currentRoom) {
+            DungeonRoom previous = currentRoom;
+            setCurrentRoom(current);
+            patchAround(previous);
+            patchAround(current);
+            paintCurrentOnTop();
+        }
+    }
+
+    public WritableImage getImage() {
+        return image;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void rebuild(List<DungeonRoom> dungeon, DungeonRoom current) {
+        this.dungeon = dungeon;
+        this.dungeonSize = dungeon.size();
+        setCurrentRoom(current);
+
+        // Find the dungeon bounds
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        roomIndex.clear();
+        for (int i = 0; i < dungeon.size(); i++) {
+            DungeonRoom room = dungeon.get(i);
+            roomIndex.put(room, i);
+            minX = Math.min(minX, room.getX());
+            minY = Math.min(minY, room.getY());
+            maxX = Math.max(maxX, room.getX());
+            maxY = Math.max(maxY, room.getY());
+        }
+
+        // Scale the grid to fit and centre it
+        int dungeonWidth = maxX - minX + 1;
+        int dungeonHeight = maxY - minY + 1;
+        int gridSize = size - MARGIN * 2;
+        cellSize = Math.min((double) gridSize / dungeonWidth, (double) gridSize / dungeonHeight);
+        offsetX = MARGIN + (gridSize - cellSize * dungeonWidth) / 2;
+        offsetY = MARGIN + (gridSize - cellSize * dungeonHeight) / 2;
+
+        // Background and frame
+        fill(0, 0, size, size, BACKGROUND);
+        fill(0, 0, size, FRAME_WIDTH, FRAME);
+        fill(0, size - FRAME_WIDTH, size, FRAME_WIDTH, FRAME);
+        fill(0, 0, FRAME_WIDTH, size, FRAME);
+        fill(size - FRAME_WIDTH, 0, FRAME_WIDTH, size, FRAME);
+
+        cellColors = new int[dungeon.size()];
+        for (int i = 0; i < dungeon.size(); i++) {
+            paintCell(i, colorFor(dungeon.get(i)));
+        }
+        paintCurrentOnTop();
+    }
+
+    private void setCurrentRoom(DungeonRoom current) {
+        currentRoom = current;
+        currentNeighbours.clear();
+        if (current != null) {
+            currentNeighbours.addAll(current.getConnectedRooms());
+        }
+    }
+
+    /**
+     * Rooms can share a grid position; the player's room always stays visible
+     */
+    private void paintCurrentOnTop() {
+        Integer index = currentRoom != null ? roomIndex.get(currentRoom) : null;
+        if (index != null) {
+            paintCell(index, Color.YELLOW);
+        }
+    }
+
+    /**
+     * Repaints a room and its neighbours, the only cells whose colour depends on it
+     */
+    private void patchAround(DungeonRoom room) {
+        if (room == null) {
+            return;
+        }
+        patch(room);
+        for (DungeonRoom neighbour : room.getConnectedRooms()) {
+            patch(neighbour);
+        }
+    }
+
+    private void patch(DungeonRoom room) {
+        Integer index = roomIndex.get(room);
+        if (index == null) {
+            return;
+        }
+        Color color = colorFor(room);
+        if (toArgb(color) != cellColors[index]) {
+            paintCell(index, color);
+        }
+    }
+
+    private Color colorFor(DungeonRoom room) {
+        if (room == currentRoom) {
+            // Current room (player location)
+            return Color.YELLOW;
+        }
+        if (room.isVisited()) {
+            // Visited room - color based on type
+            switch (room.getType()) {
+                case COMBAT: return Color.RED;
+                case PUZZLE: return Color.BLUE;
+                case TREASURE: return Color.GOLD;
+                case BOSS: return Color.DARKRED;
+                case SPAWN: return Color.GREEN;
+                default: return Color.GRAY;
+            }
+        }
+        if (currentNeighbours.contains(room)) {
+            // Adjacent unvisited room
+            return Color.GRAY;
+        }
+        // Unexplored room
+        return Color.BLACK;
+    }
+
+    private void paintCell(int index, Color color) {
+        DungeonRoom room = dungeon.get(index);
+        int x = (int) Math.round(offsetX + (room.getX() - minX) * cellSize);
+        int y = (int) Math.round(offsetY + (room.getY() - minY) * cellSize);
+        int cell = Math.max(1, (int) Math.round(cellSize) - 2);
+        if (cell >= 3) {
+            // Room with a one pixel border
+            fill(x, y, cell, cell, CELL_BORDER);
+            fill(x + 1, y + 1, cell - 2, cell - 2, color);
+        } else {
+            // Too small for a border on very large dungeons
+            fill(x, y, cell, cell, color);
+        }
+        cellColors[index] = toArgb(color);
+    }
+
+    private void fill(int x, int y, int width, int height, Color color) {
+        int x0 = Math.max(0, x), y0 = Math.max(0, y);
+        int x1 = Math.min(size, x + width), y1 = Math.min(size, y + height);
+        int argb = toArgb(color);
+        for (int py = y0; py < y1; py++) {
+            for (int px = x0; px < x1; px++) {
+                writer.setArgb(px, py, argb);
+            }
+        }
+    }
+
+    private static int toArgb(Color color) {
+        return ((int) Math.round(color.getOpacity() * 255) << 24)
+            | ((int) Math.round(color.getRed() * 255) << 16)
+            | ((int) Math.round(color.getGreen() * 255) << 8)
+            | (int) Math.round(color.getBlue() * 255);
+    }
+}
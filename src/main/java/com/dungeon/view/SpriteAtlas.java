@@ -0,0 +1,162 @@
+package com.dungeon.view;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dungeon.model.Weapon;
+import com.dungeon.utils.AssetCache;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Packs many small static sprites into one texture so a room full of items is
+ * drawn from a single image instead of switching textures per sprite. Sprites
+ * are added by key, scaled down to at most the cell size, and placed with a
+ * simple shelf packer; draw() then blits the region for a key.
+ *
+ * Animated GIFs (player, enemies, statue, torch) are not packed: copying their
+ * pixels would freeze them on one frame.
+ */
+public class SpriteAtlas {
+    public static final int DEFAULT_CELL_SIZE = (int) AssetCache.ICON_SIZE;
+    private static final int PADDING = 2; // Transparent gutter so smoothing never samples a neighbour
+    private static final int MAX_WIDTH = 1024;
+
+    /**
+     * Location of one sprite inside the atlas texture, in pixels
+     */
+    public record Region(int x, int y, int width, int height) {
+    }
+
+    private final int cellSize;
+    private final Map<String, Image> pending = new HashMap<>();
+    private final Map<String, Region> regions = new HashMap<>();
+    private WritableImage texture;
+
+    public SpriteAtlas() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param cellSize Largest width or height a sprite is stored at
+     */
+    public SpriteAtlas(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Builds the atlas for the item and weapon icons drawn on the room floor.
+     * Sprites are keyed by their resource path, so an item's icon path is its key.
+     */
+    public static SpriteAtlas createItemAtlas() {
+        SpriteAtlas atlas = new SpriteAtlas();
+        atlas.add(AssetCache.IMAGES + "potion.png");
+        atlas.add(AssetCache.IMAGES + "armor.png");
+        atlas.add(AssetCache.IMAGES + "key.png");
+        for (Weapon.WeaponType type : Weapon.WeaponType.values()) {
+            atlas.add(type.getImagePath());
+        }
+        atlas.pack();
+        return atlas;
+    }
+
+    /**
+     * Queues a sprite from the asset cache, decoded straight to the cell size
+     * @param path Resource path, also used as the key
+     */
+    public void add(String path) {
+        add(path, AssetCache.getInstance().get(path, cellSize, cellSize, true, true));
+    }
+
+    /**
+     * Queues a sprite for packing. Must be called before pack().
+     * @param key Name used to look the sprite up
+     * @param image Fully loaded image; null is ignored
+     */
+    public void add(String key, Image image) {
+        if (texture != null) {
+            throw new IllegalStateException("Atlas is already packed");
+        }
+        if (image == null || image.isError() || image.getPixelReader() == null) {
+            System.err.println("Sprite atlas: skipping unavailable image " + key);
+            return;
+        }
+        pending.put(key, image);
+    }
+
+    /**
+     * Lays out every queued sprite and copies its pixels into the atlas texture
+     */
+    public void pack() {
+        List<Map.Entry<String, Image>> sprites = new ArrayList<>(pending.entrySet());
+        // Tallest first keeps the shelves tight
+        sprites.sort(Comparator.comparingDouble((Map.Entry<String, Image> e) -> e.getValue().getHeight()).reversed());
+
+        // First pass: shelf layout
+        int shelfX = 0, shelfY = 0, shelfHeight = 0, usedWidth = 0;
+        Map<String, Region> layout = new HashMap<>();
+        for (Map.Entry<String, Image> sprite : sprites) {
+            int width = (int) Math.ceil(sprite.getValue().getWidth());
+            int height = (int) Math.ceil(sprite.getValue().getHeight());
+            if (shelfX + width + PADDING > MAX_WIDTH && shelfX > 0) {
+                shelfY += shelfHeight + PADDING;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            layout.put(sprite.getKey(), new Region(shelfX, shelfY, width, height));
+            shelfX += width + PADDING;
+            shelfHeight = Math.max(shelfHeight, height);
+            usedWidth = Math.max(usedWidth, shelfX);
+        }
+
+        // Second pass: copy pixels
+        texture = new WritableImage(Math.max(1, usedWidth), Math.max(1, shelfY + shelfHeight));
+        PixelWriter writer = texture.getPixelWriter();
+        for (Map.Entry<String, Image> sprite : sprites) {
+            Region region = layout.get(sprite.getKey());
+            PixelReader reader = sprite.getValue().getPixelReader();
+            writer.setPixels(region.x(), region.y(), region.width(), region.height(), reader, 0, 0);
+        }
+        regions.putAll(layout);
+        pending.clear();
+    }
+
+    /**
+     * Draws a sprite scaled into the given rectangle
+     * @return false if the key is not in the atlas, so the caller can fall back
+     */
+    public boolean draw(GraphicsContext gc, String key, double x, double y, double width, double height) {
+        Region region = key != null ? regions.get(key) : null;
+        if (region == null || texture == null) {
+            return false;
+        }
+        gc.drawImage(texture, region.x(), region.y(), region.width(), region.height(), x, y, width, height);
+        return true;
+    }
+
+    public Region getRegion(String key) {
+        return regions.get(key);
+    }
+
+    public boolean contains(String key) {
+        return regions.containsKey(key);
+    }
+
+    /**
+     * @return The packed texture, or null before pack()
+     */
+    public Image getTexture() {
+        return texture;
+    }
+
+    public int size() {
+        return regions.size();
+    }
+}
@@ -0,0 +1,71 @@
+package com.dungeon.view;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Sprite of the torch's pool of light in the dark treasure room. The three
+ * stacked translucent circles (dim outer ring, medium middle, bright centre)
+ * are composited over black once per radius, so a frame draws the light with
+ * a single blit instead of three fillOval calls. Outside the circle the sprite
+ * is transparent, so it is drawn on top of the room's black overlay.
+ */
+public final class TorchLightMask {
+    private static final Color LIGHT = Color.rgb(255, 255, 200);
+    // Rings from the outside in: fraction of the radius and opacity of the light
+    private static final double[] RING_RADIUS = {1.0, 0.7, 0.3};
+    private static final double[] RING_OPACITY = {0.1, 0.3, 0.5};
+
+    private static final Map<Integer, Image> masks = new ConcurrentHashMap<>();
+
+    private TorchLightMask() {
+    }
+
+    /**
+     * @param radius Light radius in pixels
+     * @return The mask, 2 * radius pixels square and centred on the light; built on first use
+     */
+    public static Image forRadius(double radius) {
+        return masks.computeIfAbsent((int) Math.ceil(radius), TorchLightMask::build);
+    }
+
+    private static Image build(int radius) {
+        int size = radius * 2;
+        WritableImage image = new WritableImage(Math.max(1, size), Math.max(1, size));
+        PixelWriter writer = image.getPixelWriter();
+        for (int y = 0; y < size; y++) {
+            double dy = y + 0.5 - radius;
+            for (int x = 0; x < size; x++) {
+                double dx = x + 0.5 - radius;
+                double distance = Math.sqrt(dx * dx + dy * dy);
+
+                // Blend each ring over black in order, with a one pixel soft edge
+                double brightness = 0;
+                double coverage = 0;
+                for (int ring = 0; ring < RING_RADIUS.length; ring++) {
+                    double edge = Math.max(0, Math.min(1, RING_RADIUS[ring] * radius - distance + 0.5));
+                    if (ring == 0) {
+                        coverage = edge;
+                    }
+                    double alpha = RING_OPACITY[ring] * edge;
+                    brightness = alpha + (1 - alpha) * brightness;
+                }
+                if (coverage > 0) {
+                    brightness = Math.min(1, brightness / coverage); // Colour is unpremultiplied
+                }
+                int red = (int) Math.round(LIGHT.getRed() * 255 * brightness);
+                int green = (int) Math.round(LIGHT.getGreen() * 255 * brightness);
+                int blue = (int) Math.round(LIGHT.getBlue() * 255 * brightness);
+                // Opaque inside the light (it replaces the black there), transparent outside
+                int alpha = (int) Math.round(coverage * 255);
+                writer.setArgb(x, y, (alpha << 24) | (red << 16) | (green << 8) | blue);
+            }
+        }
+        return image;
+    }
+}